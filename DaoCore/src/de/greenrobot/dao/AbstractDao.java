@@ -18,7 +18,13 @@ package de.greenrobot.dao;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import android.database.CrossProcessCursor;
 import android.database.Cursor;
@@ -38,6 +44,9 @@ import android.database.sqlite.SQLiteStatement;
  *            Primary key (PK) type; use Void if entity does not have exactly one PK
  */
 public abstract class AbstractDao<T, K> {
+    /** Marks values missing in the lazy property cache (null is a valid value). */
+    private static final Object LAZY_NOT_CACHED = new Object();
+
     protected final SQLiteDatabase db;
     protected final DaoConfig config;
     protected IdentityScope<K, T> identityScope;
@@ -47,6 +56,10 @@ public abstract class AbstractDao<T, K> {
     protected final AbstractDaoSession session;
     protected final int pkOridinal;
 
+    private volatile boolean updateChangedOnly;
+    private volatile boolean maintainCachedToManyLists;
+    private volatile Map<K, Object[]> lazyPropertyCache;
+
     public AbstractDao(DaoConfig config) {
         this(config, null);
     }
@@ -72,6 +85,11 @@ public abstract class AbstractDao<T, K> {
         return config.statements;
     }
 
+    /** The cache for SQL built by {@link QueryBuilder}; shared by all DAOs of the table. */
+    public QuerySqlCache getQuerySqlCache() {
+        return config.querySqlCache;
+    }
+
     public String getTablename() {
         return config.tablename;
     }
@@ -88,6 +106,11 @@ public abstract class AbstractDao<T, K> {
         return config.allColumns;
     }
 
+    /** Like {@link #getAllColumns()}, but lazy columns are null; pass to SqlUtils to select them as NULL. */
+    public String[] getSelectColumns() {
+        return config.selectColumns;
+    }
+
     public String[] getPkColumns() {
         return config.pkColumns;
     }
@@ -120,28 +143,150 @@ public abstract class AbstractDao<T, K> {
         return loadUniqueAndCloseCursor(cursor);
     }
 
+    /** Returns the entity with the given key if it is in the identity scope; never queries the database. */
+    public T getFromIdentityScope(K key) {
+        return identityScope != null && key != null ? identityScope.get(key) : null;
+    }
+
+    /**
+     * Returns the entity of the given class with the given key if it is in the identity scope of its DAO in the session
+     * of this DAO; never queries the database.
+     */
+    @SuppressWarnings("unchecked")
+    protected <O> O getFromIdentityScope(Class<O> entityClass, Object key) {
+        if (session == null || key == null) {
+            return null;
+        }
+        AbstractDao<O, Object> dao = (AbstractDao<O, Object>) session.getDao(entityClass);
+        return dao.getFromIdentityScope(key);
+    }
+
+    /**
+     * Returns the entity with the given key without querying the database if the entity supports hollow loading: an
+     * entity in the identity scope is returned as is, otherwise a hollow entity carrying only the key is created and put
+     * into the identity scope. Its other properties are loaded by key on first access. Note that this does not check if
+     * an entity with the given key exists. Entities without hollow loading are loaded like {@link #load(Object)} does.
+     */
+    public T loadHollow(K key) {
+        if (key == null) {
+            return null;
+        }
+        if (identityScope == null) {
+            T entity = createHollowEntity(key);
+            if (entity == null) {
+                return load(key);
+            }
+            attachEntity(key, entity, true);
+            return entity;
+        }
+        identityScope.lock();
+        try {
+            T entity = identityScope.getNoLock(key);
+            if (entity == null) {
+                entity = createHollowEntity(key);
+                if (entity != null) {
+                    attachEntity(key, entity, false);
+                }
+            }
+            if (entity != null) {
+                return entity;
+            }
+        } finally {
+            identityScope.unlock();
+        }
+        return load(key);
+    }
+
+    /**
+     * Generated DAOs of entities with hollow loading override this to create an entity carrying only the given key,
+     * which loads its other properties on first access. Returns null if hollow entities are not supported.
+     */
+    protected T createHollowEntity(K key) {
+        return null;
+    }
+
+    /**
+     * Generated DAOs of entities with hollow loading override this to mark the given entity as not hollow. Returns true
+     * if the entity was hollow; its properties must be set by the caller then.
+     */
+    protected boolean clearHollow(T entity) {
+        return false;
+    }
+
     public T loadByRowId(long rowId) {
         String[] idArray = new String[] { Long.toString(rowId) };
         Cursor cursor = db.rawQuery(statements.getSelectByRowId(), idArray);
         return loadUniqueAndCloseCursor(cursor);
     }
 
+    /**
+     * Loads the entities for the given keys using one IN query per chunk of keys. Entities already in the identity scope
+     * are not queried again. Each distinct non-null key is mapped to its entity or to null if no entity matched. This
+     * requires a single PK of type Long; it is used by generated code to resolve to-one relations for several entities.
+     */
+    @SuppressWarnings("unchecked")
+    public LongHashMap<T> loadAllByKeys(Collection<Long> keys) {
+        assertSinglePk();
+        LongHashMap<T> entities = new LongHashMap<T>(keys.size());
+        List<Long> missingKeys = new ArrayList<Long>();
+        for (Long key : keys) {
+            if (key == null || entities.containsKey(key)) {
+                continue;
+            }
+            T entity = identityScope != null ? identityScope.get((K) key) : null;
+            entities.put(key, entity);
+            if (entity == null) {
+                missingKeys.add(key);
+            }
+        }
+        int count = missingKeys.size();
+        int pkOrdinal = config.pkProperty.oridinal;
+        for (int start = 0; start < count; start += QueryBuilder.MAX_SQL_VARIABLES) {
+            int chunkSize = Math.min(count - start, QueryBuilder.MAX_SQL_VARIABLES);
+            StringBuilder builder = new StringBuilder(statements.getSelectAll()).append("WHERE ");
+            SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName).append(" IN (");
+            SqlUtils.appendPlaceholders(builder, chunkSize).append(')');
+            String[] keyArray = new String[chunkSize];
+            for (int i = 0; i < chunkSize; i++) {
+                keyArray[i] = missingKeys.get(start + i).toString();
+            }
+            Cursor cursor = db.rawQuery(builder.toString(), keyArray);
+            try {
+                while (cursor.moveToNext()) {
+                    entities.put(cursor.getLong(pkOrdinal), loadCurrent(cursor, 0, true));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return entities;
+    }
+
     protected T loadUniqueAndCloseCursor(Cursor cursor) {
+        return loadUniqueAndCloseCursor(cursor, false);
+    }
+
+    /** @param deep true if the cursor was created using {@link #getSelectDeep()} */
+    protected T loadUniqueAndCloseCursor(Cursor cursor, boolean deep) {
         try {
-            return loadUnique(cursor);
+            return loadUnique(cursor, deep);
         } finally {
             cursor.close();
         }
     }
 
     protected T loadUnique(Cursor cursor) {
+        return loadUnique(cursor, false);
+    }
+
+    protected T loadUnique(Cursor cursor, boolean deep) {
         boolean available = cursor.moveToFirst();
         if (!available) {
             return null;
         } else if (!cursor.isLast()) {
             throw new DaoException("Expected unique result, but count was " + cursor.getCount());
         }
-        return loadCurrent(cursor, 0, true);
+        return deep ? loadCurrentDeep(cursor, true) : loadCurrent(cursor, 0, true);
     }
 
     /** Loads all available entities from the database. */ 
@@ -167,6 +312,14 @@ public abstract class AbstractDao<T, K> {
         }
     }
 
+    protected List<T> loadDeepAllAndCloseCursor(Cursor cursor) {
+        try {
+            return loadAllDeepFromCursor(cursor);
+        } finally {
+            cursor.close();
+        }
+    }
+
     /**
      * Inserts the given entities in the database using a transaction.
      * 
@@ -198,6 +351,71 @@ public abstract class AbstractDao<T, K> {
      */
     public void insertInTx(Iterable<T> entities, boolean setPrimaryKey) {
         SQLiteStatement stmt = statements.getInsertStatement();
+        executeInsertInTx(stmt, entities.iterator(), Integer.MAX_VALUE, setPrimaryKey, false, null);
+        updateCachedToManyLists(entities, false);
+    }
+
+    /**
+     * Inserts the given entities in the database using one transaction per chunk. Unlike
+     * {@link #insertInTx(Iterable, boolean)}, locks are released and the transaction is committed after each chunk, so
+     * other threads can access the database during large imports. If inserting an entity fails, previous chunks stay
+     * committed. If called inside a transaction, the chunks are committed together with the outer transaction.
+     * 
+     * @param entities
+     *            The entities to insert.
+     * @param chunkSize
+     *            Maximum number of entities inserted in one transaction.
+     * @param setPrimaryKey
+     *            if true, the PKs of the given will be set after the insert; pass false to improve performance.
+     * @param yieldBetweenChunks
+     *            if true, the current thread yields after each chunk giving waiting threads a chance to run.
+     * @param listener
+     *            Notified after each committed chunk; may be null.
+     * @return The number of inserted entities.
+     */
+    public int insertInChunks(Iterable<T> entities, int chunkSize, boolean setPrimaryKey, boolean yieldBetweenChunks,
+            InsertProgressListener listener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        long startTime = System.currentTimeMillis();
+        SQLiteStatement stmt = statements.getInsertStatement();
+        Iterator<T> iterator = entities.iterator();
+        // Entities are only tracked with their PK set, so only then they belong into cached to-many lists
+        List<T> chunk = setPrimaryKey && maintainCachedToManyLists ? new ArrayList<T>() : null;
+        int insertedCount = 0;
+        while (iterator.hasNext()) {
+            insertedCount += executeInsertInTx(stmt, iterator, chunkSize, setPrimaryKey, false, chunk);
+            if (chunk != null) {
+                updateCachedToManyLists(chunk, false);
+                chunk.clear();
+            }
+            if (listener != null) {
+                listener.onChunkInserted(insertedCount, System.currentTimeMillis() - startTime);
+            }
+            if (yieldBetweenChunks && iterator.hasNext()) {
+                Thread.yield();
+            }
+        }
+        return insertedCount;
+    }
+
+    /**
+     * Inserts the given entities in the database using one transaction per chunk.
+     * 
+     * @see #insertInChunks(Iterable, int, boolean, boolean, InsertProgressListener)
+     */
+    public int insertInChunks(Iterable<T> entities, int chunkSize) {
+        return insertInChunks(entities, chunkSize, isEntityUpdateable(), true, null);
+    }
+
+    /**
+     * Inserts (or replaces) up to maxCount entities of the given iterator in one transaction and returns the number
+     * inserted. If not null, the inserted entities are added to insertedEntities.
+     */
+    private int executeInsertInTx(SQLiteStatement stmt, Iterator<T> entities, int maxCount, boolean setPrimaryKey,
+            boolean replace, List<T> insertedEntities) {
+        int count = 0;
         synchronized (stmt) {
             db.beginTransaction();
             try {
@@ -205,14 +423,23 @@ public abstract class AbstractDao<T, K> {
                     identityScope.lock();
                 }
                 try {
-                    for (T entity : entities) {
+                    while (count < maxCount && entities.hasNext()) {
+                        T entity = entities.next();
+                        updateTreePath(entity, replace);
                         bindValues(stmt, entity);
                         if (setPrimaryKey) {
                             long rowId = stmt.executeInsert();
                             updateKeyAfterInsertAndAttach(entity, rowId, false);
                         } else {
                             stmt.execute();
+                            if (replace && lazyPropertyCache != null) {
+                                evictLazyProperties(getKey(entity));
+                            }
                         }
+                        if (insertedEntities != null) {
+                            insertedEntities.add(entity);
+                        }
+                        count++;
                     }
                 } finally {
                     if (identityScope != null) {
@@ -224,15 +451,69 @@ public abstract class AbstractDao<T, K> {
                 db.endTransaction();
             }
         }
+        return count;
+    }
+
+    /**
+     * Inserts the given entities in the database using a transaction and INSERT statements with multiple rows, which
+     * reduces the number of statement executions. PKs are not set and entities do not become tracked, so this is
+     * intended for imports which do not use the entities afterwards. Requires SQLite 3.7.11 (Android 4.1).
+     * 
+     * @param entities
+     *            The entities to insert.
+     * @param rowsPerStatement
+     *            Number of entities inserted by one statement; limited by SQLite's maximum number of variables.
+     */
+    public void insertMultiRowInTx(Iterable<T> entities, int rowsPerStatement) {
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("Rows per statement must be positive: " + rowsPerStatement);
+        }
+        int rowCount = Math.min(rowsPerStatement, statements.getMaxInsertRowCount());
+        SQLiteStatement singleRowStmt = statements.getInsertStatement();
+        synchronized (singleRowStmt) {
+            db.beginTransaction();
+            try {
+                List<T> rows = new ArrayList<T>(rowCount);
+                for (T entity : entities) {
+                    updateTreePath(entity, false);
+                    rows.add(entity);
+                    if (rows.size() == rowCount) {
+                        executeInsert(statements.getInsertStatement(rowCount), rows);
+                        rows.clear();
+                    }
+                }
+                // Insert remaining entities one by one to avoid compiling a statement for each remainder size
+                for (T entity : rows) {
+                    bindValues(singleRowStmt, entity);
+                    singleRowStmt.execute();
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+
+    private void executeInsert(SQLiteStatement stmt, List<T> rows) {
+        int columnCount = config.allColumns.length;
+        stmt.clearBindings();
+        for (int i = 0; i < rows.size(); i++) {
+            bindValues(stmt, rows.get(i), i * columnCount);
+        }
+        stmt.execute();
     }
 
     /** Insert an entity into the table associated with a concrete DAO. */
     public long insert(T entity) {
         SQLiteStatement stmt = statements.getInsertStatement();
         synchronized (stmt) {
+            updateTreePath(entity, false);
             bindValues(stmt, entity);
             long rowId = stmt.executeInsert();
             updateKeyAfterInsertAndAttach(entity, rowId, true);
+            if (maintainCachedToManyLists) {
+                updateCachedToManyLists(entity, false);
+            }
             return rowId;
         }
     }
@@ -241,30 +522,151 @@ public abstract class AbstractDao<T, K> {
     public void insertWithoutSettingPk(T entity) {
         SQLiteStatement stmt = statements.getInsertStatement();
         synchronized (stmt) {
+            updateTreePath(entity, false);
             bindValues(stmt, entity);
             stmt.execute();
         }
     }
 
-    /** Insert an entity into the table associated with a concrete DAO. */
+    /**
+     * Insert an entity into the table associated with a concrete DAO. If the entity already exists, it is replaced; if
+     * ON DELETE actions are active or lazy properties are not loaded, it is updated instead (see
+     * {@link #insertOrUpdateInsideTx(Object)}).
+     */
     public long insertOrReplace(T entity) {
+        boolean upsert = isOnDeleteActive() || getLazyUnloadedFlags(entity) != 0;
+        if (!upsert && !hasTreePath()) {
+            return executeInsertOrReplace(entity);
+        }
+        // Moving the tree paths of descendants and writing the entity must succeed or fail together
+        db.beginTransaction();
+        try {
+            long rowId = upsert ? insertOrUpdateInsideTx(entity) : executeInsertOrReplace(entity);
+            db.setTransactionSuccessful();
+            return rowId;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private long executeInsertOrReplace(T entity) {
         SQLiteStatement stmt = statements.getInsertOrReplaceStatement();
         long rowId;
         synchronized (stmt) {
+            updateTreePath(entity, true);
             bindValues(stmt, entity);
             rowId = stmt.executeInsert();
         }
         updateKeyAfterInsertAndAttach(entity, rowId, true);
+        if (maintainCachedToManyLists) {
+            updateCachedToManyLists(entity, false);
+        }
         return rowId;
     }
 
+    /**
+     * Inserts or replaces the given entities in the database using a transaction.
+     * 
+     * @param entities
+     *            The entities to insert.
+     * @param setPrimaryKey
+     *            if true, the PKs of the given will be set after the insert; pass false to improve performance.
+     */
+    public void insertOrReplaceInTx(Iterable<T> entities, boolean setPrimaryKey) {
+        if (isOnDeleteActive() || hasLazyUnloaded(entities)) {
+            db.beginTransaction();
+            try {
+                for (T entity : entities) {
+                    insertOrUpdateInsideTx(entity);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            return;
+        }
+        SQLiteStatement stmt = statements.getInsertOrReplaceStatement();
+        executeInsertInTx(stmt, entities.iterator(), Integer.MAX_VALUE, setPrimaryKey, true, null);
+        updateCachedToManyLists(entities, false);
+    }
+
+    /**
+     * Inserts or replaces the given entities in the database using a transaction.
+     * 
+     * @param entities
+     *            The entities to insert.
+     */
+    public void insertOrReplaceInTx(Iterable<T> entities) {
+        insertOrReplaceInTx(entities, isEntityUpdateable());
+    }
+
+    /**
+     * Inserts or replaces the given entities in the database using a transaction.
+     * 
+     * @param entities
+     *            The entities to insert.
+     */
+    public void insertOrReplaceInTx(T... entities) {
+        insertOrReplaceInTx(Arrays.asList(entities), isEntityUpdateable());
+    }
+
+    private boolean hasLazyUnloaded(Iterable<T> entities) {
+        for (T entity : entities) {
+            if (getLazyUnloadedFlags(entity) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * SQLite executes REPLACE as DELETE and INSERT, so replacing a row would trigger the ON DELETE actions for the
+     * entities referencing it, and it would need the values of lazy properties not loaded yet. Thus existing entities
+     * are updated and only new ones are inserted. Must be called inside a transaction. Returns the row ID.
+     */
+    private long insertOrUpdateInsideTx(T entity) {
+        K key = getKey(entity);
+        if (key != null) {
+            StringBuilder builder = new StringBuilder("SELECT ROWID FROM '").append(config.tablename);
+            builder.append("' T WHERE ");
+            SqlUtils.appendColumnsEqValue(builder, "T", config.pkColumns);
+            Long rowId = null;
+            Cursor cursor = db.rawQuery(builder.toString(), new String[] { key.toString() });
+            try {
+                if (cursor.moveToFirst()) {
+                    rowId = cursor.getLong(0);
+                }
+            } finally {
+                cursor.close();
+            }
+            if (rowId != null) {
+                update(entity);
+                return rowId;
+            }
+        }
+        return insert(entity);
+    }
+
     protected void updateKeyAfterInsertAndAttach(T entity, long rowId, boolean lock) {
         K key = updateKeyAfterInsert(entity, rowId);
+        evictLazyProperties(key);
         attachEntity(key, entity, lock);
     }
 
     /** Reads all available rows from the given cursor and returns a list of entities. */
     protected List<T> loadAllFromCursor(Cursor cursor) {
+        return loadAllFromCursor(cursor, false);
+    }
+
+    /**
+     * Reads all available rows from the given cursor, which must be created using {@link #getSelectDeep()}, and returns a
+     * list of entities with their to-one relations set.
+     */
+    public List<T> loadAllDeepFromCursor(Cursor cursor) {
+        return loadAllFromCursor(cursor, true);
+    }
+
+    private List<T> loadAllFromCursor(Cursor cursor, boolean deep) {
         int count = cursor.getCount();
         List<T> list = new ArrayList<T>(count);
         if (cursor instanceof CrossProcessCursor) {
@@ -283,7 +685,7 @@ public abstract class AbstractDao<T, K> {
             }
             try {
                 do {
-                    list.add(loadCurrent(cursor, 0, false));
+                    list.add(deep ? loadCurrentDeep(cursor, false) : loadCurrent(cursor, 0, false));
                 } while (cursor.moveToNext());
             } finally {
                 if (identityScope != null) {
@@ -294,6 +696,51 @@ public abstract class AbstractDao<T, K> {
         return list;
     }
 
+    /**
+     * Returns the SELECT statement joining the entities of all to-one relations (LEFT JOIN) for deep loading, with a
+     * trailing space. Generated DAOs of entities having to-one relations override this method.
+     */
+    protected String getSelectDeep() {
+        throw new DaoException("Deep loading is not supported by " + this + " (no to-one relations)");
+    }
+
+    /**
+     * Returns the entity classes referenced by to-one relations, which must be inserted before entities of this DAO.
+     * Generated DAOs of entities having to-one relations override this method.
+     */
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[0];
+    }
+
+    /**
+     * Adds the entities currently set for the entity's to-one and to-many relations without resolving the relations.
+     * Generated DAOs of entities having relations override this method.
+     */
+    protected void collectRelatedEntities(T entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+    }
+
+    /**
+     * Sets the FK properties of the entity using the PKs of the entities currently set for its to-one relations.
+     * Generated DAOs of entities having to-one relations override this method.
+     */
+    protected void updateToOneKeys(T entity) {
+    }
+
+    /**
+     * Sets the FK properties of the entities currently set for the entity's to-many relations using the entity's
+     * values. Generated DAOs of entities having to-many relations override this method.
+     */
+    protected void updateToManyKeys(T entity) {
+    }
+
+    /**
+     * Loads the entity and the entities of its to-one relations from the current cursor position; the cursor must be
+     * created using {@link #getSelectDeep()}. Generated DAOs of entities having to-one relations override this method.
+     */
+    protected T loadCurrentDeep(Cursor cursor, boolean lock) {
+        throw new DaoException("Deep loading is not supported by " + this + " (no to-one relations)");
+    }
+
     /** Internal use only. Considers identity scope. */
     final protected T loadCurrent(Cursor cursor, int offset, boolean lock) {
         if (identityScopeLong != null) {
@@ -307,6 +754,11 @@ public abstract class AbstractDao<T, K> {
             long key = cursor.getLong(pkOridinal + offset);
             T entity = lock ? identityScopeLong.get2(key) : identityScopeLong.get2NoLock(key);
             if (entity != null) {
+                if (clearHollow(entity)) {
+                    // The row is at hand, so there's no need to load it on first access
+                    readEntity(cursor, entity, offset);
+                    attachEntity(entity);
+                }
                 return entity;
             } else {
                 entity = readEntity(cursor, offset);
@@ -326,6 +778,10 @@ public abstract class AbstractDao<T, K> {
             }
             T entity = lock ? identityScope.get(key) : identityScope.getNoLock(key);
             if (entity != null) {
+                if (clearHollow(entity)) {
+                    readEntity(cursor, entity, offset);
+                    attachEntity(entity);
+                }
                 return entity;
             } else {
                 entity = readEntity(cursor, offset);
@@ -360,7 +816,12 @@ public abstract class AbstractDao<T, K> {
 
     /** Performs a standard Android-style query for entities. */
     public List<T> query(String selection, String[] selectionArgs, String groupBy, String having, String orderby) {
-        Cursor cursor = db.query(config.tablename, getAllColumns(), selection, selectionArgs, groupBy, having, orderby);
+        String[] columns = new String[config.selectColumns.length];
+        for (int i = 0; i < columns.length; i++) {
+            // Lazy columns are selected as NULL to keep the column offsets
+            columns[i] = config.selectColumns[i] != null ? config.selectColumns[i] : "NULL";
+        }
+        Cursor cursor = db.query(config.tablename, columns, selection, selectionArgs, groupBy, having, orderby);
         return loadAllAndCloseCursor(cursor);
     }
 
@@ -368,10 +829,32 @@ public abstract class AbstractDao<T, K> {
         // String sql = SqlUtils.createSqlDelete(config.tablename, null);
         // db.execSQL(sql);
 
-        db.execSQL("DELETE FROM '" + config.tablename + "'");
+        OnDeleteCollector onDeleteCollector = null;
+        if (isOnDeleteActive()) {
+            db.beginTransaction();
+            try {
+                String sql = "SELECT " + config.pkProperty.columnName + " FROM '" + config.tablename + "'";
+                onDeleteCollector = collectOnDeleteActions(loadKeys(sql, null));
+                db.execSQL("DELETE FROM '" + config.tablename + "'");
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } else {
+            db.execSQL("DELETE FROM '" + config.tablename + "'");
+        }
         if (identityScope != null) {
             identityScope.clear();
         }
+        Map<K, Object[]> cache = lazyPropertyCache;
+        if (cache != null) {
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+        if (onDeleteCollector != null) {
+            onDeleteCollector.updateIdentityScopes();
+        }
     }
 
     /** Deletes the given entity from the database. Currently, only single value PK entities are supported. */
@@ -382,62 +865,727 @@ public abstract class AbstractDao<T, K> {
         if (identityScope != null) {
             identityScope.remove(key);
         }
+        if (maintainCachedToManyLists) {
+            updateCachedToManyLists(entity, true);
+        }
     }
 
     /** Deletes an entity with the given PK from the database. Currently, only single value PK entities are supported. */
     public void deleteByKey(K key) {
         assertSinglePk();
+        OnDeleteCollector onDeleteCollector = null;
         SQLiteStatement stmt = statements.getDeleteStatement();
         synchronized (stmt) {
-            if (key instanceof Long) {
-                stmt.bindLong(1, (Long) key);
+            if (isOnDeleteActive()) {
+                // Collect and delete in one transaction, so the collected entities match the ones affected
+                db.beginTransaction();
+                try {
+                    onDeleteCollector = collectOnDeleteActions(Collections.singletonList(key));
+                    deleteByKeyInsideSynchronized(key, stmt);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
             } else {
-                stmt.bindString(1, key.toString());
+                deleteByKeyInsideSynchronized(key, stmt);
             }
-            stmt.execute();
         }
         if (identityScope != null) {
             identityScope.remove(key);
         }
-    }
-
-    /** Resets all locally changed properties of the entity by reloading the values from the database. */
-    public void refresh(T entity) {
-        assertSinglePk();
-        K key = getKey(entity);
-        String sql = statements.getSelectByKey();
-        String[] keyArray = new String[] { key.toString() };
-        Cursor cursor = db.rawQuery(sql, keyArray);
-        try {
-            boolean available = cursor.moveToFirst();
-            if (!available) {
-                throw new DaoException("Entity does not exist in the database anymore: " + entity.getClass()
-                        + " with key " + key);
-            } else if (!cursor.isLast()) {
-                throw new DaoException("Expected unique result, but count was " + cursor.getCount());
-            }
-            readEntity(cursor, entity, 0);
-            attachEntity(key, entity, true);
-        } finally {
-            cursor.close();
+        evictLazyProperties(key);
+        if (onDeleteCollector != null) {
+            onDeleteCollector.updateIdentityScopes();
         }
     }
 
-    public void update(T entity) {
+    /**
+     * Deletes the given entities in the database using a transaction. Currently, only single value PK entities are
+     * supported.
+     * 
+     * @param entities
+     *            The entities to delete.
+     */
+    public void deleteInTx(Iterable<T> entities) {
         assertSinglePk();
-        SQLiteStatement stmt = statements.getUpdateStatement();
-        synchronized (stmt) {
-            updateInsideSynchronized(entity, stmt, true);
+        List<K> keys = new ArrayList<K>();
+        for (T entity : entities) {
+            keys.add(getKey(entity));
         }
+        deleteByKeyInTx(keys);
+        updateCachedToManyLists(entities, true);
     }
 
-    public QueryBuilder<T> queryBuilder() {
-        return new QueryBuilder<T>(this);
+    /**
+     * Deletes the given entities in the database using a transaction. Currently, only single value PK entities are
+     * supported.
+     * 
+     * @param entities
+     *            The entities to delete.
+     */
+    public void deleteInTx(T... entities) {
+        deleteInTx(Arrays.asList(entities));
+    }
+
+    /**
+     * Deletes all entities with the given keys in the database using a transaction. Currently, only single value PK
+     * entities are supported.
+     * 
+     * @param keys
+     *            Keys of the entities to delete.
+     */
+    public void deleteByKeyInTx(Iterable<K> keys) {
+        assertSinglePk();
+        OnDeleteCollector onDeleteCollector = null;
+        SQLiteStatement stmt = statements.getDeleteStatement();
+        synchronized (stmt) {
+            db.beginTransaction();
+            try {
+                onDeleteCollector = collectOnDeleteActions(keys);
+                for (K key : keys) {
+                    deleteByKeyInsideSynchronized(key, stmt);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+        if (identityScope != null) {
+            identityScope.remove(keys);
+        }
+        if (lazyPropertyCache != null) {
+            for (K key : keys) {
+                evictLazyProperties(key);
+            }
+        }
+        if (onDeleteCollector != null) {
+            onDeleteCollector.updateIdentityScopes();
+        }
+    }
+
+    /**
+     * Deletes all entities with the given keys in the database using a transaction. Currently, only single value PK
+     * entities are supported.
+     * 
+     * @param keys
+     *            Keys of the entities to delete.
+     */
+    public void deleteByKeyInTx(K... keys) {
+        deleteByKeyInTx(Arrays.asList(keys));
+    }
+
+    private void deleteByKeyInsideSynchronized(K key, SQLiteStatement stmt) {
+        if (key instanceof Long) {
+            stmt.bindLong(1, (Long) key);
+        } else {
+            stmt.bindString(1, key.toString());
+        }
+        stmt.execute();
+    }
+
+    /**
+     * Generated DAOs of entities referenced by FKs with ON DELETE actions override this to return true (see
+     * {@link #collectOnDeleteActions(OnDeleteCollector, List)}).
+     */
+    protected boolean hasOnDeleteActions() {
+        return false;
+    }
+
+    /**
+     * Generated DAOs of entities referenced by FKs with ON DELETE actions override this to pass each FK to the given
+     * collector, which queries the entities affected by deleting the entities with the given keys.
+     */
+    protected void collectOnDeleteActions(OnDeleteCollector collector, List<Long> keys) {
+    }
+
+    /**
+     * Collects the entities affected by ON DELETE actions when deleting the entities with the given keys, so their
+     * identity scopes can be updated after deleting. Returns null if there are no active ON DELETE actions.
+     */
+    OnDeleteCollector collectOnDeleteActions(Iterable<K> keys) {
+        if (!isOnDeleteActive()) {
+            return null;
+        }
+        List<Long> longKeys = new ArrayList<Long>();
+        for (K key : keys) {
+            if (key != null) {
+                longKeys.add((Long) key);
+            }
+        }
+        OnDeleteCollector collector = new OnDeleteCollector();
+        collectOnDeleteActions(collector, longKeys);
+        return collector;
+    }
+
+    /**
+     * True if deleting entities of this DAO triggers ON DELETE actions whose effects must be applied to the identity
+     * scopes. SQLite executes the actions only if foreign keys are enabled for the connection, which the generated
+     * OpenHelper does.
+     */
+    boolean isOnDeleteActive() {
+        return hasOnDeleteActions() && session != null && session.isForeignKeysEnabled();
+    }
+
+    /** Loads the (Long) keys of all entities referencing one of the given values using the given FK column. */
+    List<Long> loadKeysReferencing(String fkColumn, List<Long> values) {
+        List<Long> keys = new ArrayList<Long>();
+        int count = values.size();
+        for (int start = 0; start < count; start += QueryBuilder.MAX_SQL_VARIABLES) {
+            int chunkSize = Math.min(count - start, QueryBuilder.MAX_SQL_VARIABLES);
+            StringBuilder builder = new StringBuilder("SELECT ");
+            SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName);
+            builder.append(" FROM '").append(config.tablename).append("' T WHERE ");
+            SqlUtils.appendColumn(builder, "T", fkColumn).append(" IN (");
+            SqlUtils.appendPlaceholders(builder, chunkSize).append(')');
+            String[] valueArray = new String[chunkSize];
+            for (int i = 0; i < chunkSize; i++) {
+                valueArray[i] = values.get(start + i).toString();
+            }
+            Cursor cursor = db.rawQuery(builder.toString(), valueArray);
+            try {
+                while (cursor.moveToNext()) {
+                    keys.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Loads the keys using the given SQL, which must select the PK column only. Used by bulk queries to update the
+     * identity scope.
+     */
+    List<K> loadKeys(String sql, String[] parameters) {
+        Cursor cursor = db.rawQuery(sql, parameters);
+        try {
+            List<K> keys = new ArrayList<K>(cursor.getCount());
+            // readKey reads at offset + PK ordinal, but the cursor contains the PK column only
+            int offset = -config.pkProperty.oridinal;
+            while (cursor.moveToNext()) {
+                keys.add(readKey(cursor, offset));
+            }
+            return keys;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Reloads the values of the entities with the given keys, which are in the identity scope, from the database. Uses
+     * one query for up to {@link QueryBuilder#MAX_SQL_VARIABLES} entities.
+     */
+    void refreshInIdentityScope(List<K> keys) {
+        List<K> cachedKeys = new ArrayList<K>();
+        for (K key : keys) {
+            if (identityScope.get(key) != null) {
+                cachedKeys.add(key);
+            }
+        }
+        int count = cachedKeys.size();
+        for (int start = 0; start < count; start += QueryBuilder.MAX_SQL_VARIABLES) {
+            int chunkSize = Math.min(count - start, QueryBuilder.MAX_SQL_VARIABLES);
+            StringBuilder builder = new StringBuilder(statements.getSelectAll()).append("WHERE ");
+            SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName).append(" IN (");
+            SqlUtils.appendPlaceholders(builder, chunkSize).append(')');
+            String[] keyArray = new String[chunkSize];
+            for (int i = 0; i < chunkSize; i++) {
+                keyArray[i] = cachedKeys.get(start + i).toString();
+            }
+            Cursor cursor = db.rawQuery(builder.toString(), keyArray);
+            try {
+                while (cursor.moveToNext()) {
+                    K key = readKey(cursor, 0);
+                    T entity = identityScope.get(key);
+                    if (entity != null) {
+                        readEntity(cursor, entity, 0);
+                        attachEntity(key, entity, true);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Loads all entities having one of the given values for the given property, grouped by the value. Uses one IN query
+     * per chunk of values instead of one query per value; the raw order (may be null) applies to the entities of each
+     * group. Each non-null value gets a list, which is empty if no entity matched. Used by generated code to prefetch
+     * to-many relations.
+     */
+    protected LongHashMap<List<T>> loadGroupedBy(Property property, Collection<Long> values, String orderRaw) {
+        StringBuilder builder = new StringBuilder(statements.getSelectAll()).append("WHERE ");
+        SqlUtils.appendColumn(builder, "T", property.columnName).append(" IN (");
+        return loadGrouped(builder.toString(), orderRaw, property.oridinal, values);
+    }
+
+    /**
+     * Loads all entities linked by the given join table to one of the given values, grouped by the value. The join table
+     * (alias J) references the values using the join source column and the PKs of this DAO's entities using the join
+     * target column. Like {@link #loadGroupedBy(Property, Collection, String)}, one query is used per chunk of values;
+     * the raw order may use the table alias T. Used by generated code to prefetch many-to-many relations.
+     */
+    protected LongHashMap<List<T>> loadGroupedByJoin(String joinTablename, String joinSourceColumn,
+            String joinTargetColumn, Collection<Long> values, String orderRaw) {
+        StringBuilder builder = new StringBuilder("SELECT ");
+        SqlUtils.appendColumns(builder, "T", config.selectColumns).append(',');
+        SqlUtils.appendColumn(builder, "J", joinSourceColumn);
+        builder.append(" FROM '").append(config.tablename).append("' T JOIN '").append(joinTablename).append("' J ON ");
+        SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName).append('=');
+        SqlUtils.appendColumn(builder, "J", joinTargetColumn).append(" WHERE ");
+        SqlUtils.appendColumn(builder, "J", joinSourceColumn).append(" IN (");
+        return loadGrouped(builder.toString(), orderRaw, config.allColumns.length, values);
+    }
+
+    private LongHashMap<List<T>> loadGrouped(String sqlBeforeValues, String orderRaw, int valueColumn,
+            Collection<Long> values) {
+        LongHashMap<List<T>> groups = new LongHashMap<List<T>>(values.size());
+        List<Long> distinctValues = new ArrayList<Long>(values.size());
+        for (Long value : values) {
+            if (value != null && !groups.containsKey(value)) {
+                groups.put(value, new ArrayList<T>());
+                distinctValues.add(value);
+            }
+        }
+        int count = distinctValues.size();
+        for (int start = 0; start < count; start += QueryBuilder.MAX_SQL_VARIABLES) {
+            int chunkSize = Math.min(count - start, QueryBuilder.MAX_SQL_VARIABLES);
+            StringBuilder builder = new StringBuilder(sqlBeforeValues);
+            SqlUtils.appendPlaceholders(builder, chunkSize).append(')');
+            if (orderRaw != null) {
+                builder.append(" ORDER BY ").append(orderRaw);
+            }
+            String[] valueArray = new String[chunkSize];
+            for (int i = 0; i < chunkSize; i++) {
+                valueArray[i] = distinctValues.get(start + i).toString();
+            }
+            Cursor cursor = db.rawQuery(builder.toString(), valueArray);
+            try {
+                while (cursor.moveToNext()) {
+                    T entity = loadCurrent(cursor, 0, true);
+                    groups.get(cursor.getLong(valueColumn)).add(entity);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Generated DAOs of tree entities with a path property override this to set the path of the given entity before it
+     * is written. If the entity may exist already and its parent changed, the paths of its descendants are updated too.
+     */
+    protected void updateTreePath(T entity, boolean mayExist) {
+    }
+
+    /**
+     * Generated DAOs of entities with a tree path return true, so writes which may move subtrees (see
+     * {@link #updateTreePath(Object, boolean)}) use a transaction.
+     */
+    protected boolean hasTreePath() {
+        return false;
+    }
+
+    /**
+     * Generated DAOs return true for properties whose updates need maintenance by the DAO: the tree path, the tree
+     * parent FK and FKs with ON DELETE actions. Those cannot be set using {@link UpdateQuery}.
+     */
+    protected boolean isMaintainedProperty(Property property) {
+        return false;
+    }
+
+    /** Reads the tree path of the entity with the given key from the database; null if there is no such entity. */
+    protected String loadTreePath(Property pathProperty, Long key) {
+        StringBuilder builder = new StringBuilder("SELECT ");
+        SqlUtils.appendColumn(builder, "T", pathProperty.columnName);
+        builder.append(" FROM '").append(config.tablename).append("' T WHERE ");
+        SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName).append("=?");
+        Cursor cursor = db.rawQuery(builder.toString(), new String[] { key.toString() });
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Replaces the given prefix of all tree paths starting with it using a single UPDATE statement. Returns the entities
+     * of the moved subtree held by the identity scope, whose paths must be updated by the caller.
+     */
+    protected List<T> moveTreePaths(Property pathProperty, String oldPrefix, String newPrefix) {
+        String column = pathProperty.columnName;
+        String sql = "UPDATE '" + config.tablename + "' SET " + column + "=?||SUBSTR(" + column + ",?) WHERE " + column
+                + ">=? AND " + column + "<?";
+        db.execSQL(sql, new Object[] { newPrefix, oldPrefix.length() + 1, oldPrefix, getTreePathUpperBound(oldPrefix) });
+        List<T> cached = new ArrayList<T>();
+        if (identityScope != null) {
+            // Reads the keys only, which the path index covers
+            StringBuilder builder = new StringBuilder("SELECT ");
+            SqlUtils.appendColumn(builder, "T", config.pkProperty.columnName);
+            builder.append(" FROM '").append(config.tablename).append("' T WHERE ");
+            SqlUtils.appendColumn(builder, "T", column).append(">=? AND ");
+            SqlUtils.appendColumn(builder, "T", column).append("<?");
+            String[] args = { newPrefix, getTreePathUpperBound(newPrefix) };
+            Cursor cursor = db.rawQuery(builder.toString(), args);
+            try {
+                while (cursor.moveToNext()) {
+                    @SuppressWarnings("unchecked")
+                    T entity = identityScope.get((K) Long.valueOf(cursor.getLong(0)));
+                    if (entity != null) {
+                        cached.add(entity);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Loads all entities whose tree path starts with the given prefix (the subtree below the entity the prefix ends
+     * with) using one range scan of the path index, ordered by path. With maxDepth, only entities up to that many levels
+     * below the prefix are included.
+     */
+    protected List<T> loadTreeDescendants(Property pathProperty, String prefix, int maxDepth) {
+        QueryBuilder<T> queryBuilder = queryBuilder();
+        queryBuilder.where(pathProperty.ge(prefix), pathProperty.lt(getTreePathUpperBound(prefix)));
+        if (maxDepth < Integer.MAX_VALUE) {
+            String column = "T.'" + pathProperty.columnName + "'";
+            // Inlined because query parameters are bound as strings, which SQLite does not compare as numbers
+            long maxSlashes = (long) getTreeDepth(prefix) + maxDepth;
+            queryBuilder.where(new WhereCondition.StringCondition("LENGTH(" + column + ")-LENGTH(REPLACE(" + column
+                    + ",'/',''))<=" + maxSlashes));
+        }
+        return queryBuilder.orderAsc(pathProperty, config.pkProperty).list();
+    }
+
+    /** Loads the entities whose keys make up the given tree path, starting with the root. */
+    protected List<T> loadTreeAncestors(Property pathProperty, String path) {
+        String[] keys = path.split("/");
+        List<Long> ancestorKeys = new ArrayList<Long>(keys.length);
+        for (String key : keys) {
+            if (key.length() > 0) {
+                ancestorKeys.add(Long.valueOf(key));
+            }
+        }
+        if (ancestorKeys.isEmpty()) {
+            return new ArrayList<T>();
+        }
+        return queryBuilder().where(config.pkProperty.in(ancestorKeys)).orderAsc(pathProperty).list();
+    }
+
+    /** True if the given tree path ends with the given parent key, or is the root path if the parent key is null. */
+    protected static boolean isTreePathOfParent(String path, Long parentKey) {
+        return parentKey == null ? "/".equals(path) : path.endsWith("/" + parentKey + '/');
+    }
+
+    /** Returns the number of ancestors stored in the given tree path ("/" for roots, "/1/5/" for a grandchild of 1). */
+    protected static int getTreeDepth(String path) {
+        int depth = -1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /** All paths starting with the given prefix (which ends with '/') are less than the returned value. */
+    private static String getTreePathUpperBound(String prefix) {
+        return prefix.substring(0, prefix.length() - 1) + (char) ('/' + 1);
+    }
+
+    /** Resets all locally changed properties of the entity by reloading the values from the database. */
+    public void refresh(T entity) {
+        refresh(entity, true);
+    }
+
+    /**
+     * Loads the properties of a hollow entity on first access; called by generated entities holding their monitor.
+     * Unlike {@link #refresh(Object)}, this does not put the entity into the identity scope (it is there already), so
+     * the identity scope lock is not acquired while holding the entity monitor.
+     */
+    public void loadHollowProperties(T entity) {
+        refresh(entity, false);
+    }
+
+    private void refresh(T entity, boolean putIntoIdentityScope) {
+        assertSinglePk();
+        K key = getKey(entity);
+        String sql = statements.getSelectByKey();
+        String[] keyArray = new String[] { key.toString() };
+        Cursor cursor = db.rawQuery(sql, keyArray);
+        try {
+            boolean available = cursor.moveToFirst();
+            if (!available) {
+                throw new DaoException("Entity does not exist in the database anymore: " + entity.getClass()
+                        + " with key " + key);
+            } else if (!cursor.isLast()) {
+                throw new DaoException("Expected unique result, but count was " + cursor.getCount());
+            }
+            readEntity(cursor, entity, 0);
+            if (putIntoIdentityScope) {
+                attachEntity(key, entity, true);
+            } else {
+                attachEntity(entity);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Updates the given entity. If {@link #setUpdateChangedOnly(boolean) only changed columns are updated}, unchanged
+     * entities are skipped.
+     */
+    public void update(T entity) {
+        assertSinglePk();
+        if (!hasTreePath()) {
+            executeUpdate(entity);
+            return;
+        }
+        // Moving the tree paths of descendants and updating the entity must succeed or fail together
+        db.beginTransaction();
+        try {
+            executeUpdate(entity);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void executeUpdate(T entity) {
+        SQLiteStatement fullUpdateStmt = statements.getUpdateStatement();
+        updateTreePath(entity, true);
+        SQLiteStatement stmt = getUpdateStatement(entity, fullUpdateStmt);
+        if (stmt != null) {
+            synchronized (fullUpdateStmt) {
+                updateInsideSynchronized(entity, stmt, true);
+            }
+            if (maintainCachedToManyLists) {
+                updateCachedToManyLists(entity, false);
+            }
+        }
+    }
+
+    /**
+     * Returns the statement to update the given entity: the given full update statement unless only changed columns
+     * are updated or lazy properties are not loaded (those columns are left out). Returns null if the entity has no
+     * changes. All update statements are guarded by the monitor of the full update statement.
+     */
+    private SQLiteStatement getUpdateStatement(T entity, SQLiteStatement fullUpdateStmt) {
+        long lazyUnloadedFlags = getLazyUnloadedFlags(entity);
+        if (!updateChangedOnly) {
+            return lazyUnloadedFlags == 0 ? fullUpdateStmt : statements.getUpdateStatement(~lazyUnloadedFlags);
+        }
+        long dirtyFlags = getDirtyFlags(entity) & ~lazyUnloadedFlags;
+        return dirtyFlags != 0 ? statements.getUpdateStatement(dirtyFlags) : null;
+    }
+
+    /**
+     * If true, update and updateInTx write only the columns of properties changed since the entity was loaded or
+     * stored, and skip entities without changes. This requires entities generated with dirty tracking; other entities
+     * are always updated completely. Note that changes not done by the generated setters are not detected.
+     */
+    public void setUpdateChangedOnly(boolean updateChangedOnly) {
+        this.updateChangedOnly = updateChangedOnly;
+    }
+
+    public boolean isUpdateChangedOnly() {
+        return updateChangedOnly;
+    }
+
+    /**
+     * If true, insert, update and delete operations taking entities also update the cached to-many lists of source
+     * entities in the identity scope: entities are added at the position given by the order of the relation, moved
+     * within the list, or removed. This avoids resetting and re-querying the whole list after changing a single target
+     * entity. Only to-many relations using the source PK and a Long FK are maintained. If an update changes the FK, the
+     * entity is moved from the list of the previous source entity (as stored in the database) to the new one.
+     */
+    public void setMaintainCachedToManyLists(boolean maintainCachedToManyLists) {
+        this.maintainCachedToManyLists = maintainCachedToManyLists;
+    }
+
+    public boolean isMaintainCachedToManyLists() {
+        return maintainCachedToManyLists;
+    }
+
+    /**
+     * Sets the number of entities whose lazy property values are cached by this DAO (least recently used entities are
+     * evicted first); 0 (default) disables the cache. The cache lets entity instances not shared by an identity scope
+     * skip the query for values loaded before. Entries are evicted by inserts, updates and deletes of this DAO
+     * including {@link UpdateQuery} and {@link DeleteQuery}, but not by raw SQL.
+     */
+    public void setLazyPropertyCacheSize(final int maxEntities) {
+        if (maxEntities < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxEntities);
+        }
+        if (maxEntities == 0) {
+            lazyPropertyCache = null;
+        } else {
+            lazyPropertyCache = new LinkedHashMap<K, Object[]>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Object[]> eldest) {
+                    return size() > maxEntities;
+                }
+            };
+        }
+    }
+
+    /**
+     * Loads the value of the given lazy property of the entity with the given key using the lazy property cache if
+     * enabled. Lazy properties are selected as NULL when entities are loaded; their generated getters call this on
+     * first access.
+     */
+    public Object loadLazyProperty(Property property, K key) {
+        assertSinglePk();
+        if (!property.lazy) {
+            throw new DaoException("Property is not lazy: " + property.name);
+        }
+        Map<K, Object[]> cache = lazyPropertyCache;
+        if (cache != null) {
+            synchronized (cache) {
+                Object[] values = cache.get(key);
+                if (values != null && values[property.oridinal] != LAZY_NOT_CACHED) {
+                    return values[property.oridinal];
+                }
+            }
+        }
+
+        StringBuilder builder = new StringBuilder("SELECT ");
+        SqlUtils.appendColumn(builder, "T", property.columnName).append(" FROM '").append(config.tablename);
+        builder.append("' T WHERE ");
+        SqlUtils.appendColumnsEqValue(builder, "T", config.pkColumns);
+        Object value;
+        Cursor cursor = db.rawQuery(builder.toString(), new String[] { key.toString() });
+        try {
+            if (!cursor.moveToFirst()) {
+                throw new DaoException("Entity does not exist in the database anymore: " + config.tablename
+                        + " with key " + key);
+            }
+            if (cursor.isNull(0)) {
+                value = null;
+            } else if (property.type == byte[].class) {
+                value = cursor.getBlob(0);
+            } else {
+                value = cursor.getString(0);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        if (cache != null) {
+            synchronized (cache) {
+                Object[] values = cache.get(key);
+                if (values == null) {
+                    values = new Object[config.properties.length];
+                    Arrays.fill(values, LAZY_NOT_CACHED);
+                    cache.put(key, values);
+                }
+                values[property.oridinal] = value;
+            }
+        }
+        return value;
+    }
+
+    private void evictLazyProperties(K key) {
+        Map<K, Object[]> cache = lazyPropertyCache;
+        if (cache != null) {
+            synchronized (cache) {
+                cache.remove(key);
+            }
+        }
+    }
+
+    boolean hasLazyPropertyCache() {
+        return lazyPropertyCache != null;
+    }
+
+    /** Evicts the lazy property values of the given keys, or all values if keys is null. */
+    void evictLazyProperties(List<K> keys) {
+        Map<K, Object[]> cache = lazyPropertyCache;
+        if (cache != null) {
+            synchronized (cache) {
+                if (keys == null) {
+                    cache.clear();
+                } else {
+                    for (K key : keys) {
+                        cache.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateCachedToManyLists(Iterable<T> entities, boolean deleted) {
+        if (maintainCachedToManyLists) {
+            for (T entity : entities) {
+                updateCachedToManyLists(entity, deleted);
+            }
+        }
+    }
+
+    /**
+     * Generated DAOs of entities being targets of to-many relations override this to update the cached to-many lists of
+     * the source entities in the identity scope (see {@link #setMaintainCachedToManyLists(boolean)}).
+     */
+    protected void updateCachedToManyLists(T entity, boolean deleted) {
+    }
+
+    /**
+     * Removes the given entity from the given cached to-many list (may be null if not resolved) and unless deleted,
+     * adds it again at the position given by the comparator. Without a comparator, the entity is appended.
+     */
+    protected static <E> void updateCachedList(List<E> list, E entity, boolean deleted, Comparator<E> comparator) {
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == entity) {
+                list.remove(i);
+                break;
+            }
+        }
+        if (!deleted) {
+            int index = list.size();
+            if (comparator != null) {
+                // Insert after equal entities like a stable sort would
+                while (index > 0 && comparator.compare(list.get(index - 1), entity) > 0) {
+                    index--;
+                }
+            }
+            list.add(index, entity);
+        }
+    }
+
+    /** Compares like SQLite sorts: null values come first. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected static int compareValues(Comparable value1, Comparable value2) {
+        if (value1 == null) {
+            return value2 == null ? 0 : -1;
+        } else if (value2 == null) {
+            return 1;
+        }
+        return value1.compareTo(value2);
+    }
+
+    public QueryBuilder<T> queryBuilder() {
+        return new QueryBuilder<T>(this);
     }
 
     protected void updateInsideSynchronized(T entity, SQLiteStatement stmt, boolean lock) {
         // To do? Check if it's worth not to bind PKs here (performance).
-        bindValues(stmt, entity);
+        if (stmt == statements.getUpdateStatement()) {
+            bindValues(stmt, entity);
+        } else {
+            bindValuesForUpdate(stmt, entity);
+        }
         int index = config.allColumns.length + 1;
         K key = getKey(entity);
         if (key instanceof Long) {
@@ -446,6 +1594,7 @@ public abstract class AbstractDao<T, K> {
             stmt.bindString(index, key.toString());
         }
         stmt.execute();
+        evictLazyProperties(key);
         attachEntity(key, entity, lock);
     }
 
@@ -469,12 +1618,35 @@ public abstract class AbstractDao<T, K> {
     }
 
     /**
-     * Sub classes with relations additionally set the DaoMaster here.
+     * Sub classes with relations additionally set the DaoMaster here. The entity is in sync with the database, so its
+     * dirty flags are cleared.
      * 
      * @param entity
      *            The entitiy to attach
      * */
     protected void attachEntity(T entity) {
+        clearDirtyFlags(entity);
+    }
+
+    /**
+     * Returns the properties changed since the entity was loaded or stored as bit mask (bit index is the property
+     * ordinal). Generated DAOs of entities with dirty tracking override this; the default (all bits set) treats all
+     * properties as changed.
+     */
+    protected long getDirtyFlags(T entity) {
+        return -1L;
+    }
+
+    /**
+     * Returns the lazy properties of the entity not loaded yet as bit mask (bit index is the property ordinal); update
+     * statements leave out their columns. Generated DAOs of entities with lazy properties override this.
+     */
+    protected long getLazyUnloadedFlags(T entity) {
+        return 0;
+    }
+
+    /** Generated DAOs of entities with dirty tracking override this to mark the entity as unchanged. */
+    protected void clearDirtyFlags(T entity) {
     }
 
     /**
@@ -486,8 +1658,8 @@ public abstract class AbstractDao<T, K> {
      *            if true, the PKs of the given will be set after the insert; pass false to improve performance.
      */
     public void updateInTx(Iterable<T> entities) {
-        SQLiteStatement stmt = statements.getUpdateStatement();
-        synchronized (stmt) {
+        SQLiteStatement fullUpdateStmt = statements.getUpdateStatement();
+        synchronized (fullUpdateStmt) {
             db.beginTransaction();
             try {
                 if (identityScope != null) {
@@ -495,7 +1667,11 @@ public abstract class AbstractDao<T, K> {
                 }
                 try {
                     for (T entity : entities) {
-                        updateInsideSynchronized(entity, stmt, false);
+                        updateTreePath(entity, true);
+                        SQLiteStatement stmt = getUpdateStatement(entity, fullUpdateStmt);
+                        if (stmt != null) {
+                            updateInsideSynchronized(entity, stmt, false);
+                        }
                     }
                 } finally {
                     if (identityScope != null) {
@@ -507,6 +1683,7 @@ public abstract class AbstractDao<T, K> {
                 db.endTransaction();
             }
         }
+        updateCachedToManyLists(entities, false);
     }
 
     protected void assertSinglePk() {
@@ -531,6 +1708,23 @@ public abstract class AbstractDao<T, K> {
     /** Binds the entity's values to the statement. Make sure to synchronize the statement outside of the method. */
     abstract protected void bindValues(SQLiteStatement stmt, T entity);
 
+    /**
+     * Binds the entity's values to an update statement which may leave out columns (see
+     * {@link TableStatements#getUpdateStatement(long)}). Generated DAOs of entities with lazy properties override this
+     * to skip lazy properties not loaded yet, so they are not loaded just to be written back.
+     */
+    protected void bindValuesForUpdate(SQLiteStatement stmt, T entity) {
+        bindValues(stmt, entity);
+    }
+
+    /**
+     * Binds the entity's values to the statement starting after the given parameter offset; does not clear the
+     * statement's bindings. Used for statements inserting multiple rows.
+     */
+    protected void bindValues(SQLiteStatement stmt, T entity, int offset) {
+        throw new DaoException("Binding with offset is not supported by " + this + ", please regenerate the DAO");
+    }
+
     abstract protected K updateKeyAfterInsert(T entity, long rowId);
 
     /**
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 
 /**
@@ -42,10 +43,13 @@ import android.database.sqlite.SQLiteDatabase;
 public class AbstractDaoSession {
     private final SQLiteDatabase db;
     private final Map<Class<?>, AbstractDao<?, ?>> entityToDao;
+    private final boolean foreignKeysEnabled;
+    private WriteBehindQueue writeBehindQueue;
 
     public AbstractDaoSession(SQLiteDatabase db) {
         this.db = db;
         this.entityToDao = new HashMap<Class<?>, AbstractDao<?, ?>>();
+        foreignKeysEnabled = DatabaseUtils.longForQuery(db, "PRAGMA foreign_keys", null) != 0;
     }
 
     protected <T> void registerDao(Class<T> entityClass, AbstractDao<T, ?> dao) {
@@ -130,6 +134,59 @@ public class AbstractDaoSession {
         return dao;
     }
 
+    /**
+     * Returns the {@link WriteBehindQueue} of this session, which is created on first access. Writes queued there are
+     * executed later in a single transaction.
+     */
+    public synchronized WriteBehindQueue getWriteBehindQueue() {
+        if (writeBehindQueue == null) {
+            writeBehindQueue = new WriteBehindQueue(this);
+        }
+        return writeBehindQueue;
+    }
+
+    /**
+     * Inserts the given entities and all new entities reachable by their to-one and to-many relations in a single
+     * transaction, and assigns the FKs using the generated PKs. Relations are not resolved; only entities set before
+     * (or already resolved) are considered. Entities without PK are considered new. If inserting fails, PKs and FKs
+     * may have been assigned to the entities already.
+     * 
+     * @see GraphInsert
+     */
+    public void insertGraph(Object... entities) {
+        new GraphInsert(this).insert(entities);
+    }
+
+    /** Creates a new {@link UnitOfWork} collecting entity writes to flush them in a single transaction. */
+    public UnitOfWork newUnitOfWork() {
+        return new UnitOfWork(this);
+    }
+
+    /**
+     * Creates a new {@link AsyncSession} executing operations of this session asynchronously using a writer thread and
+     * the given number of reader threads.
+     */
+    public AsyncSession startAsyncSession(int readerThreadCount) {
+        return new AsyncSession(this, readerThreadCount);
+    }
+
+    /** Creates a new {@link AsyncSession} using a writer thread and two reader threads. */
+    public AsyncSession startAsyncSession() {
+        return startAsyncSession(2);
+    }
+
+    SQLiteDatabase getDatabase() {
+        return db;
+    }
+
+    /**
+     * True if foreign keys were enabled for the database connection when this session was created; DAOs apply ON
+     * DELETE actions to the identity scopes only then. Create a new session after changing the pragma.
+     */
+    boolean isForeignKeysEnabled() {
+        return foreignKeysEnabled;
+    }
+
     /**
      * Run the given Runnable inside a database transaction. If you except a result, consider callInTx.
      */
@@ -30,10 +30,17 @@ abstract class AbstractQuery<T> {
     protected final AbstractDao<T, ?> dao;
     protected final String sql;
     protected final String[] parameters;
+    /** Non-null if the query has too many parameters and must be executed in chunks. */
+    final InChunking inChunking;
 
     protected AbstractQuery(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList) {
+        this(dao, sql, valueList, null);
+    }
+
+    AbstractQuery(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList, InChunking inChunking) {
         this.dao = dao;
         this.sql = sql;
+        this.inChunking = inChunking;
 
         parameters = new String[valueList.size()];
         int idx = 0;
@@ -47,6 +54,25 @@ abstract class AbstractQuery<T> {
         }
     }
 
+    protected AbstractQuery(AbstractDao<T, ?> dao, String sql, String[] parameters) {
+        this(dao, sql, parameters, null);
+    }
+
+    AbstractQuery(AbstractDao<T, ?> dao, String sql, String[] parameters, InChunking inChunking) {
+        this.dao = dao;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.inChunking = inChunking;
+    }
+
+    /** Throws if the query must be executed in chunks, which only works for fully loaded results. */
+    protected void checkNotChunked() {
+        if (inChunking != null) {
+            throw new DaoException("This operation is not supported for queries exceeding "
+                    + QueryBuilder.MAX_SQL_VARIABLES + " parameters; use list() instead");
+        }
+    }
+
     // public void compile() {
     // // TODO implement compile
     // }
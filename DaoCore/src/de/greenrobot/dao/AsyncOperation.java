@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An operation queued in an {@link AsyncSession}. Use the Future methods to wait for the result, or register an
+ * {@link AsyncOperationListener} with the AsyncSession. Also provides timing information.
+ * 
+ * @param <V>
+ *            Result type
+ */
+public class AsyncOperation<V> extends FutureTask<V> {
+
+    public static enum OperationType {
+        Insert, InsertOrReplace, Update, Delete, Load, LoadAll, QueryList, QueryUnique, TransactionCallable, Callable
+    }
+
+    private final AsyncSession asyncSession;
+    private final OperationType type;
+    private final Callable<V> callable;
+    private final long timeQueued;
+    private volatile long timeStarted;
+    private volatile long timeCompleted;
+    /** Guards counting the completion once, as a cancelled operation may be completed or failed afterwards. */
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    AsyncOperation(AsyncSession asyncSession, OperationType type, Callable<V> callable) {
+        super(callable);
+        this.asyncSession = asyncSession;
+        this.type = type;
+        this.callable = callable;
+        timeQueued = System.currentTimeMillis();
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    /** True for operations executed by the writer thread. */
+    public boolean isWrite() {
+        return type != OperationType.Load && type != OperationType.LoadAll && type != OperationType.QueryList
+                && type != OperationType.QueryUnique && type != OperationType.Callable;
+    }
+
+    /** Time from queuing to completion, or -1 if the operation is not completed yet. */
+    public long getLatencyMillis() {
+        return timeCompleted != 0 ? timeCompleted - timeQueued : -1;
+    }
+
+    /** Time from starting the execution to completion, or -1 if the operation is not completed yet. */
+    public long getExecutionMillis() {
+        return timeCompleted != 0 && timeStarted != 0 ? timeCompleted - timeStarted : -1;
+    }
+
+    /** Executes the operation and completes this Future. */
+    @Override
+    public void run() {
+        timeStarted = System.currentTimeMillis();
+        super.run();
+    }
+
+    /** Executes the operation without completing this Future, so it can be completed after the transaction. */
+    V call() throws Exception {
+        timeStarted = System.currentTimeMillis();
+        return callable.call();
+    }
+
+    void complete(V result) {
+        set(result);
+    }
+
+    void fail(Throwable throwable) {
+        setException(throwable);
+    }
+
+    /** Statistics and listener are updated before threads waiting for the result resume. */
+    @Override
+    protected void set(V result) {
+        onCompleted();
+        super.set(result);
+    }
+
+    @Override
+    protected void setException(Throwable throwable) {
+        onCompleted();
+        super.setException(throwable);
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            onCompleted();
+        }
+    }
+
+    private void onCompleted() {
+        if (completed.compareAndSet(false, true)) {
+            timeCompleted = System.currentTimeMillis();
+            asyncSession.onOperationCompleted(this);
+        }
+    }
+
+}
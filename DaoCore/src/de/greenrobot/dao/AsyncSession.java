@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.greenrobot.dao.AsyncOperation.OperationType;
+
+/**
+ * Executes DAO operations asynchronously and returns {@link AsyncOperation}s, which are Futures. Writes (insert, update,
+ * delete, transactions) are executed one after another by a single writer thread; consecutive queued writes are merged
+ * into a single transaction (up to {@link #getMaxWritesPerTransaction()}). If a write of a merged transaction fails, the
+ * transaction is rolled back: the failing write and the writes executed before it fail, because their entities were
+ * already changed (e.g. got a PK). The following writes are executed again in a new transaction. Reads (loads and
+ * queries) are executed by a pool of reader threads.<br/>
+ * <br/>
+ * Acquire an instance using {@link AbstractDaoSession#startAsyncSession()}.<br/>
+ * New API note: this is more likely to change.
+ */
+public class AsyncSession {
+
+    public static final int DEFAULT_MAX_WRITES_PER_TRANSACTION = 50;
+
+    private final AbstractDaoSession daoSession;
+    private final ExecutorService writerExecutor;
+    private final ExecutorService readerExecutor;
+    private final BlockingQueue<AsyncOperation<?>> writeQueue;
+    private final Runnable writeRunnable;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final int[] completedCounts;
+    private final long[] totalLatencyMillis;
+
+    private volatile AsyncOperationListener listener;
+    private volatile int maxWritesPerTransaction = DEFAULT_MAX_WRITES_PER_TRANSACTION;
+
+    AsyncSession(AbstractDaoSession daoSession, int readerThreadCount) {
+        this.daoSession = daoSession;
+        writerExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("greenDAO async writer"));
+        readerExecutor = Executors.newFixedThreadPool(readerThreadCount, new NamedThreadFactory("greenDAO async reader"));
+        writeQueue = new LinkedBlockingQueue<AsyncOperation<?>>();
+        writeRunnable = new Runnable() {
+            @Override
+            public void run() {
+                executeQueuedWrites();
+            }
+        };
+        int typeCount = OperationType.values().length;
+        completedCounts = new int[typeCount];
+        totalLatencyMillis = new long[typeCount];
+    }
+
+    /** Asynchronous version of {@link AbstractDao#insert(Object)}; the operation returns the entity. */
+    public <T> AsyncOperation<T> insert(final T entity) {
+        return enqueueWrite(OperationType.Insert, new Callable<T>() {
+            @Override
+            public T call() {
+                getDao(entity).insert(entity);
+                return entity;
+            }
+        });
+    }
+
+    /** Asynchronous version of {@link AbstractDao#insertOrReplace(Object)}; the operation returns the entity. */
+    public <T> AsyncOperation<T> insertOrReplace(final T entity) {
+        return enqueueWrite(OperationType.InsertOrReplace, new Callable<T>() {
+            @Override
+            public T call() {
+                getDao(entity).insertOrReplace(entity);
+                return entity;
+            }
+        });
+    }
+
+    /** Asynchronous version of {@link AbstractDao#update(Object)}; the operation returns the entity. */
+    public <T> AsyncOperation<T> update(final T entity) {
+        return enqueueWrite(OperationType.Update, new Callable<T>() {
+            @Override
+            public T call() {
+                getDao(entity).update(entity);
+                return entity;
+            }
+        });
+    }
+
+    /** Asynchronous version of {@link AbstractDao#delete(Object)}; the operation returns the entity. */
+    public <T> AsyncOperation<T> delete(final T entity) {
+        return enqueueWrite(OperationType.Delete, new Callable<T>() {
+            @Override
+            public T call() {
+                getDao(entity).delete(entity);
+                return entity;
+            }
+        });
+    }
+
+    /** Calls the given Callable by the writer thread inside a transaction (which may include other writes). */
+    public <V> AsyncOperation<V> callInTx(Callable<V> callable) {
+        return enqueueWrite(OperationType.TransactionCallable, callable);
+    }
+
+    /** Asynchronous version of {@link AbstractDao#load(Object)}. */
+    public <T, K> AsyncOperation<T> load(final Class<T> entityClass, final K key) {
+        return enqueueRead(OperationType.Load, new Callable<T>() {
+            @Override
+            public T call() {
+                return daoSession.load(entityClass, key);
+            }
+        });
+    }
+
+    /** Asynchronous version of {@link AbstractDao#loadAll()}. */
+    public <T> AsyncOperation<List<T>> loadAll(final Class<T> entityClass) {
+        return enqueueRead(OperationType.LoadAll, new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return daoSession.loadAll(entityClass);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Query#list()}. The query is executed using the parameters set at the time of this
+     * call; the given query may be changed afterwards.
+     */
+    public <T> AsyncOperation<List<T>> queryList(Query<T> query) {
+        final Query<T> originalQuery = query;
+        final String[] parameters = query.parameters.clone();
+        return enqueueRead(OperationType.QueryList, new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return forCurrentThread(originalQuery, parameters).list();
+            }
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link Query#unique()}. The query is executed using the parameters set at the time of
+     * this call; the given query may be changed afterwards.
+     */
+    public <T> AsyncOperation<T> queryUnique(Query<T> query) {
+        final Query<T> originalQuery = query;
+        final String[] parameters = query.parameters.clone();
+        return enqueueRead(OperationType.QueryUnique, new Callable<T>() {
+            @Override
+            public T call() {
+                return forCurrentThread(originalQuery, parameters).unique();
+            }
+        });
+    }
+
+    /** Calls the given Callable by a reader thread (without a transaction). */
+    public <V> AsyncOperation<V> call(Callable<V> callable) {
+        return enqueueRead(OperationType.Callable, callable);
+    }
+
+    private static <T> Query<T> forCurrentThread(Query<T> query, String[] parameters) {
+        Query<T> queryForThread = query.forCurrentThread();
+        System.arraycopy(parameters, 0, queryForThread.parameters, 0, parameters.length);
+        return queryForThread;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> AbstractDao<T, ?> getDao(T entity) {
+        return (AbstractDao<T, ?>) daoSession.getDao(entity.getClass());
+    }
+
+    private synchronized <V> AsyncOperation<V> enqueueWrite(OperationType type, Callable<V> callable) {
+        if (writerExecutor.isShutdown()) {
+            throw new DaoException("Async session was shut down");
+        }
+        AsyncOperation<V> operation = new AsyncOperation<V>(this, type, callable);
+        queueDepth.incrementAndGet();
+        writeQueue.add(operation);
+        writerExecutor.execute(writeRunnable);
+        return operation;
+    }
+
+    private synchronized <V> AsyncOperation<V> enqueueRead(OperationType type, Callable<V> callable) {
+        if (readerExecutor.isShutdown()) {
+            throw new DaoException("Async session was shut down");
+        }
+        AsyncOperation<V> operation = new AsyncOperation<V>(this, type, callable);
+        queueDepth.incrementAndGet();
+        readerExecutor.execute(operation);
+        return operation;
+    }
+
+    /** Executes all queued writes using transactions of up to maxWritesPerTransaction writes. */
+    private void executeQueuedWrites() {
+        List<AsyncOperation<?>> operations = new ArrayList<AsyncOperation<?>>();
+        while (true) {
+            operations.clear();
+            writeQueue.drainTo(operations, maxWritesPerTransaction);
+            if (operations.isEmpty()) {
+                return;
+            }
+            int start = 0;
+            while (start < operations.size()) {
+                start = executeInTx(operations, start);
+            }
+        }
+    }
+
+    /**
+     * Executes the operations starting at the given index in a single transaction. If all operations succeed, they are
+     * completed after the transaction was committed. If an operation fails, the transaction is rolled back and the
+     * failing operation fails with the exception; the operations executed before it fail too, as they cannot be
+     * executed again with their entities already changed. Entities of rolled back inserts are detached from the
+     * identity scope.
+     * 
+     * @return the index of the first operation not executed yet
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int executeInTx(List<AsyncOperation<?>> operations, int start) {
+        Object[] results = new Object[operations.size()];
+        int index = start;
+        Exception failure = null;
+        daoSession.getDatabase().beginTransaction();
+        try {
+            for (; index < operations.size(); index++) {
+                AsyncOperation<?> operation = operations.get(index);
+                if (!operation.isCancelled()) {
+                    results[index] = operation.call();
+                }
+            }
+            daoSession.getDatabase().setTransactionSuccessful();
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            try {
+                daoSession.getDatabase().endTransaction();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            // If committing failed, all operations were executed
+            int failedIndex = Math.min(index, operations.size() - 1);
+            for (int i = start; i <= failedIndex; i++) {
+                AsyncOperation<?> operation = operations.get(i);
+                if (operation.isCancelled()) {
+                    continue;
+                } else if (i == index) {
+                    operation.fail(failure);
+                    continue;
+                }
+                OperationType type = operation.getType();
+                if (results[i] != null && (type == OperationType.Insert || type == OperationType.InsertOrReplace)) {
+                    // The insert was rolled back, but attached the entity to the identity scope
+                    getDao(results[i]).detach(results[i]);
+                }
+                operation.fail(new DaoException("Transaction was rolled back", failure));
+            }
+            return failedIndex + 1;
+        }
+        for (int i = start; i < operations.size(); i++) {
+            AsyncOperation operation = operations.get(i);
+            if (!operation.isCancelled()) {
+                operation.complete(results[i]);
+            }
+        }
+        return operations.size();
+    }
+
+    void onOperationCompleted(AsyncOperation<?> operation) {
+        queueDepth.decrementAndGet();
+        int index = operation.getType().ordinal();
+        synchronized (completedCounts) {
+            completedCounts[index]++;
+            totalLatencyMillis[index] += operation.getLatencyMillis();
+        }
+        AsyncOperationListener listenerToNotify = listener;
+        if (listenerToNotify != null) {
+            listenerToNotify.onAsyncOperationCompleted(operation);
+        }
+    }
+
+    /** Number of queued and executing operations. */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /** Number of completed (including failed and cancelled) operations of the given type. */
+    public int getCompletedCount(OperationType type) {
+        synchronized (completedCounts) {
+            return completedCounts[type.ordinal()];
+        }
+    }
+
+    /** Average time from queuing to completion of operations of the given type, or 0 if there were none. */
+    public long getAverageLatencyMillis(OperationType type) {
+        synchronized (completedCounts) {
+            int count = completedCounts[type.ordinal()];
+            return count != 0 ? totalLatencyMillis[type.ordinal()] / count : 0;
+        }
+    }
+
+    public AsyncOperationListener getListener() {
+        return listener;
+    }
+
+    /** Sets a listener notified when operations complete; called by the executing thread. */
+    public void setListener(AsyncOperationListener listener) {
+        this.listener = listener;
+    }
+
+    public int getMaxWritesPerTransaction() {
+        return maxWritesPerTransaction;
+    }
+
+    /** Maximum number of consecutive queued writes merged into a single transaction. */
+    public void setMaxWritesPerTransaction(int maxWritesPerTransaction) {
+        this.maxWritesPerTransaction = maxWritesPerTransaction;
+    }
+
+    /** Lets queued operations complete, but stops accepting new operations. */
+    public synchronized void shutdown() {
+        writerExecutor.shutdown();
+        readerExecutor.shutdown();
+    }
+
+    /**
+     * Waits until all operations completed and the threads stopped after {@link #shutdown()}. Returns false if the
+     * timeout elapsed before.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!writerExecutor.awaitTermination(timeout, unit)) {
+            return false;
+        }
+        return readerExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -32,6 +32,8 @@ public final class DaoConfig implements Cloneable {
     final Property[] properties;
 
     final String[] allColumns;
+    /** Like allColumns, but with null for lazy properties: those are selected as NULL to keep column offsets. */
+    final String[] selectColumns;
     final String[] pkColumns;
     final String[] nonPkColumns;
 
@@ -42,6 +44,8 @@ public final class DaoConfig implements Cloneable {
 
     final TableStatements statements;
 
+    final QuerySqlCache querySqlCache;
+
     private IdentityScope<?, ?> identityScope;
 
     DaoConfig(SQLiteDatabase db, Class<? extends AbstractDao<?, ?>> daoClass) {
@@ -52,6 +56,7 @@ public final class DaoConfig implements Cloneable {
             this.properties = properties;
 
             allColumns = new String[properties.length];
+            selectColumns = new String[properties.length];
 
             List<String> pkColumnList = new ArrayList<String>();
             List<String> nonPkColumnList = new ArrayList<String>();
@@ -60,6 +65,7 @@ public final class DaoConfig implements Cloneable {
                 Property property = properties[i];
                 String name = property.columnName;
                 allColumns[i] = name;
+                selectColumns[i] = property.lazy ? null : name;
                 if (property.primaryKey) {
                     pkColumnList.add(name);
                     lastPkProperty = property;
@@ -73,7 +79,8 @@ public final class DaoConfig implements Cloneable {
             pkColumns = pkColumnList.toArray(pkColumnsArray);
 
             pkProperty = pkColumns.length == 1 ? lastPkProperty : null;
-            statements = new TableStatements(db, tablename, allColumns, pkColumns);
+            statements = new TableStatements(db, tablename, allColumns, selectColumns, pkColumns);
+            querySqlCache = new QuerySqlCache();
 
             if (pkProperty != null) {
                 Class<?> type = pkProperty.type;
@@ -110,10 +117,12 @@ public final class DaoConfig implements Cloneable {
         tablename = source.tablename;
         properties = source.properties;
         allColumns = source.allColumns;
+        selectColumns = source.selectColumns;
         pkColumns = source.pkColumns;
         nonPkColumns = source.nonPkColumns;
         pkProperty = source.pkProperty;
         statements = source.statements;
+        querySqlCache = source.querySqlCache;
         keyIsNumeric = source.keyIsNumeric;
     }
 
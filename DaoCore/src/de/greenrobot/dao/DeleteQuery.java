@@ -16,6 +16,7 @@
 package de.greenrobot.dao;
 
 import java.util.Collection;
+import java.util.List;
 
 import android.database.sqlite.SQLiteStatement;
 
@@ -30,10 +31,70 @@ import android.database.sqlite.SQLiteStatement;
  */
 public class DeleteQuery<T> extends AbstractQuery<T> {
 
+    /**
+     * Selects the PKs of the matching rows, or null if the DAO has neither an identity scope, ON DELETE actions nor a
+     * lazy property cache.
+     */
+    private final String selectKeysSql;
+    /** Non-null if the query must be executed in chunks. */
+    private final InChunking keysInChunking;
     private SQLiteStatement compiledStatement;
 
     public DeleteQuery(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList) {
         super(dao, sql, valueList);
+        selectKeysSql = null;
+        keysInChunking = null;
+    }
+
+    DeleteQuery(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList, InChunking inChunking,
+            String selectKeysSql, InChunking keysInChunking) {
+        super(dao, sql, valueList, inChunking);
+        this.selectKeysSql = selectKeysSql;
+        this.keysInChunking = keysInChunking;
+    }
+
+    /**
+     * Deletes all matching entities and detaches exactly those from the identity scope (aka session/cache). The PKs of
+     * the matching entities are queried before deleting in the same transaction. Entities affected by ON DELETE actions
+     * of FKs referencing the deleted entities are detached (CASCADE) or refreshed (SET NULL) too.
+     */
+    public void executeDeleteAndDetachEntities() {
+        executeDeleteAndDetachEntities(dao);
+    }
+
+    private synchronized <K> void executeDeleteAndDetachEntities(AbstractDao<T, K> dao) {
+        if (dao.identityScope == null && !dao.hasOnDeleteActions() && !dao.hasLazyPropertyCache()) {
+            executeDeleteWithoutDetachingEntities();
+            return;
+        }
+        List<K> keys = null;
+        OnDeleteCollector onDeleteCollector = null;
+        dao.db.beginTransaction();
+        try {
+            if (keysInChunking != null) {
+                keys = keysInChunking.loadKeys(dao, parameters);
+            } else if (selectKeysSql != null) {
+                keys = dao.loadKeys(selectKeysSql, parameters);
+            }
+            if (keys != null) {
+                onDeleteCollector = dao.collectOnDeleteActions(keys);
+            }
+            executeDeleteWithoutDetachingEntities();
+            dao.db.setTransactionSuccessful();
+        } finally {
+            dao.db.endTransaction();
+        }
+        dao.evictLazyProperties(keys);
+        if (dao.identityScope != null) {
+            if (keys != null) {
+                dao.identityScope.remove(keys);
+            } else {
+                dao.identityScope.clear();
+            }
+        }
+        if (onDeleteCollector != null) {
+            onDeleteCollector.updateIdentityScopes();
+        }
     }
 
     /**
@@ -42,6 +103,10 @@ public class DeleteQuery<T> extends AbstractQuery<T> {
      * primary key, but not using queries.
      */
     public synchronized void executeDeleteWithoutDetachingEntities() {
+        if (inChunking != null) {
+            inChunking.delete(dao.db, parameters);
+            return;
+        }
         if (compiledStatement != null) {
             compiledStatement.clearBindings();
         } else {
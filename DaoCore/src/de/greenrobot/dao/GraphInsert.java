@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts a graph of entities connected by to-one and to-many relations (see
+ * {@link AbstractDaoSession#insertGraph(Object...)}). New entities are inserted in levels: targets of to-one relations
+ * are inserted before the entities referencing them, and sources of to-many relations before their targets. Before
+ * inserting a level, its FKs are set using the PKs of the previous levels. Each level is inserted using
+ * {@link AbstractDao#insertInTx(Iterable)} per DAO. Existing entities (having a PK) are not inserted, but updated if
+ * they reference a new entity or are targets of a to-many relation of a new entity.<br/>
+ * <br/>
+ * If the transaction fails, new entities inserted before are detached from the identity scope again. Note that PKs
+ * and FKs already assigned to the entities are not reset.
+ */
+final class GraphInsert {
+
+    private final AbstractDaoSession session;
+    private final Map<Object, Node> nodeByEntity;
+    private final List<Node> nodes;
+
+    GraphInsert(AbstractDaoSession session) {
+        this.session = session;
+        nodeByEntity = new IdentityHashMap<Object, Node>();
+        nodes = new ArrayList<Node>();
+    }
+
+    void insert(Object... entities) {
+        for (Object entity : entities) {
+            getNode(entity);
+        }
+        // Nodes are appended while iterating, so the graph is traversed without recursion
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            List<Object> toOneTargets = new ArrayList<Object>();
+            List<Object> toManyTargets = new ArrayList<Object>();
+            node.dao.collectRelatedEntities(node.entity, toOneTargets, toManyTargets);
+            for (Object target : toOneTargets) {
+                node.toOneTargets.add(getNode(target));
+            }
+            for (Object target : toManyTargets) {
+                node.toManyTargets.add(getNode(target));
+            }
+        }
+        final int maxLevel = computeLevels();
+        try {
+            session.runInTx(new Runnable() {
+                @Override
+                public void run() {
+                    for (int level = 0; level <= maxLevel; level++) {
+                        insertLevel(level);
+                    }
+                    updateExistingEntities();
+                }
+            });
+        } catch (RuntimeException e) {
+            detachNewEntities();
+            throw e;
+        }
+    }
+
+    /** The inserts were rolled back, but attached the new entities to the identity scope. */
+    private void detachNewEntities() {
+        for (Node node : nodes) {
+            if (node.isNew && node.dao.getKey(node.entity) != null) {
+                node.dao.detach(node.entity);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node getNode(Object entity) {
+        Node node = nodeByEntity.get(entity);
+        if (node == null) {
+            AbstractDao<Object, ?> dao = (AbstractDao<Object, ?>) session.getDao(entity.getClass());
+            node = new Node(entity, dao, dao.getKey(entity) == null);
+            nodeByEntity.put(entity, node);
+            nodes.add(node);
+        }
+        return node;
+    }
+
+    /** Computes the level of all new nodes and returns the highest level. */
+    private int computeLevels() {
+        int maxLevel = 0;
+        // Each pass propagates levels at least one step, so more passes than nodes indicate a cycle
+        for (int pass = 0; pass <= nodes.size(); pass++) {
+            boolean changed = false;
+            for (Node node : nodes) {
+                if (!node.isNew) {
+                    continue;
+                }
+                for (Node target : node.toOneTargets) {
+                    if (target.isNew && target != node && node.level <= target.level) {
+                        node.level = target.level + 1;
+                        changed = true;
+                    }
+                }
+                for (Node target : node.toManyTargets) {
+                    if (target.isNew && target != node && target.level <= node.level) {
+                        target.level = node.level + 1;
+                        changed = true;
+                    }
+                }
+                maxLevel = Math.max(maxLevel, node.level);
+            }
+            if (!changed) {
+                return maxLevel;
+            }
+        }
+        throw new DaoException("Cannot insert graph with circular relations between new entities");
+    }
+
+    private void insertLevel(int level) {
+        Map<AbstractDao<Object, ?>, List<Object>> entitiesByDao = new LinkedHashMap<AbstractDao<Object, ?>, List<Object>>();
+        List<Node> levelNodes = new ArrayList<Node>();
+        for (Node node : nodes) {
+            if (node.isNew && node.level == level) {
+                node.dao.updateToOneKeys(node.entity);
+                List<Object> entities = entitiesByDao.get(node.dao);
+                if (entities == null) {
+                    entities = new ArrayList<Object>();
+                    entitiesByDao.put(node.dao, entities);
+                }
+                entities.add(node.entity);
+                levelNodes.add(node);
+            }
+        }
+        for (Map.Entry<AbstractDao<Object, ?>, List<Object>> entry : entitiesByDao.entrySet()) {
+            entry.getKey().insertInTx(entry.getValue(), true);
+        }
+        for (Node node : levelNodes) {
+            node.dao.updateToManyKeys(node.entity);
+        }
+    }
+
+    private void updateExistingEntities() {
+        Map<AbstractDao<Object, ?>, List<Object>> entitiesByDao = new LinkedHashMap<AbstractDao<Object, ?>, List<Object>>();
+        for (Node node : nodes) {
+            if (node.isNew) {
+                for (Node target : node.toManyTargets) {
+                    if (!target.isNew) {
+                        // FK was set by updateToManyKeys
+                        target.needsUpdate = true;
+                    }
+                }
+            } else {
+                for (Node target : node.toOneTargets) {
+                    if (target.isNew) {
+                        node.dao.updateToOneKeys(node.entity);
+                        node.needsUpdate = true;
+                        break;
+                    }
+                }
+            }
+        }
+        for (Node node : nodes) {
+            if (node.needsUpdate) {
+                List<Object> entities = entitiesByDao.get(node.dao);
+                if (entities == null) {
+                    entities = new ArrayList<Object>();
+                    entitiesByDao.put(node.dao, entities);
+                }
+                entities.add(node.entity);
+            }
+        }
+        for (Map.Entry<AbstractDao<Object, ?>, List<Object>> entry : entitiesByDao.entrySet()) {
+            entry.getKey().updateInTx(entry.getValue());
+        }
+    }
+
+    private static class Node {
+        final Object entity;
+        final AbstractDao<Object, ?> dao;
+        final boolean isNew;
+        final List<Node> toOneTargets = new ArrayList<Node>();
+        final List<Node> toManyTargets = new ArrayList<Node>();
+        int level;
+        boolean needsUpdate;
+
+        Node(Object entity, AbstractDao<Object, ?> dao, boolean isNew) {
+            this.entity = entity;
+            this.dao = dao;
+            this.isNew = isNew;
+        }
+    }
+
+}
@@ -38,6 +38,8 @@ public interface IdentityScope<K, T> {
 
     void remove(K key);
 
+    void remove(Iterable<K> keys);
+
     void clear();
 
     void lock();
@@ -46,4 +48,4 @@ public interface IdentityScope<K, T> {
 
     void reserveRoom(int count);
 
-}
\ No newline at end of file
+}
\ No newline at end of file
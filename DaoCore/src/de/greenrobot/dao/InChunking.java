@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Splits a query with a large IN condition into several executions, each staying below the SQLite variable limit. The
+ * SQL around the IN value list is fixed; the value list gets as many placeholders as values are in the chunk. Values
+ * are de-duplicated before splitting, so rows are not returned twice. If the query is ordered by properties, the
+ * combined result is sorted in memory using the column values.
+ */
+final class InChunking {
+
+    private final String sqlBeforeValues;
+    private final String sqlAfterValues;
+    private final int parameterCount;
+    private final int valuesIndex;
+    private final int valueCount;
+    private final int maxChunkSize;
+
+    /** Ordinals of the properties to order by or null if the query is not ordered. */
+    private final int[] orderOrdinals;
+    private final Class<?>[] orderTypes;
+    private final boolean[] orderDescending;
+
+    InChunking(String sqlBeforeValues, String sqlAfterValues, int parameterCount, int valuesIndex, int valueCount,
+            int maxChunkSize, List<Property> orderProperties, List<Boolean> orderDescending) {
+        if (maxChunkSize < 1) {
+            throw new DaoException("Too many parameters besides the IN condition");
+        }
+        this.sqlBeforeValues = sqlBeforeValues;
+        this.sqlAfterValues = sqlAfterValues;
+        this.parameterCount = parameterCount;
+        this.valuesIndex = valuesIndex;
+        this.valueCount = valueCount;
+        this.maxChunkSize = maxChunkSize;
+        if (orderProperties != null && !orderProperties.isEmpty()) {
+            int count = orderProperties.size();
+            orderOrdinals = new int[count];
+            orderTypes = new Class<?>[count];
+            this.orderDescending = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                Property property = orderProperties.get(i);
+                if (property.type == byte[].class) {
+                    throw new DaoException("Cannot order chunked query by byte array property " + property.name);
+                }
+                orderOrdinals[i] = property.oridinal;
+                orderTypes[i] = property.type;
+                this.orderDescending[i] = orderDescending.get(i);
+            }
+        } else {
+            orderOrdinals = null;
+            orderTypes = null;
+            this.orderDescending = null;
+        }
+    }
+
+    /** Creates the arguments for each chunk; the non-IN parameters are repeated for each chunk. */
+    List<String[]> createChunkArgs(String[] parameters) {
+        Set<String> inValues = new LinkedHashSet<String>();
+        for (int i = valuesIndex; i < valuesIndex + valueCount; i++) {
+            inValues.add(parameters[i]);
+        }
+        int otherCount = parameterCount - valueCount;
+        int afterCount = otherCount - valuesIndex;
+        List<String[]> chunks = new ArrayList<String[]>();
+        String[] chunk = null;
+        int chunkIndex = 0;
+        int remaining = inValues.size();
+        for (String value : inValues) {
+            if (chunk == null) {
+                int chunkSize = Math.min(remaining, maxChunkSize);
+                chunk = new String[otherCount + chunkSize];
+                System.arraycopy(parameters, 0, chunk, 0, valuesIndex);
+                System.arraycopy(parameters, valuesIndex + valueCount, chunk, valuesIndex + chunkSize, afterCount);
+                chunkIndex = valuesIndex;
+            }
+            chunk[chunkIndex++] = value;
+            remaining--;
+            if (chunkIndex == chunk.length - afterCount) {
+                chunks.add(chunk);
+                chunk = null;
+            }
+        }
+        return chunks;
+    }
+
+    String getSql(String[] chunkArgs) {
+        int chunkSize = chunkArgs.length - (parameterCount - valueCount);
+        StringBuilder builder = new StringBuilder(sqlBeforeValues);
+        SqlUtils.appendPlaceholders(builder, chunkSize);
+        return builder.append(sqlAfterValues).toString();
+    }
+
+    /** @param deep true if the SQL was created using {@link AbstractDao#getSelectDeep()} */
+    <T> List<T> list(AbstractDao<T, ?> dao, String[] parameters, boolean deep) {
+        List<String[]> chunks = createChunkArgs(parameters);
+        if (orderOrdinals == null) {
+            List<T> result = new ArrayList<T>();
+            for (String[] chunkArgs : chunks) {
+                Cursor cursor = dao.db.rawQuery(getSql(chunkArgs), chunkArgs);
+                result.addAll(deep ? dao.loadDeepAllAndCloseCursor(cursor) : dao.loadAllAndCloseCursor(cursor));
+            }
+            return result;
+        } else {
+            List<OrderedEntity<T>> orderedEntities = new ArrayList<OrderedEntity<T>>();
+            for (String[] chunkArgs : chunks) {
+                Cursor cursor = dao.db.rawQuery(getSql(chunkArgs), chunkArgs);
+                try {
+                    while (cursor.moveToNext()) {
+                        T entity = deep ? dao.loadCurrentDeep(cursor, true) : dao.loadCurrent(cursor, 0, true);
+                        orderedEntities.add(new OrderedEntity<T>(entity, readOrderValues(cursor)));
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+            Collections.sort(orderedEntities, new OrderComparator());
+            List<T> result = new ArrayList<T>(orderedEntities.size());
+            for (OrderedEntity<T> orderedEntity : orderedEntities) {
+                result.add(orderedEntity.entity);
+            }
+            return result;
+        }
+    }
+
+    /** Loads the keys for all chunks; the SQL must select the PK column only. */
+    <K> List<K> loadKeys(AbstractDao<?, K> dao, String[] parameters) {
+        List<K> keys = new ArrayList<K>();
+        for (String[] chunkArgs : createChunkArgs(parameters)) {
+            keys.addAll(dao.loadKeys(getSql(chunkArgs), chunkArgs));
+        }
+        return keys;
+    }
+
+    /** Executes the delete for all chunks using a single transaction. */
+    void delete(SQLiteDatabase db, String[] parameters) {
+        List<String[]> chunks = createChunkArgs(parameters);
+        db.beginTransaction();
+        try {
+            for (String[] chunkArgs : chunks) {
+                db.execSQL(getSql(chunkArgs), chunkArgs);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private Object[] readOrderValues(Cursor cursor) {
+        Object[] values = new Object[orderOrdinals.length];
+        for (int i = 0; i < orderOrdinals.length; i++) {
+            int column = orderOrdinals[i];
+            if (cursor.isNull(column)) {
+                continue;
+            }
+            Class<?> type = orderTypes[i];
+            if (type == String.class) {
+                values[i] = cursor.getString(column);
+            } else if (type == double.class || type == Double.class || type == float.class || type == Float.class) {
+                values[i] = cursor.getDouble(column);
+            } else {
+                values[i] = cursor.getLong(column);
+            }
+        }
+        return values;
+    }
+
+    private static class OrderedEntity<T> {
+        final T entity;
+        final Object[] orderValues;
+
+        OrderedEntity(T entity, Object[] orderValues) {
+            this.entity = entity;
+            this.orderValues = orderValues;
+        }
+    }
+
+    /** Compares like SQLite does by default: NULL sorts first in ascending order. */
+    private class OrderComparator implements Comparator<OrderedEntity<?>> {
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        @Override
+        public int compare(OrderedEntity<?> lhs, OrderedEntity<?> rhs) {
+            for (int i = 0; i < orderOrdinals.length; i++) {
+                Comparable value1 = (Comparable) lhs.orderValues[i];
+                Comparable value2 = (Comparable) rhs.orderValues[i];
+                int result;
+                if (value1 == null) {
+                    result = value2 == null ? 0 : -1;
+                } else if (value2 == null) {
+                    result = 1;
+                } else {
+                    result = value1.compareTo(value2);
+                }
+                if (result != 0) {
+                    return orderDescending[i] ? -result : result;
+                }
+            }
+            return 0;
+        }
+    }
+
+}
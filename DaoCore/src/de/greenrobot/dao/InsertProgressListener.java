@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+/**
+ * Receives progress of {@link AbstractDao#insertInChunks(Iterable, int, boolean, boolean, InsertProgressListener)}.
+ */
+public interface InsertProgressListener {
+
+    /**
+     * Called after a chunk was committed.
+     * 
+     * @param insertedCount
+     *            Total number of entities inserted so far.
+     * @param elapsedMillis
+     *            Time passed since the insert started.
+     */
+    void onChunkInserted(int insertedCount, long elapsedMillis);
+
+}
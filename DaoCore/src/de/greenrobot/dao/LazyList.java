@@ -126,9 +126,16 @@ public class LazyList<E> implements List<E>, Closeable {
     private final int size;
     private final ReentrantLock lock;
     private volatile int loadedCount;
+    private final boolean deep;
 
     LazyList(AbstractDao<E, ?> dao, Cursor cursor, boolean cacheEntities) {
+        this(dao, cursor, cacheEntities, false);
+    }
+
+    /** @param deep true if the cursor was created using {@link AbstractDao#getSelectDeep()} */
+    LazyList(AbstractDao<E, ?> dao, Cursor cursor, boolean cacheEntities, boolean deep) {
         this.dao = dao;
+        this.deep = deep;
         this.cursor = cursor;
         size = cursor.getCount();
         if (cacheEntities) {
@@ -253,7 +260,7 @@ public class LazyList<E> implements List<E>, Closeable {
 
     protected E loadEntity(int location) {
         cursor.moveToPosition(location);
-        E entity = dao.loadCurrent(cursor, 0, true);
+        E entity = deep ? dao.loadCurrentDeep(cursor, true) : dao.loadCurrent(cursor, 0, true);
         if (entity == null) {
             throw new DaoException("Loading of entity failed (null) at position " + location);
         }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the entities affected by the ON DELETE actions of foreign keys before entities are deleted, so the identity
+ * scopes of their DAOs can be updated afterwards without walking the object graph: entities deleted by CASCADE are
+ * removed from the identity scope, entities whose FK is SET NULL are refreshed. The keys are queried using one IN query
+ * per chunk of keys for each referencing FK; cascades are followed level by level.
+ */
+public class OnDeleteCollector {
+
+    private final Map<AbstractDao<?, ?>, Set<Long>> deletedKeys = new IdentityHashMap<AbstractDao<?, ?>, Set<Long>>();
+    private final Map<AbstractDao<?, ?>, Set<Long>> nulledKeys = new IdentityHashMap<AbstractDao<?, ?>, Set<Long>>();
+
+    OnDeleteCollector() {
+    }
+
+    /**
+     * Called by generated DAOs for each FK with an ON DELETE action referencing their entities.
+     * 
+     * @param dao
+     *            DAO of the entities with the FK
+     * @param fkColumn
+     *            The FK column referencing the deleted entities
+     * @param cascade
+     *            true for ON DELETE CASCADE, false for ON DELETE SET NULL
+     * @param referencedKeys
+     *            Keys of the deleted entities
+     */
+    public void collect(AbstractDao<?, ?> dao, String fkColumn, boolean cascade, List<Long> referencedKeys) {
+        boolean followCascade = cascade && dao.hasOnDeleteActions();
+        if (referencedKeys.isEmpty() || (dao.identityScope == null && !followCascade)) {
+            return;
+        }
+        List<Long> keys = dao.loadKeysReferencing(fkColumn, referencedKeys);
+        Map<AbstractDao<?, ?>, Set<Long>> keysByDao = cascade ? deletedKeys : nulledKeys;
+        Set<Long> collected = keysByDao.get(dao);
+        if (collected == null) {
+            collected = new HashSet<Long>();
+            keysByDao.put(dao, collected);
+        }
+        List<Long> newKeys = new ArrayList<Long>(keys.size());
+        for (Long key : keys) {
+            if (collected.add(key)) {
+                newKeys.add(key);
+            }
+        }
+        if (followCascade && !newKeys.isEmpty()) {
+            dao.collectOnDeleteActions(this, newKeys);
+        }
+    }
+
+    /** Updates the identity scopes after the collected entities were deleted or their FKs were set to null. */
+    void updateIdentityScopes() {
+        for (Map.Entry<AbstractDao<?, ?>, Set<Long>> entry : deletedKeys.entrySet()) {
+            removeFromIdentityScope(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<AbstractDao<?, ?>, Set<Long>> entry : nulledKeys.entrySet()) {
+            refreshInIdentityScope(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> void removeFromIdentityScope(AbstractDao<?, K> dao, Set<Long> keys) {
+        if (dao.identityScope != null) {
+            dao.identityScope.remove((Iterable<K>) (Iterable<?>) keys);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> void refreshInIdentityScope(AbstractDao<?, K> dao, Set<Long> keys) {
+        if (dao.identityScope != null) {
+            dao.refreshInIdentityScope(new ArrayList<K>((Set<K>) (Set<?>) keys));
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ package de.greenrobot.dao;
 
 import java.util.Collection;
 
+import de.greenrobot.dao.WhereCondition.InCondition;
 import de.greenrobot.dao.WhereCondition.PropertyCondition;
 
 /**
@@ -31,13 +32,20 @@ public class Property {
     public final String name;
     public final boolean primaryKey;
     public final String columnName;
+    /** Lazy properties are not selected when entities are loaded, see {@link AbstractDao#loadLazyProperty}. */
+    public final boolean lazy;
 
     public Property(int oridinal, Class<?> type, String name, boolean primaryKey, String columnName) {
+        this(oridinal, type, name, primaryKey, columnName, false);
+    }
+
+    public Property(int oridinal, Class<?> type, String name, boolean primaryKey, String columnName, boolean lazy) {
         this.oridinal = oridinal;
         this.type = type;
         this.name = name;
         this.primaryKey = primaryKey;
         this.columnName = columnName;
+        this.lazy = lazy;
     }
 
     /** Creates an "equal ('=')" condition  for this property. */
@@ -63,9 +71,7 @@ public class Property {
 
     /** Creates an "IN (..., ..., ...)" condition  for this property. */
     public WhereCondition in(Object... inValues) {
-        StringBuilder condition = new StringBuilder(" IN (");
-        SqlUtils.appendPlaceholders(condition, inValues.length).append(')');
-        return new PropertyCondition(this, condition.toString(), inValues);
+        return new InCondition(this, inValues);
     }
 
     /** Creates an "IN (..., ..., ...)" condition  for this property. */
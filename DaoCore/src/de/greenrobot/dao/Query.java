@@ -33,8 +33,45 @@ import android.database.Cursor;
 // TODO Query for PKs/ROW IDs
 public class Query<T> extends AbstractQuery<T> {
 
+    /** Parameters as given at build time; shared by all thread-local copies. */
+    private final String[] initialParameters;
+    private final ThreadLocal<Query<T>> queriesForThreads;
+    /** True if the SQL was created using {@link AbstractDao#getSelectDeep()}, loading to-one relations, too. */
+    private final boolean deep;
+
     public Query(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList) {
-        super(dao, sql, valueList);
+        this(dao, sql, valueList, null, false);
+    }
+
+    Query(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList, InChunking inChunking, boolean deep) {
+        super(dao, sql, valueList, inChunking);
+        this.deep = deep;
+        initialParameters = parameters.clone();
+        queriesForThreads = new ThreadLocal<Query<T>>();
+    }
+
+    /** Creates a thread-local copy sharing the SQL, the initial parameters, and the thread-local map of the source. */
+    private Query(Query<T> source) {
+        super(source.dao, source.sql, source.initialParameters.clone(), source.inChunking);
+        deep = source.deep;
+        initialParameters = source.initialParameters;
+        queriesForThreads = source.queriesForThreads;
+    }
+
+    /**
+     * Returns an instance of this query for exclusive use by the current thread. The instance is created once per thread
+     * and reused on subsequent calls; its parameters are reset to the values given at build time. Because parameters
+     * are not shared with other threads, the returned query can be used without synchronizing on it.
+     */
+    public Query<T> forCurrentThread() {
+        Query<T> query = queriesForThreads.get();
+        if (query == null) {
+            query = new Query<T>(this);
+            queriesForThreads.set(query);
+        } else {
+            System.arraycopy(initialParameters, 0, query.parameters, 0, initialParameters.length);
+        }
+        return query;
     }
 
     // public void compile() {
@@ -52,10 +89,16 @@ public class Query<T> extends AbstractQuery<T> {
         }
     }
 
-    /** Executes the query and returns the result as a list containing all entities loaded into memory. */
+    /**
+     * Executes the query and returns the result as a list containing all entities loaded into memory. Queries with a
+     * large IN condition exceeding {@link QueryBuilder#MAX_SQL_VARIABLES} are executed in chunks.
+     */
     public List<T> list() {
+        if (inChunking != null) {
+            return inChunking.list(dao, parameters, deep);
+        }
         Cursor cursor = dao.db.rawQuery(sql, parameters);
-        return dao.loadAllAndCloseCursor(cursor);
+        return deep ? dao.loadDeepAllAndCloseCursor(cursor) : dao.loadAllAndCloseCursor(cursor);
     }
 
     /**
@@ -64,8 +107,9 @@ public class Query<T> extends AbstractQuery<T> {
      * cursor again.Make sure to close it to close the underlying cursor.
      */
     public LazyList<T> listLazy() {
+        checkNotChunked();
         Cursor cursor = dao.db.rawQuery(sql, parameters);
-        return new LazyList<T>(dao, cursor, true);
+        return new LazyList<T>(dao, cursor, true, deep);
     }
 
     /**
@@ -73,8 +117,9 @@ public class Query<T> extends AbstractQuery<T> {
      * sure to close the list to close the underlying cursor.
      */
     public LazyList<T> listLazyUncached() {
+        checkNotChunked();
         Cursor cursor = dao.db.rawQuery(sql, parameters);
-        return new LazyList<T>(dao, cursor, false);
+        return new LazyList<T>(dao, cursor, false, deep);
     }
 
     /**
@@ -93,8 +138,15 @@ public class Query<T> extends AbstractQuery<T> {
      * @return Entity or null if no matching entity was found
      */
     public T unique() {
+        if (inChunking != null) {
+            List<T> list = inChunking.list(dao, parameters, deep);
+            if (list.size() > 1) {
+                throw new DaoException("Expected unique result, but count was " + list.size());
+            }
+            return list.isEmpty() ? null : list.get(0);
+        }
         Cursor cursor = dao.db.rawQuery(sql, parameters);
-        return dao.loadUniqueAndCloseCursor(cursor);
+        return dao.loadUniqueAndCloseCursor(cursor, deep);
     }
 
     /**
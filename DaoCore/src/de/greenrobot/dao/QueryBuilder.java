@@ -17,8 +17,8 @@ package de.greenrobot.dao;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ListIterator;
 
+import de.greenrobot.dao.WhereCondition.InCondition;
 import de.greenrobot.dao.WhereCondition.PropertyCondition;
 
 /**
@@ -32,6 +32,14 @@ import de.greenrobot.dao.WhereCondition.PropertyCondition;
  * <code>
  *  List<User> joes = dao.queryBuilder().where(Properties.FirstName.eq("Joe")).orderAsc(Properties.LastName).list();
  *  </code>
+ * <br/>
+ * Relations can be joined to use conditions on related entities (joined builders only collect conditions and orders;
+ * the query is built by the root QueryBuilder):<br/>
+ * <code>
+ *  QueryBuilder<User> queryBuilder = userDao.queryBuilder();
+ *  queryBuilder.joinToMany(Order.class, OrderDao.Properties.UserId).where(OrderDao.Properties.Amount.gt(100));
+ *  List<User> users = queryBuilder.list();
+ *  </code>
  * 
  * @author Markus
  * 
@@ -46,8 +54,16 @@ public class QueryBuilder<T> {
     /** Set to see the given values. */
     public static boolean LOG_VALUES;
 
+    /**
+     * Maximum number of parameters (SQL variables) in a single statement; SQLite's default limit is 999. Queries with
+     * more parameters are executed in chunks by splitting their largest IN condition.
+     */
+    public static int MAX_SQL_VARIABLES = 999;
+
     private StringBuilder orderBuilder;
-    private StringBuilder joinBuilder;
+    private final List<Property> orderProperties;
+    private final List<Boolean> orderDescending;
+    private boolean orderRaw;
 
     private final List<WhereCondition> whereConditions;
 
@@ -55,15 +71,30 @@ public class QueryBuilder<T> {
     private final AbstractDao<T, ?> dao;
     private final String tablePrefix;
 
+    /** The builder the query is built from; this if this builder was not created by a join. */
+    private final QueryBuilder<?> root;
+    /** Joins in creation order; only used by the root builder. */
+    private final List<Join> joins;
+    /** Joins on properties other than the primary key may multiply result rows, so SELECT DISTINCT is used. */
+    private boolean distinct;
+
     protected QueryBuilder(AbstractDao<T, ?> dao) {
         this(dao, "T");
     }
 
     protected QueryBuilder(AbstractDao<T, ?> dao, String tablePrefix) {
+        this(dao, tablePrefix, null);
+    }
+
+    private QueryBuilder(AbstractDao<T, ?> dao, String tablePrefix, QueryBuilder<?> root) {
         this.dao = dao;
         this.tablePrefix = tablePrefix;
+        this.root = root != null ? root : this;
+        joins = root == null ? new ArrayList<Join>() : null;
         values = new ArrayList<Object>();
         whereConditions = new ArrayList<WhereCondition>();
+        orderProperties = new ArrayList<Property>();
+        orderDescending = new ArrayList<Boolean>();
     }
 
     private void checkOrderBuilder() {
@@ -79,6 +110,7 @@ public class QueryBuilder<T> {
      * given in the generated dao classes.
      */
     public QueryBuilder<T> where(WhereCondition cond, WhereCondition... condMore) {
+        checkCondition(cond);
         whereConditions.add(cond);
         for (WhereCondition whereCondition : condMore) {
             checkCondition(whereCondition);
@@ -106,25 +138,14 @@ public class QueryBuilder<T> {
 
     protected WhereCondition combineWhereConditions(String combineOp, WhereCondition cond1, WhereCondition cond2,
             WhereCondition... condMore) {
-        StringBuilder builder = new StringBuilder("(");
-        List<Object> combinedValues = new ArrayList<Object>();
-
-        addCondition(builder, combinedValues, cond1);
-        builder.append(combineOp);
-        addCondition(builder, combinedValues, cond2);
-
-        for (WhereCondition cond : condMore) {
-            builder.append(combineOp);
-            addCondition(builder, combinedValues, cond);
+        WhereCondition[] conditions = new WhereCondition[condMore.length + 2];
+        conditions[0] = cond1;
+        conditions[1] = cond2;
+        System.arraycopy(condMore, 0, conditions, 2, condMore.length);
+        for (WhereCondition condition : conditions) {
+            checkCondition(condition);
         }
-        builder.append(')');
-        return new WhereCondition.StringCondition(builder.toString(), combinedValues.toArray());
-    }
-
-    protected void addCondition(StringBuilder builder, List<Object> values, WhereCondition condition) {
-        checkCondition(condition);
-        condition.appendTo(builder, tablePrefix);
-        condition.appendValuesTo(values);
+        return new WhereCondition.CombinedCondition(combineOp, conditions);
     }
 
     protected void checkCondition(WhereCondition whereCondition) {
@@ -133,18 +154,66 @@ public class QueryBuilder<T> {
         }
     }
 
-    /** Not supported yet. */
+    /**
+     * Joins the entity referenced by the given to-one property (the foreign key of this entity). Conditions and orders
+     * added to the returned QueryBuilder refer to the joined entity; build the query using the root QueryBuilder.
+     */
     public <J> QueryBuilder<J> join(Class<J> entityClass, Property toOneProperty) {
-        throw new UnsupportedOperationException();
-        // return new QueryBuilder<J>();
+        AbstractDao<J, ?> joinDao = getJoinDao(entityClass);
+        return join(toOneProperty, joinDao, getSinglePkProperty(joinDao));
     }
 
-    /** Not supported yet. */
+    /**
+     * Joins the entities referencing this entity by the given to-many property (the foreign key of the joined entity).
+     * Each entity is returned once, even if several joined entities match. Conditions and orders added to the returned
+     * QueryBuilder refer to the joined entity; build the query using the root QueryBuilder.
+     */
     public <J> QueryBuilder<J> joinToMany(Class<J> entityClass, Property toManyProperty) {
-        throw new UnsupportedOperationException();
-        // @SuppressWarnings("unchecked")
-        // AbstractDao<J, ?> joinDao = (AbstractDao<J, ?>) dao.getSession().getDao(entityClass);
-        // return new QueryBuilder<J>(joinDao, "TX");
+        return join(getSinglePkProperty(dao), getJoinDao(entityClass), toManyProperty);
+    }
+
+    /**
+     * Joins the given entity where the source property of this entity equals the target property of the joined entity,
+     * e.g. for to-many relations using join properties. See {@link #joinToMany(Class, Property)} for details.
+     */
+    public <J> QueryBuilder<J> join(Property sourceProperty, Class<J> entityClass, Property targetProperty) {
+        return join(sourceProperty, getJoinDao(entityClass), targetProperty);
+    }
+
+    private <J> QueryBuilder<J> join(Property sourceProperty, AbstractDao<J, ?> joinDao, Property targetProperty) {
+        checkProperty(sourceProperty);
+        QueryBuilder<J> joinBuilder = new QueryBuilder<J>(joinDao, "J" + (root.joins.size() + 1), root);
+        joinBuilder.checkProperty(targetProperty);
+        root.joins.add(new Join(tablePrefix, sourceProperty.columnName, joinBuilder, targetProperty.columnName));
+        if (targetProperty != joinDao.getPkProperty()) {
+            root.distinct = true;
+        }
+        return joinBuilder;
+    }
+
+    private <J> AbstractDao<J, ?> getJoinDao(Class<J> entityClass) {
+        AbstractDaoSession session = dao.getSession();
+        if (session == null) {
+            throw new DaoException("Joins require a DAO session");
+        }
+        @SuppressWarnings("unchecked")
+        AbstractDao<J, ?> joinDao = (AbstractDao<J, ?>) session.getDao(entityClass);
+        return joinDao;
+    }
+
+    private static Property getSinglePkProperty(AbstractDao<?, ?> dao) {
+        Property pkProperty = dao.getPkProperty();
+        if (pkProperty == null) {
+            throw new DaoException("Joins require a single primary key property, but " + dao.getTablename()
+                    + " has none");
+        }
+        return pkProperty;
+    }
+
+    private void checkRoot() {
+        if (root != this) {
+            throw new DaoException("Joined QueryBuilders cannot build queries, use the root QueryBuilder instead");
+        }
     }
 
     /** Adds the given properties to the ORDER BY section using ascending order. */
@@ -152,6 +221,8 @@ public class QueryBuilder<T> {
         for (Property property : properties) {
             checkOrderBuilder();
             append(orderBuilder, property).append(" ASC");
+            orderProperties.add(property);
+            orderDescending.add(Boolean.FALSE);
         }
         return this;
     }
@@ -161,6 +232,8 @@ public class QueryBuilder<T> {
         for (Property property : properties) {
             checkOrderBuilder();
             append(orderBuilder, property).append(" DESC");
+            orderProperties.add(property);
+            orderDescending.add(Boolean.TRUE);
         }
         return this;
     }
@@ -172,6 +245,7 @@ public class QueryBuilder<T> {
     public QueryBuilder<T> orderRaw(String rawOrder) {
         checkOrderBuilder();
         orderBuilder.append(rawOrder);
+        orderRaw = true;
         return this;
     }
 
@@ -199,66 +273,329 @@ public class QueryBuilder<T> {
 
     /**
      * Builds a reusable query object (Query objects can be executed more efficiently than creating a QueryBuilder for
-     * each execution.
+     * each execution. The SQL is taken from the DAO's {@link QuerySqlCache} if a structurally identical query was built
+     * before.
      */
     public Query<T> build() {
-        String select;
-        if (joinBuilder == null || joinBuilder.length() == 0) {
-            select = dao.getStatements().getSelectAll();
-        } else {
-            select = SqlUtils.createSqlSelect(dao.getTablename(), tablePrefix, dao.getAllColumns());
-        }
-        StringBuilder builder = new StringBuilder(select);
+        return build(false);
+    }
 
-        appendWhereClause(builder, tablePrefix);
+    /**
+     * Builds a reusable query object loading the entities of all to-one relations in the same query (LEFT JOIN) like
+     * the generated loadDeep and queryDeep methods of the DAO. Only supported for entities having to-one relations.
+     */
+    public Query<T> buildDeep() {
+        return build(true);
+    }
 
-        if (orderBuilder != null && orderBuilder.length() > 0) {
-            builder.append(" ORDER BY ").append(orderBuilder);
-        }
+    private Query<T> build(boolean deep) {
+        checkRoot();
+        collectWhereValues();
+        boolean joined = !joins.isEmpty();
+        boolean chunked = values.size() > MAX_SQL_VARIABLES;
+        List<Object> sqlKey = joined || chunked ? null : QuerySqlCache.createKey(deep ? "SELECT DEEP" : "SELECT",
+                tablePrefix, whereConditions, orderBuilder);
+        String sql = getCachedSql(sqlKey);
+        InChunking inChunking = null;
+        if (sql == null) {
+            String select = deep ? dao.getSelectDeep() : dao.getStatements().getSelectAll();
+            if (joined) {
+                select = createJoinedSelect(select);
+            }
+            StringBuilder builder = new StringBuilder(select);
 
-        String sql = builder.toString();
-        if (LOG_SQL) {
-            DaoLog.d("Built SQL for query: " + sql);
+            appendWhereClause(builder, tablePrefix);
+            appendOrderBy(builder);
+
+            sql = builder.toString();
+            putCachedSql(sqlKey, sql);
+            if (LOG_SQL) {
+                DaoLog.d("Built SQL for query: " + sql);
+            }
+            if (chunked) {
+                inChunking = createInChunking(select, tablePrefix, true);
+            }
         }
 
         if (LOG_VALUES) {
             DaoLog.d("Values for query: " + values);
         }
 
-        return new Query<T>(dao, sql, values);
+        return new Query<T>(dao, sql, values, inChunking, deep);
     }
-    
+
     /**
      * Builds a reusable query object for deletion (Query objects can be executed more efficiently than creating a QueryBuilder for
      * each execution.
      */
     public DeleteQuery<T> buildDelete() {
-        StringBuilder builder = new StringBuilder("DELETE FROM '");
-        builder.append(dao.getTablename()).append('\'');
-        appendWhereClause(builder, null);
+        checkRoot();
+        if (!joins.isEmpty()) {
+            throw new DaoException("Joins are not supported for delete queries");
+        }
+        collectWhereValues();
+        boolean chunked = values.size() > MAX_SQL_VARIABLES;
+        List<Object> sqlKey = chunked ? null : QuerySqlCache.createKey("DELETE", null, whereConditions, null);
+        String sql = getCachedSql(sqlKey);
+        InChunking inChunking = null;
+        if (sql == null) {
+            String delete = "DELETE FROM '" + dao.getTablename() + '\'';
+            StringBuilder builder = new StringBuilder(delete);
+            appendWhereClause(builder, null);
+
+            sql = builder.toString();
+            putCachedSql(sqlKey, sql);
+            if (LOG_SQL) {
+                DaoLog.d("Built SQL for delete query: " + sql);
+            }
+            if (chunked) {
+                inChunking = createInChunking(delete, null, false);
+            }
+        }
 
-        String sql = builder.toString();
-        if (LOG_SQL) {
-            DaoLog.d("Built SQL for delete query: " + sql);
+        String selectKeysSql = null;
+        InChunking keysInChunking = null;
+        boolean loadKeys = dao.identityScope != null || dao.hasOnDeleteActions() || dao.hasLazyPropertyCache();
+        String selectKeys = loadKeys ? createSelectKeys() : null;
+        if (selectKeys != null) {
+            List<Object> keysSqlKey = chunked ? null : QuerySqlCache.createKey("DELETE_KEYS", null, whereConditions,
+                    null);
+            selectKeysSql = getCachedSql(keysSqlKey);
+            if (selectKeysSql == null) {
+                StringBuilder builder = new StringBuilder(selectKeys);
+                appendWhereClause(builder, null);
+                selectKeysSql = builder.toString();
+                putCachedSql(keysSqlKey, selectKeysSql);
+                if (chunked) {
+                    keysInChunking = createInChunking(selectKeys, null, false);
+                }
+            }
         }
+
         if (LOG_VALUES) {
             DaoLog.d("Values for delete query: " + values);
         }
 
-        return new DeleteQuery<T>(dao, sql, values);
+        return new DeleteQuery<T>(dao, sql, values, inChunking, selectKeysSql, keysInChunking);
     }
 
-    private void appendWhereClause(StringBuilder builder, String tablePrefixOrNull) {
-        values.clear();
-        if (!whereConditions.isEmpty()) {
-            builder.append(" WHERE ");
-            ListIterator<WhereCondition> iter = whereConditions.listIterator();
-            while (iter.hasNext()) {
-                if (iter.hasPrevious()) {
-                    builder.append(" AND ");
+    /**
+     * Creates a SELECT for the PK column (without where clause), or returns null if the entity has no single PK. Where
+     * clauses must not use a table prefix.
+     */
+    private String createSelectKeys() {
+        Property pkProperty = dao.getPkProperty();
+        if (pkProperty == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder("SELECT ");
+        SqlUtils.appendColumn(builder, "T", pkProperty.columnName);
+        return builder.append(" FROM '").append(dao.getTablename()).append("' T").toString();
+    }
+
+    /**
+     * Builds a reusable query setting the given property to the given value for all matching entities using a single
+     * UPDATE statement.
+     */
+    public UpdateQuery<T> buildUpdate(Property property, Object value) {
+        return buildUpdate(new Property[] { property }, new Object[] { value });
+    }
+
+    /**
+     * Builds a reusable query setting the given properties to the given values for all matching entities using a single
+     * UPDATE statement. The update values are the first parameters of the query (see
+     * {@link AbstractQuery#setParameter(int, Object)}), followed by the where values. The PK and properties maintained
+     * by the DAO on updates (tree path, tree parent and FKs with ON DELETE actions) cannot be set. Because query
+     * parameters are bound as strings, byte array properties cannot be set either.
+     */
+    public UpdateQuery<T> buildUpdate(Property[] properties, Object[] setValues) {
+        checkRoot();
+        if (!joins.isEmpty()) {
+            throw new DaoException("Joins are not supported for update queries");
+        }
+        if (properties.length == 0 || properties.length != setValues.length) {
+            throw new DaoException("Expected a value for each of the " + properties.length + " properties, but got "
+                    + setValues.length);
+        }
+        for (Property property : properties) {
+            checkProperty(property);
+            if (property.primaryKey || dao.isMaintainedProperty(property)) {
+                throw new DaoException("Property '" + property.name + "' cannot be set by update queries");
+            }
+            if (property.type == byte[].class) {
+                throw new DaoException("Cannot set byte array property " + property.name + " by update queries");
+            }
+        }
+        collectWhereValues();
+        if (values.size() + properties.length > MAX_SQL_VARIABLES) {
+            throw new DaoException("Update queries support up to " + MAX_SQL_VARIABLES + " parameters");
+        }
+        List<Object> sqlKey = QuerySqlCache.createKey("WHERE", null, whereConditions, null);
+        String where = getCachedSql(sqlKey);
+        if (where == null) {
+            StringBuilder builder = new StringBuilder();
+            appendWhereClause(builder, null);
+            where = builder.toString();
+            putCachedSql(sqlKey, where);
+        }
+
+        StringBuilder builder = new StringBuilder("UPDATE '").append(dao.getTablename()).append("' SET ");
+        List<Object> updateValues = new ArrayList<Object>(properties.length + values.size());
+        for (int i = 0; i < properties.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            SqlUtils.appendColumn(builder, properties[i].columnName).append("=?");
+            Object value = setValues[i];
+            updateValues.add(value != null ? PropertyCondition.checkValueForType(properties[i], value) : null);
+        }
+        String sql = builder.append(where).toString();
+        updateValues.addAll(values);
+
+        String selectKeys = dao.identityScope != null || dao.hasLazyPropertyCache() ? createSelectKeys() : null;
+        String selectKeysSql = selectKeys != null ? selectKeys + where : null;
+        if (LOG_SQL) {
+            DaoLog.d("Built SQL for update query: " + sql);
+        }
+        if (LOG_VALUES) {
+            DaoLog.d("Values for update query: " + updateValues);
+        }
+        return new UpdateQuery<T>(dao, sql, updateValues, selectKeysSql, properties.length);
+    }
+
+    /**
+     * Splits the SQL around the value list of the largest IN condition, so the query can be executed in chunks. Only
+     * top level IN conditions (combined using AND) can be split.
+     */
+    private InChunking createInChunking(String sqlStart, String tablePrefixOrNull, boolean ordered) {
+        InCondition inCondition = null;
+        for (WhereCondition condition : whereConditions) {
+            if (condition instanceof InCondition) {
+                InCondition candidate = (InCondition) condition;
+                if (inCondition == null || candidate.getValueCount() > inCondition.getValueCount()) {
+                    inCondition = candidate;
+                }
+            }
+        }
+        if (inCondition == null) {
+            throw new DaoException("Query has " + values.size() + " parameters, but only " + MAX_SQL_VARIABLES
+                    + " are supported without a top level IN condition");
+        }
+        if (ordered && orderRaw) {
+            throw new DaoException("Raw ordering is not supported for queries with more than " + MAX_SQL_VARIABLES
+                    + " parameters");
+        }
+
+        if (ordered) {
+            for (Join join : joins) {
+                if (join.builder.orderBuilder != null && join.builder.orderBuilder.length() > 0) {
+                    throw new DaoException("Ordering by joined entities is not supported for queries with more than "
+                            + MAX_SQL_VARIABLES + " parameters");
                 }
-                WhereCondition condition = iter.next();
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(sqlStart).append(" WHERE ");
+        String sqlBeforeValues = null;
+        List<Object> valuesBefore = new ArrayList<Object>();
+        for (int i = 0; i < whereConditions.size(); i++) {
+            if (i > 0) {
+                builder.append(" AND ");
+            }
+            WhereCondition condition = whereConditions.get(i);
+            if (condition == inCondition && sqlBeforeValues == null) {
+                inCondition.appendToValueList(builder, tablePrefixOrNull);
+                sqlBeforeValues = builder.toString();
+                builder.setLength(0);
+                builder.append(')');
+            } else {
                 condition.appendTo(builder, tablePrefixOrNull);
+                if (sqlBeforeValues == null) {
+                    condition.appendValuesTo(valuesBefore);
+                }
+            }
+        }
+        for (Join join : joins) {
+            for (WhereCondition condition : join.builder.whereConditions) {
+                builder.append(" AND ");
+                condition.appendTo(builder, join.builder.tablePrefix);
+            }
+        }
+        if (ordered) {
+            appendOrderBy(builder);
+        }
+
+        int valueCount = inCondition.getValueCount();
+        int maxChunkSize = MAX_SQL_VARIABLES - (values.size() - valueCount);
+        return new InChunking(sqlBeforeValues, builder.toString(), values.size(), valuesBefore.size(), valueCount,
+                maxChunkSize, ordered ? orderProperties : null, orderDescending);
+    }
+
+    /** Appends the JOIN clauses to the given SELECT, which must use the table alias of this builder. */
+    private String createJoinedSelect(String select) {
+        StringBuilder builder = new StringBuilder(select);
+        if (distinct) {
+            builder.insert("SELECT".length(), " DISTINCT");
+        }
+        for (Join join : joins) {
+            builder.append("JOIN ").append(join.builder.dao.getTablename()).append(' ');
+            builder.append(join.builder.tablePrefix).append(" ON ");
+            SqlUtils.appendColumn(builder, join.sourceAlias, join.sourceColumn).append('=');
+            SqlUtils.appendColumn(builder, join.builder.tablePrefix, join.targetColumn).append(' ');
+        }
+        return builder.toString();
+    }
+
+    private void appendOrderBy(StringBuilder builder) {
+        boolean first = appendOrder(builder, this, true);
+        for (Join join : joins) {
+            first = appendOrder(builder, join.builder, first);
+        }
+    }
+
+    private static boolean appendOrder(StringBuilder builder, QueryBuilder<?> queryBuilder, boolean first) {
+        StringBuilder order = queryBuilder.orderBuilder;
+        if (order != null && order.length() > 0) {
+            builder.append(first ? " ORDER BY " : ",").append(order);
+            return false;
+        }
+        return first;
+    }
+
+    private String getCachedSql(List<Object> sqlKey) {
+        return sqlKey != null ? dao.getQuerySqlCache().get(sqlKey) : null;
+    }
+
+    private void putCachedSql(List<Object> sqlKey, String sql) {
+        if (sqlKey != null) {
+            dao.getQuerySqlCache().put(sqlKey, sql);
+        }
+    }
+
+    private void appendWhereClause(StringBuilder builder, String tablePrefixOrNull) {
+        boolean first = appendConditions(builder, whereConditions, tablePrefixOrNull, true);
+        for (Join join : joins) {
+            first = appendConditions(builder, join.builder.whereConditions, join.builder.tablePrefix, first);
+        }
+    }
+
+    private static boolean appendConditions(StringBuilder builder, List<WhereCondition> conditions,
+            String tablePrefixOrNull, boolean first) {
+        for (WhereCondition condition : conditions) {
+            builder.append(first ? " WHERE " : " AND ");
+            condition.appendTo(builder, tablePrefixOrNull);
+            first = false;
+        }
+        return first;
+    }
+
+    private void collectWhereValues() {
+        values.clear();
+        for (WhereCondition condition : whereConditions) {
+            condition.appendValuesTo(values);
+        }
+        for (Join join : joins) {
+            for (WhereCondition condition : join.builder.whereConditions) {
                 condition.appendValuesTo(values);
             }
         }
@@ -318,4 +655,19 @@ public class QueryBuilder<T> {
         return build().uniqueOrThrow();
     }
 
+    /** A join of this builder's entity (or a joined entity) with another entity. */
+    private static class Join {
+        final String sourceAlias;
+        final String sourceColumn;
+        final QueryBuilder<?> builder;
+        final String targetColumn;
+
+        Join(String sourceAlias, String sourceColumn, QueryBuilder<?> builder, String targetColumn) {
+            this.sourceAlias = sourceAlias;
+            this.sourceColumn = sourceColumn;
+            this.builder = builder;
+            this.targetColumn = targetColumn;
+        }
+    }
+
 }
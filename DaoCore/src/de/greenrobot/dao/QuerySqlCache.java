@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.greenrobot.dao.WhereCondition.CombinedCondition;
+import de.greenrobot.dao.WhereCondition.InCondition;
+import de.greenrobot.dao.WhereCondition.PropertyCondition;
+import de.greenrobot.dao.WhereCondition.StringCondition;
+
+/**
+ * Caches the SQL built by {@link QueryBuilder} for a table. The cache key reflects the structure of the query (where
+ * conditions, their properties and operators, ordering), but not the values, so structurally identical queries
+ * re-use the SQL and only collect their values again. Least recently used entries are evicted once the cache is full.
+ */
+public final class QuerySqlCache {
+
+    /** Default maximum number of cached SQL strings per table. */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final Map<List<Object>, String> sqlByKey;
+    private volatile int maxSize;
+    private int hitCount;
+    private int missCount;
+
+    public QuerySqlCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public QuerySqlCache(int maxSize) {
+        this.maxSize = maxSize;
+        sqlByKey = new LinkedHashMap<List<Object>, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5244209296359386758L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+                return size() > QuerySqlCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Creates a key for the given query structure, or returns null if the structure cannot be cached (e.g. if it
+     * contains custom WhereCondition implementations).
+     */
+    static List<Object> createKey(String queryType, String tablePrefix, List<WhereCondition> conditions,
+            CharSequence order) {
+        List<Object> key = new ArrayList<Object>(2 + conditions.size() * 2 + 1);
+        key.add(queryType);
+        key.add(tablePrefix);
+        for (WhereCondition condition : conditions) {
+            if (!appendKey(key, condition)) {
+                return null;
+            }
+        }
+        key.add(order != null ? order.toString() : null);
+        return key;
+    }
+
+    /**
+     * Appends the structural key parts of the given condition. Each condition type has a distinct first key part, so
+     * the resulting key is unambiguous.
+     */
+    private static boolean appendKey(List<Object> key, WhereCondition condition) {
+        Class<?> conditionClass = condition.getClass();
+        if (conditionClass == PropertyCondition.class || conditionClass == InCondition.class) {
+            PropertyCondition propertyCondition = (PropertyCondition) condition;
+            key.add(propertyCondition.property);
+            key.add(propertyCondition.op);
+            return true;
+        } else if (conditionClass == StringCondition.class) {
+            key.add(((StringCondition) condition).string);
+            return true;
+        } else if (conditionClass == CombinedCondition.class) {
+            CombinedCondition combinedCondition = (CombinedCondition) condition;
+            WhereCondition[] conditions = combinedCondition.conditions;
+            key.add(conditions.length);
+            key.add(combinedCondition.combineOp);
+            for (WhereCondition subCondition : conditions) {
+                if (!appendKey(key, subCondition)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /** Returns the cached SQL for the given key or null if there is none. Updates the hit and miss counters. */
+    public synchronized String get(List<Object> key) {
+        String sql = sqlByKey.get(key);
+        if (sql != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return sql;
+    }
+
+    public synchronized void put(List<Object> key, String sql) {
+        sqlByKey.put(key, sql);
+    }
+
+    public synchronized int size() {
+        return sqlByKey.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Sets the maximum number of cached SQL strings; pass 0 to disable caching. */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        Iterator<List<Object>> iterator = sqlByKey.keySet().iterator();
+        while (sqlByKey.size() > maxSize) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /** Removes all cached SQL and resets the counters. */
+    public synchronized void clear() {
+        sqlByKey.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+}
@@ -28,10 +28,15 @@ public class SqlUtils {
         return builder;
     }
 
+    /** Appends the given columns qualified by the table alias; null columns are appended as NULL. */
     public static StringBuilder appendColumns(StringBuilder builder, String tableAlias, String[] columns) {
         int length = columns.length;
         for (int i = 0; i < length; i++) {
-            appendColumn(builder, tableAlias, columns[i]);
+            if (columns[i] != null) {
+                appendColumn(builder, tableAlias, columns[i]);
+            } else {
+                builder.append("NULL");
+            }
             if (i < length - 1) {
                 builder.append(',');
             }
@@ -92,6 +97,23 @@ public class SqlUtils {
         return builder.toString();
     }
 
+    /** Creates an insert for the given number of rows using a multi-row VALUES clause (requires SQLite 3.7.11). */
+    public static String createSqlInsert(String insertInto, String tablename, String[] columns, int rowCount) {
+        StringBuilder builder = new StringBuilder(insertInto);
+        builder.append(tablename).append(" (");
+        appendColumns(builder, columns);
+        builder.append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('(');
+            appendPlaceholders(builder, columns.length);
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+
     /** Creates an select for given columns with a trailing space */
     public static String createSqlSelect(String tablename, String tableAlias, String[] columns) {
         StringBuilder builder = new StringBuilder("SELECT ");
@@ -123,4 +145,33 @@ public class SqlUtils {
         return builder.toString();
     }
 
+    /**
+     * Creates an UPDATE for the columns selected by the given bit mask (bit index is the column index). The numbered
+     * parameters keep the index of each column (?1 for the first column, etc.), so values can be bound like for a full
+     * update. The where columns use the parameter indexes following all columns.
+     */
+    public static String createSqlUpdate(String tablename, String[] allColumns, long columnMask,
+            String[] whereColumns) {
+        StringBuilder builder = new StringBuilder("UPDATE ");
+        builder.append(tablename).append(" SET ");
+        boolean first = true;
+        for (int i = 0; i < allColumns.length; i++) {
+            if ((columnMask & (1L << i)) != 0) {
+                if (!first) {
+                    builder.append(',');
+                }
+                appendColumn(builder, allColumns[i]).append("=?").append(i + 1);
+                first = false;
+            }
+        }
+        builder.append(" WHERE ");
+        for (int i = 0; i < whereColumns.length; i++) {
+            if (i > 0) {
+                builder.append(" AND ");
+            }
+            appendColumn(builder, tablename, whereColumns[i]).append("=?").append(allColumns.length + i + 1);
+        }
+        return builder.toString();
+    }
+
 }
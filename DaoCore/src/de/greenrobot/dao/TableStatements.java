@@ -20,25 +20,38 @@ import android.database.sqlite.SQLiteStatement;
 
 /** Helper class to create SQL statements for specific tables (used by greenDAO internally). */
 public class TableStatements {
+    /** Limits the number of compiled statements for changed columns only updates. */
+    private static final int MAX_UPDATE_STATEMENTS_BY_COLUMN_MASK = 32;
+
+    /** SQLite's default limit of rows in a VALUES clause (SQLITE_MAX_COMPOUND_SELECT). */
+    private static final int MAX_INSERT_ROWS = 500;
+
     private final SQLiteDatabase db;
     private final String tablename;
     private final String[] allColumns;
+    private final String[] selectColumns;
     private final String[] pkColumns;
 
     private SQLiteStatement insertStatement;
     private SQLiteStatement insertOrReplaceStatement;
     private SQLiteStatement updateStatement;
     private SQLiteStatement deleteStatement;
+    private final LongHashMap<SQLiteStatement> updateStatementsByColumnMask;
+    private final LongHashMap<SQLiteStatement> insertStatementsByRowCount;
 
     private volatile String selectAll;
     private volatile String selectByKey;
     private volatile String selectByRowId;
 
-    protected TableStatements(SQLiteDatabase db, String tablename, String[] allColumns, String[] pkColumns) {
+    protected TableStatements(SQLiteDatabase db, String tablename, String[] allColumns, String[] selectColumns,
+            String[] pkColumns) {
         this.db = db;
         this.tablename = tablename;
         this.allColumns = allColumns;
+        this.selectColumns = selectColumns;
         this.pkColumns = pkColumns;
+        updateStatementsByColumnMask = new LongHashMap<SQLiteStatement>();
+        insertStatementsByRowCount = new LongHashMap<SQLiteStatement>();
     }
 
     protected SQLiteStatement getInsertStatement() {
@@ -49,6 +62,33 @@ public class TableStatements {
         return insertStatement;
     }
 
+    /**
+     * Returns an INSERT statement for the given number of rows, which must not exceed {@link #getMaxInsertRowCount()}.
+     * The parameters of the rows follow each other. Callers must synchronize on the single row insert statement.
+     */
+    protected SQLiteStatement getInsertStatement(int rowCount) {
+        if (rowCount == 1) {
+            return getInsertStatement();
+        } else if (rowCount < 1 || rowCount > getMaxInsertRowCount()) {
+            throw new DaoException("Illegal row count for insert: " + rowCount);
+        }
+        synchronized (insertStatementsByRowCount) {
+            SQLiteStatement statement = insertStatementsByRowCount.get(rowCount);
+            if (statement == null) {
+                String sql = SqlUtils.createSqlInsert("INSERT INTO ", tablename, allColumns, rowCount);
+                statement = db.compileStatement(sql);
+                insertStatementsByRowCount.put(rowCount, statement);
+            }
+            return statement;
+        }
+    }
+
+    /** Maximum number of rows for {@link #getInsertStatement(int)} respecting SQLite's variable and VALUES limits. */
+    protected int getMaxInsertRowCount() {
+        int maxRows = QueryBuilder.MAX_SQL_VARIABLES / allColumns.length;
+        return Math.max(1, Math.min(maxRows, MAX_INSERT_ROWS));
+    }
+
     protected SQLiteStatement getInsertOrReplaceStatement() {
         if (insertOrReplaceStatement == null) {
             String sql = SqlUtils.createSqlInsert("INSERT OR REPLACE INTO ", tablename, allColumns);
@@ -73,10 +113,36 @@ public class TableStatements {
         return updateStatement;
     }
 
-    /** ends with an space to simplify appending to this string. */
+    /**
+     * Returns an UPDATE statement for the columns selected by the given bit mask (bit index is the column index). The
+     * statement takes the same parameters as {@link #getUpdateStatement()}. Statements are cached by column mask; if
+     * there are too many different masks, or all columns are selected, the full update statement is returned. Callers
+     * must synchronize on the full update statement.
+     */
+    protected SQLiteStatement getUpdateStatement(long columnMask) {
+        long allColumnsMask = allColumns.length < 64 ? (1L << allColumns.length) - 1 : -1L;
+        columnMask &= allColumnsMask;
+        if (columnMask == allColumnsMask) {
+            return getUpdateStatement();
+        }
+        synchronized (updateStatementsByColumnMask) {
+            SQLiteStatement statement = updateStatementsByColumnMask.get(columnMask);
+            if (statement == null) {
+                if (updateStatementsByColumnMask.size() >= MAX_UPDATE_STATEMENTS_BY_COLUMN_MASK) {
+                    return getUpdateStatement();
+                }
+                String sql = SqlUtils.createSqlUpdate(tablename, allColumns, columnMask, pkColumns);
+                statement = db.compileStatement(sql);
+                updateStatementsByColumnMask.put(columnMask, statement);
+            }
+            return statement;
+        }
+    }
+
+    /** ends with an space to simplify appending to this string. Lazy columns are selected as NULL. */
     protected String getSelectAll() {
         if (selectAll == null) {
-            selectAll = SqlUtils.createSqlSelect(tablename, "T", allColumns);
+            selectAll = SqlUtils.createSqlSelect(tablename, "T", selectColumns);
         }
         return selectAll;
     }
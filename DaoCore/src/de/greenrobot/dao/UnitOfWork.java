@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects new, changed and removed entities of several DAOs and writes them in a single transaction using
+ * {@link #flush()}. Entities are written in batches per DAO using its compiled statements. Inserts and updates are
+ * ordered by to-one relations, so the target entities of a relation are written before the entities referencing them;
+ * deletes use the reverse order. DAOs with circular relations keep the order of their first registration.<br/>
+ * <br/>
+ * Acquire an instance using {@link AbstractDaoSession#newUnitOfWork()}. A unit of work is not thread-safe.<br/>
+ * New API note: this is more likely to change.
+ */
+public class UnitOfWork {
+
+    private final AbstractDaoSession session;
+    private final Map<AbstractDao<?, ?>, DaoWork> workByDao;
+    /** State of each registered entity; compared by identity. */
+    private final Map<Object, List<Object>> registrations;
+
+    UnitOfWork(AbstractDaoSession session) {
+        this.session = session;
+        workByDao = new LinkedHashMap<AbstractDao<?, ?>, DaoWork>();
+        registrations = new IdentityHashMap<Object, List<Object>>();
+    }
+
+    /** Registers an entity to insert. */
+    public void registerNew(Object entity) {
+        List<Object> registration = registrations.get(entity);
+        DaoWork work = getWork(entity);
+        if (registration == work.removedEntities) {
+            throw new DaoException("Entity was registered as removed: " + entity);
+        } else if (registration == work.dirtyEntities) {
+            throw new DaoException("Entity was registered as dirty: " + entity);
+        } else if (registration == null) {
+            register(entity, work.newEntities);
+        }
+    }
+
+    /** Registers an entity to update; does nothing if the entity was registered as new. */
+    public void registerDirty(Object entity) {
+        List<Object> registration = registrations.get(entity);
+        DaoWork work = getWork(entity);
+        if (registration == work.removedEntities) {
+            throw new DaoException("Entity was registered as removed: " + entity);
+        } else if (registration == null) {
+            register(entity, work.dirtyEntities);
+        }
+    }
+
+    /** Registers an entity to delete. An entity registered as new is just unregistered. */
+    public void registerRemoved(Object entity) {
+        List<Object> registration = registrations.get(entity);
+        DaoWork work = getWork(entity);
+        if (registration == work.newEntities) {
+            removeByIdentity(work.newEntities, entity);
+            registrations.remove(entity);
+        } else if (registration != work.removedEntities) {
+            if (registration == work.dirtyEntities) {
+                removeByIdentity(work.dirtyEntities, entity);
+            }
+            register(entity, work.removedEntities);
+        }
+    }
+
+    private void register(Object entity, List<Object> entities) {
+        entities.add(entity);
+        registrations.put(entity, entities);
+    }
+
+    private static void removeByIdentity(List<Object> entities, Object entity) {
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i) == entity) {
+                entities.remove(i);
+                return;
+            }
+        }
+    }
+
+    private DaoWork getWork(Object entity) {
+        AbstractDao<?, ?> dao = session.getDao(entity.getClass());
+        DaoWork work = workByDao.get(dao);
+        if (work == null) {
+            work = new DaoWork(dao, entity.getClass());
+            workByDao.put(dao, work);
+        }
+        return work;
+    }
+
+    /** Number of registered entities. */
+    public int getRegisteredCount() {
+        return registrations.size();
+    }
+
+    /**
+     * Writes all registered entities in a single transaction and clears the registrations. If writing fails, the
+     * transaction is rolled back and the registrations are kept. New entities inserted before the failure are detached
+     * from the identity scope again, but keep the PKs assigned by the insert.
+     */
+    public void flush() {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        final List<DaoWork> orderedWork = getOrderedWork();
+        try {
+            session.runInTx(new Runnable() {
+                @Override
+                public void run() {
+                    for (DaoWork work : orderedWork) {
+                        work.insertAndUpdate();
+                    }
+                    for (int i = orderedWork.size() - 1; i >= 0; i--) {
+                        orderedWork.get(i).delete();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            for (DaoWork work : orderedWork) {
+                work.detachNew();
+            }
+            throw e;
+        }
+        clear();
+    }
+
+    /** Removes all registrations without writing anything. */
+    public void clear() {
+        workByDao.clear();
+        registrations.clear();
+    }
+
+    /**
+     * Returns the entity classes of registered entities in the order their inserts and updates will be written
+     * (deletes use the reverse order).
+     */
+    public List<Class<?>> getFlushOrder() {
+        List<Class<?>> entityClasses = new ArrayList<Class<?>>();
+        for (DaoWork work : getOrderedWork()) {
+            entityClasses.add(work.entityClass);
+        }
+        return entityClasses;
+    }
+
+    /** Orders the DAOs topologically by to-one relations, keeping the registration order if possible. */
+    private List<DaoWork> getOrderedWork() {
+        List<DaoWork> remaining = new ArrayList<DaoWork>(workByDao.values());
+        List<DaoWork> ordered = new ArrayList<DaoWork>(remaining.size());
+        while (!remaining.isEmpty()) {
+            DaoWork next = null;
+            for (DaoWork work : remaining) {
+                if (!dependsOnAny(work, remaining)) {
+                    next = work;
+                    break;
+                }
+            }
+            if (next == null) {
+                // Circular relations
+                next = remaining.get(0);
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    private boolean dependsOnAny(DaoWork work, List<DaoWork> others) {
+        for (Class<?> targetClass : work.dao.getToOneEntityClasses()) {
+            for (DaoWork other : others) {
+                if (other != work && other.entityClass == targetClass) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class DaoWork {
+        final AbstractDao<?, ?> dao;
+        final Class<?> entityClass;
+        final List<Object> newEntities = new ArrayList<Object>();
+        final List<Object> dirtyEntities = new ArrayList<Object>();
+        final List<Object> removedEntities = new ArrayList<Object>();
+
+        DaoWork(AbstractDao<?, ?> dao, Class<?> entityClass) {
+            this.dao = dao;
+            this.entityClass = entityClass;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void insertAndUpdate() {
+            if (!newEntities.isEmpty()) {
+                ((AbstractDao) dao).insertInTx(newEntities);
+            }
+            if (!dirtyEntities.isEmpty()) {
+                ((AbstractDao) dao).updateInTx(dirtyEntities);
+            }
+        }
+
+        /** The inserts were rolled back, but attached the entities to the identity scope. */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void detachNew() {
+            for (Object entity : newEntities) {
+                if (((AbstractDao) dao).getKey(entity) != null) {
+                    ((AbstractDao) dao).detach(entity);
+                }
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void delete() {
+            if (!removedEntities.isEmpty()) {
+                ((AbstractDao) dao).deleteInTx(removedEntities);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * A repeatable query for updating properties of all matching entities using a single UPDATE statement, without loading
+ * the entities. The update values are the first parameters of the query, followed by the where values.<br/>
+ * New API note: this is more likely to change.
+ * 
+ * @param <T>
+ *            The enitity class the query will update.
+ */
+public class UpdateQuery<T> extends AbstractQuery<T> {
+
+    /** Selects the PKs of the matching rows, or null if the DAO has neither an identity scope nor a lazy property cache. */
+    private final String selectKeysSql;
+    private final int updateValueCount;
+    private SQLiteStatement compiledStatement;
+
+    UpdateQuery(AbstractDao<T, ?> dao, String sql, Collection<Object> valueList, String selectKeysSql,
+            int updateValueCount) {
+        super(dao, sql, valueList);
+        this.selectKeysSql = selectKeysSql;
+        this.updateValueCount = updateValueCount;
+    }
+
+    /**
+     * Updates all matching entities. Entities of the identity scope (aka session/cache) affected by the update are
+     * refreshed, so local changes of those entities are overwritten like using {@link AbstractDao#refresh(Object)}.
+     */
+    public void executeUpdate() {
+        execute(dao, true);
+    }
+
+    /**
+     * Updates all matching entities and detaches affected entities from the identity scope (aka session/cache). This is
+     * cheaper than {@link #executeUpdate()}, but already loaded entity objects keep their old values.
+     */
+    public void executeUpdateAndDetachEntities() {
+        execute(dao, false);
+    }
+
+    /**
+     * Updates all matching entities without touching the identity scope (aka session/cache). Note that this method may
+     * lead to stale entity objects in the session cache.
+     */
+    public synchronized void executeUpdateWithoutDetachingEntities() {
+        if (compiledStatement != null) {
+            compiledStatement.clearBindings();
+        } else {
+            compiledStatement = dao.db.compileStatement(sql);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            String value = parameters[i];
+            if (value != null) {
+                compiledStatement.bindString(i + 1, value);
+            } else {
+                compiledStatement.bindNull(i + 1);
+            }
+        }
+        compiledStatement.execute();
+    }
+
+    private synchronized <K> void execute(AbstractDao<T, K> dao, boolean refresh) {
+        if (dao.identityScope == null && !dao.hasLazyPropertyCache()) {
+            executeUpdateWithoutDetachingEntities();
+            return;
+        }
+        List<K> keys = null;
+        dao.db.beginTransaction();
+        try {
+            if (selectKeysSql != null) {
+                String[] whereParameters = new String[parameters.length - updateValueCount];
+                System.arraycopy(parameters, updateValueCount, whereParameters, 0, whereParameters.length);
+                keys = dao.loadKeys(selectKeysSql, whereParameters);
+            }
+            executeUpdateWithoutDetachingEntities();
+            dao.db.setTransactionSuccessful();
+        } finally {
+            dao.db.endTransaction();
+        }
+        dao.evictLazyProperties(keys);
+        if (dao.identityScope == null) {
+            return;
+        } else if (keys == null) {
+            dao.identityScope.clear();
+        } else if (refresh) {
+            dao.refreshInIdentityScope(keys);
+        } else {
+            dao.identityScope.remove(keys);
+        }
+    }
+
+}
@@ -67,7 +67,7 @@ public interface WhereCondition {
 
     public static class PropertyCondition extends AbstractCondition {
 
-        private static Object checkValueForType(Property property, Object value) {
+        static Object checkValueForType(Property property, Object value) {
             Class<?> type = property.type;
             if (type == Date.class) {
                 if (value instanceof Date) {
@@ -138,6 +138,71 @@ public interface WhereCondition {
 
     }
 
+    /**
+     * An "IN (..., ..., ...)" condition. If a query has more parameters than SQLite allows, the values of an IN condition
+     * are split into chunks executed separately (see {@link QueryBuilder#MAX_SQL_VARIABLES}).
+     */
+    public static class InCondition extends PropertyCondition {
+
+        private static String createOp(int valueCount) {
+            StringBuilder op = new StringBuilder(" IN (");
+            SqlUtils.appendPlaceholders(op, valueCount).append(')');
+            return op.toString();
+        }
+
+        public InCondition(Property property, Object[] values) {
+            super(property, createOp(values.length), values);
+        }
+
+        public int getValueCount() {
+            return values.length;
+        }
+
+        /** Appends the SQL up to (and including) the opening bracket of the value list. */
+        void appendToValueList(StringBuilder builder, String tableAlias) {
+            if (tableAlias != null) {
+                builder.append(tableAlias).append('.');
+            }
+            builder.append(property.columnName).append(" IN (");
+        }
+
+    }
+
+    /**
+     * Combines conditions using a logical operator like AND or OR. The SQL is created when the query is built, so the
+     * combined conditions use the table alias of the query.
+     */
+    public static class CombinedCondition implements WhereCondition {
+
+        protected final String combineOp;
+        protected final WhereCondition[] conditions;
+
+        public CombinedCondition(String combineOp, WhereCondition... conditions) {
+            this.combineOp = combineOp;
+            this.conditions = conditions;
+        }
+
+        @Override
+        public void appendTo(StringBuilder builder, String tableAlias) {
+            builder.append('(');
+            for (int i = 0; i < conditions.length; i++) {
+                if (i > 0) {
+                    builder.append(combineOp);
+                }
+                conditions[i].appendTo(builder, tableAlias);
+            }
+            builder.append(')');
+        }
+
+        @Override
+        public void appendValuesTo(List<Object> values) {
+            for (WhereCondition condition : conditions) {
+                condition.appendValuesTo(values);
+            }
+        }
+
+    }
+
     public static class StringCondition extends AbstractCondition {
 
         protected final String string;
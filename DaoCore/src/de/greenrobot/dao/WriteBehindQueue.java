@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.greenrobot.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues entity writes and executes them later in a single transaction, saving the overhead of one implicit
+ * transaction per write. Writes are flushed once the number of pending writes reaches {@link #getMaxPendingWrites()},
+ * after {@link #getMaxDelayMillis()} passed since the first pending write, or when {@link #flush()} is called. Each
+ * write returns a Future, which completes once the write is committed (or failed).<br/>
+ * <br/>
+ * Consecutive writes to the same entity (same DAO and PK) are coalesced into a single write:
+ * <ul>
+ * <li>An update is merged into a pending insert or update, which will write the latest entity values. An update
+ * following a pending delete is dropped.</li>
+ * <li>A delete replaces any pending write.</li>
+ * <li>An insert following any pending write becomes an INSERT OR REPLACE.</li>
+ * </ul>
+ * Entities without PK (e.g. new entities with auto increment PK) are not coalesced. Writes are executed in the order
+ * they were queued, so writes depending on each other (e.g. inserting a parent before its children) keep working with
+ * foreign key constraints. If a write fails, the transaction is rolled back and the Futures of all writes of the flush
+ * fail.<br/>
+ * <br/>
+ * Acquire an instance using {@link AbstractDaoSession#getWriteBehindQueue()}.<br/>
+ * New API note: this is more likely to change.
+ */
+public class WriteBehindQueue {
+
+    public static final int DEFAULT_MAX_PENDING_WRITES = 100;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 500;
+
+    private static enum Operation {
+        Insert, InsertOrReplace, Update, Delete
+    }
+
+    private final AbstractDaoSession session;
+    private final ScheduledExecutorService executor;
+    private final Runnable flushRunnable;
+    /** Guards writing to the database, so flushes are executed one after another. */
+    private final Object flushLock = new Object();
+
+    /** Pending writes in the order they were queued. */
+    private List<PendingWrite> pending;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean flushSubmitted;
+
+    private volatile int maxPendingWrites = DEFAULT_MAX_PENDING_WRITES;
+    private volatile long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+    WriteBehindQueue(AbstractDaoSession session) {
+        this.session = session;
+        pending = new ArrayList<PendingWrite>();
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "greenDAO write-behind");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        flushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    // Futures were notified already
+                    DaoLog.w("Write-behind flush failed", e);
+                }
+            }
+        };
+    }
+
+    /** Queues an insert of the given entity; the Future returns the entity (with PK set if the entity is updateable). */
+    public <T> Future<T> insert(T entity) {
+        return enqueue(Operation.Insert, entity);
+    }
+
+    /** Queues an insert or replace of the given entity; the Future returns the entity. */
+    public <T> Future<T> insertOrReplace(T entity) {
+        return enqueue(Operation.InsertOrReplace, entity);
+    }
+
+    /** Queues an update of the given entity; the Future returns the entity. */
+    public <T> Future<T> update(T entity) {
+        return enqueue(Operation.Update, entity);
+    }
+
+    /** Queues a delete of the given entity; the Future returns the entity. */
+    public <T> Future<T> delete(T entity) {
+        return enqueue(Operation.Delete, entity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Future<T> enqueue(Operation operation, T entity) {
+        if (executor.isShutdown()) {
+            throw new DaoException("Write-behind queue was closed");
+        }
+        AbstractDao<T, ?> dao = (AbstractDao<T, ?>) session.getDao(entity.getClass());
+        WriteFuture<T> future = new WriteFuture<T>(entity);
+        Object key = dao.getKey(entity);
+        // Only coalesce with the last pending write, so writes to other entities keep their order
+        PendingWrite last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+        if (key != null && last != null && last.dao == dao && key.equals(last.key)) {
+            last.merge(operation, entity, future);
+        } else {
+            pending.add(new PendingWrite(dao, key, operation, entity, future));
+            if (pending.size() >= maxPendingWrites) {
+                if (!flushSubmitted) {
+                    flushSubmitted = true;
+                    executor.execute(flushRunnable);
+                }
+            } else if (scheduledFlush == null && !flushSubmitted) {
+                scheduledFlush = executor.schedule(flushRunnable, maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    /** Number of pending (coalesced) writes. */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending writes in a single transaction using the calling thread. Returns after the transaction was
+     * committed, or throws the exception causing the rollback.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            final List<PendingWrite> toWrite;
+            synchronized (this) {
+                toWrite = pending;
+                pending = new ArrayList<PendingWrite>();
+                flushSubmitted = false;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            if (toWrite.isEmpty()) {
+                return;
+            }
+            try {
+                session.runInTx(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (PendingWrite pendingWrite : toWrite) {
+                            pendingWrite.execute();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                for (PendingWrite pendingWrite : toWrite) {
+                    pendingWrite.fail(e);
+                }
+                throw e;
+            }
+            for (PendingWrite pendingWrite : toWrite) {
+                pendingWrite.complete();
+            }
+        }
+    }
+
+    /** Flushes pending writes and stops the background thread. Subsequent writes will throw. */
+    public void close() {
+        synchronized (this) {
+            executor.shutdown();
+        }
+        flush();
+    }
+
+    public int getMaxPendingWrites() {
+        return maxPendingWrites;
+    }
+
+    /** Number of pending writes triggering a flush in the background. */
+    public void setMaxPendingWrites(int maxPendingWrites) {
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /** Maximum time a write stays pending until it is flushed in the background. */
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    private static class PendingWrite {
+        final AbstractDao<?, ?> dao;
+        /** PK of the entity, or null if the entity has no PK yet. */
+        final Object key;
+        Operation operation;
+        Object entity;
+        final List<WriteFuture<?>> futures = new ArrayList<WriteFuture<?>>(1);
+
+        PendingWrite(AbstractDao<?, ?> dao, Object key, Operation operation, Object entity, WriteFuture<?> future) {
+            this.dao = dao;
+            this.key = key;
+            this.operation = operation;
+            this.entity = entity;
+            futures.add(future);
+        }
+
+        void merge(Operation nextOperation, Object nextEntity, WriteFuture<?> future) {
+            futures.add(future);
+            if (nextOperation == Operation.Update) {
+                if (operation == Operation.Delete) {
+                    return;
+                }
+            } else if (nextOperation == Operation.Delete) {
+                operation = Operation.Delete;
+            } else {
+                operation = Operation.InsertOrReplace;
+            }
+            entity = nextEntity;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> void execute() {
+            AbstractDao<T, ?> dao = (AbstractDao<T, ?>) this.dao;
+            T entity = (T) this.entity;
+            switch (operation) {
+            case Insert:
+                dao.insert(entity);
+                break;
+            case InsertOrReplace:
+                dao.insertOrReplace(entity);
+                break;
+            case Update:
+                dao.update(entity);
+                break;
+            case Delete:
+                dao.delete(entity);
+                break;
+            }
+        }
+
+        void complete() {
+            for (WriteFuture<?> future : futures) {
+                future.complete();
+            }
+        }
+
+        void fail(Throwable throwable) {
+            for (WriteFuture<?> future : futures) {
+                future.fail(throwable);
+            }
+        }
+    }
+
+    /** Completed by running it after the write; the result is the entity passed to the write. */
+    private static class WriteFuture<T> extends FutureTask<T> {
+        WriteFuture(final T entity) {
+            super(new Callable<T>() {
+                @Override
+                public T call() {
+                    return entity;
+                }
+            });
+        }
+
+        void complete() {
+            run();
+        }
+
+        void fail(Throwable throwable) {
+            setException(throwable);
+        }
+    }
+
+}
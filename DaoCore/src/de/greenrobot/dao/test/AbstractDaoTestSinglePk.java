@@ -89,6 +89,19 @@ public abstract class AbstractDaoTestSinglePk<D extends AbstractDao<T, K>, T, K>
         assertEquals(list.size(), dao.count());
     }
 
+    public void testInsertMultiRowInTx() {
+        dao.deleteAll();
+        List<T> list = new ArrayList<T>();
+        for (int i = 0; i < 25; i++) {
+            list.add(createEntityWithRandomPk());
+        }
+        dao.insertMultiRowInTx(list, 10);
+        assertEquals(list.size(), dao.count());
+        for (T entity : list) {
+            assertNotNull(dao.load(daoAccess.getKey(entity)));
+        }
+    }
+
     public void testAssignPk() {
         if (daoAccess.isEntityUpdateable()) {
             T entity1 = createEntity(null);
@@ -167,6 +180,63 @@ public abstract class AbstractDaoTestSinglePk<D extends AbstractDao<T, K>, T, K>
         }
     }
 
+    public void testInsertOrReplaceInTx() {
+        dao.deleteAll();
+        List<T> listPartial = new ArrayList<T>();
+        List<T> listAll = new ArrayList<T>();
+        for (int i = 0; i < 20; i++) {
+            T entity = createEntityWithRandomPk();
+            if (i % 2 == 0) {
+                listPartial.add(entity);
+            }
+            listAll.add(entity);
+        }
+        dao.insertOrReplaceInTx(listPartial);
+        dao.insertOrReplaceInTx(listAll);
+        assertEquals(listAll.size(), dao.count());
+    }
+
+    public void testDeleteInTx() {
+        List<T> entityList = new ArrayList<T>();
+        for (int i = 0; i < 10; i++) {
+            T entity = createEntityWithRandomPk();
+            entityList.add(entity);
+        }
+        dao.insertInTx(entityList);
+        List<T> entitiesToDelete = new ArrayList<T>();
+        entitiesToDelete.add(entityList.get(0));
+        entitiesToDelete.add(entityList.get(3));
+        entitiesToDelete.add(entityList.get(4));
+        entitiesToDelete.add(entityList.get(8));
+        dao.deleteInTx(entitiesToDelete);
+        assertEquals(entityList.size() - entitiesToDelete.size(), dao.count());
+        for (T deletedEntity : entitiesToDelete) {
+            K key = daoAccess.getKey(deletedEntity);
+            assertNotNull(key);
+            assertNull(dao.load(key));
+        }
+    }
+
+    public void testDeleteByKeyInTx() {
+        List<T> entityList = new ArrayList<T>();
+        for (int i = 0; i < 10; i++) {
+            T entity = createEntityWithRandomPk();
+            entityList.add(entity);
+        }
+        dao.insertInTx(entityList);
+        List<K> keysToDelete = new ArrayList<K>();
+        keysToDelete.add(daoAccess.getKey(entityList.get(0)));
+        keysToDelete.add(daoAccess.getKey(entityList.get(3)));
+        keysToDelete.add(daoAccess.getKey(entityList.get(4)));
+        keysToDelete.add(daoAccess.getKey(entityList.get(8)));
+        dao.deleteByKeyInTx(keysToDelete);
+        assertEquals(entityList.size() - keysToDelete.size(), dao.count());
+        for (K key : keysToDelete) {
+            assertNotNull(key);
+            assertNull(dao.load(key));
+        }
+    }
+
     public void testRowId() {
         T entity1 = createEntityWithRandomPk();
         T entity2 = createEntityWithRandomPk();
@@ -298,4 +368,4 @@ public abstract class AbstractDaoTestSinglePk<D extends AbstractDao<T, K>, T, K>
      */
     protected abstract T createEntity(K key);
 
-}
\ No newline at end of file
+}
\ No newline at end of file
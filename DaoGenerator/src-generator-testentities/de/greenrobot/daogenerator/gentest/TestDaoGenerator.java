@@ -22,6 +22,7 @@ import de.greenrobot.daogenerator.Entity;
 import de.greenrobot.daogenerator.Property;
 import de.greenrobot.daogenerator.Schema;
 import de.greenrobot.daogenerator.ToMany;
+import de.greenrobot.daogenerator.ToOne;
 
 /**
  * Generates test entities for test project DaoTest.
@@ -54,6 +55,10 @@ public class TestDaoGenerator {
 		createTreeEntity();
 		createActive();
 		createExtendsImplements();
+		createDirtyTracking();
+		createOnDelete();
+		createHollow();
+		createLazyProperty();
 
 		createSchema2();
 	}
@@ -117,6 +122,7 @@ public class TestDaoGenerator {
 		relationEntity.addToOne(this.testEntity, testIdNotNullProperty).setName("testNotNull");
 		relationEntity.addStringProperty("simpleString");
 		relationEntity.addToOneWithoutProperty("testWithoutProperty", this.testEntity, "WITHOUT_PROPERTY_TEST_ID");
+		relationEntity.setDeepLoadingDepth(2);
 	}
 
 	protected void createToMany() {
@@ -147,14 +153,24 @@ public class TestDaoGenerator {
 		toManyJoinTwo.setName("ToManyJoinTwo");
 		toManyJoinTwo.orderDesc(targetJoinProperty);
 		toManyJoinTwo.orderDesc(targetIdProperty);
+
+		ToMany toManyLazy = toManyEntity.addToMany(toManyTargetEntity, toManyIdProperty);
+		toManyLazy.setName("ToManyLazyList");
+		toManyLazy.orderAsc(targetIdProperty);
+		toManyLazy.setLazyList(true);
+
+		ToMany toManyLinked = toManyEntity.addToManyWithJoinEntity(toManyTargetEntity, "ToManyLink");
+		toManyLinked.setName("ToManyLinked");
+		toManyLinked.orderDesc(targetIdProperty);
 	}
 
 	protected void createTreeEntity() {
 		Entity treeEntity = this.schema.addEntity("TreeEntity");
 		treeEntity.addIdProperty();
 		Property parentIdProperty = treeEntity.addLongProperty("parentId").getProperty();
-		treeEntity.addToOne(treeEntity, parentIdProperty).setName("parent");
+		ToOne parent = treeEntity.addToOne(treeEntity, parentIdProperty, "parent");
 		treeEntity.addToMany(treeEntity, parentIdProperty).setName("children");
+		treeEntity.addTreePathProperty("path", parent);
 	}
 
 	protected void createDate() {
@@ -209,6 +225,41 @@ public class TestDaoGenerator {
 		entity.implementsSerializable();
 	}
 
+	protected void createDirtyTracking() {
+		Entity dirtyTrackingEntity = this.schema.addEntity("DirtyTrackingEntity");
+		dirtyTrackingEntity.setDirtyTracking(true);
+		dirtyTrackingEntity.addIdProperty();
+		dirtyTrackingEntity.addIntProperty("simpleInteger");
+		dirtyTrackingEntity.addStringProperty("simpleString");
+		Property testIdProperty = dirtyTrackingEntity.addLongProperty("testId").getProperty();
+		dirtyTrackingEntity.addToOne(this.testEntity, testIdProperty);
+	}
+
+	protected void createOnDelete() {
+		Entity onDeleteEntity = this.schema.addEntity("OnDeleteEntity");
+		onDeleteEntity.addIdProperty();
+		Property parentIdProperty = onDeleteEntity.addLongProperty("parentId").getProperty();
+		onDeleteEntity.addToOne(onDeleteEntity, parentIdProperty, "parent").setOnDeleteCascade();
+		Property referenceIdProperty = onDeleteEntity.addLongProperty("referenceId").getProperty();
+		onDeleteEntity.addToOne(onDeleteEntity, referenceIdProperty, "reference").setOnDeleteSetNull();
+		onDeleteEntity.addStringProperty("simpleString");
+	}
+
+	protected void createHollow() {
+		Entity hollowEntity = this.schema.addEntity("HollowEntity");
+		hollowEntity.setHollowLoading(true);
+		hollowEntity.addIdProperty();
+		Property parentIdProperty = hollowEntity.addLongProperty("parentId").getProperty();
+		hollowEntity.addToOne(hollowEntity, parentIdProperty, "parent");
+		hollowEntity.addStringProperty("simpleString");
+	}
+
+	protected void createLazyProperty() {
+		Entity lazyPropertyEntity = this.schema.addEntity("LazyPropertyEntity");
+		lazyPropertyEntity.addIdProperty();
+		lazyPropertyEntity.addStringProperty("text").lazy();
+	}
+
 	private void createSchema2() {
 		this.schema2 = new Schema(1, "de.greenrobot.daotest2");
 		this.schema2.setDefaultJavaPackageTest("de.greenrobot.daotest2.entity");
@@ -17,47 +17,78 @@ You should have received a copy of the GNU General Public License
 along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
 
 -->
+<#--
+Deep loading joins the to-one targets up to entity.deepLoadingDepth hops. Aliases of nested targets extend the alias of
+their source (T0 -> T0_0, T0_1, ...); columns are selected in the same (depth-first) order the loader reads them.
+-->
+<#macro deepColumns toOnes aliasPrefix depth>
+<#list toOnes as toOne>
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "${aliasPrefix}${toOne_index}", daoSession.get${toOne.targetEntity.classNameDao}().getSelectColumns());
+<#if depth gt 1 && toOne.targetEntity.toOneRelations?has_content>
+<@deepColumns toOne.targetEntity.toOneRelations aliasPrefix + toOne_index + "_" depth - 1/>
+</#if>
+</#list>
+</#macro>
+<#macro deepJoins toOnes sourceAlias aliasPrefix depth>
+<#list toOnes as toOne>
+            builder.append(" LEFT JOIN ${toOne.targetEntity.tableName} ${aliasPrefix}${toOne_index}<#--
+--> ON ${sourceAlias}.'${toOne.fkProperties[0].columnName}'=${aliasPrefix}${toOne_index}.'${toOne.targetEntity.pkProperty.columnName}'");
+<#if depth gt 1 && toOne.targetEntity.toOneRelations?has_content>
+<@deepJoins toOne.targetEntity.toOneRelations aliasPrefix + toOne_index aliasPrefix + toOne_index + "_" depth - 1/>
+</#if>
+</#list>
+</#macro>
+<#macro deepLoad toOnes source depth last>
+<#list toOnes as toOne>
+<#local nested = depth gt 1 && toOne.targetEntity.toOneRelations?has_content/>
+<#local target><#if source == "entity">${toOne.name}<#else>${source}${toOne.name?cap_first}</#if></#local>
+        ${toOne.targetEntity.className} ${target} = loadCurrentOther(daoSession.get${toOne.targetEntity.classNameDao}(), cursor, offset);
+<#-- __resolve does not mark the FK as changed for dirty tracking -->
+<#local setter><#if toOne.useFkProperty>__resolve<#else>set</#if>${toOne.name?cap_first}</#local>
+<#if source == "entity">
+<#if toOne.fkProperties[0].notNull>         if(${target} != null) {
+    </#if>        entity.${setter}(${target});
+<#if toOne.fkProperties[0].notNull>
+        }
+</#if>
+<#else>
+        if (${source} != null<#if toOne.fkProperties[0].notNull> && ${target} != null</#if>) {
+            ${source}.${setter}(${target});
+        }
+</#if>
+<#if !(last && !toOne_has_next && !nested)>
+        offset += daoSession.get${toOne.targetEntity.classNameDao}().getAllColumns().length;
+</#if>
+
+<#if nested>
+<@deepLoad toOne.targetEntity.toOneRelations target depth - 1 last && !toOne_has_next/>
+</#if>
+</#list>
+</#macro>
 <#if entity.toOneRelations?has_content>
     private String selectDeep;
 
+    @Override
     protected String getSelectDeep() {
         if (selectDeep == null) {
             StringBuilder builder = new StringBuilder("SELECT ");
-            SqlUtils.appendColumns(builder, "T", getAllColumns());
-            builder.append(',');
-<#list entity.toOneRelations as toOne>
-            SqlUtils.appendColumns(builder, "T${toOne_index}", daoSession.get${toOne.targetEntity.classNameDao}().getAllColumns());
-<#if toOne_has_next>
-            builder.append(',');
-</#if>
-</#list>
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
+<@deepColumns entity.toOneRelations "T" entity.deepLoadingDepth/>
             builder.append(" FROM ${entity.tableName} T");
-<#list entity.toOneRelations as toOne>
-            builder.append(" LEFT JOIN ${toOne.targetEntity.tableName} T${toOne_index}<#--
---> ON T.'${toOne.fkProperties[0].columnName}'=T${toOne_index}.'${toOne.targetEntity.pkProperty.columnName}'");
-</#list>
+<@deepJoins entity.toOneRelations "T" "T" entity.deepLoadingDepth/>
             builder.append(' ');
             selectDeep = builder.toString();
         }
         return selectDeep;
     }
     
+    @Override
     protected ${entity.className} loadCurrentDeep(Cursor cursor, boolean lock) {
         ${entity.className} entity = loadCurrent(cursor, 0, lock);
         int offset = getAllColumns().length;
 
-<#list entity.toOneRelations as toOne>
-        ${toOne.targetEntity.className} ${toOne.name} = loadCurrentOther(daoSession.get${toOne.targetEntity.classNameDao}(), cursor, offset);
-<#if toOne.fkProperties[0].notNull>         if(${toOne.name} != null) {
-    </#if>        entity.set${toOne.name?cap_first}(${toOne.name});
-<#if toOne.fkProperties[0].notNull>
-        }
-</#if>
-<#if toOne_has_next>
-        offset += daoSession.get${toOne.targetEntity.classNameDao}().getAllColumns().length;
-</#if>
-
-</#list>
+<@deepLoad entity.toOneRelations "entity" entity.deepLoadingDepth true/>
         return entity;    
     }
 
@@ -88,42 +119,15 @@ along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
         }
     }
     
-    /** Reads all available rows from the given cursor and returns a list of new ImageTO objects. */
-    public List<${entity.className}> loadAllDeepFromCursor(Cursor cursor) {
-        int count = cursor.getCount();
-        List<${entity.className}> list = new ArrayList<${entity.className}>(count);
-        
-        if (cursor.moveToFirst()) {
-            if (identityScope != null) {
-                identityScope.lock();
-                identityScope.reserveRoom(count);
-            }
-            try {
-                do {
-                    list.add(loadCurrentDeep(cursor, false));
-                } while (cursor.moveToNext());
-            } finally {
-                if (identityScope != null) {
-                    identityScope.unlock();
-                }
-            }
-        }
-        return list;
-    }
-    
-    protected List<${entity.className}> loadDeepAllAndCloseCursor(Cursor cursor) {
-        try {
-            return loadAllDeepFromCursor(cursor);
-        } finally {
-            cursor.close();
-        }
-    }
-    
-
     /** A raw-style query where you can pass any WHERE clause and arguments. */
     public List<${entity.className}> queryDeep(String where, String... selectionArg) {
         Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
         return loadDeepAllAndCloseCursor(cursor);
     }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { <#list entity.toOneRelations as toOne>${toOne.targetEntity.className}.class<#if toOne_has_next>, </#if></#list> };
+    }
  
-</#if>
\ No newline at end of file
+</#if>
\ No newline at end of file
@@ -63,6 +63,23 @@ public class DaoMaster extends AbstractDaoMaster {
             Log.i("greenDAO", "Creating tables for schema version " + SCHEMA_VERSION);
             createAllTables(db, false);
         }
+<#assign onDeleteActions = false/>
+<#list schema.entities as entity>
+<#if entity.incomingOnDeleteProperties?has_content>
+<#assign onDeleteActions = true/>
+</#if>
+</#list>
+<#if onDeleteActions>
+
+        @Override
+        public void onOpen(SQLiteDatabase db) {
+            super.onOpen(db);
+            if (!db.isReadOnly()) {
+                // SQLite executes the ON DELETE actions of foreign keys only if enabled for the connection
+                db.execSQL("PRAGMA foreign_keys=ON;");
+            }
+        }
+</#if>
     }
     
     /** WARNING: Drops all table on Upgrade! Use only during development. */
@@ -21,18 +21,51 @@ along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
 <#assign toCursorType = {"Boolean":"Short", "Byte":"Short", "Short":"Short", "Int":"Int", "Long":"Long", "Float":"Float", "Double":"Double", "String":"String", "ByteArray":"Blob", "Date": "Long"  } />
 package ${entity.javaPackageDao};
 
-<#if entity.toOneRelations?has_content || entity.incomingToManyRelations?has_content>
-import java.util.List;
+<#assign prefetchToManyRelations = []/>
+<#list entity.toManyRelations as toMany>
+<#if toMany.sourceProperties?size == 1 && toMany.sourceProperties[0].propertyType == "Long" && toMany.targetProperties[0].propertyType == "Long">
+<#assign prefetchToManyRelations = prefetchToManyRelations + [toMany]/>
 </#if>
-<#if entity.toOneRelations?has_content>
+</#list>
+<#assign resolveToOneRelations = []/>
+<#list entity.toOneRelations as toOne>
+<#if toOne.useFkProperty && toOne.fkProperties[0].propertyType == "Long" && toOne.targetEntity.pkProperty?? && toOne.targetEntity.pkProperty.propertyType == "Long">
+<#assign resolveToOneRelations = resolveToOneRelations + [toOne]/>
+</#if>
+</#list>
+<#if prefetchToManyRelations?has_content || resolveToOneRelations?has_content>
 import java.util.ArrayList;
 </#if>
+<#assign cachedToManyRelations = []/>
+<#list entity.incomingToManyRelations as toMany>
+<#if !toMany.lazyList && !toMany.joinEntity?? && toMany.sourceProperties?size == 1 && toMany.sourceProperties[0].primaryKey && toMany.sourceProperties[0].propertyType == "Long" && toMany.targetProperties[0].propertyType == "Long">
+<#assign cachedToManyRelations = cachedToManyRelations + [toMany]/>
+</#if>
+</#list>
+<#if entity.incomingToManyRelations?has_content>
+import java.util.Collection;
+</#if>
+<#if cachedToManyRelations?has_content>
+import java.util.Comparator;
+</#if>
+<#if entity.toOneRelations?has_content || entity.toManyRelations?has_content || entity.incomingToManyRelations?has_content || entity.incomingOnDeleteProperties?has_content>
+import java.util.List;
+</#if>
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+<#if entity.treePathProperty??>
+import de.greenrobot.dao.DaoException;
+</#if>
+<#if entity.incomingToManyRelations?has_content || prefetchToManyRelations?has_content || resolveToOneRelations?has_content>
+import de.greenrobot.dao.LongHashMap;
+</#if>
+<#if entity.incomingOnDeleteProperties?has_content>
+import de.greenrobot.dao.OnDeleteCollector;
+</#if>
 import de.greenrobot.dao.Property;
 <#if entity.toOneRelations?has_content>
 import de.greenrobot.dao.SqlUtils;
@@ -67,7 +100,7 @@ public class ${entity.classNameDao} extends AbstractDao<${entity.className}, ${e
 
     public static class Properties {
 <#list entity.propertiesColumns as property>
-        public final static Property ${property.propertyName?cap_first} = new Property(${property_index}, ${property.javaType}.class, "${property.propertyName}", ${property.primaryKey?string}, "${property.columnName}");
+        public final static Property ${property.propertyName?cap_first} = new Property(${property_index}, ${property.javaType}.class, "${property.propertyName}", ${property.primaryKey?string}, "${property.columnName}"<#if property.lazy>, true</#if>);
 </#list>
     };
 
@@ -77,6 +110,26 @@ public class ${entity.classNameDao} extends AbstractDao<${entity.className}, ${e
 </#if>
 <#list entity.incomingToManyRelations as toMany>
     private Query<${toMany.targetEntity.className}> ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query;
+</#list>
+<#list cachedToManyRelations as toMany>
+<#if toMany.orderProperties?has_content>
+
+    /** Order of the "${toMany.name}" to-many relationship of ${toMany.sourceEntity.className}, used to update cached lists. */
+    private static final Comparator<${entity.className}> ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Comparator = <#--
+    -->new Comparator<${entity.className}>() {
+        @Override
+        public int compare(${entity.className} lhs, ${entity.className} rhs) {
+            int result;
+<#list toMany.orderProperties as property>
+            result = compareValues(lhs.get${property.propertyName?cap_first}(), rhs.get${property.propertyName?cap_first}());
+            if (result != 0) {
+                return <#if toMany.orderDirections[property_index] == "DESC">-</#if>result;
+            }
+</#list>
+            return 0;
+        }
+    };
+</#if>
 </#list>
 
     public ${entity.classNameDao}(DaoConfig config) {
@@ -96,15 +149,15 @@ public class ${entity.classNameDao} extends AbstractDao<${entity.className}, ${e
 <#list entity.propertiesColumns as property>
                 "'${property.columnName}' ${property.columnType}<#if property.constraints??> ${property.constraints} </#if><#if property_has_next>," +<#else>);";</#if> // ${property_index}: ${property.propertyName}
 </#list>
+        db.execSQL(sql);
 <#if entity.indexes?has_content >
-        // Add Indexes
+        // Add Indexes (one statement each, execSQL executes only the first statement)
 <#list entity.indexes as index>
-        sql += "CREATE <#if index.unique>UNIQUE </#if>INDEX ${index.name} ON ${entity.tableName}" +
+        db.execSQL("CREATE <#if index.unique>UNIQUE </#if>INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "${index.name} ON ${entity.tableName}" +
                 " (<#list index.properties 
-as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
+as property>${property.columnName}<#if property_has_next>,</#if></#list>);");
 </#list>
-</#if>         
-        db.execSQL(sql);
+</#if>
     }
 
     /** Drops the underlying database table. */
@@ -117,11 +170,17 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
     @Override
     protected void bindValues(SQLiteStatement stmt, ${entity.className} entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ${entity.className} entity, int offset) {
 <#list entity.properties as property>
 <#if property.notNull || entity.protobuf>
 <#if entity.protobuf>
         if(entity.has${property.propertyName?cap_first}()) {
-    </#if>        stmt.bind${toBindType[property.propertyType]}(${property_index + 1}, entity.get${property.propertyName?cap_first}()<#if
+    </#if>        stmt.bind${toBindType[property.propertyType]}(offset + ${property_index + 1}, entity.get${property.propertyName?cap_first}()<#if
      property.propertyType == "Boolean"> ? 1l: 0l</#if><#if property.propertyType == "Date">.getTime()</#if>);
 <#if entity.protobuf>
         }
@@ -129,7 +188,7 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
 <#else> <#-- nullable, non-protobuff -->
         ${property.javaType} ${property.propertyName} = entity.get${property.propertyName?cap_first}();
         if (${property.propertyName} != null) {
-            stmt.bind${toBindType[property.propertyType]}(${property_index + 1}, ${property.propertyName}<#if
+            stmt.bind${toBindType[property.propertyType]}(offset + ${property_index + 1}, ${property.propertyName}<#if
  property.propertyType == "Boolean"> ? 1l: 0l</#if><#if property.propertyType == "Date">.getTime()</#if>);
         }
 </#if>
@@ -152,11 +211,134 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
 </#list>
     }
 
-<#if entity.active>
+<#assign cachedFkNames = []/>
+<#list cachedToManyRelations as toMany>
+<#if !cachedFkNames?seq_contains(toMany.targetProperties[0].propertyName)>
+<#assign cachedFkNames = cachedFkNames + [toMany.targetProperties[0].propertyName]/>
+</#if>
+</#list>
+<#if entity.active || cachedFkNames?has_content>
     @Override
     protected void attachEntity(${entity.className} entity) {
         super.attachEntity(entity);
+<#if entity.active>
         entity.__setDaoSession(daoSession);
+</#if>
+<#list cachedFkNames as fkName>
+        Long previous${fkName?cap_first} = entity.__store${fkName?cap_first}();
+        if (isMaintainCachedToManyLists() && previous${fkName?cap_first} != null<#--
+        --> && !previous${fkName?cap_first}.equals(entity.get${fkName?cap_first}())) {
+            // The FK changed, so remove the entity from the list of the previous source
+<#list cachedToManyRelations as toMany>
+<#if toMany.targetProperties[0].propertyName == fkName>
+<#assign source = toMany.sourceEntity.className?uncap_first + toMany.name?cap_first + "Source"/>
+            ${toMany.sourceEntity.className} ${source} = getFromIdentityScope(${toMany.sourceEntity.className}.class, previous${fkName?cap_first});
+            if (${source} != null) {
+                synchronized (${source}) {
+                    updateCachedList(${source}.peak${toMany.name?cap_first}(), entity, true, null);
+                }
+            }
+</#if>
+</#list>
+        }
+</#list>
+    }
+
+</#if>
+<#if entity.propertiesLazy?has_content>
+    /** Binds like bindValues, but skips the lazy properties not loaded yet, which the update statement leaves out. */
+    @Override
+    protected void bindValuesForUpdate(SQLiteStatement stmt, ${entity.className} entity) {
+        stmt.clearBindings();
+        long lazyUnloaded = entity.__getLazyUnloaded();
+<#list entity.properties as property>
+<#if property.lazy>
+        if ((lazyUnloaded & 1L << ${property.ordinal}) == 0) {
+            ${property.javaType} ${property.propertyName} = entity.get${property.propertyName?cap_first}();
+            if (${property.propertyName} != null) {
+                stmt.bind${toBindType[property.propertyType]}(${property_index + 1}, ${property.propertyName});
+            }
+        }
+<#elseif property.notNull>
+        stmt.bind${toBindType[property.propertyType]}(${property_index + 1}, entity.get${property.propertyName?cap_first}()<#if
+     property.propertyType == "Boolean"> ? 1l: 0l</#if><#if property.propertyType == "Date">.getTime()</#if>);
+<#else>
+        ${property.javaType} ${property.propertyName} = entity.get${property.propertyName?cap_first}();
+        if (${property.propertyName} != null) {
+            stmt.bind${toBindType[property.propertyType]}(${property_index + 1}, ${property.propertyName}<#if
+ property.propertyType == "Boolean"> ? 1l: 0l</#if><#if property.propertyType == "Date">.getTime()</#if>);
+        }
+</#if>
+</#list>
+    }
+
+    @Override
+    protected long getLazyUnloadedFlags(${entity.className} entity) {
+        return entity.__getLazyUnloaded();
+    }
+
+</#if>
+<#if entity.dirtyTracking>
+    @Override
+    protected long getDirtyFlags(${entity.className} entity) {
+        return entity.__getDirtyFlags();
+    }
+
+    @Override
+    protected void clearDirtyFlags(${entity.className} entity) {
+        entity.__clearDirtyFlags();
+    }
+
+</#if>
+<#if entity.toOneRelations?has_content || entity.toManyRelations?has_content>
+    @Override
+    protected void collectRelatedEntities(${entity.className} entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+<#list entity.toOneRelations as toOne>
+        ${toOne.targetEntity.className} ${toOne.name} = entity.peak${toOne.name?cap_first}();
+        if (${toOne.name} != null) {
+            toOneTargets.add(${toOne.name});
+        }
+</#list>
+<#list entity.toManyRelations as toMany>
+<#if !toMany.joinEntity??>
+        List<${toMany.targetEntity.className}> ${toMany.name} = entity.peak${toMany.name?cap_first}();
+        if (${toMany.name} != null) {
+            toManyTargets.addAll(${toMany.name});
+        }
+</#if>
+</#list>
+    }
+
+</#if>
+<#if entity.toOneRelations?has_content>
+    @Override
+    protected void updateToOneKeys(${entity.className} entity) {
+<#list entity.toOneRelations as toOne>
+<#if toOne.useFkProperty>
+        ${toOne.targetEntity.className} ${toOne.name} = entity.peak${toOne.name?cap_first}();
+        if (${toOne.name} != null) {
+            entity.set${toOne.name?cap_first}(${toOne.name});
+        }
+</#if>
+</#list>
+    }
+
+</#if>
+<#if entity.toManyRelations?has_content>
+    @Override
+    protected void updateToManyKeys(${entity.className} entity) {
+<#list entity.toManyRelations as toMany>
+<#if !toMany.joinEntity??>
+        List<${toMany.targetEntity.className}> ${toMany.name} = entity.peak${toMany.name?cap_first}();
+        if (${toMany.name} != null) {
+            for (${toMany.targetEntity.className} target : ${toMany.name}) {
+<#list toMany.targetProperties as targetProperty>
+                target.set${targetProperty.propertyName?cap_first}(entity.get${toMany.sourceProperties[targetProperty_index].propertyName?cap_first}());
+</#list>
+            }
+        }
+</#if>
+</#list>
     }
 
 </#if>
@@ -194,13 +376,20 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
 -->
         ${entity.className} entity = new ${entity.className}( //
 <#list entity.properties as property>
+<#if property.lazy>
+            null<#if property_has_next>,</#if> // ${property.propertyName} (lazy)
+<#else>
             <#if !property.notNull>cursor.isNull(offset + ${property_index}) ? null : </#if><#if
             property.propertyType == "Byte">(byte) </#if><#if
             property.propertyType == "Date">new java.util.Date(</#if>cursor.get${toCursorType[property.propertyType]}(offset + ${property_index})<#if
             property.propertyType == "Boolean"> != 0</#if><#if
             property.propertyType == "Date">)</#if><#if property_has_next>,</#if> // ${property.propertyName}
+</#if>
 </#list>        
         );
+<#if entity.propertiesLazy?has_content>
+        entity.__unloadLazyProperties();
+</#if>
         return entity;
 <#else>
 <#--
@@ -219,12 +408,17 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
         throw new UnsupportedOperationException("Protobuf objects cannot be modified");
 <#else> 
 <#list entity.properties as property>
+<#if !property.lazy>
         entity.set${property.propertyName?cap_first}(<#if !property.notNull>cursor.isNull(offset + ${property_index}) ? null : </#if><#if
             property.propertyType == "Byte">(byte) </#if><#if
             property.propertyType == "Date">new java.util.Date(</#if>cursor.get${toCursorType[property.propertyType]}(offset + ${property_index})<#if
             property.propertyType == "Boolean"> != 0</#if><#if
             property.propertyType == "Date">)</#if>);
+</#if>
 </#list>
+<#if entity.propertiesLazy?has_content>
+        entity.__unloadLazyProperties();
+</#if>
 </#if>
      }
     
@@ -264,28 +458,273 @@ as property>${property.columnName}<#if property_has_next>,</#if></#list>);";
         return ${(!entity.protobuf)?string};
     }
     
+<#if entity.hollowLoading>
+    @Override
+    protected ${entity.className} createHollowEntity(${entity.pkType} key) {
+        ${entity.className} entity = new ${entity.className}();
+        entity.set${entity.pkProperty.propertyName?cap_first}(key);
+        entity.__setHollow();
+        return entity;
+    }
+
+    @Override
+    protected boolean clearHollow(${entity.className} entity) {
+        return entity.__clearHollow();
+    }
+
+</#if>
 <#list entity.incomingToManyRelations as toMany>
+<#if toMany.joinEntity??>
+<#assign joinEntity = toMany.joinEntity/>
+<#assign joinSourceName = toMany.joinSourceProperty.propertyName/>
+    /**
+     * Internal query to resolve the "${toMany.name}" many-to-many relationship of ${toMany.sourceEntity.className} using a JOIN
+     * with ${joinEntity.tableName}.
+     */
+    public List<${toMany.targetEntity.className}> _query${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(<#--
+    -->${toMany.sourceProperties[0].javaType} ${joinSourceName}) {
+        synchronized (this) {
+            if (${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query == null) {
+                QueryBuilder<${toMany.targetEntity.className}> queryBuilder = queryBuilder();
+                QueryBuilder<${joinEntity.className}> joinBuilder = queryBuilder.joinToMany(${joinEntity.className}.class, <#--
+                -->${joinEntity.classNameDao}.Properties.${toMany.joinTargetProperty.propertyName?cap_first});
+                joinBuilder.where(${joinEntity.classNameDao}.Properties.${joinSourceName?cap_first}.eq(${joinSourceName}));
+<#list toMany.orderProperties as property>
+                queryBuilder.order${toMany.orderDirections[property_index]?lower_case?cap_first}(Properties.${property.propertyName?cap_first});
+</#list>
+                ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query = queryBuilder.build();
+            }
+        }
+        Query<${toMany.targetEntity.className}> query = ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query.forCurrentThread();
+        query.setParameter(0, ${joinSourceName});
+        return query.<#if toMany.lazyList>listLazy<#else>list</#if>();
+    }
+
+    /** Internal query to resolve the "${toMany.name}" many-to-many relationship of several ${toMany.sourceEntity.className} entities. */
+    public LongHashMap<List<${toMany.targetEntity.className}>> _prefetch${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(Collection<Long> ${joinSourceName}Values) {
+        return loadGroupedByJoin(${joinEntity.classNameDao}.TABLENAME, ${joinEntity.classNameDao}.Properties.${joinSourceName?cap_first}.columnName,
+                ${joinEntity.classNameDao}.Properties.${toMany.joinTargetProperty.propertyName?cap_first}.columnName, ${joinSourceName}Values, <#--
+                --><#if toMany.orderProperties?has_content>"<#list toMany.orderProperties as property>T.'${property.columnName}' ${toMany.orderDirections[property_index]}<#if property_has_next>,</#if></#list>"<#else>null</#if>);
+    }
+
+<#else>
     /** Internal query to resolve the "${toMany.name}" to-many relationship of ${toMany.sourceEntity.className}. */
-    public synchronized List<${toMany.targetEntity.className}> _query${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(<#--
+    public List<${toMany.targetEntity.className}> _query${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(<#--
     --><#list toMany.targetProperties as property>${property.javaType} ${property.propertyName}<#if property_has_next>, </#if></#list>) {
-        if (${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query == null) {
-            QueryBuilder<${toMany.targetEntity.className}> queryBuilder = queryBuilder();
+        synchronized (this) {
+            if (${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query == null) {
+                QueryBuilder<${toMany.targetEntity.className}> queryBuilder = queryBuilder();
 <#list toMany.targetProperties as property>
-            queryBuilder.where(Properties.${property.propertyName?cap_first}.eq(${property.propertyName}));
+                queryBuilder.where(Properties.${property.propertyName?cap_first}.eq(${property.propertyName}));
 </#list>
 <#if toMany.order?has_content>
-            queryBuilder.orderRaw("${toMany.order}");
+                queryBuilder.orderRaw("${toMany.order}");
 </#if>
-            ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query = queryBuilder.build();
-        } else {
+                ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query = queryBuilder.build();
+            }
+        }
+        Query<${toMany.targetEntity.className}> query = ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query.forCurrentThread();
 <#list toMany.targetProperties as property>
-            ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query.setParameter(${property_index}, ${property.propertyName});
+        query.setParameter(${property_index}, ${property.propertyName});
 </#list>
-        }
-        return ${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Query.list();
+        return query.<#if toMany.lazyList>listLazy<#else>list</#if>();
     }
 
+<#if toMany.targetProperties?size == 1 && toMany.targetProperties[0].propertyType == "Long">
+    /** Internal query to resolve the "${toMany.name}" to-many relationship of several ${toMany.sourceEntity.className} entities. */
+    public LongHashMap<List<${toMany.targetEntity.className}>> _prefetch${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(Collection<Long> ${toMany.targetProperties[0].propertyName}Values) {
+        return loadGroupedBy(Properties.${toMany.targetProperties[0].propertyName?cap_first}, ${toMany.targetProperties[0].propertyName}Values, <#if toMany.order?has_content>"${toMany.order}"<#else>null</#if>);
+    }
+
+</#if>
+</#if>
 </#list>   
+<#if cachedToManyRelations?has_content>
+    @Override
+    protected void updateCachedToManyLists(${entity.className} entity, boolean deleted) {
+<#list cachedToManyRelations as toMany>
+<#assign source = toMany.sourceEntity.className?uncap_first + toMany.name?cap_first + "Source"/>
+        ${toMany.sourceEntity.className} ${source} = getFromIdentityScope(${toMany.sourceEntity.className}.class, <#--
+        -->entity.get${toMany.targetProperties[0].propertyName?cap_first}());
+        if (${source} != null) {
+            synchronized (${source}) {
+                updateCachedList(${source}.peak${toMany.name?cap_first}(), entity, deleted, <#--
+                --><#if toMany.orderProperties?has_content>${toMany.sourceEntity.className?uncap_first}_${toMany.name?cap_first}Comparator<#else>null</#if>);
+            }
+        }
+</#list>
+    }
+
+</#if>
+<#if entity.incomingOnDeleteProperties?has_content>
+    @Override
+    protected boolean hasOnDeleteActions() {
+        return true;
+    }
+
+    @Override
+    protected void collectOnDeleteActions(OnDeleteCollector collector, List<Long> keys) {
+<#list entity.incomingOnDeleteProperties as property>
+        // ${property.entity.className}.${property.propertyName}: ON DELETE ${property.onDelete}
+        collector.collect(session.getDao(${property.entity.className}.class), "${property.columnName}", ${property.onDeleteCascade?string}, keys);
+</#list>
+    }
+
+</#if>
+<#list prefetchToManyRelations as toMany>
+    /**
+     * Resolves the "${toMany.name}" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetch${toMany.name?cap_first}(List<${entity.className}> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (${entity.className} entity : entities) {
+            keys.add(entity.get${toMany.sourceProperties[0].propertyName?cap_first}());
+        }
+        LongHashMap<List<${toMany.targetEntity.className}>> targetsByKey = daoSession.get${toMany.targetEntity.classNameDao?cap_first}()<#--
+        -->._prefetch${toMany.sourceEntity.className?cap_first}_${toMany.name?cap_first}(keys);
+        for (${entity.className} entity : entities) {
+            Long key = entity.get${toMany.sourceProperties[0].propertyName?cap_first}();
+            List<${toMany.targetEntity.className}> targets = key != null ? targetsByKey.get(key) : null;
+            entity.set${toMany.name?cap_first}(targets != null ? targets : new ArrayList<${toMany.targetEntity.className}>());
+        }
+    }
+
+</#list>
+<#list resolveToOneRelations as toOne>
+    /**
+     * Resolves the "${toOne.name}" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolve${toOne.name?cap_first}(List<${entity.className}> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (${entity.className} entity : entities) {
+            keys.add(entity.get${toOne.fkProperties[0].propertyName?cap_first}());
+        }
+        LongHashMap<${toOne.targetEntity.className}> targetsByKey = daoSession.get${toOne.targetEntity.classNameDao?cap_first}().loadAllByKeys(keys);
+        for (${entity.className} entity : entities) {
+            Long key = entity.get${toOne.fkProperties[0].propertyName?cap_first}();
+            if (key != null) {
+                entity.__resolve${toOne.name?cap_first}(targetsByKey.get(key));
+            }
+        }
+    }
+
+</#list>
+<#assign maintainedProperties = []/>
+<#assign treePropertyNames = []/>
+<#if entity.treePathProperty??>
+<#assign treePropertyNames = [entity.treePathProperty.propertyName, entity.treeParent.fkProperties[0].propertyName]/>
+</#if>
+<#list entity.properties as property>
+<#if property.onDelete?? || treePropertyNames?seq_contains(property.propertyName)>
+<#assign maintainedProperties = maintainedProperties + [property]/>
+</#if>
+</#list>
+<#if maintainedProperties?has_content>
+    @Override
+    protected boolean isMaintainedProperty(Property property) {
+        return <#list maintainedProperties as property>property == Properties.${property.propertyName?cap_first}<#if property_has_next>
+                || </#if></#list>;
+    }
+
+</#if>
+<#if entity.treePathProperty??>
+<#assign pathName = entity.treePathProperty.propertyName?cap_first/>
+<#assign parentFkName = entity.treeParent.fkProperties[0].propertyName?cap_first/>
+<#assign pkName = entity.pkProperty.propertyName?cap_first/>
+    @Override
+    protected boolean hasTreePath() {
+        return true;
+    }
+
+    @Override
+    protected void updateTreePath(${entity.className} entity, boolean mayExist) {
+        Long parentKey = entity.get${parentFkName}();
+        Long key = entity.get${pkName}();
+        // Moving a subtree updates the paths of the entities in the identity scope, so their paths are current
+        String oldPath = null;
+        if (key != null && getFromIdentityScope(key) == entity) {
+            oldPath = entity.get${pathName}();
+            if (oldPath != null && isTreePathOfParent(oldPath, parentKey)) {
+                return;
+            }
+        }
+        String path;
+        if (parentKey == null) {
+            path = "/";
+        } else {
+            String parentPath = null;
+            ${entity.className} cachedParent = getFromIdentityScope(parentKey);
+            if (cachedParent != null<#if entity.hollowLoading> && !cachedParent.isHollow()</#if>) {
+                parentPath = cachedParent.get${pathName}();
+            }
+            if (parentPath == null) {
+                parentPath = loadTreePath(Properties.${pathName}, parentKey);
+            }
+            if (parentPath == null) {
+                // The parent may not be written yet, e.g. by insertMultiRowInTx
+                ${entity.className} parent = entity.peak${entity.treeParent.name?cap_first}();
+                if (parent != null && parentKey.equals(parent.get${pkName}())) {
+                    parentPath = parent.get${pathName}();
+                }
+                if (parentPath == null) {
+                    throw new DaoException("Tree parent does not exist: " + parentKey);
+                }
+            }
+            path = parentPath + parentKey + '/';
+        }
+        if (mayExist && key != null) {
+            if (oldPath == null) {
+                oldPath = loadTreePath(Properties.${pathName}, key);
+            }
+            if (oldPath != null && !oldPath.equals(path)) {
+                String oldPrefix = oldPath + key + '/';
+                if (path.startsWith(oldPrefix)) {
+                    throw new DaoException("Cannot move tree entity " + key + " below itself");
+                }
+                String newPrefix = path + key + '/';
+                for (${entity.className} descendant : moveTreePaths(Properties.${pathName}, oldPrefix, newPrefix)) {
+                    String descendantPath = descendant.get${pathName}();
+                    if (descendantPath != null && descendantPath.startsWith(oldPrefix)) {
+                        descendant.set${pathName}(newPrefix + descendantPath.substring(oldPrefix.length()));
+                    }
+                }
+            }
+        }
+        entity.set${pathName}(path);
+    }
+
+    /** Loads all tree entities without parent using the path index. */
+    public List<${entity.className}> queryRoots() {
+        return queryBuilder().where(Properties.${pathName}.eq("/")).orderAsc(Properties.${pkName}).list();
+    }
+
+    /** Loads the whole subtree below the given tree entity (excluding itself) using one range scan of the path index. */
+    public List<${entity.className}> queryDescendants(${entity.className} entity) {
+        return queryDescendants(entity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Loads the subtree below the given tree entity (excluding itself) up to the given number of levels (1 for children
+     * only) using one range scan of the path index. The entities are ordered by path, so siblings are adjacent.
+     */
+    public List<${entity.className}> queryDescendants(${entity.className} entity, int maxDepth) {
+        String prefix = entity.get${pathName}() + entity.get${pkName}() + '/';
+        return loadTreeDescendants(Properties.${pathName}, prefix, maxDepth);
+    }
+
+    /** Loads all ancestors of the given tree entity, starting with its root, using one query by the keys in its path. */
+    public List<${entity.className}> queryAncestors(${entity.className} entity) {
+        return loadTreeAncestors(Properties.${pathName}, entity.get${pathName}());
+    }
+
+    /** Returns the number of ancestors of the given tree entity (0 for roots) as given by its path. */
+    public int getTreeDepth(${entity.className} entity) {
+        return getTreeDepth(entity.get${pathName}());
+    }
+
+</#if>
 <#if entity.toOneRelations?has_content>
     <#include "dao-deep.ftl">
 </#if>
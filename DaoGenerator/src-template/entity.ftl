@@ -25,9 +25,16 @@ package ${entity.javaPackage};
 <#if entity.toManyRelations?has_content>
 import java.util.List;
 </#if>
+<#assign hasLazyToMany = false/>
+<#list entity.toManyRelations as toMany>
+<#if toMany.lazyList><#assign hasLazyToMany = true/></#if>
+</#list>
 <#if entity.active>
 import ${schema.defaultJavaPackageDao}.DaoSession;
 import de.greenrobot.dao.DaoException;
+<#if hasLazyToMany>
+import de.greenrobot.dao.LazyList;
+</#if>
 
 </#if>
 <#if entity.additionalImportsEntity?has_content>
@@ -59,6 +66,32 @@ as ifc>${ifc}<#if ifc_has_next>, </#if></#list></#if> {
 </#if>
     private ${property.javaType} ${property.propertyName};
 </#list>
+<#if entity.dirtyTracking>
+
+    /** Changed properties (bit index is the property ordinal); new entities are considered changed. */
+    private long __dirtyFlags = -1;
+</#if>
+<#if entity.hollowLoading>
+
+    /** If true, only the PK is set; the other properties are loaded on first access. */
+    private boolean __hollow;
+</#if>
+<#if entity.propertiesLazy?has_content>
+
+    /** Lazy properties not loaded yet (bit index is the property ordinal); loaded on first access. */
+    private long __lazyUnloaded;
+</#if>
+<#assign storedFkNames = []/>
+<#list entity.incomingToManyRelations as toMany>
+<#if !toMany.lazyList && !toMany.joinEntity?? && toMany.sourceProperties?size == 1 && toMany.sourceProperties[0].primaryKey && toMany.sourceProperties[0].propertyType == "Long" && toMany.targetProperties[0].propertyType == "Long" && !storedFkNames?seq_contains(toMany.targetProperties[0].propertyName)>
+<#assign storedFkNames = storedFkNames + [toMany.targetProperties[0].propertyName]/>
+</#if>
+</#list>
+<#list storedFkNames as fkName>
+
+    /** Value of ${fkName} in the database; lets the DAO remove the entity from the previous source's cached list. */
+    private Long __stored${fkName?cap_first};
+</#list>
 
 <#if entity.hasEasyDatastoreIntegration>
     public static String ds_entityName = "${entity.className}";
@@ -127,6 +160,18 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
     /** Not-null value. */
 </#if>
     public ${property.javaType} get${property.propertyName?cap_first}() {
+<#if entity.hollowLoading && !property.primaryKey>
+        __loadIfHollow();
+</#if>
+<#if property.lazy>
+        if ((__lazyUnloaded & 1L << ${property.ordinal}) != 0) {
+            if (myDao == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            ${property.propertyName} = (${property.javaType}) myDao.loadLazyProperty(${entity.classNameDao}.Properties.${property.propertyName?cap_first}, ${entity.pkProperty.propertyName});
+            __lazyUnloaded &= ~(1L << ${property.ordinal});
+        }
+</#if>
         return ${property.propertyName};
     }
 
@@ -134,19 +179,110 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
     /** Not-null value; ensure this value is available before it is saved to the database. */
 </#if>
     public void set${property.propertyName?cap_first}(${property.javaType} ${property.propertyName}) {
+<#if entity.hollowLoading && !property.primaryKey>
+        __loadIfHollow();
+</#if>
         this.${property.propertyName} = ${property.propertyName};
+<#if property.lazy>
+        __lazyUnloaded &= ~(1L << ${property.ordinal});
+</#if>
+<#if entity.dirtyTracking>
+        __dirtyFlags |= 1L << ${property.ordinal};
+</#if>
     }
 
 </#list>
+<#if entity.dirtyTracking>
+    /** called by internal mechanisms, do not call yourself. */
+    public long __getDirtyFlags() {
+        return __dirtyFlags;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __clearDirtyFlags() {
+        __dirtyFlags = 0;
+    }
+
+</#if>
+<#if entity.propertiesLazy?has_content>
+    /** called by internal mechanisms, do not call yourself. */
+    public long __getLazyUnloaded() {
+        return __lazyUnloaded;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Lazy properties are loaded again on next access. */
+    public void __unloadLazyProperties() {
+<#list entity.propertiesLazy as property>
+        ${property.propertyName} = null;
+</#list>
+        __lazyUnloaded = <#list entity.propertiesLazy as property>1L << ${property.ordinal}<#if property_has_next> | </#if></#list>;
+    }
+
+</#if>
+<#list storedFkNames as fkName>
+    /** called by internal mechanisms, do not call yourself. Stores the current value and returns the previous one. */
+    public Long __store${fkName?cap_first}() {
+        Long previous = __stored${fkName?cap_first};
+        __stored${fkName?cap_first} = ${fkName};
+        return previous;
+    }
+
+</#list>
+<#if entity.hollowLoading>
+    /** called by internal mechanisms, do not call yourself. */
+    public synchronized void __setHollow() {
+        __hollow = true;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Returns true if the entity was hollow. */
+    public synchronized boolean __clearHollow() {
+        boolean hollow = __hollow;
+        __hollow = false;
+        return hollow;
+    }
+
+    /** True if only the PK is set; the other properties are loaded on first access. */
+    public synchronized boolean isHollow() {
+        return __hollow;
+    }
+
+    private synchronized void __loadIfHollow() {
+        if (__hollow) {
+            if (myDao == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            __hollow = false;
+            try {
+                myDao.loadHollowProperties(this);
+            } catch (RuntimeException e) {
+                __hollow = true;
+                throw e;
+            }
+        }
+    }
+
+</#if>
 <#--
 ##########################################
 ########## To-One Relations ##############
 ##########################################
 -->
 <#list entity.toOneRelations as toOne>
+<#if toOne.useFkProperty && toOne.targetEntity.hollowLoading>
+    /**
+     * To-one relationship, resolved on first access without a query: a target not in the identity scope yet is
+     * returned hollow (see {@link ${toOne.targetEntity.classNameDao}#loadHollow(Object)}). Unlike load, this does not
+     * check if the target exists; for a FK without matching row, the hollow entity throws a DaoException on first
+     * property access instead of this returning null.
+     */
+<#else>
     /** To-one relationship, resolved on first access. */
+</#if>
     public ${toOne.targetEntity.className} get${toOne.name?cap_first}() {
 <#if toOne.useFkProperty>    
+<#if entity.hollowLoading>
+        __loadIfHollow();
+</#if>
         if (${toOne.name}__resolvedKey == null || <#--
         --><#if toOne.resolvedKeyUseEquals[0]>!${toOne.name}__resolvedKey.equals(${toOne.fkProperties[0].propertyName})<#--
         --><#else>${toOne.name}__resolvedKey != ${toOne.fkProperties[0].propertyName}</#if>) {
@@ -154,7 +290,7 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
                 throw new DaoException("Entity is detached from DAO context");
             }
             ${toOne.targetEntity.classNameDao} targetDao = daoSession.get${toOne.targetEntity.classNameDao?cap_first}();
-            ${toOne.name} = targetDao.load(${toOne.fkProperties[0].propertyName});
+            ${toOne.name} = targetDao.<#if toOne.targetEntity.hollowLoading>loadHollow<#else>load</#if>(${toOne.fkProperties[0].propertyName});
             ${toOne.name}__resolvedKey = ${toOne.fkProperties[0].propertyName};
         }
 <#else>
@@ -169,29 +305,49 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
 </#if>
         return ${toOne.name};
     }
-<#if !toOne.useFkProperty>
 
+
+<#if toOne.useFkProperty>
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+<#else>
     /** To-one relationship, returned entity is not refreshed and may carry only the PK property. */
+</#if>
     public ${toOne.targetEntity.className} peak${toOne.name?cap_first}() {
         return ${toOne.name};
     }
-</#if>
 
     public void set${toOne.name?cap_first}(${toOne.targetEntity.className} ${toOne.name}) {
 <#if toOne.fkProperties[0].notNull>
         if (${toOne.name} == null) {
             throw new DaoException("To-one property '${toOne.fkProperties[0].propertyName}' has not-null constraint; cannot set to-one to null");
         }
+</#if>
+<#if toOne.useFkProperty && entity.hollowLoading>
+        __loadIfHollow();
 </#if>
         this.${toOne.name} = ${toOne.name};
 <#if toOne.useFkProperty>        
         ${toOne.fkProperties[0].propertyName} = <#if !toOne.fkProperties[0].notNull>${toOne.name} == null ? null : </#if>${toOne.name}.get${toOne.targetEntity.pkProperty.propertyName?cap_first}();
+<#if entity.dirtyTracking>
+        __dirtyFlags |= 1L << ${toOne.fkProperties[0].ordinal};
+</#if>
         ${toOne.name}__resolvedKey = ${toOne.fkProperties[0].propertyName};
 <#else>
         ${toOne.name}__refreshed = true;
 </#if>
     }
 
+<#if toOne.useFkProperty>
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolve${toOne.name?cap_first}(${toOne.targetEntity.className} ${toOne.name}) {
+<#if entity.hollowLoading>
+        __loadIfHollow();
+</#if>
+        this.${toOne.name} = ${toOne.name};
+        ${toOne.name}__resolvedKey = ${toOne.fkProperties[0].propertyName};
+    }
+
+</#if>
 </#list>
 <#--
 ##########################################
@@ -199,7 +355,11 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
 ##########################################
 -->
 <#list entity.toManyRelations as toMany>
+<#if toMany.lazyList>
+    /** To-many relationship, resolved on first access (and after reset) as LazyList loading target entities on access. Changes to to-many relations are not persisted, make changes to the target entity. */
+<#else>
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
+</#if>
     public synchronized List<${toMany.targetEntity.className}> get${toMany.name?cap_first}() {
         if (${toMany.name} == null) {
             if (daoSession == null) {
@@ -212,9 +372,39 @@ property>${property.javaType} ${property.propertyName}<#if property_has_next>, <
         return ${toMany.name};
     }
 
+<#if toMany.lazyList>
+    /** Resets a to-many relationship, making the next get call to query for a fresh result. Closes a resolved LazyList. */
+    public synchronized void reset${toMany.name?cap_first}() {
+        if (${toMany.name} instanceof LazyList) {
+            ((LazyList<${toMany.targetEntity.className}>) ${toMany.name}).close();
+        }
+        ${toMany.name} = null;
+<#else>
     /** Resets a to-many relationship, making the next get call to query for a fresh result. */
     public synchronized void reset${toMany.name?cap_first}() {
         ${toMany.name} = null;
+</#if>
+    }
+
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<${toMany.targetEntity.className}> peak${toMany.name?cap_first}() {
+        return ${toMany.name};
+    }
+
+<#if toMany.lazyList>
+    /**
+     * Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. Closes a
+     * resolved LazyList replaced by the given list.
+     */
+    public synchronized void set${toMany.name?cap_first}(List<${toMany.targetEntity.className}> ${toMany.name}) {
+        if (this.${toMany.name} instanceof LazyList && this.${toMany.name} != ${toMany.name}) {
+            ((LazyList<${toMany.targetEntity.className}>) this.${toMany.name}).close();
+        }
+<#else>
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void set${toMany.name?cap_first}(List<${toMany.targetEntity.className}> ${toMany.name}) {
+</#if>
+        this.${toMany.name} = ${toMany.name};
     }
 
 </#list>
@@ -58,11 +58,13 @@ public class Entity {
 	private List<Property>				propertiesColumns;
 	private final List<Property>		propertiesPk;
 	private final List<Property>		propertiesNonPk;
+	private final List<Property>		propertiesLazy;
 	private final Set<String>			propertyNames;
 	private final List<Index>			indexes;
 	private final List<ToOne>			toOneRelations;
 	private final List<ToMany>			toManyRelations;
 	private final List<ToMany>			incomingToManyRelations;
+	private final List<Property>		incomingOnDeleteProperties;
 	private final Collection<String>	additionalImportsEntity;
 	private final Collection<String>	additionalImportsDao;
 	private final List<String>			interfacesToImplement;
@@ -84,6 +86,11 @@ public class Entity {
 	private Boolean						active;
 	private Boolean						hasKeepSections;
 	private Boolean						hasEasyDatastoreIntegration;
+	private boolean						dirtyTracking;
+	private int							deepLoadingDepth	= 1;
+	private boolean						hollowLoading;
+	private ToOne						treeParent;
+	private Property					treePathProperty;
 
 	Entity(Schema schema, String className) {
 		this.schema = schema;
@@ -91,11 +98,13 @@ public class Entity {
 		this.properties = new ArrayList<Property>();
 		this.propertiesPk = new ArrayList<Property>();
 		this.propertiesNonPk = new ArrayList<Property>();
+		this.propertiesLazy = new ArrayList<Property>();
 		this.propertyNames = new HashSet<String>();
 		this.indexes = new ArrayList<Index>();
 		this.toOneRelations = new ArrayList<ToOne>();
 		this.toManyRelations = new ArrayList<ToMany>();
 		this.incomingToManyRelations = new ArrayList<ToMany>();
+		this.incomingOnDeleteProperties = new ArrayList<Property>();
 		this.additionalImportsEntity = new TreeSet<String>();
 		this.additionalImportsDao = new TreeSet<String>();
 		this.interfacesToImplement = new ArrayList<String>();
@@ -198,6 +207,43 @@ public class Entity {
 		return toMany;
 	}
 
+	/**
+	 * Adds a many-to-many relationship to the given target entity using a join
+	 * entity, which is added to the schema using the given name. The join
+	 * entity has an ID property and two properties referencing the PKs of this
+	 * and the target entity. Its table gets two covering indexes (source,
+	 * target) and (target, source), so the relation can be resolved from both
+	 * sides using the index only.
+	 */
+	public ToMany addToManyWithJoinEntity(Entity target, String joinEntityName) {
+		Entity joinEntity = this.schema.addEntity(joinEntityName);
+		joinEntity.addIdProperty();
+		String sourceName = this.className.substring(0, 1).toLowerCase() + this.className.substring(1) + "Id";
+		String targetName = target.className.substring(0, 1).toLowerCase() + target.className.substring(1) + "Id";
+		if (sourceName.equals(targetName)) {
+			sourceName = "sourceId";
+			targetName = "targetId";
+		}
+		Property joinSourceProperty = joinEntity.addLongProperty(sourceName).notNull().getProperty();
+		Property joinTargetProperty = joinEntity.addLongProperty(targetName).notNull().getProperty();
+
+		Index index = new Index();
+		index.addProperty(joinSourceProperty);
+		index.addProperty(joinTargetProperty);
+		joinEntity.addIndex(index.makeUnique());
+		Index reverseIndex = new Index();
+		reverseIndex.addProperty(joinTargetProperty);
+		reverseIndex.addProperty(joinSourceProperty);
+		joinEntity.addIndex(reverseIndex);
+
+		Property[] targetProperties = { joinSourceProperty };
+		ToMany toMany = new ToMany(this.schema, this, null, target, targetProperties);
+		toMany.setJoinEntity(joinEntity, joinSourceProperty, joinTargetProperty);
+		this.toManyRelations.add(toMany);
+		target.incomingToManyRelations.add(toMany);
+		return toMany;
+	}
+
 	/**
 	 * Adds a to-one relationship to the given target entity using the given
 	 * given foreign key property (which belongs to this entity).
@@ -240,6 +286,33 @@ public class Entity {
 		return toOne;
 	}
 
+	/**
+	 * Makes this a tree entity keeping a materialized path: adds an indexed
+	 * String property holding the keys of all ancestors (e.g. "/1/5/" for a
+	 * grandchild of 1, "/" for roots) given by the parent relation, which must
+	 * refer to this entity. The DAO sets the path on insert and update; if a
+	 * parent changes, the paths of all descendants are rewritten with one
+	 * UPDATE statement (use a transaction to make this atomic with the update
+	 * of the moved entity). Subtree queries of the DAO use a range scan of the
+	 * path index, ancestor queries use the keys of the path.
+	 */
+	public PropertyBuilder addTreePathProperty(String propertyName, ToOne parent) {
+		if (parent.getTargetEntity() != this) {
+			throw new RuntimeException("Tree parent relation must refer to its source entity: " + this);
+		}
+		PropertyBuilder builder = addStringProperty(propertyName);
+		this.treePathProperty = builder.getProperty();
+		this.treeParent = parent;
+		Index index = new Index();
+		index.addProperty(this.treePathProperty);
+		addIndex(index);
+		return builder;
+	}
+
+	void addIncomingOnDeleteProperty(Property property) {
+		this.incomingOnDeleteProperties.add(property);
+	}
+
 	protected void addIncomingToMany(ToMany toMany) {
 		this.incomingToManyRelations.add(toMany);
 	}
@@ -337,6 +410,11 @@ public class Entity {
 		return this.propertiesNonPk;
 	}
 
+	/** Properties loaded on first access instead of with the entity (see {@link Property.PropertyBuilder#lazy()}). */
+	public List<Property> getPropertiesLazy() {
+		return this.propertiesLazy;
+	}
+
 	public Property getPkProperty() {
 		return this.pkProperty;
 	}
@@ -385,6 +463,11 @@ public class Entity {
 		return this.toManyRelations;
 	}
 
+	/** FK properties of other entities referencing this entity with an ON DELETE action. */
+	public List<Property> getIncomingOnDeleteProperties() {
+		return this.incomingOnDeleteProperties;
+	}
+
 	public List<ToMany> getIncomingToManyRelations() {
 		return this.incomingToManyRelations;
 	}
@@ -425,6 +508,61 @@ public class Entity {
 		this.hasEasyDatastoreIntegration = hasEasyDatastoreIntegration;
 	}
 
+	public boolean isDirtyTracking() {
+		return this.dirtyTracking;
+	}
+
+	/**
+	 * Entities with dirty tracking remember which properties were changed
+	 * using their setters since the entity was loaded or stored. DAOs can use
+	 * this to update changed columns only (see
+	 * AbstractDao.setUpdateChangedOnly). Up to 64 properties are supported.
+	 */
+	public void setDirtyTracking(boolean dirtyTracking) {
+		this.dirtyTracking = dirtyTracking;
+	}
+
+	public int getDeepLoadingDepth() {
+		return this.deepLoadingDepth;
+	}
+
+	/**
+	 * Number of to-one hops joined by the deep loading methods of the DAO
+	 * (loadDeep, queryDeep); defaults to 1 (only direct to-one targets). With
+	 * depth 2, the to-one targets of the direct targets are joined too, etc.
+	 */
+	public void setDeepLoadingDepth(int deepLoadingDepth) {
+		if (deepLoadingDepth < 1) {
+			throw new IllegalArgumentException("Deep loading depth must be at least 1");
+		}
+		this.deepLoadingDepth = deepLoadingDepth;
+	}
+
+	public ToOne getTreeParent() {
+		return this.treeParent;
+	}
+
+	public Property getTreePathProperty() {
+		return this.treePathProperty;
+	}
+
+	public boolean isHollowLoading() {
+		return this.hollowLoading;
+	}
+
+	/**
+	 * Enables hollow entities, which carry only their PK until a non-key
+	 * property is accessed: the DAO's loadHollow method creates them without
+	 * querying the database, and to-one relations targeting this entity are
+	 * resolved to hollow entities. The other properties are loaded by key on
+	 * first access. Note that this also applies to keys without a matching
+	 * row; accessing their properties throws a DaoException. Implies an active
+	 * entity.
+	 */
+	public void setHollowLoading(boolean hollowLoading) {
+		this.hollowLoading = hollowLoading;
+	}
+
 	public List<String> getInterfacesToImplement() {
 		return this.interfacesToImplement;
 	}
@@ -459,6 +597,9 @@ public class Entity {
 			} else {
 				this.propertiesNonPk.add(property);
 			}
+			if (property.isLazy()) {
+				this.propertiesLazy.add(property);
+			}
 		}
 
 		if (this.propertiesPk.size() == 1) {
@@ -493,7 +634,8 @@ public class Entity {
 		if (this.active == null) {
 			this.active = this.schema.isUseActiveEntitiesByDefault();
 		}
-		this.active |= !this.toOneRelations.isEmpty() || !this.toManyRelations.isEmpty();
+		this.active |= !this.toOneRelations.isEmpty() || !this.toManyRelations.isEmpty() || this.hollowLoading
+				|| !this.propertiesLazy.isEmpty();
 
 		if (this.hasKeepSections == null) {
 			this.hasKeepSections = this.schema.isHasKeepSectionsByDefault();
@@ -503,6 +645,36 @@ public class Entity {
 			this.hasEasyDatastoreIntegration = this.schema.isHasEasyDatastoreIntegration();
 		}
 
+		if (this.dirtyTracking) {
+			if (this.protobuf) {
+				throw new RuntimeException("Dirty tracking is not supported for protobuf entities: " + this);
+			}
+			if (this.properties.size() > 64) {
+				throw new RuntimeException("Dirty tracking supports up to 64 properties: " + this);
+			}
+		}
+
+		if (this.hollowLoading && (this.protobuf || this.pkProperty == null)) {
+			throw new RuntimeException("Hollow loading requires a single PK and no protobuf: " + this);
+		}
+
+		if (!this.propertiesLazy.isEmpty()) {
+			if (this.protobuf || this.pkProperty == null) {
+				throw new RuntimeException("Lazy properties require a single PK and no protobuf: " + this);
+			}
+			if (this.properties.size() > 64) {
+				throw new RuntimeException("Lazy properties are supported for up to 64 properties: " + this);
+			}
+		}
+
+		if (this.treeParent != null) {
+			Property[] fkProperties = this.treeParent.getFkProperties();
+			if (this.pkProperty == null || !"Long".equals(this.pkType) || fkProperties.length != 1
+					|| fkProperties[0].getPropertyType() != PropertyType.Long) {
+				throw new RuntimeException("Tree paths require a Long PK and a Long parent FK: " + this);
+			}
+		}
+
 		init2ndPassIndexNamesWithDefaults();
 	}
 
@@ -578,6 +750,10 @@ public class Entity {
 		for (ToMany toMany : this.toManyRelations) {
 			toMany.init3ndPass();
 			Entity targetEntity = toMany.getTargetEntity();
+			if (toMany.getJoinEntity() != null) {
+				// Target properties belong to the join entity
+				continue;
+			}
 			for (Property targetProperty : toMany.getTargetProperties()) {
 				if (!targetEntity.propertiesColumns.contains(targetProperty)) {
 					targetEntity.propertiesColumns.add(targetProperty);
@@ -595,17 +771,55 @@ public class Entity {
 		}
 
 		for (ToOne toOne : this.toOneRelations) {
-			Entity targetEntity = toOne.getTargetEntity();
+			checkAdditionalImportsEntityTargetEntity(toOne.getTargetEntity());
+		}
+		addAdditionalImportsDaoDeepLoading(this.toOneRelations, this.deepLoadingDepth);
+
+		for (ToMany toMany : this.toManyRelations) {
+			Entity targetEntity = toMany.getTargetEntity();
 			checkAdditionalImportsEntityTargetEntity(targetEntity);
-			// For deep loading
+			// For graph inserts
 			if (!targetEntity.getJavaPackage().equals(this.javaPackageDao)) {
 				this.additionalImportsDao.add(targetEntity.getJavaPackage() + "." + targetEntity.getClassName());
 			}
 		}
 
-		for (ToMany toMany : this.toManyRelations) {
-			Entity targetEntity = toMany.getTargetEntity();
-			checkAdditionalImportsEntityTargetEntity(targetEntity);
+		for (ToMany toMany : this.incomingToManyRelations) {
+			Entity sourceEntity = toMany.getSourceEntity();
+			// For updating cached to-many lists
+			if (!sourceEntity.getJavaPackage().equals(this.javaPackageDao)) {
+				this.additionalImportsDao.add(sourceEntity.getJavaPackage() + "." + sourceEntity.getClassName());
+			}
+			Entity joinEntity = toMany.getJoinEntity();
+			// For resolving many-to-many relations
+			if (joinEntity != null) {
+				if (!joinEntity.getJavaPackage().equals(this.javaPackageDao)) {
+					this.additionalImportsDao.add(joinEntity.getJavaPackage() + "." + joinEntity.getClassName());
+				}
+				if (!joinEntity.getJavaPackageDao().equals(this.javaPackageDao)) {
+					this.additionalImportsDao.add(joinEntity.getJavaPackageDao() + "." + joinEntity.getClassNameDao());
+				}
+			}
+		}
+
+		for (Property property : this.incomingOnDeleteProperties) {
+			Entity referencingEntity = property.getEntity();
+			// For updating identity scopes after ON DELETE actions
+			if (!referencingEntity.getJavaPackage().equals(this.javaPackageDao)) {
+				this.additionalImportsDao.add(referencingEntity.getJavaPackage() + "." + referencingEntity.getClassName());
+			}
+		}
+	}
+
+	private void addAdditionalImportsDaoDeepLoading(List<ToOne> toOnes, int depth) {
+		for (ToOne toOne : toOnes) {
+			Entity targetEntity = toOne.getTargetEntity();
+			if (!targetEntity.getJavaPackage().equals(this.javaPackageDao)) {
+				this.additionalImportsDao.add(targetEntity.getJavaPackage() + "." + targetEntity.getClassName());
+			}
+			if (depth > 1) {
+				addAdditionalImportsDaoDeepLoading(targetEntity.getToOneRelations(), depth - 1);
+			}
 		}
 	}
 
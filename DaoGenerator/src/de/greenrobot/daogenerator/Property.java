@@ -54,6 +54,15 @@ public class Property {
             return this;
         }
 
+        /**
+         * Excludes this column from the columns selected when entities are loaded; the generated getter loads the value
+         * on first access instead. Intended for large String and ByteArray values not needed by most code paths.
+         */
+        public PropertyBuilder lazy() {
+            property.lazy = true;
+            return this;
+        }
+
         public PropertyBuilder unique() {
             property.unique = true;
             return this;
@@ -111,6 +120,10 @@ public class Property {
 
     private boolean unique;
     private boolean notNull;
+    private boolean lazy;
+
+    private Entity onDeleteEntity;
+    private String onDelete;
 
     /** Initialized in 2nd pass */
     private String constraints;
@@ -162,6 +175,10 @@ public class Property {
         return notNull;
     }
 
+    public boolean isLazy() {
+        return lazy;
+    }
+
     public String getJavaType() {
         return javaType;
     }
@@ -178,7 +195,30 @@ public class Property {
         return entity;
     }
 
+    /** The SQL action (CASCADE or SET NULL) executed on delete of the entity this FK property references, or null. */
+    public String getOnDelete() {
+        return onDelete;
+    }
+
+    public boolean isOnDeleteCascade() {
+        return "CASCADE".equals(onDelete);
+    }
+
+    /** Declares this property as FK referencing the PK of the given entity with the given ON DELETE action. */
+    void setOnDelete(Entity referencedEntity, String onDelete) {
+        if (this.onDelete == null) {
+            referencedEntity.addIncomingOnDeleteProperty(this);
+        } else if (onDeleteEntity != referencedEntity) {
+            throw new RuntimeException("Property already references " + onDeleteEntity + ": " + this);
+        }
+        this.onDeleteEntity = referencedEntity;
+        this.onDelete = onDelete;
+    }
+
     void init2ndPass() {
+        if (lazy && (primaryKey || (propertyType != PropertyType.String && propertyType != PropertyType.ByteArray))) {
+            throw new RuntimeException("Only non-PK String and ByteArray properties can be lazy: " + this);
+        }
         initConstraint();
         if (columnType == null) {
             columnType = schema.mapToDbType(propertyType);
@@ -217,7 +257,24 @@ public class Property {
     }
 
     void init3ndPass() {
-        // Nothing to do so far
+        if (onDelete != null) {
+            initOnDeleteConstraint();
+        }
+    }
+
+    private void initOnDeleteConstraint() {
+        Property referencedPk = onDeleteEntity.getPkProperty();
+        Property pk = entity.getPkProperty();
+        if (referencedPk == null || referencedPk.propertyType != PropertyType.Long || pk == null
+                || pk.propertyType != PropertyType.Long || propertyType != PropertyType.Long) {
+            throw new RuntimeException("ON DELETE actions require Long FKs and Long PKs: " + this);
+        }
+        if (notNull && !isOnDeleteCascade()) {
+            throw new RuntimeException("ON DELETE SET NULL is not possible for not-null properties: " + this);
+        }
+        String references = "REFERENCES " + onDeleteEntity.getTableName() + "(" + referencedPk.getColumnName()
+                + ") ON DELETE " + onDelete;
+        constraints = constraints != null ? constraints + " " + references : references;
     }
     
     @Override
@@ -29,6 +29,10 @@ public class ToMany {
     private Property[] sourceProperties;
     private final Property[] targetProperties;
     private final PropertyOrderList propertyOrderList;
+    private boolean lazyList;
+    private Entity joinEntity;
+    private Property joinSourceProperty;
+    private Property joinTargetProperty;
 
     public ToMany(Schema schema, Entity sourceEntity, Property[] sourceProperties, Entity targetEntity,
             Property[] targetProperties) {
@@ -56,10 +60,35 @@ public class ToMany {
         this.sourceProperties = sourceProperties;
     }
 
+    /**
+     * Properties matching the source properties. For relations using a join entity, this is the join entity property
+     * referencing the source entity.
+     */
     public Property[] getTargetProperties() {
         return targetProperties;
     }
 
+    /** Join entity of a many-to-many relationship or null if target entities reference the source directly. */
+    public Entity getJoinEntity() {
+        return joinEntity;
+    }
+
+    /** Property of the join entity referencing the source entity PK. */
+    public Property getJoinSourceProperty() {
+        return joinSourceProperty;
+    }
+
+    /** Property of the join entity referencing the target entity PK. */
+    public Property getJoinTargetProperty() {
+        return joinTargetProperty;
+    }
+
+    void setJoinEntity(Entity joinEntity, Property joinSourceProperty, Property joinTargetProperty) {
+        this.joinEntity = joinEntity;
+        this.joinSourceProperty = joinSourceProperty;
+        this.joinTargetProperty = joinTargetProperty;
+    }
+
     public String getName() {
         return name;
     }
@@ -72,6 +101,44 @@ public class ToMany {
         this.name = name;
     }
 
+    /**
+     * Lets SQLite delete the target entities when the source entity is deleted (ON DELETE CASCADE); for relations using
+     * a join entity, only the join entities are deleted. Deleting through the source DAO also removes the deleted
+     * entities from the identity scope. Note that SQLite executes ON DELETE actions only if foreign keys are enabled,
+     * which the generated OpenHelper does.
+     */
+    public void setOnDeleteCascade() {
+        getSingleTargetProperty().setOnDelete(sourceEntity, "CASCADE");
+    }
+
+    /**
+     * Lets SQLite set the FK of the target entities to null when the source entity is deleted (ON DELETE SET NULL).
+     * Deleting through the source DAO also refreshes the affected target entities in the identity scope.
+     */
+    public void setOnDeleteSetNull() {
+        getSingleTargetProperty().setOnDelete(sourceEntity, "SET NULL");
+    }
+
+    private Property getSingleTargetProperty() {
+        if (targetProperties.length != 1 || (sourceProperties != null && !sourceProperties[0].isPrimaryKey())) {
+            throw new RuntimeException("ON DELETE actions require a single FK referencing the source PK: " + this);
+        }
+        return targetProperties[0];
+    }
+
+    public boolean isLazyList() {
+        return lazyList;
+    }
+
+    /**
+     * If true, the to-many getter returns a LazyList backed by the relation query: target entities are loaded when
+     * accessed, so large relations do not have to fit into memory at once. The underlying cursor is closed when the
+     * relation is reset.
+     */
+    public void setLazyList(boolean lazyList) {
+        this.lazyList = lazyList;
+    }
+
     /** Property of target entity used for ascending order. */
     public void orderAsc(Property... properties) {
         for (Property property : properties) {
@@ -96,6 +163,16 @@ public class ToMany {
         }
     }
 
+    /** Target properties used for ordering; see {@link #getOrderDirections()}. */
+    public List<Property> getOrderProperties() {
+        return propertyOrderList.getProperties();
+    }
+
+    /** Order directions ("ASC" or "DESC") of the properties returned by {@link #getOrderProperties()}. */
+    public List<String> getOrderDirections() {
+        return propertyOrderList.getPropertiesOrder();
+    }
+
     void init2ndPass() {
         if (name == null) {
             char[] nameCharArray = targetEntity.getClassName().toCharArray();
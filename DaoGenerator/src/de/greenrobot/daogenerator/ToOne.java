@@ -70,6 +70,30 @@ public class ToOne {
         this.name = name;
     }
 
+    /**
+     * Lets SQLite delete the source entity when the target entity is deleted (ON DELETE CASCADE). Deleting through the
+     * target DAO also removes the deleted source entities from the identity scope. Note that SQLite executes ON DELETE
+     * actions only if foreign keys are enabled, which the generated OpenHelper does.
+     */
+    public void setOnDeleteCascade() {
+        getSingleFkProperty().setOnDelete(targetEntity, "CASCADE");
+    }
+
+    /**
+     * Lets SQLite set the FK of the source entity to null when the target entity is deleted (ON DELETE SET NULL).
+     * Deleting through the target DAO also refreshes the affected source entities in the identity scope.
+     */
+    public void setOnDeleteSetNull() {
+        getSingleFkProperty().setOnDelete(targetEntity, "SET NULL");
+    }
+
+    private Property getSingleFkProperty() {
+        if (fkProperties.length != 1) {
+            throw new RuntimeException("ON DELETE actions require a single FK column: " + this);
+        }
+        return fkProperties[0];
+    }
+
     public boolean isUseFkProperty() {
         return useFkProperty;
     }
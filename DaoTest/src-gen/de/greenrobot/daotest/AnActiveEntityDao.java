@@ -53,15 +53,21 @@ public class AnActiveEntityDao extends AbstractDao<AnActiveEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, AnActiveEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, AnActiveEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         String text = entity.getText();
         if (text != null) {
-            stmt.bindString(2, text);
+            stmt.bindString(offset + 2, text);
         }
     }
 
@@ -17,9 +17,14 @@ import de.greenrobot.daotest.SpecialNamesEntityDao;
 import de.greenrobot.daotest.AbcdefEntityDao;
 import de.greenrobot.daotest.ToManyTargetEntityDao;
 import de.greenrobot.daotest.ToManyEntityDao;
+import de.greenrobot.daotest.ToManyLinkDao;
 import de.greenrobot.daotest.TreeEntityDao;
 import de.greenrobot.daotest.AnActiveEntityDao;
 import de.greenrobot.daotest.ExtendsImplementsEntityDao;
+import de.greenrobot.daotest.DirtyTrackingEntityDao;
+import de.greenrobot.daotest.OnDeleteEntityDao;
+import de.greenrobot.daotest.HollowEntityDao;
+import de.greenrobot.daotest.LazyPropertyEntityDao;
 
 // THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
 /** 
@@ -39,9 +44,14 @@ public class DaoMaster extends AbstractDaoMaster {
         AbcdefEntityDao.createTable(db, ifNotExists);
         ToManyTargetEntityDao.createTable(db, ifNotExists);
         ToManyEntityDao.createTable(db, ifNotExists);
+        ToManyLinkDao.createTable(db, ifNotExists);
         TreeEntityDao.createTable(db, ifNotExists);
         AnActiveEntityDao.createTable(db, ifNotExists);
         ExtendsImplementsEntityDao.createTable(db, ifNotExists);
+        DirtyTrackingEntityDao.createTable(db, ifNotExists);
+        OnDeleteEntityDao.createTable(db, ifNotExists);
+        HollowEntityDao.createTable(db, ifNotExists);
+        LazyPropertyEntityDao.createTable(db, ifNotExists);
     }
     
     /** Drops underlying database table using DAOs. */
@@ -55,9 +65,14 @@ public class DaoMaster extends AbstractDaoMaster {
         AbcdefEntityDao.dropTable(db, ifExists);
         ToManyTargetEntityDao.dropTable(db, ifExists);
         ToManyEntityDao.dropTable(db, ifExists);
+        ToManyLinkDao.dropTable(db, ifExists);
         TreeEntityDao.dropTable(db, ifExists);
         AnActiveEntityDao.dropTable(db, ifExists);
         ExtendsImplementsEntityDao.dropTable(db, ifExists);
+        DirtyTrackingEntityDao.dropTable(db, ifExists);
+        OnDeleteEntityDao.dropTable(db, ifExists);
+        HollowEntityDao.dropTable(db, ifExists);
+        LazyPropertyEntityDao.dropTable(db, ifExists);
     }
     
     public static abstract class OpenHelper extends SQLiteOpenHelper {
@@ -71,6 +86,15 @@ public class DaoMaster extends AbstractDaoMaster {
             Log.i("greenDAO", "Creating tables for schema version " + SCHEMA_VERSION);
             createAllTables(db, false);
         }
+
+        @Override
+        public void onOpen(SQLiteDatabase db) {
+            super.onOpen(db);
+            if (!db.isReadOnly()) {
+                // SQLite executes the ON DELETE actions of foreign keys only if enabled for the connection
+                db.execSQL("PRAGMA foreign_keys=ON;");
+            }
+        }
     }
     
     /** WARNING: Drops all table on Upgrade! Use only during development. */
@@ -98,9 +122,14 @@ public class DaoMaster extends AbstractDaoMaster {
         registerDaoClass(AbcdefEntityDao.class);
         registerDaoClass(ToManyTargetEntityDao.class);
         registerDaoClass(ToManyEntityDao.class);
+        registerDaoClass(ToManyLinkDao.class);
         registerDaoClass(TreeEntityDao.class);
         registerDaoClass(AnActiveEntityDao.class);
         registerDaoClass(ExtendsImplementsEntityDao.class);
+        registerDaoClass(DirtyTrackingEntityDao.class);
+        registerDaoClass(OnDeleteEntityDao.class);
+        registerDaoClass(HollowEntityDao.class);
+        registerDaoClass(LazyPropertyEntityDao.class);
     }
     
     public DaoSession newSession() {
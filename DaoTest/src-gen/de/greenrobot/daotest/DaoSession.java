@@ -18,9 +18,14 @@ import de.greenrobot.daotest.SpecialNamesEntity;
 import de.greenrobot.daotest.AbcdefEntity;
 import de.greenrobot.daotest.ToManyTargetEntity;
 import de.greenrobot.daotest.ToManyEntity;
+import de.greenrobot.daotest.ToManyLink;
 import de.greenrobot.daotest.TreeEntity;
 import de.greenrobot.daotest.AnActiveEntity;
 import de.greenrobot.daotest.ExtendsImplementsEntity;
+import de.greenrobot.daotest.DirtyTrackingEntity;
+import de.greenrobot.daotest.OnDeleteEntity;
+import de.greenrobot.daotest.HollowEntity;
+import de.greenrobot.daotest.LazyPropertyEntity;
 
 import de.greenrobot.daotest.SimpleEntityDao;
 import de.greenrobot.daotest.SimpleEntityNotNullDao;
@@ -31,9 +36,14 @@ import de.greenrobot.daotest.SpecialNamesEntityDao;
 import de.greenrobot.daotest.AbcdefEntityDao;
 import de.greenrobot.daotest.ToManyTargetEntityDao;
 import de.greenrobot.daotest.ToManyEntityDao;
+import de.greenrobot.daotest.ToManyLinkDao;
 import de.greenrobot.daotest.TreeEntityDao;
 import de.greenrobot.daotest.AnActiveEntityDao;
 import de.greenrobot.daotest.ExtendsImplementsEntityDao;
+import de.greenrobot.daotest.DirtyTrackingEntityDao;
+import de.greenrobot.daotest.OnDeleteEntityDao;
+import de.greenrobot.daotest.HollowEntityDao;
+import de.greenrobot.daotest.LazyPropertyEntityDao;
 
 // THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
 
@@ -53,9 +63,14 @@ public class DaoSession extends AbstractDaoSession {
     private final DaoConfig abcdefEntityDaoConfig;
     private final DaoConfig toManyTargetEntityDaoConfig;
     private final DaoConfig toManyEntityDaoConfig;
+    private final DaoConfig toManyLinkDaoConfig;
     private final DaoConfig treeEntityDaoConfig;
     private final DaoConfig anActiveEntityDaoConfig;
     private final DaoConfig extendsImplementsEntityDaoConfig;
+    private final DaoConfig dirtyTrackingEntityDaoConfig;
+    private final DaoConfig onDeleteEntityDaoConfig;
+    private final DaoConfig hollowEntityDaoConfig;
+    private final DaoConfig lazyPropertyEntityDaoConfig;
 
     private final SimpleEntityDao simpleEntityDao;
     private final SimpleEntityNotNullDao simpleEntityNotNullDao;
@@ -66,9 +81,14 @@ public class DaoSession extends AbstractDaoSession {
     private final AbcdefEntityDao abcdefEntityDao;
     private final ToManyTargetEntityDao toManyTargetEntityDao;
     private final ToManyEntityDao toManyEntityDao;
+    private final ToManyLinkDao toManyLinkDao;
     private final TreeEntityDao treeEntityDao;
     private final AnActiveEntityDao anActiveEntityDao;
     private final ExtendsImplementsEntityDao extendsImplementsEntityDao;
+    private final DirtyTrackingEntityDao dirtyTrackingEntityDao;
+    private final OnDeleteEntityDao onDeleteEntityDao;
+    private final HollowEntityDao hollowEntityDao;
+    private final LazyPropertyEntityDao lazyPropertyEntityDao;
 
     public DaoSession(SQLiteDatabase db, IdentityScopeType type, Map<Class<? extends AbstractDao<?, ?>>, DaoConfig>
             daoConfigMap) {
@@ -101,6 +121,9 @@ public class DaoSession extends AbstractDaoSession {
         toManyEntityDaoConfig = daoConfigMap.get(ToManyEntityDao.class).clone();
         toManyEntityDaoConfig.initIdentityScope(type);
 
+        toManyLinkDaoConfig = daoConfigMap.get(ToManyLinkDao.class).clone();
+        toManyLinkDaoConfig.initIdentityScope(type);
+
         treeEntityDaoConfig = daoConfigMap.get(TreeEntityDao.class).clone();
         treeEntityDaoConfig.initIdentityScope(type);
 
@@ -110,6 +133,18 @@ public class DaoSession extends AbstractDaoSession {
         extendsImplementsEntityDaoConfig = daoConfigMap.get(ExtendsImplementsEntityDao.class).clone();
         extendsImplementsEntityDaoConfig.initIdentityScope(type);
 
+        dirtyTrackingEntityDaoConfig = daoConfigMap.get(DirtyTrackingEntityDao.class).clone();
+        dirtyTrackingEntityDaoConfig.initIdentityScope(type);
+
+        onDeleteEntityDaoConfig = daoConfigMap.get(OnDeleteEntityDao.class).clone();
+        onDeleteEntityDaoConfig.initIdentityScope(type);
+
+        hollowEntityDaoConfig = daoConfigMap.get(HollowEntityDao.class).clone();
+        hollowEntityDaoConfig.initIdentityScope(type);
+
+        lazyPropertyEntityDaoConfig = daoConfigMap.get(LazyPropertyEntityDao.class).clone();
+        lazyPropertyEntityDaoConfig.initIdentityScope(type);
+
         simpleEntityDao = new SimpleEntityDao(simpleEntityDaoConfig, this);
         simpleEntityNotNullDao = new SimpleEntityNotNullDao(simpleEntityNotNullDaoConfig, this);
         testEntityDao = new TestEntityDao(testEntityDaoConfig, this);
@@ -119,9 +154,14 @@ public class DaoSession extends AbstractDaoSession {
         abcdefEntityDao = new AbcdefEntityDao(abcdefEntityDaoConfig, this);
         toManyTargetEntityDao = new ToManyTargetEntityDao(toManyTargetEntityDaoConfig, this);
         toManyEntityDao = new ToManyEntityDao(toManyEntityDaoConfig, this);
+        toManyLinkDao = new ToManyLinkDao(toManyLinkDaoConfig, this);
         treeEntityDao = new TreeEntityDao(treeEntityDaoConfig, this);
         anActiveEntityDao = new AnActiveEntityDao(anActiveEntityDaoConfig, this);
         extendsImplementsEntityDao = new ExtendsImplementsEntityDao(extendsImplementsEntityDaoConfig, this);
+        dirtyTrackingEntityDao = new DirtyTrackingEntityDao(dirtyTrackingEntityDaoConfig, this);
+        onDeleteEntityDao = new OnDeleteEntityDao(onDeleteEntityDaoConfig, this);
+        hollowEntityDao = new HollowEntityDao(hollowEntityDaoConfig, this);
+        lazyPropertyEntityDao = new LazyPropertyEntityDao(lazyPropertyEntityDaoConfig, this);
 
         registerDao(SimpleEntity.class, simpleEntityDao);
         registerDao(SimpleEntityNotNull.class, simpleEntityNotNullDao);
@@ -132,9 +172,14 @@ public class DaoSession extends AbstractDaoSession {
         registerDao(AbcdefEntity.class, abcdefEntityDao);
         registerDao(ToManyTargetEntity.class, toManyTargetEntityDao);
         registerDao(ToManyEntity.class, toManyEntityDao);
+        registerDao(ToManyLink.class, toManyLinkDao);
         registerDao(TreeEntity.class, treeEntityDao);
         registerDao(AnActiveEntity.class, anActiveEntityDao);
         registerDao(ExtendsImplementsEntity.class, extendsImplementsEntityDao);
+        registerDao(DirtyTrackingEntity.class, dirtyTrackingEntityDao);
+        registerDao(OnDeleteEntity.class, onDeleteEntityDao);
+        registerDao(HollowEntity.class, hollowEntityDao);
+        registerDao(LazyPropertyEntity.class, lazyPropertyEntityDao);
     }
     
     public void clear() {
@@ -147,9 +192,14 @@ public class DaoSession extends AbstractDaoSession {
         abcdefEntityDaoConfig.getIdentityScope().clear();
         toManyTargetEntityDaoConfig.getIdentityScope().clear();
         toManyEntityDaoConfig.getIdentityScope().clear();
+        toManyLinkDaoConfig.getIdentityScope().clear();
         treeEntityDaoConfig.getIdentityScope().clear();
         anActiveEntityDaoConfig.getIdentityScope().clear();
         extendsImplementsEntityDaoConfig.getIdentityScope().clear();
+        dirtyTrackingEntityDaoConfig.getIdentityScope().clear();
+        onDeleteEntityDaoConfig.getIdentityScope().clear();
+        hollowEntityDaoConfig.getIdentityScope().clear();
+        lazyPropertyEntityDaoConfig.getIdentityScope().clear();
     }
 
     public SimpleEntityDao getSimpleEntityDao() {
@@ -188,6 +238,10 @@ public class DaoSession extends AbstractDaoSession {
         return toManyEntityDao;
     }
 
+    public ToManyLinkDao getToManyLinkDao() {
+        return toManyLinkDao;
+    }
+
     public TreeEntityDao getTreeEntityDao() {
         return treeEntityDao;
     }
@@ -200,4 +254,20 @@ public class DaoSession extends AbstractDaoSession {
         return extendsImplementsEntityDao;
     }
 
+    public DirtyTrackingEntityDao getDirtyTrackingEntityDao() {
+        return dirtyTrackingEntityDao;
+    }
+
+    public OnDeleteEntityDao getOnDeleteEntityDao() {
+        return onDeleteEntityDao;
+    }
+
+    public HollowEntityDao getHollowEntityDao() {
+        return hollowEntityDao;
+    }
+
+    public LazyPropertyEntityDao getLazyPropertyEntityDao() {
+        return lazyPropertyEntityDao;
+    }
+
 }
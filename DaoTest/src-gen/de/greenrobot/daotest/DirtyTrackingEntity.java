@@ -0,0 +1,156 @@
+package de.greenrobot.daotest;
+
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.dao.DaoException;
+
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
+/**
+ * Entity mapped to table DIRTY_TRACKING_ENTITY.
+ */
+public class DirtyTrackingEntity {
+
+    private Long id;
+    private Integer simpleInteger;
+    private String simpleString;
+    private Long testId;
+
+    /** Changed properties (bit index is the property ordinal); new entities are considered changed. */
+    private long __dirtyFlags = -1;
+
+
+    /** Used to resolve relations */
+    private DaoSession daoSession;
+
+    /** Used for active entity operations. */
+    private DirtyTrackingEntityDao myDao;
+
+    private TestEntity testEntity;
+    private Long testEntity__resolvedKey;
+
+
+    public DirtyTrackingEntity() {
+    }
+
+    public DirtyTrackingEntity(Long id) {
+        this.id = id;
+    }
+
+    public DirtyTrackingEntity(Long id, Integer simpleInteger, String simpleString, Long testId) {
+        this.id = id;
+        this.simpleInteger = simpleInteger;
+        this.simpleString = simpleString;
+        this.testId = testId;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __setDaoSession(DaoSession daoSession) {
+        this.daoSession = daoSession;
+        myDao = daoSession != null ? daoSession.getDirtyTrackingEntityDao() : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+        __dirtyFlags |= 1L << 0;
+    }
+
+    public Integer getSimpleInteger() {
+        return simpleInteger;
+    }
+
+    public void setSimpleInteger(Integer simpleInteger) {
+        this.simpleInteger = simpleInteger;
+        __dirtyFlags |= 1L << 1;
+    }
+
+    public String getSimpleString() {
+        return simpleString;
+    }
+
+    public void setSimpleString(String simpleString) {
+        this.simpleString = simpleString;
+        __dirtyFlags |= 1L << 2;
+    }
+
+    public Long getTestId() {
+        return testId;
+    }
+
+    public void setTestId(Long testId) {
+        this.testId = testId;
+        __dirtyFlags |= 1L << 3;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public long __getDirtyFlags() {
+        return __dirtyFlags;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __clearDirtyFlags() {
+        __dirtyFlags = 0;
+    }
+
+    /** To-one relationship, resolved on first access. */
+    public TestEntity getTestEntity() {
+        if (testEntity__resolvedKey == null || !testEntity__resolvedKey.equals(testId)) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            TestEntityDao targetDao = daoSession.getTestEntityDao();
+            testEntity = targetDao.load(testId);
+            testEntity__resolvedKey = testId;
+        }
+        return testEntity;
+    }
+
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public TestEntity peakTestEntity() {
+        return testEntity;
+    }
+
+    public void setTestEntity(TestEntity testEntity) {
+        this.testEntity = testEntity;
+        testId = testEntity == null ? null : testEntity.getId();
+        __dirtyFlags |= 1L << 3;
+        testEntity__resolvedKey = testId;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveTestEntity(TestEntity testEntity) {
+        this.testEntity = testEntity;
+        testEntity__resolvedKey = testId;
+    }
+
+    /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
+    public void delete() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.delete(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#update(Object)}. Entity must attached to an entity context. */
+    public void update() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.update(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#refresh(Object)}. Entity must attached to an entity context. */
+    public void refresh() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.refresh(this);
+    }
+
+
+
+}
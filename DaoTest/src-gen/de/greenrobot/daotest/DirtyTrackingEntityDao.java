@@ -0,0 +1,257 @@
+package de.greenrobot.daotest;
+
+import java.util.ArrayList;
+import java.util.List;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import de.greenrobot.dao.AbstractDao;
+import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
+import de.greenrobot.dao.Property;
+import de.greenrobot.dao.SqlUtils;
+
+import de.greenrobot.daotest.DirtyTrackingEntity;
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
+/** 
+ * DAO for table DIRTY_TRACKING_ENTITY.
+*/
+public class DirtyTrackingEntityDao extends AbstractDao<DirtyTrackingEntity, Long> {
+
+    public static final String TABLENAME = "DIRTY_TRACKING_ENTITY";
+
+    public static class Properties {
+        public final static Property Id = new Property(0, Long.class, "id", true, "_id");
+        public final static Property SimpleInteger = new Property(1, Integer.class, "simpleInteger", false, "SIMPLE_INTEGER");
+        public final static Property SimpleString = new Property(2, String.class, "simpleString", false, "SIMPLE_STRING");
+        public final static Property TestId = new Property(3, Long.class, "testId", false, "TEST_ID");
+    };
+
+    private DaoSession daoSession;
+
+
+    public DirtyTrackingEntityDao(DaoConfig config) {
+        super(config);
+    }
+    
+    public DirtyTrackingEntityDao(DaoConfig config, DaoSession daoSession) {
+        super(config, daoSession);
+        this.daoSession = daoSession;
+    }
+
+    /** Creates the underlying database table. */
+    public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
+        String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'DIRTY_TRACKING_ENTITY' (" + //
+                "'_id' INTEGER PRIMARY KEY ," + // 0: id
+                "'SIMPLE_INTEGER' INTEGER," + // 1: simpleInteger
+                "'SIMPLE_STRING' TEXT," + // 2: simpleString
+                "'TEST_ID' INTEGER);"; // 3: testId
+        db.execSQL(sql);
+    }
+
+    /** Drops the underlying database table. */
+    public static void dropTable(SQLiteDatabase db, boolean ifExists) {
+        String sql = "DROP TABLE " + (ifExists ? "IF EXISTS " : "") + "'DIRTY_TRACKING_ENTITY'";
+        db.execSQL(sql);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, DirtyTrackingEntity entity) {
+        stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, DirtyTrackingEntity entity, int offset) {
+ 
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(offset + 1, id);
+        }
+ 
+        Integer simpleInteger = entity.getSimpleInteger();
+        if (simpleInteger != null) {
+            stmt.bindLong(offset + 2, simpleInteger);
+        }
+ 
+        String simpleString = entity.getSimpleString();
+        if (simpleString != null) {
+            stmt.bindString(offset + 3, simpleString);
+        }
+ 
+        Long testId = entity.getTestId();
+        if (testId != null) {
+            stmt.bindLong(offset + 4, testId);
+        }
+    }
+
+    @Override
+    protected void attachEntity(DirtyTrackingEntity entity) {
+        super.attachEntity(entity);
+        entity.__setDaoSession(daoSession);
+    }
+
+    @Override
+    protected long getDirtyFlags(DirtyTrackingEntity entity) {
+        return entity.__getDirtyFlags();
+    }
+
+    @Override
+    protected void clearDirtyFlags(DirtyTrackingEntity entity) {
+        entity.__clearDirtyFlags();
+    }
+
+    @Override
+    protected void collectRelatedEntities(DirtyTrackingEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        TestEntity testEntity = entity.peakTestEntity();
+        if (testEntity != null) {
+            toOneTargets.add(testEntity);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(DirtyTrackingEntity entity) {
+        TestEntity testEntity = entity.peakTestEntity();
+        if (testEntity != null) {
+            entity.setTestEntity(testEntity);
+        }
+    }
+
+    /** @inheritdoc */
+    @Override
+    public Long readKey(Cursor cursor, int offset) {
+        return cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0);
+    }    
+
+    /** @inheritdoc */
+    @Override
+    public DirtyTrackingEntity readEntity(Cursor cursor, int offset) {
+        DirtyTrackingEntity entity = new DirtyTrackingEntity( //
+            cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
+            cursor.isNull(offset + 1) ? null : cursor.getInt(offset + 1), // simpleInteger
+            cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2), // simpleString
+            cursor.isNull(offset + 3) ? null : cursor.getLong(offset + 3) // testId
+        );
+        return entity;
+    }
+     
+    /** @inheritdoc */
+    @Override
+    public void readEntity(Cursor cursor, DirtyTrackingEntity entity, int offset) {
+        entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
+        entity.setSimpleInteger(cursor.isNull(offset + 1) ? null : cursor.getInt(offset + 1));
+        entity.setSimpleString(cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2));
+        entity.setTestId(cursor.isNull(offset + 3) ? null : cursor.getLong(offset + 3));
+     }
+    
+    @Override
+    protected Long updateKeyAfterInsert(DirtyTrackingEntity entity, long rowId) {
+        entity.setId(rowId);
+        return rowId;
+    }
+    
+    /** @inheritdoc */
+    @Override
+    public Long getKey(DirtyTrackingEntity entity) {
+        if(entity != null) {
+            return entity.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /** @inheritdoc */
+    @Override    
+    protected boolean isEntityUpdateable() {
+        return true;
+    }
+    
+    /**
+     * Resolves the "testEntity" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveTestEntity(List<DirtyTrackingEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (DirtyTrackingEntity entity : entities) {
+            keys.add(entity.getTestId());
+        }
+        LongHashMap<TestEntity> targetsByKey = daoSession.getTestEntityDao().loadAllByKeys(keys);
+        for (DirtyTrackingEntity entity : entities) {
+            Long key = entity.getTestId();
+            if (key != null) {
+                entity.__resolveTestEntity(targetsByKey.get(key));
+            }
+        }
+    }
+
+    private String selectDeep;
+
+    @Override
+    protected String getSelectDeep() {
+        if (selectDeep == null) {
+            StringBuilder builder = new StringBuilder("SELECT ");
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0", daoSession.getTestEntityDao().getSelectColumns());
+            builder.append(" FROM DIRTY_TRACKING_ENTITY T");
+            builder.append(" LEFT JOIN TEST_ENTITY T0 ON T.'TEST_ID'=T0.'_id'");
+            builder.append(' ');
+            selectDeep = builder.toString();
+        }
+        return selectDeep;
+    }
+    
+    @Override
+    protected DirtyTrackingEntity loadCurrentDeep(Cursor cursor, boolean lock) {
+        DirtyTrackingEntity entity = loadCurrent(cursor, 0, lock);
+        int offset = getAllColumns().length;
+
+        TestEntity testEntity = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
+        entity.__resolveTestEntity(testEntity);
+
+        return entity;    
+    }
+
+    public DirtyTrackingEntity loadDeep(Long key) {
+        assertSinglePk();
+        if (key == null) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(getSelectDeep());
+        builder.append("WHERE ");
+        SqlUtils.appendColumnsEqValue(builder, "T", getPkColumns());
+        String sql = builder.toString();
+        
+        String[] keyArray = new String[] { key.toString() };
+        Cursor cursor = db.rawQuery(sql, keyArray);
+        
+        try {
+            boolean available = cursor.moveToFirst();
+            if (!available) {
+                return null;
+            } else if (!cursor.isLast()) {
+                throw new IllegalStateException("Expected unique result, but count was " + cursor.getCount());
+            }
+            return loadCurrentDeep(cursor, true);
+        } finally {
+            cursor.close();
+        }
+    }
+    
+    /** A raw-style query where you can pass any WHERE clause and arguments. */
+    public List<DirtyTrackingEntity> queryDeep(String where, String... selectionArg) {
+        Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
+        return loadDeepAllAndCloseCursor(cursor);
+    }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { TestEntity.class };
+    }
+ 
+}
@@ -50,15 +50,21 @@ public class ExtendsImplementsEntityDao extends AbstractDao<ExtendsImplementsEnt
     @Override
     protected void bindValues(SQLiteStatement stmt, ExtendsImplementsEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ExtendsImplementsEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         String text = entity.getText();
         if (text != null) {
-            stmt.bindString(2, text);
+            stmt.bindString(offset + 2, text);
         }
     }
 
@@ -0,0 +1,175 @@
+package de.greenrobot.daotest;
+
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.dao.DaoException;
+
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
+/**
+ * Entity mapped to table HOLLOW_ENTITY.
+ */
+public class HollowEntity {
+
+    private Long id;
+    private Long parentId;
+    private String simpleString;
+
+    /** If true, only the PK is set; the other properties are loaded on first access. */
+    private boolean __hollow;
+
+
+    /** Used to resolve relations */
+    private DaoSession daoSession;
+
+    /** Used for active entity operations. */
+    private HollowEntityDao myDao;
+
+    private HollowEntity parent;
+    private Long parent__resolvedKey;
+
+
+    public HollowEntity() {
+    }
+
+    public HollowEntity(Long id) {
+        this.id = id;
+    }
+
+    public HollowEntity(Long id, Long parentId, String simpleString) {
+        this.id = id;
+        this.parentId = parentId;
+        this.simpleString = simpleString;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __setDaoSession(DaoSession daoSession) {
+        this.daoSession = daoSession;
+        myDao = daoSession != null ? daoSession.getHollowEntityDao() : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getParentId() {
+        __loadIfHollow();
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        __loadIfHollow();
+        this.parentId = parentId;
+    }
+
+    public String getSimpleString() {
+        __loadIfHollow();
+        return simpleString;
+    }
+
+    public void setSimpleString(String simpleString) {
+        __loadIfHollow();
+        this.simpleString = simpleString;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public synchronized void __setHollow() {
+        __hollow = true;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Returns true if the entity was hollow. */
+    public synchronized boolean __clearHollow() {
+        boolean hollow = __hollow;
+        __hollow = false;
+        return hollow;
+    }
+
+    /** True if only the PK is set; the other properties are loaded on first access. */
+    public synchronized boolean isHollow() {
+        return __hollow;
+    }
+
+    private synchronized void __loadIfHollow() {
+        if (__hollow) {
+            if (myDao == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            __hollow = false;
+            try {
+                myDao.loadHollowProperties(this);
+            } catch (RuntimeException e) {
+                __hollow = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * To-one relationship, resolved on first access without a query: a target not in the identity scope yet is
+     * returned hollow (see {@link HollowEntityDao#loadHollow(Object)}). Unlike load, this does not
+     * check if the target exists; for a FK without matching row, the hollow entity throws a DaoException on first
+     * property access instead of this returning null.
+     */
+    public HollowEntity getParent() {
+        __loadIfHollow();
+        if (parent__resolvedKey == null || !parent__resolvedKey.equals(parentId)) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            HollowEntityDao targetDao = daoSession.getHollowEntityDao();
+            parent = targetDao.loadHollow(parentId);
+            parent__resolvedKey = parentId;
+        }
+        return parent;
+    }
+
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public HollowEntity peakParent() {
+        return parent;
+    }
+
+    public void setParent(HollowEntity parent) {
+        __loadIfHollow();
+        this.parent = parent;
+        parentId = parent == null ? null : parent.getId();
+        parent__resolvedKey = parentId;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveParent(HollowEntity parent) {
+        __loadIfHollow();
+        this.parent = parent;
+        parent__resolvedKey = parentId;
+    }
+
+    /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
+    public void delete() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.delete(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#update(Object)}. Entity must attached to an entity context. */
+    public void update() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.update(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#refresh(Object)}. Entity must attached to an entity context. */
+    public void refresh() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.refresh(this);
+    }
+
+
+
+}
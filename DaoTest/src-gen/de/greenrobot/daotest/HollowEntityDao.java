@@ -0,0 +1,251 @@
+package de.greenrobot.daotest;
+
+import java.util.ArrayList;
+import java.util.List;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import de.greenrobot.dao.AbstractDao;
+import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
+import de.greenrobot.dao.Property;
+import de.greenrobot.dao.SqlUtils;
+
+import de.greenrobot.daotest.HollowEntity;
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
+/** 
+ * DAO for table HOLLOW_ENTITY.
+*/
+public class HollowEntityDao extends AbstractDao<HollowEntity, Long> {
+
+    public static final String TABLENAME = "HOLLOW_ENTITY";
+
+    public static class Properties {
+        public final static Property Id = new Property(0, Long.class, "id", true, "_id");
+        public final static Property ParentId = new Property(1, Long.class, "parentId", false, "PARENT_ID");
+        public final static Property SimpleString = new Property(2, String.class, "simpleString", false, "SIMPLE_STRING");
+    };
+
+    private DaoSession daoSession;
+
+
+    public HollowEntityDao(DaoConfig config) {
+        super(config);
+    }
+    
+    public HollowEntityDao(DaoConfig config, DaoSession daoSession) {
+        super(config, daoSession);
+        this.daoSession = daoSession;
+    }
+
+    /** Creates the underlying database table. */
+    public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
+        String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'HOLLOW_ENTITY' (" + //
+                "'_id' INTEGER PRIMARY KEY ," + // 0: id
+                "'PARENT_ID' INTEGER," + // 1: parentId
+                "'SIMPLE_STRING' TEXT);"; // 2: simpleString
+        db.execSQL(sql);
+    }
+
+    /** Drops the underlying database table. */
+    public static void dropTable(SQLiteDatabase db, boolean ifExists) {
+        String sql = "DROP TABLE " + (ifExists ? "IF EXISTS " : "") + "'HOLLOW_ENTITY'";
+        db.execSQL(sql);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, HollowEntity entity) {
+        stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, HollowEntity entity, int offset) {
+ 
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(offset + 1, id);
+        }
+ 
+        Long parentId = entity.getParentId();
+        if (parentId != null) {
+            stmt.bindLong(offset + 2, parentId);
+        }
+ 
+        String simpleString = entity.getSimpleString();
+        if (simpleString != null) {
+            stmt.bindString(offset + 3, simpleString);
+        }
+    }
+
+    @Override
+    protected void attachEntity(HollowEntity entity) {
+        super.attachEntity(entity);
+        entity.__setDaoSession(daoSession);
+    }
+
+    @Override
+    protected void collectRelatedEntities(HollowEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        HollowEntity parent = entity.peakParent();
+        if (parent != null) {
+            toOneTargets.add(parent);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(HollowEntity entity) {
+        HollowEntity parent = entity.peakParent();
+        if (parent != null) {
+            entity.setParent(parent);
+        }
+    }
+
+    /** @inheritdoc */
+    @Override
+    public Long readKey(Cursor cursor, int offset) {
+        return cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0);
+    }    
+
+    /** @inheritdoc */
+    @Override
+    public HollowEntity readEntity(Cursor cursor, int offset) {
+        HollowEntity entity = new HollowEntity( //
+            cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
+            cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1), // parentId
+            cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2) // simpleString
+        );
+        return entity;
+    }
+     
+    /** @inheritdoc */
+    @Override
+    public void readEntity(Cursor cursor, HollowEntity entity, int offset) {
+        entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
+        entity.setParentId(cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1));
+        entity.setSimpleString(cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2));
+     }
+    
+    @Override
+    protected Long updateKeyAfterInsert(HollowEntity entity, long rowId) {
+        entity.setId(rowId);
+        return rowId;
+    }
+    
+    /** @inheritdoc */
+    @Override
+    public Long getKey(HollowEntity entity) {
+        if(entity != null) {
+            return entity.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /** @inheritdoc */
+    @Override    
+    protected boolean isEntityUpdateable() {
+        return true;
+    }
+    
+    @Override
+    protected HollowEntity createHollowEntity(Long key) {
+        HollowEntity entity = new HollowEntity();
+        entity.setId(key);
+        entity.__setHollow();
+        return entity;
+    }
+
+    @Override
+    protected boolean clearHollow(HollowEntity entity) {
+        return entity.__clearHollow();
+    }
+
+    /**
+     * Resolves the "parent" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveParent(List<HollowEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (HollowEntity entity : entities) {
+            keys.add(entity.getParentId());
+        }
+        LongHashMap<HollowEntity> targetsByKey = daoSession.getHollowEntityDao().loadAllByKeys(keys);
+        for (HollowEntity entity : entities) {
+            Long key = entity.getParentId();
+            if (key != null) {
+                entity.__resolveParent(targetsByKey.get(key));
+            }
+        }
+    }
+
+    private String selectDeep;
+
+    @Override
+    protected String getSelectDeep() {
+        if (selectDeep == null) {
+            StringBuilder builder = new StringBuilder("SELECT ");
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0", daoSession.getHollowEntityDao().getSelectColumns());
+            builder.append(" FROM HOLLOW_ENTITY T");
+            builder.append(" LEFT JOIN HOLLOW_ENTITY T0 ON T.'PARENT_ID'=T0.'_id'");
+            builder.append(' ');
+            selectDeep = builder.toString();
+        }
+        return selectDeep;
+    }
+    
+    @Override
+    protected HollowEntity loadCurrentDeep(Cursor cursor, boolean lock) {
+        HollowEntity entity = loadCurrent(cursor, 0, lock);
+        int offset = getAllColumns().length;
+
+        HollowEntity parent = loadCurrentOther(daoSession.getHollowEntityDao(), cursor, offset);
+        entity.__resolveParent(parent);
+
+        return entity;    
+    }
+
+    public HollowEntity loadDeep(Long key) {
+        assertSinglePk();
+        if (key == null) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(getSelectDeep());
+        builder.append("WHERE ");
+        SqlUtils.appendColumnsEqValue(builder, "T", getPkColumns());
+        String sql = builder.toString();
+        
+        String[] keyArray = new String[] { key.toString() };
+        Cursor cursor = db.rawQuery(sql, keyArray);
+        
+        try {
+            boolean available = cursor.moveToFirst();
+            if (!available) {
+                return null;
+            } else if (!cursor.isLast()) {
+                throw new IllegalStateException("Expected unique result, but count was " + cursor.getCount());
+            }
+            return loadCurrentDeep(cursor, true);
+        } finally {
+            cursor.close();
+        }
+    }
+    
+    /** A raw-style query where you can pass any WHERE clause and arguments. */
+    public List<HollowEntity> queryDeep(String where, String... selectionArg) {
+        Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
+        return loadDeepAllAndCloseCursor(cursor);
+    }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { HollowEntity.class };
+    }
+ 
+}
@@ -0,0 +1,106 @@
+package de.greenrobot.daotest;
+
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.dao.DaoException;
+
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
+/**
+ * Entity mapped to table LAZY_PROPERTY_ENTITY.
+ */
+public class LazyPropertyEntity {
+
+    private Long id;
+    private String text;
+
+    /** Lazy properties not loaded yet (bit index is the property ordinal); loaded on first access. */
+    private long __lazyUnloaded;
+
+
+    /** Used to resolve relations */
+    private DaoSession daoSession;
+
+    /** Used for active entity operations. */
+    private LazyPropertyEntityDao myDao;
+
+
+    public LazyPropertyEntity() {
+    }
+
+    public LazyPropertyEntity(Long id) {
+        this.id = id;
+    }
+
+    public LazyPropertyEntity(Long id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __setDaoSession(DaoSession daoSession) {
+        this.daoSession = daoSession;
+        myDao = daoSession != null ? daoSession.getLazyPropertyEntityDao() : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        if ((__lazyUnloaded & 1L << 1) != 0) {
+            if (myDao == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            text = (String) myDao.loadLazyProperty(LazyPropertyEntityDao.Properties.Text, id);
+            __lazyUnloaded &= ~(1L << 1);
+        }
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+        __lazyUnloaded &= ~(1L << 1);
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public long __getLazyUnloaded() {
+        return __lazyUnloaded;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Lazy properties are loaded again on next access. */
+    public void __unloadLazyProperties() {
+        text = null;
+        __lazyUnloaded = 1L << 1;
+    }
+
+    /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
+    public void delete() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.delete(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#update(Object)}. Entity must attached to an entity context. */
+    public void update() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.update(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#refresh(Object)}. Entity must attached to an entity context. */
+    public void refresh() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.refresh(this);
+    }
+
+
+
+}
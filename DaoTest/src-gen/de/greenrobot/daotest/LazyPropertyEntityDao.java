@@ -0,0 +1,148 @@
+package de.greenrobot.daotest;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import de.greenrobot.dao.AbstractDao;
+import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.Property;
+
+import de.greenrobot.daotest.LazyPropertyEntity;
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
+/** 
+ * DAO for table LAZY_PROPERTY_ENTITY.
+*/
+public class LazyPropertyEntityDao extends AbstractDao<LazyPropertyEntity, Long> {
+
+    public static final String TABLENAME = "LAZY_PROPERTY_ENTITY";
+
+    public static class Properties {
+        public final static Property Id = new Property(0, Long.class, "id", true, "_id");
+        public final static Property Text = new Property(1, String.class, "text", false, "TEXT", true);
+    };
+
+    private DaoSession daoSession;
+
+
+    public LazyPropertyEntityDao(DaoConfig config) {
+        super(config);
+    }
+    
+    public LazyPropertyEntityDao(DaoConfig config, DaoSession daoSession) {
+        super(config, daoSession);
+        this.daoSession = daoSession;
+    }
+
+    /** Creates the underlying database table. */
+    public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
+        String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'LAZY_PROPERTY_ENTITY' (" + //
+                "'_id' INTEGER PRIMARY KEY ," + // 0: id
+                "'TEXT' TEXT);"; // 1: text
+        db.execSQL(sql);
+    }
+
+    /** Drops the underlying database table. */
+    public static void dropTable(SQLiteDatabase db, boolean ifExists) {
+        String sql = "DROP TABLE " + (ifExists ? "IF EXISTS " : "") + "'LAZY_PROPERTY_ENTITY'";
+        db.execSQL(sql);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, LazyPropertyEntity entity) {
+        stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, LazyPropertyEntity entity, int offset) {
+ 
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(offset + 1, id);
+        }
+ 
+        String text = entity.getText();
+        if (text != null) {
+            stmt.bindString(offset + 2, text);
+        }
+    }
+
+    @Override
+    protected void attachEntity(LazyPropertyEntity entity) {
+        super.attachEntity(entity);
+        entity.__setDaoSession(daoSession);
+    }
+
+    /** Binds like bindValues, but skips the lazy properties not loaded yet, which the update statement leaves out. */
+    @Override
+    protected void bindValuesForUpdate(SQLiteStatement stmt, LazyPropertyEntity entity) {
+        stmt.clearBindings();
+        long lazyUnloaded = entity.__getLazyUnloaded();
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(1, id);
+        }
+        if ((lazyUnloaded & 1L << 1) == 0) {
+            String text = entity.getText();
+            if (text != null) {
+                stmt.bindString(2, text);
+            }
+        }
+    }
+
+    @Override
+    protected long getLazyUnloadedFlags(LazyPropertyEntity entity) {
+        return entity.__getLazyUnloaded();
+    }
+
+    /** @inheritdoc */
+    @Override
+    public Long readKey(Cursor cursor, int offset) {
+        return cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0);
+    }    
+
+    /** @inheritdoc */
+    @Override
+    public LazyPropertyEntity readEntity(Cursor cursor, int offset) {
+        LazyPropertyEntity entity = new LazyPropertyEntity( //
+            cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
+            null // text (lazy)
+        );
+        entity.__unloadLazyProperties();
+        return entity;
+    }
+     
+    /** @inheritdoc */
+    @Override
+    public void readEntity(Cursor cursor, LazyPropertyEntity entity, int offset) {
+        entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
+        entity.__unloadLazyProperties();
+     }
+    
+    @Override
+    protected Long updateKeyAfterInsert(LazyPropertyEntity entity, long rowId) {
+        entity.setId(rowId);
+        return rowId;
+    }
+    
+    /** @inheritdoc */
+    @Override
+    public Long getKey(LazyPropertyEntity entity) {
+        if(entity != null) {
+            return entity.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /** @inheritdoc */
+    @Override    
+    protected boolean isEntityUpdateable() {
+        return true;
+    }
+    
+}
@@ -0,0 +1,172 @@
+package de.greenrobot.daotest;
+
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.dao.DaoException;
+
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
+/**
+ * Entity mapped to table ON_DELETE_ENTITY.
+ */
+public class OnDeleteEntity {
+
+    private Long id;
+    private Long parentId;
+    private Long referenceId;
+    private String simpleString;
+
+
+    /** Used to resolve relations */
+    private DaoSession daoSession;
+
+    /** Used for active entity operations. */
+    private OnDeleteEntityDao myDao;
+
+    private OnDeleteEntity parent;
+    private Long parent__resolvedKey;
+
+    private OnDeleteEntity reference;
+    private Long reference__resolvedKey;
+
+
+    public OnDeleteEntity() {
+    }
+
+    public OnDeleteEntity(Long id) {
+        this.id = id;
+    }
+
+    public OnDeleteEntity(Long id, Long parentId, Long referenceId, String simpleString) {
+        this.id = id;
+        this.parentId = parentId;
+        this.referenceId = referenceId;
+        this.simpleString = simpleString;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __setDaoSession(DaoSession daoSession) {
+        this.daoSession = daoSession;
+        myDao = daoSession != null ? daoSession.getOnDeleteEntityDao() : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public String getSimpleString() {
+        return simpleString;
+    }
+
+    public void setSimpleString(String simpleString) {
+        this.simpleString = simpleString;
+    }
+
+    /** To-one relationship, resolved on first access. */
+    public OnDeleteEntity getParent() {
+        if (parent__resolvedKey == null || !parent__resolvedKey.equals(parentId)) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            OnDeleteEntityDao targetDao = daoSession.getOnDeleteEntityDao();
+            parent = targetDao.load(parentId);
+            parent__resolvedKey = parentId;
+        }
+        return parent;
+    }
+
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public OnDeleteEntity peakParent() {
+        return parent;
+    }
+
+    public void setParent(OnDeleteEntity parent) {
+        this.parent = parent;
+        parentId = parent == null ? null : parent.getId();
+        parent__resolvedKey = parentId;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveParent(OnDeleteEntity parent) {
+        this.parent = parent;
+        parent__resolvedKey = parentId;
+    }
+
+    /** To-one relationship, resolved on first access. */
+    public OnDeleteEntity getReference() {
+        if (reference__resolvedKey == null || !reference__resolvedKey.equals(referenceId)) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            OnDeleteEntityDao targetDao = daoSession.getOnDeleteEntityDao();
+            reference = targetDao.load(referenceId);
+            reference__resolvedKey = referenceId;
+        }
+        return reference;
+    }
+
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public OnDeleteEntity peakReference() {
+        return reference;
+    }
+
+    public void setReference(OnDeleteEntity reference) {
+        this.reference = reference;
+        referenceId = reference == null ? null : reference.getId();
+        reference__resolvedKey = referenceId;
+    }
+
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveReference(OnDeleteEntity reference) {
+        this.reference = reference;
+        reference__resolvedKey = referenceId;
+    }
+
+    /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
+    public void delete() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.delete(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#update(Object)}. Entity must attached to an entity context. */
+    public void update() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.update(this);
+    }
+
+    /** Convenient call for {@link AbstractDao#refresh(Object)}. Entity must attached to an entity context. */
+    public void refresh() {
+        if (myDao == null) {
+            throw new DaoException("Entity is detached from DAO context");
+        }    
+        myDao.refresh(this);
+    }
+
+
+
+}
@@ -0,0 +1,300 @@
+package de.greenrobot.daotest;
+
+import java.util.ArrayList;
+import java.util.List;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import de.greenrobot.dao.AbstractDao;
+import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
+import de.greenrobot.dao.OnDeleteCollector;
+import de.greenrobot.dao.Property;
+import de.greenrobot.dao.SqlUtils;
+
+import de.greenrobot.daotest.OnDeleteEntity;
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
+/** 
+ * DAO for table ON_DELETE_ENTITY.
+*/
+public class OnDeleteEntityDao extends AbstractDao<OnDeleteEntity, Long> {
+
+    public static final String TABLENAME = "ON_DELETE_ENTITY";
+
+    public static class Properties {
+        public final static Property Id = new Property(0, Long.class, "id", true, "_id");
+        public final static Property ParentId = new Property(1, Long.class, "parentId", false, "PARENT_ID");
+        public final static Property ReferenceId = new Property(2, Long.class, "referenceId", false, "REFERENCE_ID");
+        public final static Property SimpleString = new Property(3, String.class, "simpleString", false, "SIMPLE_STRING");
+    };
+
+    private DaoSession daoSession;
+
+
+    public OnDeleteEntityDao(DaoConfig config) {
+        super(config);
+    }
+    
+    public OnDeleteEntityDao(DaoConfig config, DaoSession daoSession) {
+        super(config, daoSession);
+        this.daoSession = daoSession;
+    }
+
+    /** Creates the underlying database table. */
+    public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
+        String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'ON_DELETE_ENTITY' (" + //
+                "'_id' INTEGER PRIMARY KEY ," + // 0: id
+                "'PARENT_ID' INTEGER REFERENCES ON_DELETE_ENTITY(_id) ON DELETE CASCADE ," + // 1: parentId
+                "'REFERENCE_ID' INTEGER REFERENCES ON_DELETE_ENTITY(_id) ON DELETE SET NULL ," + // 2: referenceId
+                "'SIMPLE_STRING' TEXT);"; // 3: simpleString
+        db.execSQL(sql);
+    }
+
+    /** Drops the underlying database table. */
+    public static void dropTable(SQLiteDatabase db, boolean ifExists) {
+        String sql = "DROP TABLE " + (ifExists ? "IF EXISTS " : "") + "'ON_DELETE_ENTITY'";
+        db.execSQL(sql);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, OnDeleteEntity entity) {
+        stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, OnDeleteEntity entity, int offset) {
+ 
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(offset + 1, id);
+        }
+ 
+        Long parentId = entity.getParentId();
+        if (parentId != null) {
+            stmt.bindLong(offset + 2, parentId);
+        }
+ 
+        Long referenceId = entity.getReferenceId();
+        if (referenceId != null) {
+            stmt.bindLong(offset + 3, referenceId);
+        }
+ 
+        String simpleString = entity.getSimpleString();
+        if (simpleString != null) {
+            stmt.bindString(offset + 4, simpleString);
+        }
+    }
+
+    @Override
+    protected void attachEntity(OnDeleteEntity entity) {
+        super.attachEntity(entity);
+        entity.__setDaoSession(daoSession);
+    }
+
+    @Override
+    protected void collectRelatedEntities(OnDeleteEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        OnDeleteEntity parent = entity.peakParent();
+        if (parent != null) {
+            toOneTargets.add(parent);
+        }
+        OnDeleteEntity reference = entity.peakReference();
+        if (reference != null) {
+            toOneTargets.add(reference);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(OnDeleteEntity entity) {
+        OnDeleteEntity parent = entity.peakParent();
+        if (parent != null) {
+            entity.setParent(parent);
+        }
+        OnDeleteEntity reference = entity.peakReference();
+        if (reference != null) {
+            entity.setReference(reference);
+        }
+    }
+
+    /** @inheritdoc */
+    @Override
+    public Long readKey(Cursor cursor, int offset) {
+        return cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0);
+    }    
+
+    /** @inheritdoc */
+    @Override
+    public OnDeleteEntity readEntity(Cursor cursor, int offset) {
+        OnDeleteEntity entity = new OnDeleteEntity( //
+            cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
+            cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1), // parentId
+            cursor.isNull(offset + 2) ? null : cursor.getLong(offset + 2), // referenceId
+            cursor.isNull(offset + 3) ? null : cursor.getString(offset + 3) // simpleString
+        );
+        return entity;
+    }
+     
+    /** @inheritdoc */
+    @Override
+    public void readEntity(Cursor cursor, OnDeleteEntity entity, int offset) {
+        entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
+        entity.setParentId(cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1));
+        entity.setReferenceId(cursor.isNull(offset + 2) ? null : cursor.getLong(offset + 2));
+        entity.setSimpleString(cursor.isNull(offset + 3) ? null : cursor.getString(offset + 3));
+     }
+    
+    @Override
+    protected Long updateKeyAfterInsert(OnDeleteEntity entity, long rowId) {
+        entity.setId(rowId);
+        return rowId;
+    }
+    
+    /** @inheritdoc */
+    @Override
+    public Long getKey(OnDeleteEntity entity) {
+        if(entity != null) {
+            return entity.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /** @inheritdoc */
+    @Override    
+    protected boolean isEntityUpdateable() {
+        return true;
+    }
+    
+    @Override
+    protected boolean hasOnDeleteActions() {
+        return true;
+    }
+
+    @Override
+    protected void collectOnDeleteActions(OnDeleteCollector collector, List<Long> keys) {
+        // OnDeleteEntity.parentId: ON DELETE CASCADE
+        collector.collect(session.getDao(OnDeleteEntity.class), "PARENT_ID", true, keys);
+        // OnDeleteEntity.referenceId: ON DELETE SET NULL
+        collector.collect(session.getDao(OnDeleteEntity.class), "REFERENCE_ID", false, keys);
+    }
+
+    /**
+     * Resolves the "parent" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveParent(List<OnDeleteEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (OnDeleteEntity entity : entities) {
+            keys.add(entity.getParentId());
+        }
+        LongHashMap<OnDeleteEntity> targetsByKey = daoSession.getOnDeleteEntityDao().loadAllByKeys(keys);
+        for (OnDeleteEntity entity : entities) {
+            Long key = entity.getParentId();
+            if (key != null) {
+                entity.__resolveParent(targetsByKey.get(key));
+            }
+        }
+    }
+
+    /**
+     * Resolves the "reference" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveReference(List<OnDeleteEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (OnDeleteEntity entity : entities) {
+            keys.add(entity.getReferenceId());
+        }
+        LongHashMap<OnDeleteEntity> targetsByKey = daoSession.getOnDeleteEntityDao().loadAllByKeys(keys);
+        for (OnDeleteEntity entity : entities) {
+            Long key = entity.getReferenceId();
+            if (key != null) {
+                entity.__resolveReference(targetsByKey.get(key));
+            }
+        }
+    }
+
+    @Override
+    protected boolean isMaintainedProperty(Property property) {
+        return property == Properties.ParentId
+                || property == Properties.ReferenceId;
+    }
+
+    private String selectDeep;
+
+    @Override
+    protected String getSelectDeep() {
+        if (selectDeep == null) {
+            StringBuilder builder = new StringBuilder("SELECT ");
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0", daoSession.getOnDeleteEntityDao().getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T1", daoSession.getOnDeleteEntityDao().getSelectColumns());
+            builder.append(" FROM ON_DELETE_ENTITY T");
+            builder.append(" LEFT JOIN ON_DELETE_ENTITY T0 ON T.'PARENT_ID'=T0.'_id'");
+            builder.append(" LEFT JOIN ON_DELETE_ENTITY T1 ON T.'REFERENCE_ID'=T1.'_id'");
+            builder.append(' ');
+            selectDeep = builder.toString();
+        }
+        return selectDeep;
+    }
+    
+    @Override
+    protected OnDeleteEntity loadCurrentDeep(Cursor cursor, boolean lock) {
+        OnDeleteEntity entity = loadCurrent(cursor, 0, lock);
+        int offset = getAllColumns().length;
+
+        OnDeleteEntity parent = loadCurrentOther(daoSession.getOnDeleteEntityDao(), cursor, offset);
+        entity.__resolveParent(parent);
+        offset += daoSession.getOnDeleteEntityDao().getAllColumns().length;
+
+        OnDeleteEntity reference = loadCurrentOther(daoSession.getOnDeleteEntityDao(), cursor, offset);
+        entity.__resolveReference(reference);
+
+        return entity;    
+    }
+
+    public OnDeleteEntity loadDeep(Long key) {
+        assertSinglePk();
+        if (key == null) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(getSelectDeep());
+        builder.append("WHERE ");
+        SqlUtils.appendColumnsEqValue(builder, "T", getPkColumns());
+        String sql = builder.toString();
+        
+        String[] keyArray = new String[] { key.toString() };
+        Cursor cursor = db.rawQuery(sql, keyArray);
+        
+        try {
+            boolean available = cursor.moveToFirst();
+            if (!available) {
+                return null;
+            } else if (!cursor.isLast()) {
+                throw new IllegalStateException("Expected unique result, but count was " + cursor.getCount());
+            }
+            return loadCurrentDeep(cursor, true);
+        } finally {
+            cursor.close();
+        }
+    }
+    
+    /** A raw-style query where you can pass any WHERE clause and arguments. */
+    public List<OnDeleteEntity> queryDeep(String where, String... selectionArg) {
+        Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
+        return loadDeepAllAndCloseCursor(cursor);
+    }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { OnDeleteEntity.class, OnDeleteEntity.class };
+    }
+ 
+}
@@ -108,12 +108,24 @@ public class RelationEntity {
         return parent;
     }
 
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public RelationEntity peakParent() {
+        return parent;
+    }
+
     public void setParent(RelationEntity parent) {
         this.parent = parent;
         parentId = parent == null ? null : parent.getId();
         parent__resolvedKey = parentId;
     }
 
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveParent(RelationEntity parent) {
+        this.parent = parent;
+        parent__resolvedKey = parentId;
+    }
+
     /** To-one relationship, resolved on first access. */
     public TestEntity getTestEntity() {
         if (testEntity__resolvedKey == null || !testEntity__resolvedKey.equals(testId)) {
@@ -127,12 +139,24 @@ public class RelationEntity {
         return testEntity;
     }
 
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public TestEntity peakTestEntity() {
+        return testEntity;
+    }
+
     public void setTestEntity(TestEntity testEntity) {
         this.testEntity = testEntity;
         testId = testEntity == null ? null : testEntity.getId();
         testEntity__resolvedKey = testId;
     }
 
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveTestEntity(TestEntity testEntity) {
+        this.testEntity = testEntity;
+        testEntity__resolvedKey = testId;
+    }
+
     /** To-one relationship, resolved on first access. */
     public TestEntity getTestNotNull() {
         if (testNotNull__resolvedKey == null || !testNotNull__resolvedKey.equals(testIdNotNull)) {
@@ -146,6 +170,12 @@ public class RelationEntity {
         return testNotNull;
     }
 
+
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public TestEntity peakTestNotNull() {
+        return testNotNull;
+    }
+
     public void setTestNotNull(TestEntity testNotNull) {
         if (testNotNull == null) {
             throw new DaoException("To-one property 'testIdNotNull' has not-null constraint; cannot set to-one to null");
@@ -155,6 +185,12 @@ public class RelationEntity {
         testNotNull__resolvedKey = testIdNotNull;
     }
 
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveTestNotNull(TestEntity testNotNull) {
+        this.testNotNull = testNotNull;
+        testNotNull__resolvedKey = testIdNotNull;
+    }
+
     /** To-one relationship, resolved on first access. */
     public TestEntity getTestWithoutProperty() {
         if (testWithoutProperty != null || !testWithoutProperty__refreshed) {
@@ -1,13 +1,14 @@
 package de.greenrobot.daotest;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.SqlUtils;
 
@@ -64,26 +65,32 @@ public class RelationEntityDao extends AbstractDao<RelationEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, RelationEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, RelationEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         Long parentId = entity.getParentId();
         if (parentId != null) {
-            stmt.bindLong(2, parentId);
+            stmt.bindLong(offset + 2, parentId);
         }
  
         Long testId = entity.getTestId();
         if (testId != null) {
-            stmt.bindLong(3, testId);
+            stmt.bindLong(offset + 3, testId);
         }
-        stmt.bindLong(4, entity.getTestIdNotNull());
+        stmt.bindLong(offset + 4, entity.getTestIdNotNull());
  
         String simpleString = entity.getSimpleString();
         if (simpleString != null) {
-            stmt.bindString(5, simpleString);
+            stmt.bindString(offset + 5, simpleString);
         }
     }
 
@@ -93,6 +100,42 @@ public class RelationEntityDao extends AbstractDao<RelationEntity, Long> {
         entity.__setDaoSession(daoSession);
     }
 
+    @Override
+    protected void collectRelatedEntities(RelationEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        RelationEntity parent = entity.peakParent();
+        if (parent != null) {
+            toOneTargets.add(parent);
+        }
+        TestEntity testEntity = entity.peakTestEntity();
+        if (testEntity != null) {
+            toOneTargets.add(testEntity);
+        }
+        TestEntity testNotNull = entity.peakTestNotNull();
+        if (testNotNull != null) {
+            toOneTargets.add(testNotNull);
+        }
+        TestEntity testWithoutProperty = entity.peakTestWithoutProperty();
+        if (testWithoutProperty != null) {
+            toOneTargets.add(testWithoutProperty);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(RelationEntity entity) {
+        RelationEntity parent = entity.peakParent();
+        if (parent != null) {
+            entity.setParent(parent);
+        }
+        TestEntity testEntity = entity.peakTestEntity();
+        if (testEntity != null) {
+            entity.setTestEntity(testEntity);
+        }
+        TestEntity testNotNull = entity.peakTestNotNull();
+        if (testNotNull != null) {
+            entity.setTestNotNull(testNotNull);
+        }
+    }
+
     /** @inheritdoc */
     @Override
     public Long readKey(Cursor cursor, int offset) {
@@ -144,22 +187,89 @@ public class RelationEntityDao extends AbstractDao<RelationEntity, Long> {
         return true;
     }
     
+    /**
+     * Resolves the "parent" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveParent(List<RelationEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (RelationEntity entity : entities) {
+            keys.add(entity.getParentId());
+        }
+        LongHashMap<RelationEntity> targetsByKey = daoSession.getRelationEntityDao().loadAllByKeys(keys);
+        for (RelationEntity entity : entities) {
+            Long key = entity.getParentId();
+            if (key != null) {
+                entity.__resolveParent(targetsByKey.get(key));
+            }
+        }
+    }
+
+    /**
+     * Resolves the "testEntity" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveTestEntity(List<RelationEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (RelationEntity entity : entities) {
+            keys.add(entity.getTestId());
+        }
+        LongHashMap<TestEntity> targetsByKey = daoSession.getTestEntityDao().loadAllByKeys(keys);
+        for (RelationEntity entity : entities) {
+            Long key = entity.getTestId();
+            if (key != null) {
+                entity.__resolveTestEntity(targetsByKey.get(key));
+            }
+        }
+    }
+
+    /**
+     * Resolves the "testNotNull" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveTestNotNull(List<RelationEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (RelationEntity entity : entities) {
+            keys.add(entity.getTestIdNotNull());
+        }
+        LongHashMap<TestEntity> targetsByKey = daoSession.getTestEntityDao().loadAllByKeys(keys);
+        for (RelationEntity entity : entities) {
+            Long key = entity.getTestIdNotNull();
+            if (key != null) {
+                entity.__resolveTestNotNull(targetsByKey.get(key));
+            }
+        }
+    }
+
     private String selectDeep;
 
+    @Override
     protected String getSelectDeep() {
         if (selectDeep == null) {
             StringBuilder builder = new StringBuilder("SELECT ");
-            SqlUtils.appendColumns(builder, "T", getAllColumns());
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0", daoSession.getRelationEntityDao().getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0_0", daoSession.getRelationEntityDao().getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0_1", daoSession.getTestEntityDao().getSelectColumns());
+            builder.append(',');
+            SqlUtils.appendColumns(builder, "T0_2", daoSession.getTestEntityDao().getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T0", daoSession.getRelationEntityDao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T0_3", daoSession.getTestEntityDao().getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T1", daoSession.getTestEntityDao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T1", daoSession.getTestEntityDao().getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T2", daoSession.getTestEntityDao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T2", daoSession.getTestEntityDao().getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T3", daoSession.getTestEntityDao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T3", daoSession.getTestEntityDao().getSelectColumns());
             builder.append(" FROM RELATION_ENTITY T");
             builder.append(" LEFT JOIN RELATION_ENTITY T0 ON T.'PARENT_ID'=T0.'_id'");
+            builder.append(" LEFT JOIN RELATION_ENTITY T0_0 ON T0.'PARENT_ID'=T0_0.'_id'");
+            builder.append(" LEFT JOIN TEST_ENTITY T0_1 ON T0.'TEST_ID'=T0_1.'_id'");
+            builder.append(" LEFT JOIN TEST_ENTITY T0_2 ON T0.'TEST_ID_NOT_NULL'=T0_2.'_id'");
+            builder.append(" LEFT JOIN TEST_ENTITY T0_3 ON T0.'WITHOUT_PROPERTY_TEST_ID'=T0_3.'_id'");
             builder.append(" LEFT JOIN TEST_ENTITY T1 ON T.'TEST_ID'=T1.'_id'");
             builder.append(" LEFT JOIN TEST_ENTITY T2 ON T.'TEST_ID_NOT_NULL'=T2.'_id'");
             builder.append(" LEFT JOIN TEST_ENTITY T3 ON T.'WITHOUT_PROPERTY_TEST_ID'=T3.'_id'");
@@ -169,21 +279,46 @@ public class RelationEntityDao extends AbstractDao<RelationEntity, Long> {
         return selectDeep;
     }
     
+    @Override
     protected RelationEntity loadCurrentDeep(Cursor cursor, boolean lock) {
         RelationEntity entity = loadCurrent(cursor, 0, lock);
         int offset = getAllColumns().length;
 
         RelationEntity parent = loadCurrentOther(daoSession.getRelationEntityDao(), cursor, offset);
-        entity.setParent(parent);
+        entity.__resolveParent(parent);
+        offset += daoSession.getRelationEntityDao().getAllColumns().length;
+
+        RelationEntity parentParent = loadCurrentOther(daoSession.getRelationEntityDao(), cursor, offset);
+        if (parent != null) {
+            parent.__resolveParent(parentParent);
+        }
         offset += daoSession.getRelationEntityDao().getAllColumns().length;
 
+        TestEntity parentTestEntity = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
+        if (parent != null) {
+            parent.__resolveTestEntity(parentTestEntity);
+        }
+        offset += daoSession.getTestEntityDao().getAllColumns().length;
+
+        TestEntity parentTestNotNull = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
+        if (parent != null && parentTestNotNull != null) {
+            parent.__resolveTestNotNull(parentTestNotNull);
+        }
+        offset += daoSession.getTestEntityDao().getAllColumns().length;
+
+        TestEntity parentTestWithoutProperty = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
+        if (parent != null) {
+            parent.setTestWithoutProperty(parentTestWithoutProperty);
+        }
+        offset += daoSession.getTestEntityDao().getAllColumns().length;
+
         TestEntity testEntity = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
-        entity.setTestEntity(testEntity);
+        entity.__resolveTestEntity(testEntity);
         offset += daoSession.getTestEntityDao().getAllColumns().length;
 
         TestEntity testNotNull = loadCurrentOther(daoSession.getTestEntityDao(), cursor, offset);
          if(testNotNull != null) {
-            entity.setTestNotNull(testNotNull);
+            entity.__resolveTestNotNull(testNotNull);
         }
         offset += daoSession.getTestEntityDao().getAllColumns().length;
 
@@ -220,42 +355,15 @@ public class RelationEntityDao extends AbstractDao<RelationEntity, Long> {
         }
     }
     
-    /** Reads all available rows from the given cursor and returns a list of new ImageTO objects. */
-    public List<RelationEntity> loadAllDeepFromCursor(Cursor cursor) {
-        int count = cursor.getCount();
-        List<RelationEntity> list = new ArrayList<RelationEntity>(count);
-        
-        if (cursor.moveToFirst()) {
-            if (identityScope != null) {
-                identityScope.lock();
-                identityScope.reserveRoom(count);
-            }
-            try {
-                do {
-                    list.add(loadCurrentDeep(cursor, false));
-                } while (cursor.moveToNext());
-            } finally {
-                if (identityScope != null) {
-                    identityScope.unlock();
-                }
-            }
-        }
-        return list;
-    }
-    
-    protected List<RelationEntity> loadDeepAllAndCloseCursor(Cursor cursor) {
-        try {
-            return loadAllDeepFromCursor(cursor);
-        } finally {
-            cursor.close();
-        }
-    }
-    
-
     /** A raw-style query where you can pass any WHERE clause and arguments. */
     public List<RelationEntity> queryDeep(String where, String... selectionArg) {
         Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
         return loadDeepAllAndCloseCursor(cursor);
     }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { RelationEntity.class, TestEntity.class, TestEntity.class, TestEntity.class };
+    }
  
 }
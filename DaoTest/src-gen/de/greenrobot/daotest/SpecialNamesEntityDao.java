@@ -64,50 +64,56 @@ public class SpecialNamesEntityDao extends AbstractDao<SpecialNamesEntity, Long>
     @Override
     protected void bindValues(SQLiteStatement stmt, SpecialNamesEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, SpecialNamesEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         String count = entity.getCount();
         if (count != null) {
-            stmt.bindString(2, count);
+            stmt.bindString(offset + 2, count);
         }
  
         String select = entity.getSelect();
         if (select != null) {
-            stmt.bindString(3, select);
+            stmt.bindString(offset + 3, select);
         }
  
         String sum = entity.getSum();
         if (sum != null) {
-            stmt.bindString(4, sum);
+            stmt.bindString(offset + 4, sum);
         }
  
         String avg = entity.getAvg();
         if (avg != null) {
-            stmt.bindString(5, avg);
+            stmt.bindString(offset + 5, avg);
         }
  
         String join = entity.getJoin();
         if (join != null) {
-            stmt.bindString(6, join);
+            stmt.bindString(offset + 6, join);
         }
  
         String distinct = entity.getDistinct();
         if (distinct != null) {
-            stmt.bindString(7, distinct);
+            stmt.bindString(offset + 7, distinct);
         }
  
         String on = entity.getOn();
         if (on != null) {
-            stmt.bindString(8, on);
+            stmt.bindString(offset + 8, on);
         }
  
         String index = entity.getIndex();
         if (index != null) {
-            stmt.bindString(9, index);
+            stmt.bindString(offset + 9, index);
         }
     }
 
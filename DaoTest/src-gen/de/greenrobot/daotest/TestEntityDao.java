@@ -51,12 +51,12 @@ public class TestEntityDao extends AbstractDao<TestEntity, Long> {
                 "'INDEXED_STRING_ASC_UNIQUE' TEXT," + // 6: indexedStringAscUnique
                 "'SIMPLE_DATE' INTEGER," + // 7: simpleDate
                 "'SIMPLE_BOOLEAN' INTEGER);"; // 8: simpleBoolean
-        // Add Indexes
-        sql += "CREATE INDEX IDX_TEST_ENTITY_INDEXED_STRING ON TEST_ENTITY" +
-                " (INDEXED_STRING);";
-        sql += "CREATE UNIQUE INDEX IDX_TEST_ENTITY_INDEXED_STRING_ASC_UNIQUE ON TEST_ENTITY" +
-                " (INDEXED_STRING_ASC_UNIQUE);";
         db.execSQL(sql);
+        // Add Indexes (one statement each, execSQL executes only the first statement)
+        db.execSQL("CREATE INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "IDX_TEST_ENTITY_INDEXED_STRING ON TEST_ENTITY" +
+                " (INDEXED_STRING);");
+        db.execSQL("CREATE UNIQUE INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "IDX_TEST_ENTITY_INDEXED_STRING_ASC_UNIQUE ON TEST_ENTITY" +
+                " (INDEXED_STRING_ASC_UNIQUE);");
     }
 
     /** Drops the underlying database table. */
@@ -69,42 +69,48 @@ public class TestEntityDao extends AbstractDao<TestEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, TestEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, TestEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
-        stmt.bindLong(2, entity.getSimpleInt());
+        stmt.bindLong(offset + 2, entity.getSimpleInt());
  
         Integer simpleInteger = entity.getSimpleInteger();
         if (simpleInteger != null) {
-            stmt.bindLong(3, simpleInteger);
+            stmt.bindLong(offset + 3, simpleInteger);
         }
-        stmt.bindString(4, entity.getSimpleStringNotNull());
+        stmt.bindString(offset + 4, entity.getSimpleStringNotNull());
  
         String simpleString = entity.getSimpleString();
         if (simpleString != null) {
-            stmt.bindString(5, simpleString);
+            stmt.bindString(offset + 5, simpleString);
         }
  
         String indexedString = entity.getIndexedString();
         if (indexedString != null) {
-            stmt.bindString(6, indexedString);
+            stmt.bindString(offset + 6, indexedString);
         }
  
         String indexedStringAscUnique = entity.getIndexedStringAscUnique();
         if (indexedStringAscUnique != null) {
-            stmt.bindString(7, indexedStringAscUnique);
+            stmt.bindString(offset + 7, indexedStringAscUnique);
         }
  
         java.util.Date simpleDate = entity.getSimpleDate();
         if (simpleDate != null) {
-            stmt.bindLong(8, simpleDate.getTime());
+            stmt.bindLong(offset + 8, simpleDate.getTime());
         }
  
         Boolean simpleBoolean = entity.getSimpleBoolean();
         if (simpleBoolean != null) {
-            stmt.bindLong(9, simpleBoolean ? 1l: 0l);
+            stmt.bindLong(offset + 9, simpleBoolean ? 1l: 0l);
         }
     }
 
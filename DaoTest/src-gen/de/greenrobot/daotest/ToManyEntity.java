@@ -3,6 +3,7 @@ package de.greenrobot.daotest;
 import java.util.List;
 import de.greenrobot.daotest.DaoSession;
 import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.LazyList;
 
 // THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
 /**
@@ -23,6 +24,8 @@ public class ToManyEntity {
     private List<ToManyTargetEntity> ToManyDescList;
     private List<ToManyTargetEntity> ToManyByJoinProperty;
     private List<ToManyTargetEntity> ToManyJoinTwo;
+    private List<ToManyTargetEntity> ToManyLazyList;
+    private List<ToManyTargetEntity> ToManyLinked;
 
     public ToManyEntity() {
     }
@@ -75,6 +78,16 @@ public class ToManyEntity {
         toManyTargetEntity = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyTargetEntity() {
+        return toManyTargetEntity;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyTargetEntity(List<ToManyTargetEntity> toManyTargetEntity) {
+        this.toManyTargetEntity = toManyTargetEntity;
+    }
+
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
     public synchronized List<ToManyTargetEntity> getToManyDescList() {
         if (ToManyDescList == null) {
@@ -92,6 +105,16 @@ public class ToManyEntity {
         ToManyDescList = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyDescList() {
+        return ToManyDescList;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyDescList(List<ToManyTargetEntity> ToManyDescList) {
+        this.ToManyDescList = ToManyDescList;
+    }
+
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
     public synchronized List<ToManyTargetEntity> getToManyByJoinProperty() {
         if (ToManyByJoinProperty == null) {
@@ -109,6 +132,16 @@ public class ToManyEntity {
         ToManyByJoinProperty = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyByJoinProperty() {
+        return ToManyByJoinProperty;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyByJoinProperty(List<ToManyTargetEntity> ToManyByJoinProperty) {
+        this.ToManyByJoinProperty = ToManyByJoinProperty;
+    }
+
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
     public synchronized List<ToManyTargetEntity> getToManyJoinTwo() {
         if (ToManyJoinTwo == null) {
@@ -126,6 +159,79 @@ public class ToManyEntity {
         ToManyJoinTwo = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyJoinTwo() {
+        return ToManyJoinTwo;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyJoinTwo(List<ToManyTargetEntity> ToManyJoinTwo) {
+        this.ToManyJoinTwo = ToManyJoinTwo;
+    }
+
+    /** To-many relationship, resolved on first access (and after reset) as LazyList loading target entities on access. Changes to to-many relations are not persisted, make changes to the target entity. */
+    public synchronized List<ToManyTargetEntity> getToManyLazyList() {
+        if (ToManyLazyList == null) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            ToManyTargetEntityDao targetDao = daoSession.getToManyTargetEntityDao();
+            ToManyLazyList = targetDao._queryToManyEntity_ToManyLazyList(id);
+        }
+        return ToManyLazyList;
+    }
+
+    /** Resets a to-many relationship, making the next get call to query for a fresh result. Closes a resolved LazyList. */
+    public synchronized void resetToManyLazyList() {
+        if (ToManyLazyList instanceof LazyList) {
+            ((LazyList<ToManyTargetEntity>) ToManyLazyList).close();
+        }
+        ToManyLazyList = null;
+    }
+
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyLazyList() {
+        return ToManyLazyList;
+    }
+
+    /**
+     * Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. Closes a
+     * resolved LazyList replaced by the given list.
+     */
+    public synchronized void setToManyLazyList(List<ToManyTargetEntity> ToManyLazyList) {
+        if (this.ToManyLazyList instanceof LazyList && this.ToManyLazyList != ToManyLazyList) {
+            ((LazyList<ToManyTargetEntity>) this.ToManyLazyList).close();
+        }
+        this.ToManyLazyList = ToManyLazyList;
+    }
+
+    /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
+    public synchronized List<ToManyTargetEntity> getToManyLinked() {
+        if (ToManyLinked == null) {
+            if (daoSession == null) {
+                throw new DaoException("Entity is detached from DAO context");
+            }
+            ToManyTargetEntityDao targetDao = daoSession.getToManyTargetEntityDao();
+            ToManyLinked = targetDao._queryToManyEntity_ToManyLinked(id);
+        }
+        return ToManyLinked;
+    }
+
+    /** Resets a to-many relationship, making the next get call to query for a fresh result. */
+    public synchronized void resetToManyLinked() {
+        ToManyLinked = null;
+    }
+
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTargetEntity> peakToManyLinked() {
+        return ToManyLinked;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyLinked(List<ToManyTargetEntity> ToManyLinked) {
+        this.ToManyLinked = ToManyLinked;
+    }
+
     /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
     public void delete() {
         if (myDao == null) {
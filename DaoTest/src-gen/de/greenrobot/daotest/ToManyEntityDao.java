@@ -1,11 +1,14 @@
 package de.greenrobot.daotest;
 
+import java.util.ArrayList;
+import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 
 import de.greenrobot.daotest.ToManyEntity;
@@ -53,15 +56,21 @@ public class ToManyEntityDao extends AbstractDao<ToManyEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, ToManyEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ToManyEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         String sourceJoinProperty = entity.getSourceJoinProperty();
         if (sourceJoinProperty != null) {
-            stmt.bindString(2, sourceJoinProperty);
+            stmt.bindString(offset + 2, sourceJoinProperty);
         }
     }
 
@@ -71,6 +80,65 @@ public class ToManyEntityDao extends AbstractDao<ToManyEntity, Long> {
         entity.__setDaoSession(daoSession);
     }
 
+    @Override
+    protected void collectRelatedEntities(ToManyEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        List<ToManyTargetEntity> toManyTargetEntity = entity.peakToManyTargetEntity();
+        if (toManyTargetEntity != null) {
+            toManyTargets.addAll(toManyTargetEntity);
+        }
+        List<ToManyTargetEntity> ToManyDescList = entity.peakToManyDescList();
+        if (ToManyDescList != null) {
+            toManyTargets.addAll(ToManyDescList);
+        }
+        List<ToManyTargetEntity> ToManyByJoinProperty = entity.peakToManyByJoinProperty();
+        if (ToManyByJoinProperty != null) {
+            toManyTargets.addAll(ToManyByJoinProperty);
+        }
+        List<ToManyTargetEntity> ToManyJoinTwo = entity.peakToManyJoinTwo();
+        if (ToManyJoinTwo != null) {
+            toManyTargets.addAll(ToManyJoinTwo);
+        }
+        List<ToManyTargetEntity> ToManyLazyList = entity.peakToManyLazyList();
+        if (ToManyLazyList != null) {
+            toManyTargets.addAll(ToManyLazyList);
+        }
+    }
+
+    @Override
+    protected void updateToManyKeys(ToManyEntity entity) {
+        List<ToManyTargetEntity> toManyTargetEntity = entity.peakToManyTargetEntity();
+        if (toManyTargetEntity != null) {
+            for (ToManyTargetEntity target : toManyTargetEntity) {
+                target.setToManyId(entity.getId());
+            }
+        }
+        List<ToManyTargetEntity> ToManyDescList = entity.peakToManyDescList();
+        if (ToManyDescList != null) {
+            for (ToManyTargetEntity target : ToManyDescList) {
+                target.setToManyIdDesc(entity.getId());
+            }
+        }
+        List<ToManyTargetEntity> ToManyByJoinProperty = entity.peakToManyByJoinProperty();
+        if (ToManyByJoinProperty != null) {
+            for (ToManyTargetEntity target : ToManyByJoinProperty) {
+                target.setTargetJoinProperty(entity.getSourceJoinProperty());
+            }
+        }
+        List<ToManyTargetEntity> ToManyJoinTwo = entity.peakToManyJoinTwo();
+        if (ToManyJoinTwo != null) {
+            for (ToManyTargetEntity target : ToManyJoinTwo) {
+                target.setToManyId(entity.getId());
+                target.setTargetJoinProperty(entity.getSourceJoinProperty());
+            }
+        }
+        List<ToManyTargetEntity> ToManyLazyList = entity.peakToManyLazyList();
+        if (ToManyLazyList != null) {
+            for (ToManyTargetEntity target : ToManyLazyList) {
+                target.setToManyId(entity.getId());
+            }
+        }
+    }
+
     /** @inheritdoc */
     @Override
     public Long readKey(Cursor cursor, int offset) {
@@ -116,4 +184,72 @@ public class ToManyEntityDao extends AbstractDao<ToManyEntity, Long> {
         return true;
     }
     
+    /**
+     * Resolves the "toManyTargetEntity" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchToManyTargetEntity(List<ToManyEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (ToManyEntity entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<ToManyTargetEntity>> targetsByKey = daoSession.getToManyTargetEntityDao()._prefetchToManyEntity_ToManyTargetEntity(keys);
+        for (ToManyEntity entity : entities) {
+            Long key = entity.getId();
+            List<ToManyTargetEntity> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setToManyTargetEntity(targets != null ? targets : new ArrayList<ToManyTargetEntity>());
+        }
+    }
+
+    /**
+     * Resolves the "ToManyDescList" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchToManyDescList(List<ToManyEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (ToManyEntity entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<ToManyTargetEntity>> targetsByKey = daoSession.getToManyTargetEntityDao()._prefetchToManyEntity_ToManyDescList(keys);
+        for (ToManyEntity entity : entities) {
+            Long key = entity.getId();
+            List<ToManyTargetEntity> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setToManyDescList(targets != null ? targets : new ArrayList<ToManyTargetEntity>());
+        }
+    }
+
+    /**
+     * Resolves the "ToManyLazyList" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchToManyLazyList(List<ToManyEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (ToManyEntity entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<ToManyTargetEntity>> targetsByKey = daoSession.getToManyTargetEntityDao()._prefetchToManyEntity_ToManyLazyList(keys);
+        for (ToManyEntity entity : entities) {
+            Long key = entity.getId();
+            List<ToManyTargetEntity> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setToManyLazyList(targets != null ? targets : new ArrayList<ToManyTargetEntity>());
+        }
+    }
+
+    /**
+     * Resolves the "ToManyLinked" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchToManyLinked(List<ToManyEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (ToManyEntity entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<ToManyTargetEntity>> targetsByKey = daoSession.getToManyTargetEntityDao()._prefetchToManyEntity_ToManyLinked(keys);
+        for (ToManyEntity entity : entities) {
+            Long key = entity.getId();
+            List<ToManyTargetEntity> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setToManyLinked(targets != null ? targets : new ArrayList<ToManyTargetEntity>());
+        }
+    }
+
 }
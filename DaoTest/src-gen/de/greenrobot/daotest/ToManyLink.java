@@ -0,0 +1,54 @@
+package de.greenrobot.daotest;
+
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT. Enable "keep" sections if you want to edit. 
+/**
+ * Entity mapped to table TO_MANY_LINK.
+ */
+public class ToManyLink {
+
+    private Long id;
+    private long toManyEntityId;
+    private long toManyTargetEntityId;
+
+
+    public ToManyLink() {
+    }
+
+    public ToManyLink(Long id) {
+        this.id = id;
+    }
+
+    public ToManyLink(Long id, long toManyEntityId, long toManyTargetEntityId) {
+        this.id = id;
+        this.toManyEntityId = toManyEntityId;
+        this.toManyTargetEntityId = toManyTargetEntityId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getToManyEntityId() {
+        return toManyEntityId;
+    }
+
+    public void setToManyEntityId(long toManyEntityId) {
+        this.toManyEntityId = toManyEntityId;
+    }
+
+    public long getToManyTargetEntityId() {
+        return toManyTargetEntityId;
+    }
+
+    public void setToManyTargetEntityId(long toManyTargetEntityId) {
+        this.toManyTargetEntityId = toManyTargetEntityId;
+    }
+
+
+
+}
@@ -0,0 +1,122 @@
+package de.greenrobot.daotest;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import de.greenrobot.dao.AbstractDao;
+import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.Property;
+
+import de.greenrobot.daotest.ToManyLink;
+
+// THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
+/** 
+ * DAO for table TO_MANY_LINK.
+*/
+public class ToManyLinkDao extends AbstractDao<ToManyLink, Long> {
+
+    public static final String TABLENAME = "TO_MANY_LINK";
+
+    public static class Properties {
+        public final static Property Id = new Property(0, Long.class, "id", true, "_id");
+        public final static Property ToManyEntityId = new Property(1, long.class, "toManyEntityId", false, "TO_MANY_ENTITY_ID");
+        public final static Property ToManyTargetEntityId = new Property(2, long.class, "toManyTargetEntityId", false, "TO_MANY_TARGET_ENTITY_ID");
+    };
+
+
+    public ToManyLinkDao(DaoConfig config) {
+        super(config);
+    }
+    
+    public ToManyLinkDao(DaoConfig config, DaoSession daoSession) {
+        super(config, daoSession);
+    }
+
+    /** Creates the underlying database table. */
+    public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
+        String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'TO_MANY_LINK' (" + //
+                "'_id' INTEGER PRIMARY KEY ," + // 0: id
+                "'TO_MANY_ENTITY_ID' INTEGER NOT NULL ," + // 1: toManyEntityId
+                "'TO_MANY_TARGET_ENTITY_ID' INTEGER NOT NULL );"; // 2: toManyTargetEntityId
+        db.execSQL(sql);
+        // Add Indexes (one statement each, execSQL executes only the first statement)
+        db.execSQL("CREATE UNIQUE INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "IDX_TO_MANY_LINK_TO_MANY_ENTITY_ID_TO_MANY_TARGET_ENTITY_ID ON TO_MANY_LINK" +
+                " (TO_MANY_ENTITY_ID,TO_MANY_TARGET_ENTITY_ID);");
+        db.execSQL("CREATE INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "IDX_TO_MANY_LINK_TO_MANY_TARGET_ENTITY_ID_TO_MANY_ENTITY_ID ON TO_MANY_LINK" +
+                " (TO_MANY_TARGET_ENTITY_ID,TO_MANY_ENTITY_ID);");
+    }
+
+    /** Drops the underlying database table. */
+    public static void dropTable(SQLiteDatabase db, boolean ifExists) {
+        String sql = "DROP TABLE " + (ifExists ? "IF EXISTS " : "") + "'TO_MANY_LINK'";
+        db.execSQL(sql);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ToManyLink entity) {
+        stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ToManyLink entity, int offset) {
+ 
+        Long id = entity.getId();
+        if (id != null) {
+            stmt.bindLong(offset + 1, id);
+        }
+        stmt.bindLong(offset + 2, entity.getToManyEntityId());
+        stmt.bindLong(offset + 3, entity.getToManyTargetEntityId());
+    }
+
+    /** @inheritdoc */
+    @Override
+    public Long readKey(Cursor cursor, int offset) {
+        return cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0);
+    }    
+
+    /** @inheritdoc */
+    @Override
+    public ToManyLink readEntity(Cursor cursor, int offset) {
+        ToManyLink entity = new ToManyLink( //
+            cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
+            cursor.getLong(offset + 1), // toManyEntityId
+            cursor.getLong(offset + 2) // toManyTargetEntityId
+        );
+        return entity;
+    }
+     
+    /** @inheritdoc */
+    @Override
+    public void readEntity(Cursor cursor, ToManyLink entity, int offset) {
+        entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
+        entity.setToManyEntityId(cursor.getLong(offset + 1));
+        entity.setToManyTargetEntityId(cursor.getLong(offset + 2));
+     }
+    
+    @Override
+    protected Long updateKeyAfterInsert(ToManyLink entity, long rowId) {
+        entity.setId(rowId);
+        return rowId;
+    }
+    
+    /** @inheritdoc */
+    @Override
+    public Long getKey(ToManyLink entity) {
+        if(entity != null) {
+            return entity.getId();
+        } else {
+            return null;
+        }
+    }
+
+    /** @inheritdoc */
+    @Override    
+    protected boolean isEntityUpdateable() {
+        return true;
+    }
+    
+}
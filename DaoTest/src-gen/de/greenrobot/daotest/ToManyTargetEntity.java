@@ -11,6 +11,12 @@ public class ToManyTargetEntity {
     private Long id;
     private String targetJoinProperty;
 
+    /** Value of toManyId in the database; lets the DAO remove the entity from the previous source's cached list. */
+    private Long __storedToManyId;
+
+    /** Value of toManyIdDesc in the database; lets the DAO remove the entity from the previous source's cached list. */
+    private Long __storedToManyIdDesc;
+
     public ToManyTargetEntity() {
     }
 
@@ -57,4 +63,18 @@ public class ToManyTargetEntity {
         this.targetJoinProperty = targetJoinProperty;
     }
 
+    /** called by internal mechanisms, do not call yourself. Stores the current value and returns the previous one. */
+    public Long __storeToManyId() {
+        Long previous = __storedToManyId;
+        __storedToManyId = toManyId;
+        return previous;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Stores the current value and returns the previous one. */
+    public Long __storeToManyIdDesc() {
+        Long previous = __storedToManyIdDesc;
+        __storedToManyIdDesc = toManyIdDesc;
+        return previous;
+    }
+
 }
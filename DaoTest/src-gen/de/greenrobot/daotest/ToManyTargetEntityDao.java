@@ -1,5 +1,7 @@
 package de.greenrobot.daotest;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -7,6 +9,7 @@ import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.Query;
 import de.greenrobot.dao.QueryBuilder;
@@ -32,6 +35,34 @@ public class ToManyTargetEntityDao extends AbstractDao<ToManyTargetEntity, Long>
     private Query<ToManyTargetEntity> toManyEntity_ToManyDescListQuery;
     private Query<ToManyTargetEntity> toManyEntity_ToManyByJoinPropertyQuery;
     private Query<ToManyTargetEntity> toManyEntity_ToManyJoinTwoQuery;
+    private Query<ToManyTargetEntity> toManyEntity_ToManyLazyListQuery;
+    private Query<ToManyTargetEntity> toManyEntity_ToManyLinkedQuery;
+
+    /** Order of the "toManyTargetEntity" to-many relationship of ToManyEntity, used to update cached lists. */
+    private static final Comparator<ToManyTargetEntity> toManyEntity_ToManyTargetEntityComparator = new Comparator<ToManyTargetEntity>() {
+        @Override
+        public int compare(ToManyTargetEntity lhs, ToManyTargetEntity rhs) {
+            int result;
+            result = compareValues(lhs.getId(), rhs.getId());
+            if (result != 0) {
+                return result;
+            }
+            return 0;
+        }
+    };
+
+    /** Order of the "ToManyDescList" to-many relationship of ToManyEntity, used to update cached lists. */
+    private static final Comparator<ToManyTargetEntity> toManyEntity_ToManyDescListComparator = new Comparator<ToManyTargetEntity>() {
+        @Override
+        public int compare(ToManyTargetEntity lhs, ToManyTargetEntity rhs) {
+            int result;
+            result = compareValues(lhs.getId(), rhs.getId());
+            if (result != 0) {
+                return -result;
+            }
+            return 0;
+        }
+    };
 
     public ToManyTargetEntityDao(DaoConfig config) {
         super(config);
@@ -61,25 +92,56 @@ public class ToManyTargetEntityDao extends AbstractDao<ToManyTargetEntity, Long>
     @Override
     protected void bindValues(SQLiteStatement stmt, ToManyTargetEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ToManyTargetEntity entity, int offset) {
  
         Long toManyId = entity.getToManyId();
         if (toManyId != null) {
-            stmt.bindLong(1, toManyId);
+            stmt.bindLong(offset + 1, toManyId);
         }
  
         Long toManyIdDesc = entity.getToManyIdDesc();
         if (toManyIdDesc != null) {
-            stmt.bindLong(2, toManyIdDesc);
+            stmt.bindLong(offset + 2, toManyIdDesc);
         }
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(3, id);
+            stmt.bindLong(offset + 3, id);
         }
  
         String targetJoinProperty = entity.getTargetJoinProperty();
         if (targetJoinProperty != null) {
-            stmt.bindString(4, targetJoinProperty);
+            stmt.bindString(offset + 4, targetJoinProperty);
+        }
+    }
+
+    @Override
+    protected void attachEntity(ToManyTargetEntity entity) {
+        super.attachEntity(entity);
+        Long previousToManyId = entity.__storeToManyId();
+        if (isMaintainCachedToManyLists() && previousToManyId != null && !previousToManyId.equals(entity.getToManyId())) {
+            // The FK changed, so remove the entity from the list of the previous source
+            ToManyEntity toManyEntityToManyTargetEntitySource = getFromIdentityScope(ToManyEntity.class, previousToManyId);
+            if (toManyEntityToManyTargetEntitySource != null) {
+                synchronized (toManyEntityToManyTargetEntitySource) {
+                    updateCachedList(toManyEntityToManyTargetEntitySource.peakToManyTargetEntity(), entity, true, null);
+                }
+            }
+        }
+        Long previousToManyIdDesc = entity.__storeToManyIdDesc();
+        if (isMaintainCachedToManyLists() && previousToManyIdDesc != null && !previousToManyIdDesc.equals(entity.getToManyIdDesc())) {
+            // The FK changed, so remove the entity from the list of the previous source
+            ToManyEntity toManyEntityToManyDescListSource = getFromIdentityScope(ToManyEntity.class, previousToManyIdDesc);
+            if (toManyEntityToManyDescListSource != null) {
+                synchronized (toManyEntityToManyDescListSource) {
+                    updateCachedList(toManyEntityToManyDescListSource.peakToManyDescList(), entity, true, null);
+                }
+            }
         }
     }
 
@@ -133,57 +195,136 @@ public class ToManyTargetEntityDao extends AbstractDao<ToManyTargetEntity, Long>
     }
     
     /** Internal query to resolve the "toManyTargetEntity" to-many relationship of ToManyEntity. */
-    public synchronized List<ToManyTargetEntity> _queryToManyEntity_ToManyTargetEntity(Long toManyId) {
-        if (toManyEntity_ToManyTargetEntityQuery == null) {
-            QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.ToManyId.eq(toManyId));
-            queryBuilder.orderRaw("_id ASC");
-            toManyEntity_ToManyTargetEntityQuery = queryBuilder.build();
-        } else {
-            toManyEntity_ToManyTargetEntityQuery.setParameter(0, toManyId);
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyTargetEntity(Long toManyId) {
+        synchronized (this) {
+            if (toManyEntity_ToManyTargetEntityQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.ToManyId.eq(toManyId));
+                queryBuilder.orderRaw("_id ASC");
+                toManyEntity_ToManyTargetEntityQuery = queryBuilder.build();
+            }
         }
-        return toManyEntity_ToManyTargetEntityQuery.list();
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyTargetEntityQuery.forCurrentThread();
+        query.setParameter(0, toManyId);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "toManyTargetEntity" to-many relationship of several ToManyEntity entities. */
+    public LongHashMap<List<ToManyTargetEntity>> _prefetchToManyEntity_ToManyTargetEntity(Collection<Long> toManyIdValues) {
+        return loadGroupedBy(Properties.ToManyId, toManyIdValues, "_id ASC");
     }
 
     /** Internal query to resolve the "ToManyDescList" to-many relationship of ToManyEntity. */
-    public synchronized List<ToManyTargetEntity> _queryToManyEntity_ToManyDescList(Long toManyIdDesc) {
-        if (toManyEntity_ToManyDescListQuery == null) {
-            QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.ToManyIdDesc.eq(toManyIdDesc));
-            queryBuilder.orderRaw("_id DESC");
-            toManyEntity_ToManyDescListQuery = queryBuilder.build();
-        } else {
-            toManyEntity_ToManyDescListQuery.setParameter(0, toManyIdDesc);
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyDescList(Long toManyIdDesc) {
+        synchronized (this) {
+            if (toManyEntity_ToManyDescListQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.ToManyIdDesc.eq(toManyIdDesc));
+                queryBuilder.orderRaw("_id DESC");
+                toManyEntity_ToManyDescListQuery = queryBuilder.build();
+            }
         }
-        return toManyEntity_ToManyDescListQuery.list();
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyDescListQuery.forCurrentThread();
+        query.setParameter(0, toManyIdDesc);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "ToManyDescList" to-many relationship of several ToManyEntity entities. */
+    public LongHashMap<List<ToManyTargetEntity>> _prefetchToManyEntity_ToManyDescList(Collection<Long> toManyIdDescValues) {
+        return loadGroupedBy(Properties.ToManyIdDesc, toManyIdDescValues, "_id DESC");
     }
 
     /** Internal query to resolve the "ToManyByJoinProperty" to-many relationship of ToManyEntity. */
-    public synchronized List<ToManyTargetEntity> _queryToManyEntity_ToManyByJoinProperty(String targetJoinProperty) {
-        if (toManyEntity_ToManyByJoinPropertyQuery == null) {
-            QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.TargetJoinProperty.eq(targetJoinProperty));
-            queryBuilder.orderRaw("_id ASC");
-            toManyEntity_ToManyByJoinPropertyQuery = queryBuilder.build();
-        } else {
-            toManyEntity_ToManyByJoinPropertyQuery.setParameter(0, targetJoinProperty);
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyByJoinProperty(String targetJoinProperty) {
+        synchronized (this) {
+            if (toManyEntity_ToManyByJoinPropertyQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.TargetJoinProperty.eq(targetJoinProperty));
+                queryBuilder.orderRaw("_id ASC");
+                toManyEntity_ToManyByJoinPropertyQuery = queryBuilder.build();
+            }
         }
-        return toManyEntity_ToManyByJoinPropertyQuery.list();
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyByJoinPropertyQuery.forCurrentThread();
+        query.setParameter(0, targetJoinProperty);
+        return query.list();
     }
 
     /** Internal query to resolve the "ToManyJoinTwo" to-many relationship of ToManyEntity. */
-    public synchronized List<ToManyTargetEntity> _queryToManyEntity_ToManyJoinTwo(Long toManyId, String targetJoinProperty) {
-        if (toManyEntity_ToManyJoinTwoQuery == null) {
-            QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.ToManyId.eq(toManyId));
-            queryBuilder.where(Properties.TargetJoinProperty.eq(targetJoinProperty));
-            queryBuilder.orderRaw("TARGET_JOIN_PROPERTY DESC,_id DESC");
-            toManyEntity_ToManyJoinTwoQuery = queryBuilder.build();
-        } else {
-            toManyEntity_ToManyJoinTwoQuery.setParameter(0, toManyId);
-            toManyEntity_ToManyJoinTwoQuery.setParameter(1, targetJoinProperty);
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyJoinTwo(Long toManyId, String targetJoinProperty) {
+        synchronized (this) {
+            if (toManyEntity_ToManyJoinTwoQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.ToManyId.eq(toManyId));
+                queryBuilder.where(Properties.TargetJoinProperty.eq(targetJoinProperty));
+                queryBuilder.orderRaw("TARGET_JOIN_PROPERTY DESC,_id DESC");
+                toManyEntity_ToManyJoinTwoQuery = queryBuilder.build();
+            }
+        }
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyJoinTwoQuery.forCurrentThread();
+        query.setParameter(0, toManyId);
+        query.setParameter(1, targetJoinProperty);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "ToManyLazyList" to-many relationship of ToManyEntity. */
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyLazyList(Long toManyId) {
+        synchronized (this) {
+            if (toManyEntity_ToManyLazyListQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.ToManyId.eq(toManyId));
+                queryBuilder.orderRaw("_id ASC");
+                toManyEntity_ToManyLazyListQuery = queryBuilder.build();
+            }
+        }
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyLazyListQuery.forCurrentThread();
+        query.setParameter(0, toManyId);
+        return query.listLazy();
+    }
+
+    /** Internal query to resolve the "ToManyLazyList" to-many relationship of several ToManyEntity entities. */
+    public LongHashMap<List<ToManyTargetEntity>> _prefetchToManyEntity_ToManyLazyList(Collection<Long> toManyIdValues) {
+        return loadGroupedBy(Properties.ToManyId, toManyIdValues, "_id ASC");
+    }
+
+    /**
+     * Internal query to resolve the "ToManyLinked" many-to-many relationship of ToManyEntity using a JOIN
+     * with TO_MANY_LINK.
+     */
+    public List<ToManyTargetEntity> _queryToManyEntity_ToManyLinked(Long toManyEntityId) {
+        synchronized (this) {
+            if (toManyEntity_ToManyLinkedQuery == null) {
+                QueryBuilder<ToManyTargetEntity> queryBuilder = queryBuilder();
+                QueryBuilder<ToManyLink> joinBuilder = queryBuilder.joinToMany(ToManyLink.class, ToManyLinkDao.Properties.ToManyTargetEntityId);
+                joinBuilder.where(ToManyLinkDao.Properties.ToManyEntityId.eq(toManyEntityId));
+                queryBuilder.orderDesc(Properties.Id);
+                toManyEntity_ToManyLinkedQuery = queryBuilder.build();
+            }
+        }
+        Query<ToManyTargetEntity> query = toManyEntity_ToManyLinkedQuery.forCurrentThread();
+        query.setParameter(0, toManyEntityId);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "ToManyLinked" many-to-many relationship of several ToManyEntity entities. */
+    public LongHashMap<List<ToManyTargetEntity>> _prefetchToManyEntity_ToManyLinked(Collection<Long> toManyEntityIdValues) {
+        return loadGroupedByJoin(ToManyLinkDao.TABLENAME, ToManyLinkDao.Properties.ToManyEntityId.columnName,
+                ToManyLinkDao.Properties.ToManyTargetEntityId.columnName, toManyEntityIdValues, "T.'_id' DESC");
+    }
+
+    @Override
+    protected void updateCachedToManyLists(ToManyTargetEntity entity, boolean deleted) {
+        ToManyEntity toManyEntityToManyTargetEntitySource = getFromIdentityScope(ToManyEntity.class, entity.getToManyId());
+        if (toManyEntityToManyTargetEntitySource != null) {
+            synchronized (toManyEntityToManyTargetEntitySource) {
+                updateCachedList(toManyEntityToManyTargetEntitySource.peakToManyTargetEntity(), entity, deleted, toManyEntity_ToManyTargetEntityComparator);
+            }
+        }
+        ToManyEntity toManyEntityToManyDescListSource = getFromIdentityScope(ToManyEntity.class, entity.getToManyIdDesc());
+        if (toManyEntityToManyDescListSource != null) {
+            synchronized (toManyEntityToManyDescListSource) {
+                updateCachedList(toManyEntityToManyDescListSource.peakToManyDescList(), entity, deleted, toManyEntity_ToManyDescListComparator);
+            }
         }
-        return toManyEntity_ToManyJoinTwoQuery.list();
     }
 
 }
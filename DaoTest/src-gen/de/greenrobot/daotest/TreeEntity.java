@@ -12,6 +12,10 @@ public class TreeEntity {
 
     private Long id;
     private Long parentId;
+    private String path;
+
+    /** Value of parentId in the database; lets the DAO remove the entity from the previous source's cached list. */
+    private Long __storedParentId;
 
     /** Used to resolve relations */
     private DaoSession daoSession;
@@ -31,9 +35,10 @@ public class TreeEntity {
         this.id = id;
     }
 
-    public TreeEntity(Long id, Long parentId) {
+    public TreeEntity(Long id, Long parentId, String path) {
         this.id = id;
         this.parentId = parentId;
+        this.path = path;
     }
 
     /** called by internal mechanisms, do not call yourself. */
@@ -58,6 +63,21 @@ public class TreeEntity {
         this.parentId = parentId;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /** called by internal mechanisms, do not call yourself. Stores the current value and returns the previous one. */
+    public Long __storeParentId() {
+        Long previous = __storedParentId;
+        __storedParentId = parentId;
+        return previous;
+    }
+
     /** To-one relationship, resolved on first access. */
     public TreeEntity getParent() {
         if (parent__resolvedKey == null || !parent__resolvedKey.equals(parentId)) {
@@ -71,12 +91,23 @@ public class TreeEntity {
         return parent;
     }
 
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public TreeEntity peakParent() {
+        return parent;
+    }
+
     public void setParent(TreeEntity parent) {
         this.parent = parent;
         parentId = parent == null ? null : parent.getId();
         parent__resolvedKey = parentId;
     }
 
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveParent(TreeEntity parent) {
+        this.parent = parent;
+        parent__resolvedKey = parentId;
+    }
+
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
     public synchronized List<TreeEntity> getChildren() {
         if (children == null) {
@@ -94,6 +125,16 @@ public class TreeEntity {
         children = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<TreeEntity> peakChildren() {
+        return children;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setChildren(List<TreeEntity> children) {
+        this.children = children;
+    }
+
     /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
     public void delete() {
         if (myDao == null) {
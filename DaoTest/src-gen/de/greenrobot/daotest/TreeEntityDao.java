@@ -1,13 +1,17 @@
 package de.greenrobot.daotest;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.SqlUtils;
 import de.greenrobot.dao.Query;
@@ -26,6 +30,7 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     public static class Properties {
         public final static Property Id = new Property(0, Long.class, "id", true, "_id");
         public final static Property ParentId = new Property(1, Long.class, "parentId", false, "PARENT_ID");
+        public final static Property Path = new Property(2, String.class, "path", false, "PATH");
     };
 
     private DaoSession daoSession;
@@ -45,8 +50,12 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     public static void createTable(SQLiteDatabase db, boolean ifNotExists) {
         String sql = "CREATE TABLE " + (ifNotExists? "IF NOT EXISTS ": "") + "'TREE_ENTITY' (" + //
                 "'_id' INTEGER PRIMARY KEY ," + // 0: id
-                "'PARENT_ID' INTEGER);"; // 1: parentId
+                "'PARENT_ID' INTEGER," + // 1: parentId
+                "'PATH' TEXT);"; // 2: path
         db.execSQL(sql);
+        // Add Indexes (one statement each, execSQL executes only the first statement)
+        db.execSQL("CREATE INDEX " + (ifNotExists? "IF NOT EXISTS ": "") + "IDX_TREE_ENTITY_PATH ON TREE_ENTITY" +
+                " (PATH);");
     }
 
     /** Drops the underlying database table. */
@@ -59,15 +68,26 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, TreeEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, TreeEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         Long parentId = entity.getParentId();
         if (parentId != null) {
-            stmt.bindLong(2, parentId);
+            stmt.bindLong(offset + 2, parentId);
+        }
+ 
+        String path = entity.getPath();
+        if (path != null) {
+            stmt.bindString(offset + 3, path);
         }
     }
 
@@ -75,6 +95,46 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     protected void attachEntity(TreeEntity entity) {
         super.attachEntity(entity);
         entity.__setDaoSession(daoSession);
+        Long previousParentId = entity.__storeParentId();
+        if (isMaintainCachedToManyLists() && previousParentId != null && !previousParentId.equals(entity.getParentId())) {
+            // The FK changed, so remove the entity from the list of the previous source
+            TreeEntity treeEntityChildrenSource = getFromIdentityScope(TreeEntity.class, previousParentId);
+            if (treeEntityChildrenSource != null) {
+                synchronized (treeEntityChildrenSource) {
+                    updateCachedList(treeEntityChildrenSource.peakChildren(), entity, true, null);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void collectRelatedEntities(TreeEntity entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        TreeEntity parent = entity.peakParent();
+        if (parent != null) {
+            toOneTargets.add(parent);
+        }
+        List<TreeEntity> children = entity.peakChildren();
+        if (children != null) {
+            toManyTargets.addAll(children);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(TreeEntity entity) {
+        TreeEntity parent = entity.peakParent();
+        if (parent != null) {
+            entity.setParent(parent);
+        }
+    }
+
+    @Override
+    protected void updateToManyKeys(TreeEntity entity) {
+        List<TreeEntity> children = entity.peakChildren();
+        if (children != null) {
+            for (TreeEntity target : children) {
+                target.setParentId(entity.getId());
+            }
+        }
     }
 
     /** @inheritdoc */
@@ -88,7 +148,8 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     public TreeEntity readEntity(Cursor cursor, int offset) {
         TreeEntity entity = new TreeEntity( //
             cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0), // id
-            cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1) // parentId
+            cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1), // parentId
+            cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2) // path
         );
         return entity;
     }
@@ -98,6 +159,7 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     public void readEntity(Cursor cursor, TreeEntity entity, int offset) {
         entity.setId(cursor.isNull(offset + 0) ? null : cursor.getLong(offset + 0));
         entity.setParentId(cursor.isNull(offset + 1) ? null : cursor.getLong(offset + 1));
+        entity.setPath(cursor.isNull(offset + 2) ? null : cursor.getString(offset + 2));
      }
     
     @Override
@@ -123,25 +185,175 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
     }
     
     /** Internal query to resolve the "children" to-many relationship of TreeEntity. */
-    public synchronized List<TreeEntity> _queryTreeEntity_Children(Long parentId) {
-        if (treeEntity_ChildrenQuery == null) {
-            QueryBuilder<TreeEntity> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.ParentId.eq(parentId));
-            treeEntity_ChildrenQuery = queryBuilder.build();
+    public List<TreeEntity> _queryTreeEntity_Children(Long parentId) {
+        synchronized (this) {
+            if (treeEntity_ChildrenQuery == null) {
+                QueryBuilder<TreeEntity> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.ParentId.eq(parentId));
+                treeEntity_ChildrenQuery = queryBuilder.build();
+            }
+        }
+        Query<TreeEntity> query = treeEntity_ChildrenQuery.forCurrentThread();
+        query.setParameter(0, parentId);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "children" to-many relationship of several TreeEntity entities. */
+    public LongHashMap<List<TreeEntity>> _prefetchTreeEntity_Children(Collection<Long> parentIdValues) {
+        return loadGroupedBy(Properties.ParentId, parentIdValues, null);
+    }
+
+    @Override
+    protected void updateCachedToManyLists(TreeEntity entity, boolean deleted) {
+        TreeEntity treeEntityChildrenSource = getFromIdentityScope(TreeEntity.class, entity.getParentId());
+        if (treeEntityChildrenSource != null) {
+            synchronized (treeEntityChildrenSource) {
+                updateCachedList(treeEntityChildrenSource.peakChildren(), entity, deleted, null);
+            }
+        }
+    }
+
+    /**
+     * Resolves the "children" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchChildren(List<TreeEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (TreeEntity entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<TreeEntity>> targetsByKey = daoSession.getTreeEntityDao()._prefetchTreeEntity_Children(keys);
+        for (TreeEntity entity : entities) {
+            Long key = entity.getId();
+            List<TreeEntity> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setChildren(targets != null ? targets : new ArrayList<TreeEntity>());
+        }
+    }
+
+    /**
+     * Resolves the "parent" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveParent(List<TreeEntity> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (TreeEntity entity : entities) {
+            keys.add(entity.getParentId());
+        }
+        LongHashMap<TreeEntity> targetsByKey = daoSession.getTreeEntityDao().loadAllByKeys(keys);
+        for (TreeEntity entity : entities) {
+            Long key = entity.getParentId();
+            if (key != null) {
+                entity.__resolveParent(targetsByKey.get(key));
+            }
+        }
+    }
+
+    @Override
+    protected boolean isMaintainedProperty(Property property) {
+        return property == Properties.ParentId
+                || property == Properties.Path;
+    }
+
+    @Override
+    protected boolean hasTreePath() {
+        return true;
+    }
+
+    @Override
+    protected void updateTreePath(TreeEntity entity, boolean mayExist) {
+        Long parentKey = entity.getParentId();
+        Long key = entity.getId();
+        // Moving a subtree updates the paths of the entities in the identity scope, so their paths are current
+        String oldPath = null;
+        if (key != null && getFromIdentityScope(key) == entity) {
+            oldPath = entity.getPath();
+            if (oldPath != null && isTreePathOfParent(oldPath, parentKey)) {
+                return;
+            }
+        }
+        String path;
+        if (parentKey == null) {
+            path = "/";
         } else {
-            treeEntity_ChildrenQuery.setParameter(0, parentId);
+            String parentPath = null;
+            TreeEntity cachedParent = getFromIdentityScope(parentKey);
+            if (cachedParent != null) {
+                parentPath = cachedParent.getPath();
+            }
+            if (parentPath == null) {
+                parentPath = loadTreePath(Properties.Path, parentKey);
+            }
+            if (parentPath == null) {
+                // The parent may not be written yet, e.g. by insertMultiRowInTx
+                TreeEntity parent = entity.peakParent();
+                if (parent != null && parentKey.equals(parent.getId())) {
+                    parentPath = parent.getPath();
+                }
+                if (parentPath == null) {
+                    throw new DaoException("Tree parent does not exist: " + parentKey);
+                }
+            }
+            path = parentPath + parentKey + '/';
+        }
+        if (mayExist && key != null) {
+            if (oldPath == null) {
+                oldPath = loadTreePath(Properties.Path, key);
+            }
+            if (oldPath != null && !oldPath.equals(path)) {
+                String oldPrefix = oldPath + key + '/';
+                if (path.startsWith(oldPrefix)) {
+                    throw new DaoException("Cannot move tree entity " + key + " below itself");
+                }
+                String newPrefix = path + key + '/';
+                for (TreeEntity descendant : moveTreePaths(Properties.Path, oldPrefix, newPrefix)) {
+                    String descendantPath = descendant.getPath();
+                    if (descendantPath != null && descendantPath.startsWith(oldPrefix)) {
+                        descendant.setPath(newPrefix + descendantPath.substring(oldPrefix.length()));
+                    }
+                }
+            }
         }
-        return treeEntity_ChildrenQuery.list();
+        entity.setPath(path);
+    }
+
+    /** Loads all tree entities without parent using the path index. */
+    public List<TreeEntity> queryRoots() {
+        return queryBuilder().where(Properties.Path.eq("/")).orderAsc(Properties.Id).list();
+    }
+
+    /** Loads the whole subtree below the given tree entity (excluding itself) using one range scan of the path index. */
+    public List<TreeEntity> queryDescendants(TreeEntity entity) {
+        return queryDescendants(entity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Loads the subtree below the given tree entity (excluding itself) up to the given number of levels (1 for children
+     * only) using one range scan of the path index. The entities are ordered by path, so siblings are adjacent.
+     */
+    public List<TreeEntity> queryDescendants(TreeEntity entity, int maxDepth) {
+        String prefix = entity.getPath() + entity.getId() + '/';
+        return loadTreeDescendants(Properties.Path, prefix, maxDepth);
+    }
+
+    /** Loads all ancestors of the given tree entity, starting with its root, using one query by the keys in its path. */
+    public List<TreeEntity> queryAncestors(TreeEntity entity) {
+        return loadTreeAncestors(Properties.Path, entity.getPath());
+    }
+
+    /** Returns the number of ancestors of the given tree entity (0 for roots) as given by its path. */
+    public int getTreeDepth(TreeEntity entity) {
+        return getTreeDepth(entity.getPath());
     }
 
     private String selectDeep;
 
+    @Override
     protected String getSelectDeep() {
         if (selectDeep == null) {
             StringBuilder builder = new StringBuilder("SELECT ");
-            SqlUtils.appendColumns(builder, "T", getAllColumns());
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T0", daoSession.getTreeEntityDao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T0", daoSession.getTreeEntityDao().getSelectColumns());
             builder.append(" FROM TREE_ENTITY T");
             builder.append(" LEFT JOIN TREE_ENTITY T0 ON T.'PARENT_ID'=T0.'_id'");
             builder.append(' ');
@@ -150,12 +362,13 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
         return selectDeep;
     }
     
+    @Override
     protected TreeEntity loadCurrentDeep(Cursor cursor, boolean lock) {
         TreeEntity entity = loadCurrent(cursor, 0, lock);
         int offset = getAllColumns().length;
 
         TreeEntity parent = loadCurrentOther(daoSession.getTreeEntityDao(), cursor, offset);
-        entity.setParent(parent);
+        entity.__resolveParent(parent);
 
         return entity;    
     }
@@ -187,42 +400,15 @@ public class TreeEntityDao extends AbstractDao<TreeEntity, Long> {
         }
     }
     
-    /** Reads all available rows from the given cursor and returns a list of new ImageTO objects. */
-    public List<TreeEntity> loadAllDeepFromCursor(Cursor cursor) {
-        int count = cursor.getCount();
-        List<TreeEntity> list = new ArrayList<TreeEntity>(count);
-        
-        if (cursor.moveToFirst()) {
-            if (identityScope != null) {
-                identityScope.lock();
-                identityScope.reserveRoom(count);
-            }
-            try {
-                do {
-                    list.add(loadCurrentDeep(cursor, false));
-                } while (cursor.moveToNext());
-            } finally {
-                if (identityScope != null) {
-                    identityScope.unlock();
-                }
-            }
-        }
-        return list;
-    }
-    
-    protected List<TreeEntity> loadDeepAllAndCloseCursor(Cursor cursor) {
-        try {
-            return loadAllDeepFromCursor(cursor);
-        } finally {
-            cursor.close();
-        }
-    }
-    
-
     /** A raw-style query where you can pass any WHERE clause and arguments. */
     public List<TreeEntity> queryDeep(String where, String... selectionArg) {
         Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
         return loadDeepAllAndCloseCursor(cursor);
     }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { TreeEntity.class };
+    }
  
 }
@@ -14,6 +14,9 @@ public class ToManyTarget2 {
     private Long id;
     private Long fkId;
 
+    /** Value of fkId in the database; lets the DAO remove the entity from the previous source's cached list. */
+    private Long __storedFkId;
+
     // KEEP FIELDS - put your custom fields here
     // KEEP FIELDS END
 
@@ -45,6 +48,13 @@ public class ToManyTarget2 {
         this.fkId = fkId;
     }
 
+    /** called by internal mechanisms, do not call yourself. Stores the current value and returns the previous one. */
+    public Long __storeFkId() {
+        Long previous = __storedFkId;
+        __storedFkId = fkId;
+        return previous;
+    }
+
     // KEEP METHODS - put your custom methods here
     // KEEP METHODS END
 
@@ -48,10 +48,16 @@ public class KeepEntityDao extends AbstractDao<KeepEntity, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, KeepEntity entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, KeepEntity entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
     }
 
@@ -1,5 +1,7 @@
 package de.greenrobot.daotest2.dao;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -7,10 +9,13 @@ import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.Query;
 import de.greenrobot.dao.QueryBuilder;
 
+import de.greenrobot.daotest2.specialentity.RelationSource2;
+
 import de.greenrobot.daotest2.ToManyTarget2;
 
 // THIS CODE IS GENERATED BY greenDAO, DO NOT EDIT.
@@ -54,15 +59,36 @@ public class ToManyTarget2Dao extends AbstractDao<ToManyTarget2, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, ToManyTarget2 entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, ToManyTarget2 entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         Long fkId = entity.getFkId();
         if (fkId != null) {
-            stmt.bindLong(2, fkId);
+            stmt.bindLong(offset + 2, fkId);
+        }
+    }
+
+    @Override
+    protected void attachEntity(ToManyTarget2 entity) {
+        super.attachEntity(entity);
+        Long previousFkId = entity.__storeFkId();
+        if (isMaintainCachedToManyLists() && previousFkId != null && !previousFkId.equals(entity.getFkId())) {
+            // The FK changed, so remove the entity from the list of the previous source
+            RelationSource2 relationSource2ToManyTarget2Source = getFromIdentityScope(RelationSource2.class, previousFkId);
+            if (relationSource2ToManyTarget2Source != null) {
+                synchronized (relationSource2ToManyTarget2Source) {
+                    updateCachedList(relationSource2ToManyTarget2Source.peakToManyTarget2(), entity, true, null);
+                }
+            }
         }
     }
 
@@ -112,15 +138,32 @@ public class ToManyTarget2Dao extends AbstractDao<ToManyTarget2, Long> {
     }
     
     /** Internal query to resolve the "toManyTarget2" to-many relationship of RelationSource2. */
-    public synchronized List<ToManyTarget2> _queryRelationSource2_ToManyTarget2(Long fkId) {
-        if (relationSource2_ToManyTarget2Query == null) {
-            QueryBuilder<ToManyTarget2> queryBuilder = queryBuilder();
-            queryBuilder.where(Properties.FkId.eq(fkId));
-            relationSource2_ToManyTarget2Query = queryBuilder.build();
-        } else {
-            relationSource2_ToManyTarget2Query.setParameter(0, fkId);
+    public List<ToManyTarget2> _queryRelationSource2_ToManyTarget2(Long fkId) {
+        synchronized (this) {
+            if (relationSource2_ToManyTarget2Query == null) {
+                QueryBuilder<ToManyTarget2> queryBuilder = queryBuilder();
+                queryBuilder.where(Properties.FkId.eq(fkId));
+                relationSource2_ToManyTarget2Query = queryBuilder.build();
+            }
+        }
+        Query<ToManyTarget2> query = relationSource2_ToManyTarget2Query.forCurrentThread();
+        query.setParameter(0, fkId);
+        return query.list();
+    }
+
+    /** Internal query to resolve the "toManyTarget2" to-many relationship of several RelationSource2 entities. */
+    public LongHashMap<List<ToManyTarget2>> _prefetchRelationSource2_ToManyTarget2(Collection<Long> fkIdValues) {
+        return loadGroupedBy(Properties.FkId, fkIdValues, null);
+    }
+
+    @Override
+    protected void updateCachedToManyLists(ToManyTarget2 entity, boolean deleted) {
+        RelationSource2 relationSource2ToManyTarget2Source = getFromIdentityScope(RelationSource2.class, entity.getFkId());
+        if (relationSource2ToManyTarget2Source != null) {
+            synchronized (relationSource2ToManyTarget2Source) {
+                updateCachedList(relationSource2ToManyTarget2Source.peakToManyTarget2(), entity, deleted, null);
+            }
         }
-        return relationSource2_ToManyTarget2Query.list();
     }
 
 }
@@ -1,18 +1,20 @@
 package de.greenrobot.daotest2.specialdao;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.DaoConfig;
+import de.greenrobot.dao.LongHashMap;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.SqlUtils;
 
 import de.greenrobot.daotest2.dao.DaoSession;
 
+import de.greenrobot.daotest2.ToManyTarget2;
 import de.greenrobot.daotest2.to1_specialentity.ToOneTarget2;
 
 import de.greenrobot.daotest2.specialentity.RelationSource2;
@@ -60,15 +62,21 @@ public class RelationSource2Dao extends AbstractDao<RelationSource2, Long> {
     @Override
     protected void bindValues(SQLiteStatement stmt, RelationSource2 entity) {
         stmt.clearBindings();
+        bindValues(stmt, entity, 0);
+    }
+
+    /** @inheritdoc */
+    @Override
+    protected void bindValues(SQLiteStatement stmt, RelationSource2 entity, int offset) {
  
         Long id = entity.getId();
         if (id != null) {
-            stmt.bindLong(1, id);
+            stmt.bindLong(offset + 1, id);
         }
  
         Long toOneId = entity.getToOneId();
         if (toOneId != null) {
-            stmt.bindLong(2, toOneId);
+            stmt.bindLong(offset + 2, toOneId);
         }
     }
 
@@ -78,6 +86,36 @@ public class RelationSource2Dao extends AbstractDao<RelationSource2, Long> {
         entity.__setDaoSession(daoSession);
     }
 
+    @Override
+    protected void collectRelatedEntities(RelationSource2 entity, List<Object> toOneTargets, List<Object> toManyTargets) {
+        ToOneTarget2 toOneTarget2 = entity.peakToOneTarget2();
+        if (toOneTarget2 != null) {
+            toOneTargets.add(toOneTarget2);
+        }
+        List<ToManyTarget2> toManyTarget2 = entity.peakToManyTarget2();
+        if (toManyTarget2 != null) {
+            toManyTargets.addAll(toManyTarget2);
+        }
+    }
+
+    @Override
+    protected void updateToOneKeys(RelationSource2 entity) {
+        ToOneTarget2 toOneTarget2 = entity.peakToOneTarget2();
+        if (toOneTarget2 != null) {
+            entity.setToOneTarget2(toOneTarget2);
+        }
+    }
+
+    @Override
+    protected void updateToManyKeys(RelationSource2 entity) {
+        List<ToManyTarget2> toManyTarget2 = entity.peakToManyTarget2();
+        if (toManyTarget2 != null) {
+            for (ToManyTarget2 target : toManyTarget2) {
+                target.setFkId(entity.getId());
+            }
+        }
+    }
+
     /** @inheritdoc */
     @Override
     public Long readKey(Cursor cursor, int offset) {
@@ -123,14 +161,50 @@ public class RelationSource2Dao extends AbstractDao<RelationSource2, Long> {
         return true;
     }
     
+    /**
+     * Resolves the "toManyTarget2" to-many relationship of all given entities using one query per chunk of keys instead
+     * of one query per entity.
+     */
+    public void prefetchToManyTarget2(List<RelationSource2> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (RelationSource2 entity : entities) {
+            keys.add(entity.getId());
+        }
+        LongHashMap<List<ToManyTarget2>> targetsByKey = daoSession.getToManyTarget2Dao()._prefetchRelationSource2_ToManyTarget2(keys);
+        for (RelationSource2 entity : entities) {
+            Long key = entity.getId();
+            List<ToManyTarget2> targets = key != null ? targetsByKey.get(key) : null;
+            entity.setToManyTarget2(targets != null ? targets : new ArrayList<ToManyTarget2>());
+        }
+    }
+
+    /**
+     * Resolves the "toOneTarget2" to-one relationship of all given entities using one query per chunk of distinct keys
+     * instead of one query per entity. Targets already in the identity scope are not loaded again.
+     */
+    public void resolveToOneTarget2(List<RelationSource2> entities) {
+        List<Long> keys = new ArrayList<Long>(entities.size());
+        for (RelationSource2 entity : entities) {
+            keys.add(entity.getToOneId());
+        }
+        LongHashMap<ToOneTarget2> targetsByKey = daoSession.getToOneTarget2Dao().loadAllByKeys(keys);
+        for (RelationSource2 entity : entities) {
+            Long key = entity.getToOneId();
+            if (key != null) {
+                entity.__resolveToOneTarget2(targetsByKey.get(key));
+            }
+        }
+    }
+
     private String selectDeep;
 
+    @Override
     protected String getSelectDeep() {
         if (selectDeep == null) {
             StringBuilder builder = new StringBuilder("SELECT ");
-            SqlUtils.appendColumns(builder, "T", getAllColumns());
+            SqlUtils.appendColumns(builder, "T", getSelectColumns());
             builder.append(',');
-            SqlUtils.appendColumns(builder, "T0", daoSession.getToOneTarget2Dao().getAllColumns());
+            SqlUtils.appendColumns(builder, "T0", daoSession.getToOneTarget2Dao().getSelectColumns());
             builder.append(" FROM RELATION_SOURCE2 T");
             builder.append(" LEFT JOIN TO_ONE_TARGET2 T0 ON T.'TO_ONE_ID'=T0.'_id'");
             builder.append(' ');
@@ -139,12 +213,13 @@ public class RelationSource2Dao extends AbstractDao<RelationSource2, Long> {
         return selectDeep;
     }
     
+    @Override
     protected RelationSource2 loadCurrentDeep(Cursor cursor, boolean lock) {
         RelationSource2 entity = loadCurrent(cursor, 0, lock);
         int offset = getAllColumns().length;
 
         ToOneTarget2 toOneTarget2 = loadCurrentOther(daoSession.getToOneTarget2Dao(), cursor, offset);
-        entity.setToOneTarget2(toOneTarget2);
+        entity.__resolveToOneTarget2(toOneTarget2);
 
         return entity;    
     }
@@ -176,42 +251,15 @@ public class RelationSource2Dao extends AbstractDao<RelationSource2, Long> {
         }
     }
     
-    /** Reads all available rows from the given cursor and returns a list of new ImageTO objects. */
-    public List<RelationSource2> loadAllDeepFromCursor(Cursor cursor) {
-        int count = cursor.getCount();
-        List<RelationSource2> list = new ArrayList<RelationSource2>(count);
-        
-        if (cursor.moveToFirst()) {
-            if (identityScope != null) {
-                identityScope.lock();
-                identityScope.reserveRoom(count);
-            }
-            try {
-                do {
-                    list.add(loadCurrentDeep(cursor, false));
-                } while (cursor.moveToNext());
-            } finally {
-                if (identityScope != null) {
-                    identityScope.unlock();
-                }
-            }
-        }
-        return list;
-    }
-    
-    protected List<RelationSource2> loadDeepAllAndCloseCursor(Cursor cursor) {
-        try {
-            return loadAllDeepFromCursor(cursor);
-        } finally {
-            cursor.close();
-        }
-    }
-    
-
     /** A raw-style query where you can pass any WHERE clause and arguments. */
     public List<RelationSource2> queryDeep(String where, String... selectionArg) {
         Cursor cursor = db.rawQuery(getSelectDeep() + where, selectionArg);
         return loadDeepAllAndCloseCursor(cursor);
     }
+
+    @Override
+    protected Class<?>[] getToOneEntityClasses() {
+        return new Class<?>[] { ToOneTarget2.class };
+    }
  
 }
@@ -83,12 +83,23 @@ public class RelationSource2 {
         return toOneTarget2;
     }
 
+    /** To-one relationship as set or resolved before without resolving it; may not match the FK property. */
+    public ToOneTarget2 peakToOneTarget2() {
+        return toOneTarget2;
+    }
+
     public void setToOneTarget2(ToOneTarget2 toOneTarget2) {
         this.toOneTarget2 = toOneTarget2;
         toOneId = toOneTarget2 == null ? null : toOneTarget2.getId();
         toOneTarget2__resolvedKey = toOneId;
     }
 
+    /** called by internal mechanisms, do not call yourself. */
+    public void __resolveToOneTarget2(ToOneTarget2 toOneTarget2) {
+        this.toOneTarget2 = toOneTarget2;
+        toOneTarget2__resolvedKey = toOneId;
+    }
+
     /** To-many relationship, resolved on first access (and after reset). Changes to to-many relations are not persisted, make changes to the target entity. */
     public synchronized List<ToManyTarget2> getToManyTarget2() {
         if (toManyTarget2 == null) {
@@ -106,6 +117,16 @@ public class RelationSource2 {
         toManyTarget2 = null;
     }
 
+    /** To-many relationship as set or resolved before without resolving it; may be null. */
+    public synchronized List<ToManyTarget2> peakToManyTarget2() {
+        return toManyTarget2;
+    }
+
+    /** Sets a to-many relationship, e.g. to insert new target entities using AbstractDaoSession.insertGraph. */
+    public synchronized void setToManyTarget2(List<ToManyTarget2> toManyTarget2) {
+        this.toManyTarget2 = toManyTarget2;
+    }
+
     /** Convenient call for {@link AbstractDao#delete(Object)}. Entity must attached to an entity context. */
     public void delete() {
         if (myDao == null) {
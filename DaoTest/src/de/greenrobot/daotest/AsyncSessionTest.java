@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import android.app.Application;
+import de.greenrobot.dao.AsyncOperation;
+import de.greenrobot.dao.AsyncOperation.OperationType;
+import de.greenrobot.dao.AsyncOperationListener;
+import de.greenrobot.dao.AsyncSession;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.Query;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.SimpleEntityDao.Properties;
+
+public class AsyncSessionTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private AsyncSession asyncSession;
+
+    public AsyncSessionTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        asyncSession = daoSession.startAsyncSession();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        asyncSession.shutdown();
+        super.tearDown();
+    }
+
+    private SimpleEntity createEntity(Long id, String simpleString) {
+        SimpleEntity entity = new SimpleEntity();
+        entity.setId(id);
+        entity.setSimpleString(simpleString);
+        return entity;
+    }
+
+    public void testInsertAndLoad() throws Exception {
+        SimpleEntity entity = createEntity(null, "green");
+        AsyncOperation<SimpleEntity> insert = asyncSession.insert(entity);
+        assertSame(entity, insert.get(10, TimeUnit.SECONDS));
+        assertNotNull(entity.getId());
+        assertEquals(OperationType.Insert, insert.getType());
+        assertTrue(insert.isWrite());
+        assertTrue(insert.getLatencyMillis() >= 0);
+
+        AsyncOperation<SimpleEntity> load = asyncSession.load(SimpleEntity.class, entity.getId());
+        assertSame(entity, load.get(10, TimeUnit.SECONDS));
+        assertFalse(load.isWrite());
+    }
+
+    public void testWritesAndQueries() throws Exception {
+        List<AsyncOperation<SimpleEntity>> inserts = new ArrayList<AsyncOperation<SimpleEntity>>();
+        for (int i = 0; i < 20; i++) {
+            inserts.add(asyncSession.insert(createEntity(null, "String" + i)));
+        }
+        SimpleEntity entity = inserts.get(3).get(10, TimeUnit.SECONDS);
+        entity.setSimpleString("updated");
+        asyncSession.update(entity);
+        asyncSession.delete(inserts.get(4).get());
+
+        // Reads may run before queued writes, so wait for the writes using a write
+        asyncSession.callInTx(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return null;
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        Query<SimpleEntity> query = daoSession.getSimpleEntityDao().queryBuilder()
+                .where(Properties.SimpleString.eq("updated")).build();
+        AsyncOperation<SimpleEntity> unique = asyncSession.queryUnique(query);
+        // Changing the parameter does not affect the queued query
+        query.setParameter(0, "String5");
+        AsyncOperation<SimpleEntity> unique2 = asyncSession.queryUnique(query);
+        AsyncOperation<List<SimpleEntity>> loadAll = asyncSession.loadAll(SimpleEntity.class);
+        assertSame(entity, unique.get(10, TimeUnit.SECONDS));
+        assertSame(inserts.get(5).get(), unique2.get(10, TimeUnit.SECONDS));
+        assertEquals(19, loadAll.get(10, TimeUnit.SECONDS).size());
+        assertEquals(20, asyncSession.getCompletedCount(OperationType.Insert));
+        assertEquals(0, asyncSession.getQueueDepth());
+    }
+
+    public void testFailingWriteInMergedTransaction() throws Exception {
+        daoSession.getSimpleEntityDao().insert(createEntity(1l, "existing"));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        // Block the writer, so the following writes are merged
+        AsyncOperation<Object> blocker = asyncSession.callInTx(new Callable<Object>() {
+            @Override
+            public Object call() throws InterruptedException {
+                started.countDown();
+                latch.await(10, TimeUnit.SECONDS);
+                return null;
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        SimpleEntity entity1 = createEntity(null, "1");
+        AsyncOperation<SimpleEntity> insert1 = asyncSession.insert(entity1);
+        AsyncOperation<SimpleEntity> insertDuplicate = asyncSession.insert(createEntity(1l, "duplicate"));
+        AsyncOperation<SimpleEntity> insert3 = asyncSession.insert(createEntity(3l, "3"));
+        latch.countDown();
+        blocker.get(10, TimeUnit.SECONDS);
+
+        assertNotNull(insert3.get(10, TimeUnit.SECONDS));
+        try {
+            insertDuplicate.get(10, TimeUnit.SECONDS);
+            fail("Expected constraint violation");
+        } catch (ExecutionException expected) {
+            // OK
+        }
+        // Executed before the failing insert in the rolled back transaction, so entity1 got a PK not in the DB
+        try {
+            insert1.get(10, TimeUnit.SECONDS);
+            fail("Expected rollback");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof DaoException);
+        }
+        assertEquals(2, daoSession.getSimpleEntityDao().count());
+        assertNull(daoSession.getSimpleEntityDao().load(entity1.getId()));
+    }
+
+    public void testWriterTerminatesAfterShutdown() throws Exception {
+        asyncSession.insert(createEntity(null, "green")).get(10, TimeUnit.SECONDS);
+        asyncSession.shutdown();
+        assertTrue(asyncSession.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void testCancelledWriteCountedOnce() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        asyncSession.callInTx(new Callable<Object>() {
+            @Override
+            public Object call() throws InterruptedException {
+                started.countDown();
+                latch.await(10, TimeUnit.SECONDS);
+                return null;
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        AsyncOperation<SimpleEntity> insert = asyncSession.insert(createEntity(null, "cancelled"));
+        assertTrue(insert.cancel(false));
+        latch.countDown();
+
+        asyncSession.shutdown();
+        assertTrue(asyncSession.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, asyncSession.getQueueDepth());
+        assertEquals(1, asyncSession.getCompletedCount(OperationType.Insert));
+        assertEquals(0, daoSession.getSimpleEntityDao().count());
+    }
+
+    public void testEnqueueAfterShutdown() {
+        asyncSession.shutdown();
+        try {
+            asyncSession.insert(createEntity(null, "green"));
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        assertEquals(0, asyncSession.getQueueDepth());
+    }
+
+    public void testListener() throws Exception {
+        final List<AsyncOperation<?>> completed = new ArrayList<AsyncOperation<?>>();
+        final CountDownLatch latch = new CountDownLatch(2);
+        asyncSession.setListener(new AsyncOperationListener() {
+            @Override
+            public void onAsyncOperationCompleted(AsyncOperation<?> operation) {
+                synchronized (completed) {
+                    completed.add(operation);
+                }
+                latch.countDown();
+            }
+        });
+        asyncSession.insert(createEntity(null, "green"));
+        asyncSession.loadAll(SimpleEntity.class);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, completed.size());
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.app.Application;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+
+public class GraphInsertTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    public GraphInsertTest() {
+        super(DaoMaster.class);
+    }
+
+    public void testToOne() {
+        TestEntity testEntity = new TestEntity();
+        testEntity.setSimpleStringNotNull("green");
+        RelationEntity relationEntity = new RelationEntity();
+        relationEntity.setTestEntity(testEntity);
+        assertNull(relationEntity.getTestId());
+
+        daoSession.insertGraph(relationEntity);
+        assertNotNull(testEntity.getId());
+        assertNotNull(relationEntity.getId());
+        assertEquals(testEntity.getId(), relationEntity.getTestId());
+        assertEquals(1, daoSession.getTestEntityDao().count());
+
+        daoSession.clear();
+        RelationEntity loaded = daoSession.getRelationEntityDao().load(relationEntity.getId());
+        assertEquals(testEntity.getId(), loaded.getTestEntity().getId());
+    }
+
+    public void testToMany() {
+        ToManyEntity toManyEntity = new ToManyEntity();
+        List<ToManyTargetEntity> targets = new ArrayList<ToManyTargetEntity>();
+        for (int i = 0; i < 3; i++) {
+            targets.add(new ToManyTargetEntity());
+        }
+        toManyEntity.setToManyTargetEntity(targets);
+
+        daoSession.insertGraph(toManyEntity);
+        assertNotNull(toManyEntity.getId());
+        for (ToManyTargetEntity target : targets) {
+            assertNotNull(target.getId());
+            assertEquals(toManyEntity.getId(), target.getToManyId());
+        }
+
+        toManyEntity.resetToManyTargetEntity();
+        assertEquals(3, toManyEntity.getToManyTargetEntity().size());
+    }
+
+    public void testTree() {
+        TreeEntity root = new TreeEntity();
+        TreeEntity child = new TreeEntity();
+        TreeEntity grandChild = new TreeEntity();
+        List<TreeEntity> children = new ArrayList<TreeEntity>();
+        children.add(child);
+        root.setChildren(children);
+        grandChild.setParent(child);
+
+        // Insert from the bottom to verify levels do not depend on the order of the given entities
+        daoSession.insertGraph(grandChild, root);
+        assertNull(root.getParentId());
+        assertEquals(root.getId(), child.getParentId());
+        assertEquals(child.getId(), grandChild.getParentId());
+        assertEquals(3, daoSession.getTreeEntityDao().count());
+    }
+
+    public void testExistingEntitiesGetUpdated() {
+        TreeEntityDao dao = daoSession.getTreeEntityDao();
+        TreeEntity existingChild = new TreeEntity();
+        dao.insert(existingChild);
+        TreeEntity existingParent = new TreeEntity();
+        dao.insert(existingParent);
+
+        TreeEntity newParent = new TreeEntity();
+        List<TreeEntity> children = new ArrayList<TreeEntity>();
+        children.add(existingChild);
+        newParent.setChildren(children);
+        daoSession.insertGraph(newParent);
+        assertEquals(newParent.getId(), existingChild.getParentId());
+
+        TreeEntity newChild = new TreeEntity();
+        existingParent.setParent(newChild);
+        daoSession.insertGraph(existingParent);
+        assertNotNull(newChild.getId());
+
+        daoSession.clear();
+        assertEquals(newParent.getId(), dao.load(existingChild.getId()).getParentId());
+        assertEquals(newChild.getId(), dao.load(existingParent.getId()).getParentId());
+        assertEquals(4, dao.count());
+    }
+
+    public void testFailureDetachesInsertedEntities() {
+        db.execSQL("CREATE TRIGGER FAIL_INSERT BEFORE INSERT ON " + RelationEntityDao.TABLENAME
+                + " BEGIN SELECT RAISE(ABORT, 'insert failed'); END");
+        TestEntity testEntity = new TestEntity();
+        testEntity.setSimpleStringNotNull("green");
+        RelationEntity relationEntity = new RelationEntity();
+        relationEntity.setTestEntity(testEntity);
+        try {
+            daoSession.insertGraph(relationEntity);
+            fail("Should have thrown");
+        } catch (RuntimeException expected) {
+            // OK
+        }
+        // Inserted before the failing level, so it got a PK
+        assertNotNull(testEntity.getId());
+        assertNull(daoSession.getTestEntityDao().load(testEntity.getId()));
+        assertEquals(0, daoSession.getTestEntityDao().count());
+    }
+
+    public void testCircularNewEntitiesFail() {
+        TreeEntity entity1 = new TreeEntity();
+        TreeEntity entity2 = new TreeEntity();
+        entity1.setParent(entity2);
+        entity2.setParent(entity1);
+        try {
+            daoSession.insertGraph(entity1);
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        assertEquals(0, daoSession.getTreeEntityDao().count());
+    }
+
+}
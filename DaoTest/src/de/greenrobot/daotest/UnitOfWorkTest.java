@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest;
+
+import java.util.List;
+
+import android.app.Application;
+import android.database.SQLException;
+import de.greenrobot.dao.UnitOfWork;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+
+public class UnitOfWorkTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private UnitOfWork unitOfWork;
+
+    public UnitOfWorkTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        unitOfWork = daoSession.newUnitOfWork();
+    }
+
+    private TestEntity createTestEntity(Long id) {
+        TestEntity entity = new TestEntity();
+        entity.setId(id);
+        entity.setSimpleStringNotNull("green");
+        return entity;
+    }
+
+    public void testFlushOrder() {
+        RelationEntity relationEntity = new RelationEntity();
+        SimpleEntity simpleEntity = new SimpleEntity();
+        TestEntity testEntity = createTestEntity(null);
+        unitOfWork.registerNew(relationEntity);
+        unitOfWork.registerNew(simpleEntity);
+        unitOfWork.registerNew(testEntity);
+
+        List<Class<?>> flushOrder = unitOfWork.getFlushOrder();
+        assertEquals(3, flushOrder.size());
+        assertEquals(SimpleEntity.class, flushOrder.get(0));
+        assertEquals(TestEntity.class, flushOrder.get(1));
+        assertEquals(RelationEntity.class, flushOrder.get(2));
+
+        unitOfWork.flush();
+        assertNotNull(relationEntity.getId());
+        assertNotNull(simpleEntity.getId());
+        assertNotNull(testEntity.getId());
+        assertEquals(0, unitOfWork.getRegisteredCount());
+    }
+
+    public void testNewDirtyRemoved() {
+        TestEntityDao dao = daoSession.getTestEntityDao();
+        TestEntity toUpdate = createTestEntity(1l);
+        TestEntity toDelete = createTestEntity(2l);
+        dao.insert(toUpdate);
+        dao.insert(toDelete);
+
+        TestEntity newEntity = createTestEntity(3l);
+        unitOfWork.registerNew(newEntity);
+        newEntity.setSimpleString("new");
+        unitOfWork.registerDirty(newEntity);
+        toUpdate.setSimpleString("updated");
+        unitOfWork.registerDirty(toUpdate);
+        unitOfWork.registerRemoved(toDelete);
+        TestEntity neverInserted = createTestEntity(4l);
+        unitOfWork.registerNew(neverInserted);
+        unitOfWork.registerRemoved(neverInserted);
+        assertEquals(3, unitOfWork.getRegisteredCount());
+
+        unitOfWork.flush();
+        daoSession.clear();
+        assertEquals(2, dao.count());
+        assertEquals("updated", dao.load(1l).getSimpleString());
+        assertNull(dao.load(2l));
+        assertEquals("new", dao.load(3l).getSimpleString());
+    }
+
+    public void testFlushFailureKeepsRegistrations() {
+        TestEntityDao dao = daoSession.getTestEntityDao();
+        dao.insert(createTestEntity(1l));
+        SimpleEntity simpleEntity = new SimpleEntity();
+        unitOfWork.registerNew(simpleEntity);
+        unitOfWork.registerNew(createTestEntity(1l));
+        try {
+            unitOfWork.flush();
+            fail("Expected constraint violation");
+        } catch (SQLException expected) {
+            // OK
+        }
+        assertEquals(2, unitOfWork.getRegisteredCount());
+        assertEquals(0, daoSession.getSimpleEntityDao().count());
+        assertNotNull(simpleEntity.getId());
+        assertNull(daoSession.getSimpleEntityDao().load(simpleEntity.getId()));
+        assertEquals(1, dao.count());
+
+        unitOfWork.clear();
+        assertEquals(0, unitOfWork.getRegisteredCount());
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import android.app.Application;
+import de.greenrobot.dao.WriteBehindQueue;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+
+public class WriteBehindQueueTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private WriteBehindQueue queue;
+    private SimpleEntityDao dao;
+
+    public WriteBehindQueueTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        queue = daoSession.getWriteBehindQueue();
+        queue.setMaxDelayMillis(60000);
+        dao = daoSession.getSimpleEntityDao();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        queue.close();
+        super.tearDown();
+    }
+
+    private SimpleEntity createEntity(Long id, String simpleString) {
+        SimpleEntity entity = new SimpleEntity();
+        entity.setId(id);
+        entity.setSimpleString(simpleString);
+        return entity;
+    }
+
+    public void testInsertAndFlush() throws Exception {
+        SimpleEntity entity = createEntity(null, "green");
+        Future<SimpleEntity> future = queue.insert(entity);
+        assertFalse(future.isDone());
+        assertEquals(0, dao.count());
+
+        queue.flush();
+        assertTrue(future.isDone());
+        assertSame(entity, future.get());
+        assertNotNull(entity.getId());
+        assertEquals(1, dao.count());
+    }
+
+    public void testCoalesceInsertAndUpdate() throws Exception {
+        SimpleEntity entity = createEntity(1l, "green");
+        Future<SimpleEntity> insertFuture = queue.insert(entity);
+        entity.setSimpleString("blue");
+        Future<SimpleEntity> updateFuture = queue.update(entity);
+        Future<SimpleEntity> updateFuture2 = queue.update(createEntity(1l, "red"));
+        assertEquals(1, queue.getPendingCount());
+
+        queue.flush();
+        assertTrue(insertFuture.isDone());
+        assertTrue(updateFuture.isDone());
+        assertTrue(updateFuture2.isDone());
+        daoSession.clear();
+        assertEquals("red", dao.load(1l).getSimpleString());
+    }
+
+    public void testCoalesceUpdates() {
+        dao.insert(createEntity(1l, "green"));
+        queue.update(createEntity(1l, "blue"));
+        queue.update(createEntity(1l, "red"));
+        queue.update(createEntity(2l, "unknown"));
+        assertEquals(2, queue.getPendingCount());
+
+        queue.flush();
+        daoSession.clear();
+        assertEquals("red", dao.load(1l).getSimpleString());
+        assertEquals(1, dao.count());
+    }
+
+    public void testCoalesceDelete() {
+        dao.insert(createEntity(1l, "green"));
+        queue.update(createEntity(1l, "blue"));
+        queue.delete(createEntity(1l, null));
+        queue.update(createEntity(1l, "red"));
+        assertEquals(1, queue.getPendingCount());
+        queue.flush();
+        assertEquals(0, dao.count());
+
+        dao.insert(createEntity(1l, "green"));
+        queue.delete(createEntity(1l, null));
+        queue.insert(createEntity(1l, "blue"));
+        queue.flush();
+        daoSession.clear();
+        assertEquals("blue", dao.load(1l).getSimpleString());
+    }
+
+    public void testKeepOrderAcrossDaos() {
+        // Emulates a foreign key from DATE_ENTITY to SIMPLE_ENTITY
+        db.execSQL("CREATE TRIGGER DATE_REFERENCES_SIMPLE BEFORE INSERT ON " + DateEntityDao.TABLENAME
+                + " WHEN NOT EXISTS (SELECT 1 FROM " + SimpleEntityDao.TABLENAME + " WHERE _id=NEW._id)"
+                + " BEGIN SELECT RAISE(ABORT, 'missing simple entity'); END");
+        dao.insert(createEntity(1l, "green"));
+        queue.insert(new DateEntity(1l, null, new Date()));
+        queue.insert(createEntity(2l, "blue"));
+        queue.insert(new DateEntity(2l, null, new Date()));
+        queue.update(createEntity(1l, "red"));
+        assertEquals(4, queue.getPendingCount());
+
+        queue.flush();
+        assertEquals(2, daoSession.getDateEntityDao().count());
+        daoSession.clear();
+        assertEquals("red", dao.load(1l).getSimpleString());
+    }
+
+    public void testFlushByPendingCount() throws Exception {
+        queue.setMaxPendingWrites(3);
+        queue.insert(createEntity(null, "1"));
+        queue.insert(createEntity(null, "2"));
+        Future<SimpleEntity> future = queue.insert(createEntity(null, "3"));
+        assertNotNull(future.get(10, TimeUnit.SECONDS).getId());
+        assertEquals(3, dao.count());
+    }
+
+    public void testFlushByDelay() throws Exception {
+        queue.setMaxDelayMillis(10);
+        Future<SimpleEntity> future = queue.insert(createEntity(null, "green"));
+        assertNotNull(future.get(10, TimeUnit.SECONDS).getId());
+        assertEquals(1, dao.count());
+    }
+
+    public void testFlushFailureRollsBack() throws InterruptedException {
+        dao.insert(createEntity(1l, "green"));
+        Future<SimpleEntity> future = queue.insert(createEntity(2l, "blue"));
+        Future<SimpleEntity> future2 = queue.insert(createEntity(null, "duplicate"));
+        dao.insert(createEntity(3l, "green"));
+        // Conflicts with the row inserted directly after queuing
+        queue.insert(createEntity(3l, "duplicate"));
+        try {
+            queue.flush();
+            fail("Expected constraint violation");
+        } catch (RuntimeException expected) {
+            // OK
+        }
+        try {
+            future.get();
+            fail("Expected exception");
+        } catch (ExecutionException expected) {
+            // OK
+        }
+        assertTrue(future2.isDone());
+        assertEquals(2, dao.count());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+}
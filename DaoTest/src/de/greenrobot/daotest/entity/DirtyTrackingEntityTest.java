@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.app.Application;
+import android.database.Cursor;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.DaoMaster;
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.daotest.DirtyTrackingEntity;
+import de.greenrobot.daotest.DirtyTrackingEntityDao;
+import de.greenrobot.daotest.DirtyTrackingEntityDao.Properties;
+import de.greenrobot.daotest.TestEntity;
+
+public class DirtyTrackingEntityTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private DirtyTrackingEntityDao dao;
+
+    public DirtyTrackingEntityTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        dao = daoSession.getDirtyTrackingEntityDao();
+        dao.setUpdateChangedOnly(true);
+    }
+
+    private DirtyTrackingEntity insertEntity(int simpleInteger) {
+        DirtyTrackingEntity entity = new DirtyTrackingEntity(null, simpleInteger, "green", null);
+        dao.insert(entity);
+        return entity;
+    }
+
+    private String queryColumn(DirtyTrackingEntity entity, String column) {
+        String sql = "SELECT " + column + " FROM " + dao.getTablename() + " WHERE _id=?";
+        Cursor cursor = db.rawQuery(sql, new String[] { entity.getId().toString() });
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /** Changes the row without changing the entity. */
+    private void changeSimpleStringInDb(DirtyTrackingEntity entity, String value) {
+        db.execSQL("UPDATE " + dao.getTablename() + " SET " + Properties.SimpleString.columnName + "=? WHERE _id=?",
+                new Object[] { value, entity.getId() });
+    }
+
+    public void testDirtyFlags() {
+        DirtyTrackingEntity entity = new DirtyTrackingEntity(null, 1, "green", null);
+        assertTrue(entity.__getDirtyFlags() != 0);
+        dao.insert(entity);
+        assertEquals(0, entity.__getDirtyFlags());
+
+        entity.setSimpleString("blue");
+        assertEquals(1L << Properties.SimpleString.oridinal, entity.__getDirtyFlags());
+        dao.update(entity);
+        assertEquals(0, entity.__getDirtyFlags());
+
+        daoSession.clear();
+        DirtyTrackingEntity loaded = dao.load(entity.getId());
+        assertNotSame(entity, loaded);
+        assertEquals(0, loaded.__getDirtyFlags());
+    }
+
+    public void testSetToOneMarksFkDirty() {
+        DirtyTrackingEntity entity = insertEntity(1);
+        TestEntity testEntity = new TestEntity();
+        testEntity.setSimpleStringNotNull("green");
+        daoSession.insert(testEntity);
+
+        entity.setTestEntity(testEntity);
+        assertEquals(1L << Properties.TestId.oridinal, entity.__getDirtyFlags());
+        dao.update(entity);
+        assertEquals(testEntity.getId().toString(), queryColumn(entity, Properties.TestId.columnName));
+    }
+
+    public void testLoadDeepKeepsEntityUnchanged() {
+        DirtyTrackingEntity entity = insertEntity(1);
+        TestEntity testEntity = new TestEntity();
+        testEntity.setSimpleStringNotNull("green");
+        daoSession.insert(testEntity);
+        entity.setTestEntity(testEntity);
+        dao.update(entity);
+        daoSession.clear();
+
+        DirtyTrackingEntity loaded = dao.loadDeep(entity.getId());
+        assertEquals(testEntity.getId(), loaded.peakTestEntity().getId());
+        assertEquals(0, loaded.__getDirtyFlags());
+    }
+
+    public void testUpdateChangedColumnsOnly() {
+        DirtyTrackingEntity entity = insertEntity(1);
+        changeSimpleStringInDb(entity, "other");
+
+        entity.setSimpleInteger(42);
+        dao.update(entity);
+        assertEquals("42", queryColumn(entity, Properties.SimpleInteger.columnName));
+        assertEquals("other", queryColumn(entity, Properties.SimpleString.columnName));
+    }
+
+    public void testUpdateUnchangedSkipped() {
+        DirtyTrackingEntity entity = insertEntity(1);
+        changeSimpleStringInDb(entity, "other");
+
+        dao.update(entity);
+        assertEquals("other", queryColumn(entity, Properties.SimpleString.columnName));
+
+        dao.setUpdateChangedOnly(false);
+        dao.update(entity);
+        assertEquals("green", queryColumn(entity, Properties.SimpleString.columnName));
+    }
+
+    public void testUpdateNewEntityCompletely() {
+        DirtyTrackingEntity entity = insertEntity(1);
+
+        DirtyTrackingEntity entity2 = new DirtyTrackingEntity(entity.getId(), 3, null, null);
+        dao.update(entity2);
+        assertEquals("3", queryColumn(entity, Properties.SimpleInteger.columnName));
+        assertNull(queryColumn(entity, Properties.SimpleString.columnName));
+    }
+
+    public void testUpdateInTxChangedColumnsOnly() {
+        List<DirtyTrackingEntity> entities = new ArrayList<DirtyTrackingEntity>();
+        for (int i = 0; i < 3; i++) {
+            DirtyTrackingEntity entity = insertEntity(i);
+            changeSimpleStringInDb(entity, "other");
+            entities.add(entity);
+        }
+        entities.get(0).setSimpleInteger(42);
+        entities.get(2).setSimpleInteger(43);
+        entities.get(2).setSimpleString("changed");
+        dao.updateInTx(entities);
+
+        assertEquals("42", queryColumn(entities.get(0), Properties.SimpleInteger.columnName));
+        assertEquals("other", queryColumn(entities.get(0), Properties.SimpleString.columnName));
+        assertEquals("other", queryColumn(entities.get(1), Properties.SimpleString.columnName));
+        assertEquals("43", queryColumn(entities.get(2), Properties.SimpleInteger.columnName));
+        assertEquals("changed", queryColumn(entities.get(2), Properties.SimpleString.columnName));
+        for (DirtyTrackingEntity entity : entities) {
+            assertEquals(0, entity.__getDirtyFlags());
+        }
+    }
+
+}
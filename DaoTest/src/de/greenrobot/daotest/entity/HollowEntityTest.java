@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.entity;
+
+import java.util.List;
+
+import android.app.Application;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.DaoMaster;
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.daotest.HollowEntity;
+import de.greenrobot.daotest.HollowEntityDao;
+
+public class HollowEntityTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private HollowEntityDao dao;
+
+    public HollowEntityTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        dao = daoSession.getHollowEntityDao();
+    }
+
+    public void testLoadHollow() {
+        createTree();
+        daoSession.clear();
+
+        HollowEntity child1 = dao.loadHollow(11l);
+        assertTrue(child1.isHollow());
+        assertSame(child1, dao.loadHollow(11l));
+        assertEquals(11l, child1.getId().longValue());
+        assertTrue(child1.isHollow());
+        assertEquals(1l, child1.getParentId().longValue());
+        assertFalse(child1.isHollow());
+        assertEquals("child1", child1.getSimpleString());
+    }
+
+    public void testToOneResolvesHollow() {
+        createTree();
+        daoSession.clear();
+
+        HollowEntity child1 = dao.load(101l).getParent();
+        assertTrue(child1.isHollow());
+        assertEquals(11l, child1.getId().longValue());
+        HollowEntity root = child1.getParent();
+        assertFalse(child1.isHollow());
+        assertTrue(root.isHollow());
+        assertNull(root.getParent());
+    }
+
+    public void testHollowFilledByQuery() {
+        createTree();
+        daoSession.clear();
+
+        HollowEntity child2 = dao.loadHollow(12l);
+        List<HollowEntity> all = dao.loadAll();
+        assertEquals(4, all.size());
+        assertTrue(all.contains(child2));
+        assertFalse(child2.isHollow());
+        assertEquals("child2", child2.getSimpleString());
+    }
+
+    public void testHollowWithoutRow() {
+        HollowEntity entity = dao.loadHollow(42l);
+        try {
+            entity.getSimpleString();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        assertTrue(entity.isHollow());
+    }
+
+    public void testToOneWithDanglingFk() {
+        db.execSQL("INSERT INTO " + HollowEntityDao.TABLENAME + " (_id, "
+                + HollowEntityDao.Properties.ParentId.columnName + ") VALUES (1, 42)");
+
+        HollowEntity parent = dao.load(1l).getParent();
+        assertNotNull(parent);
+        assertTrue(parent.isHollow());
+        try {
+            parent.getSimpleString();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+    private void createTree() {
+        HollowEntity root = new HollowEntity(1l, null, "root");
+        HollowEntity child1 = new HollowEntity(11l, 1l, "child1");
+        HollowEntity child2 = new HollowEntity(12l, 1l, "child2");
+        HollowEntity child1Child = new HollowEntity(101l, 11l, "child1Child");
+        dao.insertInTx(root, child1, child2, child1Child);
+    }
+
+}
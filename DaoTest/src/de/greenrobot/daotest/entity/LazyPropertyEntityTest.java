@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.entity;
+
+import android.app.Application;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.DaoMaster;
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.daotest.LazyPropertyEntity;
+import de.greenrobot.daotest.LazyPropertyEntityDao;
+
+public class LazyPropertyEntityTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private LazyPropertyEntityDao dao;
+
+    public LazyPropertyEntityTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        dao = daoSession.getLazyPropertyEntityDao();
+    }
+
+    public void testLazyPropertyLoadedOnAccess() {
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        LazyPropertyEntity entity = dao.load(1l);
+        updateTextBehindDao(1l, "NEW");
+        assertEquals("NEW", entity.getText());
+        updateTextBehindDao(1l, "NEWER");
+        assertEquals("NEW", entity.getText());
+
+        entity.refresh();
+        assertEquals("NEWER", entity.getText());
+    }
+
+    public void testLazyPropertySetBeforeAccess() {
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        LazyPropertyEntity entity = dao.load(1l);
+        entity.setText("NEW");
+        assertEquals("NEW", entity.getText());
+        entity.update();
+
+        daoSession.clear();
+        assertEquals("NEW", dao.load(1l).getText());
+    }
+
+    public void testLazyPropertyOfDeletedEntity() {
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        LazyPropertyEntity entity = dao.load(1l);
+        dao.deleteByKey(1l);
+        try {
+            entity.getText();
+            fail("Should fail for deleted entity");
+        } catch (DaoException e) {
+            // OK, expected
+        }
+    }
+
+    public void testLazyPropertyCache() {
+        dao.setLazyPropertyCacheSize(10);
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        assertEquals("OLD", dao.load(1l).getText());
+        updateTextBehindDao(1l, "NEW");
+        daoSession.clear();
+        assertEquals("OLD", dao.load(1l).getText());
+
+        LazyPropertyEntity entity = dao.load(1l);
+        entity.update();
+        updateTextBehindDao(1l, "NEW");
+        daoSession.clear();
+        assertEquals("NEW", dao.load(1l).getText());
+    }
+
+    public void testUpdateSkipsUnloadedLazyProperty() {
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        LazyPropertyEntity entity = dao.load(1l);
+        updateTextBehindDao(1l, "NEW");
+        entity.update();
+        dao.insertOrReplace(entity);
+        updateTextBehindDao(1l, "NEWER");
+        assertEquals("NEWER", entity.getText());
+    }
+
+    public void testQueryWithLazyProperty() {
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+
+        LazyPropertyEntity entity = dao.query(null, null, null, null, null).get(0);
+        updateTextBehindDao(1l, "NEW");
+        assertEquals("NEW", entity.getText());
+    }
+
+    public void testLazyPropertyCacheEvictedByUpdateQuery() {
+        dao.setLazyPropertyCacheSize(10);
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+        assertEquals("OLD", dao.load(1l).getText());
+
+        dao.queryBuilder().buildUpdate(LazyPropertyEntityDao.Properties.Text, "NEW").executeUpdateAndDetachEntities();
+        daoSession.clear();
+        assertEquals("NEW", dao.load(1l).getText());
+    }
+
+    public void testLazyPropertyCacheEvictedByDeleteQuery() {
+        dao.setLazyPropertyCacheSize(10);
+        dao.insert(new LazyPropertyEntity(1l, "OLD"));
+        daoSession.clear();
+        assertEquals("OLD", dao.load(1l).getText());
+
+        dao.queryBuilder().buildDelete().executeDeleteAndDetachEntities();
+        db.execSQL("INSERT INTO " + LazyPropertyEntityDao.TABLENAME + " (_id, "
+                + LazyPropertyEntityDao.Properties.Text.columnName + ") VALUES (1, 'NEW')");
+        assertEquals("NEW", dao.load(1l).getText());
+    }
+
+    private void updateTextBehindDao(long key, String text) {
+        String column = LazyPropertyEntityDao.Properties.Text.columnName;
+        db.execSQL("UPDATE " + LazyPropertyEntityDao.TABLENAME + " SET " + column + "=? WHERE _id=?", new Object[] {
+                text, key });
+    }
+
+}
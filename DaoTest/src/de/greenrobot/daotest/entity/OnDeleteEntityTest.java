@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.entity;
+
+import android.app.Application;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.DaoMaster;
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.daotest.OnDeleteEntity;
+import de.greenrobot.daotest.OnDeleteEntityDao;
+
+public class OnDeleteEntityTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private OnDeleteEntityDao dao;
+
+    public OnDeleteEntityTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        startSession(true);
+    }
+
+    /** Sessions read the foreign_keys pragma when they are created, so this starts a new session. */
+    private void startSession(boolean foreignKeys) {
+        db.execSQL("PRAGMA foreign_keys=" + (foreignKeys ? "ON" : "OFF"));
+        daoSession = daoMaster.newSession();
+        dao = daoSession.getOnDeleteEntityDao();
+    }
+
+    public void testDeleteCascade() {
+        createTree();
+        dao.load(101l);
+        dao.deleteByKey(11l);
+
+        assertEquals(2, dao.count());
+        assertNull(dao.getFromIdentityScope(101l));
+        assertNull(dao.load(101l));
+
+        dao.queryBuilder().where(OnDeleteEntityDao.Properties.Id.eq(1l)).buildDelete()
+                .executeDeleteAndDetachEntities();
+        assertEquals(0, dao.count());
+        assertNull(dao.getFromIdentityScope(12l));
+    }
+
+    public void testDeleteSetsNull() {
+        createTree();
+        OnDeleteEntity child2 = dao.load(12l);
+        assertEquals(101l, child2.getReferenceId().longValue());
+        dao.deleteInTx(dao.load(101l));
+
+        assertNull(child2.getReferenceId());
+        assertSame(child2, dao.load(12l));
+        daoSession.clear();
+        assertNull(dao.load(12l).getReferenceId());
+    }
+
+    public void testDeleteWithoutForeignKeysKeepsChildren() {
+        startSession(false);
+        createTree();
+        OnDeleteEntity child1Child = dao.load(101l);
+        OnDeleteEntity child2 = dao.load(12l);
+        dao.deleteByKey(11l);
+
+        assertEquals(3, dao.count());
+        assertSame(child1Child, dao.getFromIdentityScope(101l));
+        dao.deleteByKey(101l);
+        assertEquals(101l, child2.getReferenceId().longValue());
+    }
+
+    public void testInsertOrReplaceParentKeepsChildren() {
+        createTree();
+        OnDeleteEntity child1 = dao.load(11l);
+        OnDeleteEntity child1Child = dao.load(101l);
+
+        dao.insertOrReplace(child1);
+        assertEquals(4, dao.count());
+        assertSame(child1Child, dao.getFromIdentityScope(101l));
+
+        dao.insertOrReplaceInTx(dao.load(1l), dao.load(101l), new OnDeleteEntity(2l));
+        assertEquals(5, dao.count());
+        assertSame(child1, dao.getFromIdentityScope(11l));
+        assertEquals(101l, dao.load(12l).getReferenceId().longValue());
+    }
+
+    /** Child 12 references child 101 of child 11. */
+    private void createTree() {
+        OnDeleteEntity root = new OnDeleteEntity(1l);
+        OnDeleteEntity child1 = new OnDeleteEntity(11l);
+        child1.setParentId(1l);
+        OnDeleteEntity child2 = new OnDeleteEntity(12l);
+        child2.setParentId(1l);
+        child2.setReferenceId(101l);
+        OnDeleteEntity child1Child = new OnDeleteEntity(101l);
+        child1Child.setParentId(11l);
+        dao.insertInTx(root, child1, child1Child, child2);
+    }
+
+}
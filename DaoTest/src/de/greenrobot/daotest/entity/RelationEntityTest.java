@@ -19,7 +19,10 @@ package de.greenrobot.daotest.entity;
 
 import java.util.List;
 
+import de.greenrobot.dao.DaoException;
 import de.greenrobot.dao.IdentityScopeType;
+import de.greenrobot.dao.LazyList;
+import de.greenrobot.dao.Query;
 import de.greenrobot.dao.test.AbstractDaoTestLongPk;
 import de.greenrobot.daotest.DaoMaster;
 import de.greenrobot.daotest.DaoSession;
@@ -129,6 +132,28 @@ public class RelationEntityTest extends AbstractDaoTestLongPk<RelationEntityDao,
         assertTestEntity(entity);
     }
 
+    public void testToOneLoadDeepNested() {
+        RelationEntity entity = insertEntityWithRelations(42l);
+        RelationEntity parent = dao.load(entity.getParentId());
+        RelationEntity grandParent = createEntity(null);
+        grandParent.setSimpleString("I'm a grand parent");
+        grandParent.setTestNotNull(parent.getTestNotNull());
+        dao.insert(grandParent);
+        parent.setParent(grandParent);
+        dao.update(parent);
+
+        entity = dao.loadDeep(entity.getId());
+
+        // Everything up to two hops away was loaded by the query: deleting the rows must not affect them
+        daoSession.getTestEntityDao().deleteAll();
+        dao.deleteByKey(grandParent.getId());
+        assertTestEntity(entity);
+        parent = entity.peakParent();
+        assertEquals("I'm a grand parent", parent.peakParent().getSimpleString());
+        assertEquals(42l, (long) parent.peakTestNotNull().getId());
+        assertNull(parent.peakTestEntity());
+    }
+
     public void testToOneNoMatch() {
         RelationEntity entity = insertEntityWithRelations(42l);
         assertNotNull(entity.getTestEntity());
@@ -167,6 +192,71 @@ public class RelationEntityTest extends AbstractDaoTestLongPk<RelationEntityDao,
         assertTestEntity(entityList.get(0));
     }
 
+    public void testQueryBuilderDeep() {
+        insertEntityWithRelations(42l);
+        Query<RelationEntity> query = dao.queryBuilder()
+                .where(RelationEntityDao.Properties.SimpleString.eq("findMe")).buildDeep();
+        List<RelationEntity> entityList = query.list();
+        assertEquals(1, entityList.size());
+
+        // Relations were loaded by the query: deleting their rows must not affect them
+        daoSession.getTestEntityDao().deleteAll();
+        dao.deleteByKey(entityList.get(0).getParentId());
+        assertTestEntity(entityList.get(0));
+    }
+
+    public void testQueryBuilderDeepUniqueAndLazy() {
+        insertEntityWithRelations(42l);
+        Query<RelationEntity> query = dao.queryBuilder()
+                .where(RelationEntityDao.Properties.SimpleString.eq("findMe")).buildDeep();
+        assertTestEntity(query.unique());
+        LazyList<RelationEntity> lazyList = query.listLazy();
+        try {
+            assertEquals(1, lazyList.size());
+            assertTestEntity(lazyList.get(0));
+        } finally {
+            lazyList.close();
+        }
+    }
+
+    public void testQueryBuilderDeepNotSupported() {
+        try {
+            daoSession.getTestEntityDao().queryBuilder().buildDeep();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+    public void testResolveToOne() {
+        insertEntityWithRelations(42l);
+        insertEntityWithRelations(43l);
+        insertEntityWithRelations(42l);
+        RelationEntity entityMissingTarget = createEntity(null);
+        entityMissingTarget.setTestId(99l);
+        entityMissingTarget.setSimpleString("findMe");
+        dao.insert(entityMissingTarget);
+
+        String columnName = RelationEntityDao.Properties.SimpleString.columnName;
+        List<RelationEntity> entities = dao.queryRaw("WHERE " + columnName + "=?", "findMe");
+        assertEquals(4, entities.size());
+        dao.resolveTestEntity(entities);
+        dao.resolveParent(entities);
+
+        // Targets were resolved before, so deleting them must not affect the getters
+        daoSession.getTestEntityDao().deleteAll();
+        dao.deleteInTx(dao.queryRaw("WHERE " + columnName + "<>?", "findMe"));
+        for (int i = 0; i < 3; i++) {
+            RelationEntity entity = entities.get(i);
+            assertNotNull(entity.peakTestEntity());
+            assertEquals(entity.getTestId(), entity.getTestEntity().getId());
+            assertEquals("I'm a parent", entity.getParent().getSimpleString());
+        }
+        assertSame(entities.get(0).getTestEntity(), entities.get(2).getTestEntity());
+        assertNull(entities.get(3).getTestEntity());
+        assertNull(entities.get(3).getParent());
+    }
+
     protected RelationEntity insertEntityWithRelations(Long testEntityId) {
         TestEntity testEntity = daoSession.getTestEntityDao().load(testEntityId);
         if (testEntity == null) {
@@ -19,6 +19,7 @@ package de.greenrobot.daotest.entity;
  */
 import java.util.Arrays;
 
+import de.greenrobot.dao.DaoException;
 import de.greenrobot.dao.test.AbstractDaoTestLongPk;
 import de.greenrobot.daotest.SimpleEntity;
 import de.greenrobot.daotest.SimpleEntityDao;
@@ -106,6 +107,15 @@ public class SimpleEntityTest extends AbstractDaoTestLongPk<SimpleEntityDao, Sim
         entity.setSimpleByteArray(bytes);
     }
 
+    public void testUpdateQueryRejectsByteArray() {
+        try {
+            dao.queryBuilder().buildUpdate(SimpleEntityDao.Properties.SimpleByteArray, new byte[] { 42 });
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
     protected void setValuesToNull(SimpleEntity entity) {
         entity.setSimpleBoolean(null);
         entity.setSimpleByte(null);
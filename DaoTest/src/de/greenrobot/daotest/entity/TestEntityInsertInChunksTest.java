@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.database.SQLException;
+import de.greenrobot.dao.InsertProgressListener;
+import de.greenrobot.daotest.TestEntity;
+
+public class TestEntityInsertInChunksTest extends TestEntityTestBase {
+
+    private List<TestEntity> createEntities(int count) {
+        List<TestEntity> entities = new ArrayList<TestEntity>();
+        for (int i = 0; i < count; i++) {
+            entities.add(createEntity(getSimpleInteger(i), getSimpleString(i)));
+        }
+        return entities;
+    }
+
+    public void testInsertInChunks() {
+        List<TestEntity> entities = createEntities(25);
+        final List<Integer> progress = new ArrayList<Integer>();
+        InsertProgressListener listener = new InsertProgressListener() {
+            @Override
+            public void onChunkInserted(int insertedCount, long elapsedMillis) {
+                assertTrue(elapsedMillis >= 0);
+                assertFalse(db.inTransaction());
+                progress.add(insertedCount);
+            }
+        };
+        assertEquals(25, dao.insertInChunks(entities, 10, true, true, listener));
+
+        assertEquals(3, progress.size());
+        assertEquals(10, (int) progress.get(0));
+        assertEquals(20, (int) progress.get(1));
+        assertEquals(25, (int) progress.get(2));
+        assertEquals(25, dao.count());
+        for (TestEntity entity : entities) {
+            assertNotNull(entity.getId());
+        }
+    }
+
+    public void testInsertInChunksEmpty() {
+        assertEquals(0, dao.insertInChunks(new ArrayList<TestEntity>(), 10));
+        assertEquals(0, dao.count());
+    }
+
+    public void testInsertInChunksFailureKeepsCommittedChunks() {
+        List<TestEntity> entities = createEntities(15);
+        dao.insert(entities.get(12));
+        TestEntity duplicate = entities.get(12);
+        entities.set(12, createEntity(1, "duplicate"));
+        entities.get(12).setId(duplicate.getId());
+        try {
+            dao.insertInChunks(entities, 10);
+            fail("Expected constraint violation");
+        } catch (SQLException expected) {
+            // OK
+        }
+        assertEquals(11, dao.count());
+    }
+
+}
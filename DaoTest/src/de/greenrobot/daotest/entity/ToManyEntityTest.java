@@ -17,17 +17,24 @@
  */
 package de.greenrobot.daotest.entity;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import android.app.Application;
+import android.database.Cursor;
 
+import de.greenrobot.dao.LazyList;
+import de.greenrobot.dao.QueryBuilder;
 import de.greenrobot.dao.test.AbstractDaoSessionTest;
 import de.greenrobot.daotest.DaoMaster;
 import de.greenrobot.daotest.DaoSession;
 import de.greenrobot.daotest.ToManyEntity;
 import de.greenrobot.daotest.ToManyEntityDao;
+import de.greenrobot.daotest.ToManyLink;
+import de.greenrobot.daotest.ToManyLinkDao;
 import de.greenrobot.daotest.ToManyTargetEntity;
 import de.greenrobot.daotest.ToManyTargetEntityDao;
 
@@ -196,4 +203,219 @@ public class ToManyEntityTest extends AbstractDaoSessionTest<Application,DaoMast
         assertFalse(middleEntity.getId() == targetEntities.get(1).getId());
     }
 
+    public void testPrefetchToMany() {
+        List<ToManyEntity> entities = new ArrayList<ToManyEntity>();
+        List<ToManyTargetEntity[]> targetEntitiesList = new ArrayList<ToManyTargetEntity[]>();
+        for (int i = 0; i < 5; i++) {
+            targetEntitiesList.add(prepareToMany(i + 1, i));
+        }
+        daoSession.clear();
+        entities.addAll(toManyEntityDao.loadAll());
+        toManyEntityDao.prefetchToManyTargetEntity(entities);
+        toManyEntityDao.prefetchToManyDescList(entities);
+
+        for (ToManyEntity entity : entities) {
+            List<ToManyTargetEntity> prefetched = entity.peakToManyTargetEntity();
+            assertNotNull(prefetched);
+            int count = targetEntitiesList.get(entity.getId().intValue() - 1).length;
+            assertEquals(count, prefetched.size());
+            for (ToManyTargetEntity target : prefetched) {
+                assertEquals(entity.getId(), target.getToManyId());
+            }
+            // Prefetched lists must keep the order of the relation
+            List<ToManyTargetEntity> prefetchedDesc = entity.peakToManyDescList();
+            for (int i = 0; i < count; i++) {
+                assertSame(prefetched.get(i), prefetchedDesc.get(count - 1 - i));
+            }
+            assertSame(prefetched, entity.getToManyTargetEntity());
+        }
+    }
+
+    public void testPrefetchToManyChunked() {
+        int count = QueryBuilder.MAX_SQL_VARIABLES + 10;
+        List<ToManyEntity> entities = new ArrayList<ToManyEntity>();
+        for (int i = 0; i < count; i++) {
+            entities.add(new ToManyEntity((long) i + 1));
+        }
+        toManyEntityDao.insertInTx(entities);
+        insertTargetEntitites(1l, 2, null);
+        insertTargetEntitites((long) count, 3, null);
+
+        toManyEntityDao.prefetchToManyTargetEntity(entities);
+        assertEquals(2, entities.get(0).peakToManyTargetEntity().size());
+        assertEquals(0, entities.get(1).peakToManyTargetEntity().size());
+        assertEquals(3, entities.get(count - 1).peakToManyTargetEntity().size());
+    }
+
+    public void testMaintainCachedToManyLists() {
+        prepareToMany(1, 3);
+        toManyTargetEntityDao.setMaintainCachedToManyLists(true);
+
+        ToManyEntity testEntity = toManyEntityDao.load(1l);
+        List<ToManyTargetEntity> resolvedToMany = testEntity.getToManyTargetEntity();
+        List<ToManyTargetEntity> resolvedToManyDesc = testEntity.getToManyDescList();
+
+        ToManyTargetEntity newEntity = new ToManyTargetEntity();
+        newEntity.setToManyId(1l);
+        newEntity.setToManyIdDesc(1l);
+        toManyTargetEntityDao.insert(newEntity);
+        assertSame(resolvedToMany, testEntity.getToManyTargetEntity());
+        assertEquals(4, resolvedToMany.size());
+        assertSame(newEntity, resolvedToMany.get(3));
+        assertSame(newEntity, resolvedToManyDesc.get(0));
+
+        ToManyTargetEntity deletedEntity = resolvedToMany.get(1);
+        toManyTargetEntityDao.delete(deletedEntity);
+        assertEquals(3, resolvedToMany.size());
+        assertFalse(resolvedToMany.contains(deletedEntity));
+        assertFalse(resolvedToManyDesc.contains(deletedEntity));
+
+        ToManyTargetEntity updatedEntity = resolvedToMany.get(0);
+        updatedEntity.setToManyIdDesc(null);
+        toManyTargetEntityDao.update(updatedEntity);
+        assertEquals(3, resolvedToMany.size());
+        assertSame(updatedEntity, resolvedToMany.get(0));
+
+        List<ToManyTargetEntity> cached = resolvedToMany;
+        testEntity.resetToManyTargetEntity();
+        List<ToManyTargetEntity> queried = testEntity.getToManyTargetEntity();
+        assertEquals(queried.size(), cached.size());
+        for (int i = 0; i < queried.size(); i++) {
+            assertSame(queried.get(i), cached.get(i));
+        }
+    }
+
+    public void testMaintainCachedToManyListsFkChanged() {
+        prepareToMany(1, 3);
+        prepareToMany(2, 1);
+        toManyTargetEntityDao.setMaintainCachedToManyLists(true);
+
+        List<ToManyTargetEntity> resolvedToMany1 = toManyEntityDao.load(1l).getToManyTargetEntity();
+        List<ToManyTargetEntity> resolvedToMany2 = toManyEntityDao.load(2l).getToManyTargetEntity();
+        ToManyTargetEntity movedEntity = resolvedToMany1.get(1);
+        movedEntity.setToManyId(2l);
+        toManyTargetEntityDao.update(movedEntity);
+        assertEquals(2, resolvedToMany1.size());
+        assertFalse(resolvedToMany1.contains(movedEntity));
+        assertEquals(2, resolvedToMany2.size());
+        assertTrue(resolvedToMany2.contains(movedEntity));
+    }
+
+    public void testMaintainCachedToManyListsInsertInChunks() {
+        prepareToMany(1, 3);
+        toManyTargetEntityDao.setMaintainCachedToManyLists(true);
+        List<ToManyTargetEntity> resolvedToMany = toManyEntityDao.load(1l).getToManyTargetEntity();
+
+        List<ToManyTargetEntity> newEntities = new ArrayList<ToManyTargetEntity>();
+        for (int i = 0; i < 5; i++) {
+            ToManyTargetEntity newEntity = new ToManyTargetEntity();
+            newEntity.setToManyId(1l);
+            newEntities.add(newEntity);
+        }
+        toManyTargetEntityDao.insertInChunks(newEntities, 2);
+        assertEquals(8, resolvedToMany.size());
+        for (ToManyTargetEntity newEntity : newEntities) {
+            assertTrue(resolvedToMany.contains(newEntity));
+        }
+    }
+
+    public void testMaintainCachedToManyListsDisabled() {
+        prepareToMany(1, 3);
+        ToManyEntity testEntity = toManyEntityDao.load(1l);
+        List<ToManyTargetEntity> resolvedToMany = testEntity.getToManyTargetEntity();
+
+        ToManyTargetEntity newEntity = new ToManyTargetEntity();
+        newEntity.setToManyId(1l);
+        toManyTargetEntityDao.insert(newEntity);
+        assertEquals(3, resolvedToMany.size());
+    }
+
+    public void testToManyLazyList() {
+        ToManyTargetEntity[] targetEntities = prepareToMany(1, 3);
+
+        ToManyEntity testEntity = toManyEntityDao.load(1l);
+        List<ToManyTargetEntity> resolvedToMany = testEntity.getToManyLazyList();
+        assertTrue(resolvedToMany instanceof LazyList);
+        LazyList<ToManyTargetEntity> lazyList = (LazyList<ToManyTargetEntity>) resolvedToMany;
+        assertEquals(3, lazyList.size());
+        assertEquals(0, lazyList.getLoadedCount());
+        assertSame(targetEntities[1], lazyList.get(1));
+        assertEquals(1, lazyList.getLoadedCount());
+        assertSame(lazyList, testEntity.getToManyLazyList());
+        assertSameEntities(targetEntities, lazyList);
+
+        testEntity.resetToManyLazyList();
+        assertTrue(lazyList.isClosed());
+        assertNotSame(lazyList, testEntity.getToManyLazyList());
+        testEntity.resetToManyLazyList();
+    }
+
+    public void testToManyLazyListClosedWhenReplaced() {
+        prepareToMany(1, 3);
+
+        ToManyEntity testEntity = toManyEntityDao.load(1l);
+        LazyList<ToManyTargetEntity> lazyList = (LazyList<ToManyTargetEntity>) testEntity.getToManyLazyList();
+        testEntity.setToManyLazyList(lazyList);
+        assertFalse(lazyList.isClosed());
+
+        toManyEntityDao.prefetchToManyLazyList(Arrays.asList(testEntity));
+        assertTrue(lazyList.isClosed());
+        assertEquals(3, testEntity.getToManyLazyList().size());
+    }
+
+    public void testManyToMany() {
+        ToManyEntity entity1 = new ToManyEntity(1l);
+        ToManyEntity entity2 = new ToManyEntity(2l);
+        ToManyEntity entity3 = new ToManyEntity(3l);
+        toManyEntityDao.insertInTx(entity1, entity2, entity3);
+        ToManyTargetEntity[] targetEntities = insertTargetEntitites(null, 3, null);
+        ToManyLinkDao linkDao = daoSession.getToManyLinkDao();
+        linkDao.insert(new ToManyLink(null, 1, targetEntities[0].getId()));
+        linkDao.insert(new ToManyLink(null, 1, targetEntities[2].getId()));
+        linkDao.insert(new ToManyLink(null, 2, targetEntities[2].getId()));
+
+        List<ToManyTargetEntity> linked1 = entity1.getToManyLinked();
+        assertEquals(2, linked1.size());
+        // Ordered by ID descending
+        assertSame(targetEntities[2], linked1.get(0));
+        assertSame(targetEntities[0], linked1.get(1));
+        assertEquals(1, entity2.getToManyLinked().size());
+        assertSame(targetEntities[2], entity2.getToManyLinked().get(0));
+        assertEquals(0, entity3.getToManyLinked().size());
+    }
+
+    public void testManyToManyPrefetch() {
+        List<ToManyEntity> entities = new ArrayList<ToManyEntity>();
+        for (int i = 0; i < 3; i++) {
+            entities.add(new ToManyEntity((long) i + 1));
+        }
+        toManyEntityDao.insertInTx(entities);
+        ToManyTargetEntity[] targetEntities = insertTargetEntitites(null, 3, null);
+        ToManyLinkDao linkDao = daoSession.getToManyLinkDao();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j <= i; j++) {
+                linkDao.insert(new ToManyLink(null, i + 1, targetEntities[j].getId()));
+            }
+        }
+
+        toManyEntityDao.prefetchToManyLinked(entities);
+        for (int i = 0; i < 3; i++) {
+            List<ToManyTargetEntity> linked = entities.get(i).peakToManyLinked();
+            assertEquals(i + 1, linked.size());
+            for (int j = 0; j <= i; j++) {
+                assertSame(targetEntities[i - j], linked.get(j));
+            }
+        }
+    }
+
+    public void testManyToManyIndexes() {
+        Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type='index' AND tbl_name=?",
+                new String[] { ToManyLinkDao.TABLENAME });
+        try {
+            assertEquals(2, cursor.getCount());
+        } finally {
+            cursor.close();
+        }
+    }
+
 }
@@ -1,6 +1,9 @@
 package de.greenrobot.daotest.entity;
 
+import java.util.List;
+
 import android.app.Application;
+import de.greenrobot.dao.DaoException;
 import de.greenrobot.dao.test.AbstractDaoSessionTest;
 import de.greenrobot.daotest.DaoMaster;
 import de.greenrobot.daotest.DaoSession;
@@ -80,6 +83,106 @@ public class TreeEntityTest extends AbstractDaoSessionTest<Application,DaoMaster
         assertEquals(0, child2.getChildren().size());
     }
 
+    public void testTreePaths() {
+        createTree();
+        daoSession.clear();
+
+        assertEquals("/", treeEntityDao.load(1l).getPath());
+        assertEquals("/1/", treeEntityDao.load(12l).getPath());
+        TreeEntity child1Child = treeEntityDao.load(101l);
+        assertEquals("/1/11/", child1Child.getPath());
+        assertEquals(2, treeEntityDao.getTreeDepth(child1Child));
+    }
+
+    public void testQueryDescendants() {
+        createTree();
+        TreeEntity root = treeEntityDao.load(1l);
+        assertEquals(3, treeEntityDao.queryDescendants(root).size());
+
+        List<TreeEntity> children = treeEntityDao.queryDescendants(root, 1);
+        assertEquals(2, children.size());
+        assertEquals(11l, children.get(0).getId().longValue());
+        assertEquals(12l, children.get(1).getId().longValue());
+
+        List<TreeEntity> child1Descendants = treeEntityDao.queryDescendants(treeEntityDao.load(11l));
+        assertEquals(1, child1Descendants.size());
+        assertEquals(101l, child1Descendants.get(0).getId().longValue());
+        assertTrue(treeEntityDao.queryDescendants(treeEntityDao.load(12l)).isEmpty());
+    }
+
+    public void testQueryAncestorsAndRoots() {
+        createTree();
+        List<TreeEntity> ancestors = treeEntityDao.queryAncestors(treeEntityDao.load(101l));
+        assertEquals(2, ancestors.size());
+        assertEquals(1l, ancestors.get(0).getId().longValue());
+        assertEquals(11l, ancestors.get(1).getId().longValue());
+        assertTrue(treeEntityDao.queryAncestors(treeEntityDao.load(1l)).isEmpty());
+
+        List<TreeEntity> roots = treeEntityDao.queryRoots();
+        assertEquals(1, roots.size());
+        assertEquals(1l, roots.get(0).getId().longValue());
+    }
+
+    public void testMoveSubtree() {
+        createTree();
+        TreeEntity child1 = treeEntityDao.load(11l);
+        TreeEntity child1Child = treeEntityDao.load(101l);
+        child1.setParent(treeEntityDao.load(12l));
+        treeEntityDao.update(child1);
+
+        assertEquals("/1/12/", child1.getPath());
+        assertEquals("/1/12/11/", child1Child.getPath());
+        daoSession.clear();
+        assertEquals("/1/12/11/", treeEntityDao.load(101l).getPath());
+        assertEquals(2, treeEntityDao.queryDescendants(treeEntityDao.load(12l)).size());
+        assertEquals(3, treeEntityDao.queryAncestors(treeEntityDao.load(101l)).size());
+    }
+
+    public void testMoveSubtreeRolledBackIfUpdateFails() {
+        createTree();
+        db.execSQL("CREATE TRIGGER FAIL_UPDATE BEFORE UPDATE ON " + TreeEntityDao.TABLENAME
+                + " WHEN NEW._id=11 BEGIN SELECT RAISE(ABORT, 'Update failed'); END");
+        TreeEntity child1 = treeEntityDao.load(11l);
+        child1.setParent(treeEntityDao.load(12l));
+        try {
+            treeEntityDao.update(child1);
+            fail("Update should have failed");
+        } catch (RuntimeException expected) {
+            // OK
+        }
+
+        daoSession.clear();
+        assertEquals("/1/11/", treeEntityDao.load(101l).getPath());
+    }
+
+    public void testMoveBelowItself() {
+        createTree();
+        TreeEntity child1 = treeEntityDao.load(11l);
+        child1.setParent(treeEntityDao.load(101l));
+        try {
+            treeEntityDao.update(child1);
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        assertEquals("/1/11/", treeEntityDao.load(101l).getPath());
+    }
+
+    public void testUpdateQueryRejectsTreeProperties() {
+        try {
+            treeEntityDao.queryBuilder().buildUpdate(TreeEntityDao.Properties.ParentId, 1l);
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        try {
+            treeEntityDao.queryBuilder().buildUpdate(TreeEntityDao.Properties.Path, "/");
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
     private void createTree() {
         TreeEntity root = new TreeEntity(1l);
         TreeEntity child1 = new TreeEntity(11l);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.greenrobot.dao.IdentityScopeLong;
+import de.greenrobot.dao.QueryBuilder;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao.Properties;
+
+public class DeleteQueryTestIdentityScope extends DeleteQueryTest {
+
+    @Override
+    protected void setUp() {
+        setIdentityScopeBeforeSetUp(new IdentityScopeLong<TestEntity>());
+        super.setUp();
+    }
+
+    public void testDeleteQueryDetachesEntities() {
+        ArrayList<TestEntity> inserted = insert(3);
+        dao.queryBuilder().where(Properties.SimpleInteger.ge(getSimpleInteger(1))).buildDelete()
+                .executeDeleteAndDetachEntities();
+
+        assertEquals(1, dao.count());
+        assertSame(inserted.get(0), dao.load(inserted.get(0).getId()));
+        assertNull(dao.load(inserted.get(1).getId()));
+        assertNull(dao.load(inserted.get(2).getId()));
+    }
+
+    public void testDeleteQueryWithoutDetachingLeavesStaleEntities() {
+        ArrayList<TestEntity> inserted = insert(2);
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(1))).buildDelete()
+                .executeDeleteWithoutDetachingEntities();
+
+        assertEquals(1, dao.count());
+        assertSame(inserted.get(1), dao.load(inserted.get(1).getId()));
+    }
+
+    public void testDeleteQueryChunkedDetachesEntities() {
+        int maxSqlVariables = QueryBuilder.MAX_SQL_VARIABLES;
+        QueryBuilder.MAX_SQL_VARIABLES = 10;
+        try {
+            ArrayList<TestEntity> inserted = insert(30);
+            List<Integer> values = new ArrayList<Integer>();
+            for (int i = 0; i < 25; i++) {
+                values.add(getSimpleInteger(i));
+            }
+            dao.queryBuilder().where(Properties.SimpleInteger.in(values)).buildDelete()
+                    .executeDeleteAndDetachEntities();
+
+            assertEquals(5, dao.count());
+            for (int i = 0; i < inserted.size(); i++) {
+                TestEntity loaded = dao.load(inserted.get(i).getId());
+                if (i < 25) {
+                    assertNull(loaded);
+                } else {
+                    assertSame(inserted.get(i), loaded);
+                }
+            }
+        } finally {
+            QueryBuilder.MAX_SQL_VARIABLES = maxSqlVariables;
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.List;
+
+import android.app.Application;
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.QueryBuilder;
+import de.greenrobot.dao.test.AbstractDaoSessionTest;
+import de.greenrobot.daotest.DaoMaster;
+import de.greenrobot.daotest.DaoSession;
+import de.greenrobot.daotest.RelationEntity;
+import de.greenrobot.daotest.RelationEntityDao;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao;
+import de.greenrobot.daotest.ToManyEntity;
+import de.greenrobot.daotest.ToManyEntityDao;
+import de.greenrobot.daotest.ToManyTargetEntity;
+import de.greenrobot.daotest.ToManyTargetEntityDao;
+
+public class QueryBuilderJoinTest extends AbstractDaoSessionTest<Application, DaoMaster, DaoSession> {
+
+    private RelationEntityDao relationEntityDao;
+    private TestEntityDao testEntityDao;
+    private ToManyEntityDao toManyEntityDao;
+    private ToManyTargetEntityDao toManyTargetEntityDao;
+
+    public QueryBuilderJoinTest() {
+        super(DaoMaster.class);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        relationEntityDao = daoSession.getRelationEntityDao();
+        testEntityDao = daoSession.getTestEntityDao();
+        toManyEntityDao = daoSession.getToManyEntityDao();
+        toManyTargetEntityDao = daoSession.getToManyTargetEntityDao();
+    }
+
+    private TestEntity insertTestEntity(String simpleString) {
+        TestEntity testEntity = new TestEntity();
+        testEntity.setSimpleStringNotNull("green");
+        testEntity.setSimpleString(simpleString);
+        testEntityDao.insert(testEntity);
+        return testEntity;
+    }
+
+    private RelationEntity insertRelationEntity(RelationEntity parent, TestEntity testEntity, String simpleString) {
+        RelationEntity entity = new RelationEntity();
+        entity.setParent(parent);
+        entity.setTestEntity(testEntity);
+        entity.setSimpleString(simpleString);
+        relationEntityDao.insert(entity);
+        return entity;
+    }
+
+    private ToManyTargetEntity insertTarget(ToManyEntity source, String targetJoinProperty) {
+        ToManyTargetEntity target = new ToManyTargetEntity();
+        target.setToManyId(source.getId());
+        target.setTargetJoinProperty(targetJoinProperty);
+        toManyTargetEntityDao.insert(target);
+        return target;
+    }
+
+    public void testJoinToOne() {
+        TestEntity green = insertTestEntity("green");
+        TestEntity blue = insertTestEntity("blue");
+        RelationEntity entity1 = insertRelationEntity(null, green, "1");
+        insertRelationEntity(null, blue, "2");
+        RelationEntity entity3 = insertRelationEntity(null, green, "3");
+        insertRelationEntity(null, null, "4");
+
+        QueryBuilder<RelationEntity> queryBuilder = relationEntityDao.queryBuilder();
+        queryBuilder.join(TestEntity.class, RelationEntityDao.Properties.TestId).where(
+                TestEntityDao.Properties.SimpleString.eq("green"));
+        List<RelationEntity> result = queryBuilder.orderAsc(RelationEntityDao.Properties.SimpleString).list();
+        assertEquals(2, result.size());
+        assertSame(entity1, result.get(0));
+        assertSame(entity3, result.get(1));
+    }
+
+    public void testJoinToOneWithRootConditions() {
+        TestEntity green = insertTestEntity("green");
+        insertRelationEntity(null, green, "1");
+        RelationEntity entity2 = insertRelationEntity(null, green, "2");
+
+        QueryBuilder<RelationEntity> queryBuilder = relationEntityDao.queryBuilder();
+        queryBuilder.where(RelationEntityDao.Properties.SimpleString.eq("2"));
+        queryBuilder.join(TestEntity.class, RelationEntityDao.Properties.TestId).where(
+                TestEntityDao.Properties.SimpleString.eq("green"));
+        assertSame(entity2, queryBuilder.unique());
+    }
+
+    public void testJoinNested() {
+        TestEntity green = insertTestEntity("green");
+        TestEntity blue = insertTestEntity("blue");
+        RelationEntity parentGreen = insertRelationEntity(null, green, "parentGreen");
+        RelationEntity parentBlue = insertRelationEntity(null, blue, "parentBlue");
+        RelationEntity child = insertRelationEntity(parentGreen, blue, "child");
+        insertRelationEntity(parentBlue, green, "child2");
+
+        QueryBuilder<RelationEntity> queryBuilder = relationEntityDao.queryBuilder();
+        QueryBuilder<RelationEntity> parentBuilder = queryBuilder.join(RelationEntity.class,
+                RelationEntityDao.Properties.ParentId);
+        parentBuilder.join(TestEntity.class, RelationEntityDao.Properties.TestId).where(
+                TestEntityDao.Properties.SimpleString.eq("green"));
+        List<RelationEntity> result = queryBuilder.list();
+        assertEquals(1, result.size());
+        assertSame(child, result.get(0));
+    }
+
+    public void testJoinToMany() {
+        ToManyEntity source1 = new ToManyEntity();
+        ToManyEntity source2 = new ToManyEntity();
+        ToManyEntity source3 = new ToManyEntity();
+        toManyEntityDao.insertInTx(source1, source2, source3);
+        insertTarget(source1, "a");
+        insertTarget(source1, "b");
+        insertTarget(source1, "b");
+        insertTarget(source2, "a");
+        insertTarget(source3, "b");
+
+        QueryBuilder<ToManyEntity> queryBuilder = toManyEntityDao.queryBuilder();
+        queryBuilder.joinToMany(ToManyTargetEntity.class, ToManyTargetEntityDao.Properties.ToManyId).where(
+                ToManyTargetEntityDao.Properties.TargetJoinProperty.eq("b"));
+        List<ToManyEntity> result = queryBuilder.orderAsc(ToManyEntityDao.Properties.Id).list();
+        assertEquals(2, result.size());
+        assertSame(source1, result.get(0));
+        assertSame(source3, result.get(1));
+    }
+
+    public void testJoinToManyOr() {
+        ToManyEntity source1 = new ToManyEntity();
+        ToManyEntity source2 = new ToManyEntity();
+        ToManyEntity source3 = new ToManyEntity();
+        toManyEntityDao.insertInTx(source1, source2, source3);
+        insertTarget(source1, "a");
+        insertTarget(source2, "b");
+        insertTarget(source3, "c");
+
+        QueryBuilder<ToManyEntity> queryBuilder = toManyEntityDao.queryBuilder();
+        QueryBuilder<ToManyTargetEntity> joinBuilder = queryBuilder.joinToMany(ToManyTargetEntity.class,
+                ToManyTargetEntityDao.Properties.ToManyId);
+        joinBuilder.whereOr(ToManyTargetEntityDao.Properties.TargetJoinProperty.eq("a"),
+                ToManyTargetEntityDao.Properties.TargetJoinProperty.eq("c"));
+        joinBuilder.orderDesc(ToManyTargetEntityDao.Properties.Id);
+        List<ToManyEntity> result = queryBuilder.list();
+        assertEquals(2, result.size());
+        assertSame(source3, result.get(0));
+        assertSame(source1, result.get(1));
+    }
+
+    public void testJoinByJoinProperty() {
+        ToManyEntity source1 = new ToManyEntity();
+        source1.setSourceJoinProperty("x");
+        ToManyEntity source2 = new ToManyEntity();
+        source2.setSourceJoinProperty("y");
+        toManyEntityDao.insertInTx(source1, source2);
+        insertTarget(source2, "x");
+
+        QueryBuilder<ToManyEntity> queryBuilder = toManyEntityDao.queryBuilder();
+        queryBuilder.join(ToManyEntityDao.Properties.SourceJoinProperty, ToManyTargetEntity.class,
+                ToManyTargetEntityDao.Properties.TargetJoinProperty);
+        assertSame(source1, queryBuilder.unique());
+    }
+
+    public void testJoinWrongProperty() {
+        QueryBuilder<RelationEntity> queryBuilder = relationEntityDao.queryBuilder();
+        QueryBuilder<TestEntity> joinBuilder = queryBuilder.join(TestEntity.class,
+                RelationEntityDao.Properties.TestId);
+        try {
+            joinBuilder.where(RelationEntityDao.Properties.SimpleString.eq("green"));
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+    public void testBuildJoinedBuilder() {
+        QueryBuilder<RelationEntity> queryBuilder = relationEntityDao.queryBuilder();
+        QueryBuilder<TestEntity> joinBuilder = queryBuilder.join(TestEntity.class,
+                RelationEntityDao.Properties.TestId);
+        try {
+            joinBuilder.build();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+        try {
+            queryBuilder.buildDelete();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+}
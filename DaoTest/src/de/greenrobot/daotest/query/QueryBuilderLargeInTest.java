@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.Query;
+import de.greenrobot.dao.QueryBuilder;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao.Properties;
+import de.greenrobot.daotest.entity.TestEntityTestBase;
+
+public class QueryBuilderLargeInTest extends TestEntityTestBase {
+
+    private int maxSqlVariables;
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        maxSqlVariables = QueryBuilder.MAX_SQL_VARIABLES;
+        QueryBuilder.MAX_SQL_VARIABLES = 10;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        QueryBuilder.MAX_SQL_VARIABLES = maxSqlVariables;
+        super.tearDown();
+    }
+
+    private List<Integer> getSimpleIntegers(int count) {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < count; i++) {
+            values.add(getSimpleInteger(i));
+        }
+        return values;
+    }
+
+    public void testInChunked() {
+        insert(30);
+        List<TestEntity> result = dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(25))).list();
+        assertEquals(25, result.size());
+    }
+
+    public void testInChunkedWithOtherConditions() {
+        ArrayList<TestEntity> inserted = insert(30);
+        QueryBuilder<TestEntity> queryBuilder = dao.queryBuilder();
+        queryBuilder.where(Properties.SimpleString.notEq(getSimpleString(3)),
+                Properties.SimpleInteger.in(getSimpleIntegers(25)), Properties.SimpleInteger.gt(getSimpleInteger(1)));
+        List<TestEntity> result = queryBuilder.orderAsc(Properties.SimpleInteger).list();
+        assertEquals(22, result.size());
+        assertEquals(inserted.get(2).getId(), result.get(0).getId());
+        assertEquals(inserted.get(4).getId(), result.get(1).getId());
+        assertEquals(inserted.get(24).getId(), result.get(21).getId());
+    }
+
+    public void testInChunkedOrderDesc() {
+        ArrayList<TestEntity> inserted = insert(30);
+        List<TestEntity> result = dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(25)))
+                .orderDesc(Properties.SimpleInteger).list();
+        assertEquals(25, result.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(inserted.get(24 - i).getId(), result.get(i).getId());
+        }
+    }
+
+    public void testInChunkedDuplicateValues() {
+        insert(30);
+        List<Integer> values = getSimpleIntegers(15);
+        values.addAll(getSimpleIntegers(15));
+        List<TestEntity> result = dao.queryBuilder().where(Properties.SimpleInteger.in(values)).list();
+        assertEquals(15, result.size());
+    }
+
+    public void testInChunkedUnique() {
+        ArrayList<TestEntity> inserted = insert(3);
+        List<Integer> values = getSimpleIntegers(1);
+        for (int i = 0; i < 20; i++) {
+            values.add(-i);
+        }
+        assertEquals(inserted.get(0).getId(), dao.queryBuilder().where(Properties.SimpleInteger.in(values)).unique()
+                .getId());
+    }
+
+    public void testInChunkedSetParameter() {
+        ArrayList<TestEntity> inserted = insert(30);
+        Query<TestEntity> query = dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(25)))
+                .orderAsc(Properties.SimpleInteger).build();
+        query.setParameter(0, getSimpleInteger(29));
+        List<TestEntity> result = query.list();
+        assertEquals(25, result.size());
+        assertEquals(inserted.get(1).getId(), result.get(0).getId());
+        assertEquals(inserted.get(29).getId(), result.get(24).getId());
+    }
+
+    public void testInChunkedLazyListNotSupported() {
+        insert(30);
+        Query<TestEntity> query = dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(25))).build();
+        try {
+            query.listLazy();
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+    public void testDeleteInChunked() {
+        insert(30);
+        dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(25))).buildDelete()
+                .executeDeleteWithoutDetachingEntities();
+        assertEquals(5, dao.count());
+    }
+
+    public void testInWithSqliteLimit() {
+        QueryBuilder.MAX_SQL_VARIABLES = maxSqlVariables;
+        insert(30);
+        List<TestEntity> result = dao.queryBuilder().where(Properties.SimpleInteger.in(getSimpleIntegers(2000)))
+                .list();
+        assertEquals(30, result.size());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.greenrobot.dao.Query;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao.Properties;
+import de.greenrobot.daotest.entity.TestEntityTestBase;
+
+public class QueryForThreadTest extends TestEntityTestBase {
+
+    private Query<TestEntity> queryFromOtherThread;
+
+    public void testGetForCurrentThread_SameInstance() {
+        Query<TestEntity> query = dao.queryBuilder().build();
+        assertSame(query.forCurrentThread(), query.forCurrentThread());
+    }
+
+    public void testGetForCurrentThread_ParametersAreReset() {
+        ArrayList<TestEntity> inserted = insert(3);
+        int value = getSimpleInteger(1);
+        Query<TestEntity> query = dao.queryBuilder().where(Properties.SimpleInteger.eq(value)).build();
+
+        Query<TestEntity> queryForThread = query.forCurrentThread();
+        queryForThread.setParameter(0, getSimpleInteger(2));
+        assertEquals(inserted.get(2).getId(), queryForThread.unique().getId());
+
+        queryForThread = query.forCurrentThread();
+        assertEquals(inserted.get(1).getId(), queryForThread.unique().getId());
+    }
+
+    public void testGetForCurrentThread_OriginalNotAffected() {
+        ArrayList<TestEntity> inserted = insert(3);
+        int value = getSimpleInteger(1);
+        Query<TestEntity> query = dao.queryBuilder().where(Properties.SimpleInteger.eq(value)).build();
+
+        query.forCurrentThread().setParameter(0, getSimpleInteger(2));
+        assertEquals(inserted.get(1).getId(), query.unique().getId());
+    }
+
+    public void testGetForCurrentThread_OtherThread() throws InterruptedException {
+        ArrayList<TestEntity> inserted = insert(3);
+        final Query<TestEntity> query = dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(1)))
+                .build();
+        Query<TestEntity> queryForThread = query.forCurrentThread();
+        queryForThread.setParameter(0, getSimpleInteger(0));
+
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                queryFromOtherThread = query.forCurrentThread();
+                queryFromOtherThread.setParameter(0, getSimpleInteger(2));
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertNotNull(queryFromOtherThread);
+        assertNotSame(queryForThread, queryFromOtherThread);
+        assertSame(queryForThread, query.forCurrentThread());
+        assertSame(queryForThread, queryFromOtherThread.forCurrentThread());
+
+        queryForThread.setParameter(0, getSimpleInteger(0));
+        assertEquals(inserted.get(0).getId(), queryForThread.unique().getId());
+        List<TestEntity> result = queryFromOtherThread.list();
+        assertEquals(1, result.size());
+        assertEquals(inserted.get(2).getId(), result.get(0).getId());
+    }
+
+}
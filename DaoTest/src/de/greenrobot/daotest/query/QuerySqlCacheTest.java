@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.greenrobot.dao.Query;
+import de.greenrobot.dao.QueryBuilder;
+import de.greenrobot.dao.QuerySqlCache;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao.Properties;
+import de.greenrobot.daotest.entity.TestEntityTestBase;
+
+public class QuerySqlCacheTest extends TestEntityTestBase {
+
+    private QuerySqlCache cache;
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        cache = dao.getQuerySqlCache();
+        cache.clear();
+    }
+
+    public void testCacheHitForSameStructure() {
+        ArrayList<TestEntity> inserted = insert(3);
+
+        Query<TestEntity> query1 = dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(1))).build();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        Query<TestEntity> query2 = dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(2))).build();
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        assertEquals(inserted.get(1).getId(), query1.unique().getId());
+        assertEquals(inserted.get(2).getId(), query2.unique().getId());
+    }
+
+    public void testCacheMissForDifferentStructure() {
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).build();
+        dao.queryBuilder().where(Properties.SimpleInteger.gt(1)).build();
+        dao.queryBuilder().where(Properties.SimpleString.eq("1")).build();
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).orderAsc(Properties.SimpleString).build();
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).buildDelete();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+        assertEquals(5, cache.size());
+    }
+
+    public void testCacheHitWithOr() {
+        ArrayList<TestEntity> inserted = insert(5);
+
+        QueryBuilder<TestEntity> queryBuilder = dao.queryBuilder();
+        queryBuilder.whereOr(Properties.SimpleInteger.eq(getSimpleInteger(0)),
+                Properties.SimpleInteger.eq(getSimpleInteger(1)));
+        queryBuilder.orderAsc(Properties.SimpleInteger).build();
+
+        queryBuilder = dao.queryBuilder();
+        queryBuilder.whereOr(Properties.SimpleInteger.eq(getSimpleInteger(3)),
+                Properties.SimpleInteger.eq(getSimpleInteger(4)));
+        List<TestEntity> result = queryBuilder.orderAsc(Properties.SimpleInteger).list();
+        assertEquals(1, cache.getHitCount());
+
+        assertEquals(2, result.size());
+        assertEquals(inserted.get(3).getId(), result.get(0).getId());
+        assertEquals(inserted.get(4).getId(), result.get(1).getId());
+    }
+
+    public void testDeleteWithOr() {
+        insert(5);
+
+        QueryBuilder<TestEntity> queryBuilder = dao.queryBuilder();
+        queryBuilder.whereOr(Properties.SimpleInteger.eq(getSimpleInteger(1)),
+                Properties.SimpleString.eq(getSimpleString(3)));
+        queryBuilder.buildDelete().executeDeleteWithoutDetachingEntities();
+        assertEquals(3, dao.count());
+    }
+
+    public void testMaxSize() {
+        cache.setMaxSize(1);
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).build();
+        dao.queryBuilder().where(Properties.SimpleString.eq("1")).build();
+        assertEquals(1, cache.size());
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).build();
+        assertEquals(0, cache.getHitCount());
+
+        cache.setMaxSize(0);
+        assertEquals(0, cache.size());
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(1)).build();
+        assertEquals(0, cache.size());
+        cache.setMaxSize(QuerySqlCache.DEFAULT_MAX_SIZE);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011 Markus Junginger, greenrobot (http://greenrobot.de)
+ *
+ * This file is part of greenDAO Generator.
+ *
+ * greenDAO Generator is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * greenDAO Generator is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with greenDAO Generator.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.greenrobot.daotest.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.greenrobot.dao.DaoException;
+import de.greenrobot.dao.IdentityScopeLong;
+import de.greenrobot.dao.Property;
+import de.greenrobot.dao.UpdateQuery;
+import de.greenrobot.daotest.TestEntity;
+import de.greenrobot.daotest.TestEntityDao.Properties;
+import de.greenrobot.daotest.entity.TestEntityTestBase;
+
+public class UpdateQueryTest extends TestEntityTestBase {
+
+    @Override
+    protected void setUp() {
+        setIdentityScopeBeforeSetUp(new IdentityScopeLong<TestEntity>());
+        super.setUp();
+    }
+
+    public void testUpdateQuerySimple() {
+        insert(3);
+        int value = getSimpleInteger(1);
+        UpdateQuery<TestEntity> updateQuery = dao.queryBuilder().where(Properties.SimpleInteger.ge(value))
+                .buildUpdate(Properties.SimpleString, "updated");
+        updateQuery.executeUpdateWithoutDetachingEntities();
+
+        clearIdentityScopeIfAny();
+        List<TestEntity> all = dao.queryBuilder().orderAsc(Properties.SimpleInteger).list();
+        assertEquals(3, all.size());
+        assertEquals(getSimpleString(0), all.get(0).getSimpleString());
+        assertEquals("updated", all.get(1).getSimpleString());
+        assertEquals("updated", all.get(2).getSimpleString());
+    }
+
+    public void testUpdateQueryMultipleProperties() {
+        insert(2);
+        Property[] properties = { Properties.SimpleString, Properties.SimpleBoolean, Properties.SimpleInt };
+        Object[] values = { null, true, 42 };
+        UpdateQuery<TestEntity> updateQuery = dao.queryBuilder()
+                .where(Properties.SimpleString.eq(getSimpleString(1))).buildUpdate(properties, values);
+        updateQuery.executeUpdate();
+
+        clearIdentityScopeIfAny();
+        List<TestEntity> all = dao.queryBuilder().orderAsc(Properties.SimpleInteger).list();
+        assertNull(all.get(0).getSimpleBoolean());
+        assertNull(all.get(1).getSimpleString());
+        assertTrue(all.get(1).getSimpleBoolean());
+        assertEquals(42, all.get(1).getSimpleInt());
+    }
+
+    public void testUpdateQueryChangeParameter() {
+        insert(3);
+        UpdateQuery<TestEntity> updateQuery = dao.queryBuilder()
+                .where(Properties.SimpleString.eq(getSimpleString(1))).buildUpdate(Properties.SimpleInteger, 42);
+        updateQuery.executeUpdate();
+        assertEquals(1, dao.queryBuilder().where(Properties.SimpleInteger.eq(42)).list().size());
+
+        updateQuery.setParameter(0, 43);
+        updateQuery.setParameter(1, getSimpleString(2));
+        updateQuery.executeUpdate();
+        assertEquals(1, dao.queryBuilder().where(Properties.SimpleInteger.eq(42)).list().size());
+        assertEquals(1, dao.queryBuilder().where(Properties.SimpleInteger.eq(43)).list().size());
+    }
+
+    public void testUpdateQueryRefreshesIdentityScope() {
+        ArrayList<TestEntity> inserted = insert(3);
+        TestEntity entity = inserted.get(1);
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(1)))
+                .buildUpdate(Properties.SimpleString, "updated").executeUpdate();
+
+        assertEquals("updated", entity.getSimpleString());
+        assertSame(entity, dao.load(entity.getId()));
+        assertEquals(getSimpleString(0), inserted.get(0).getSimpleString());
+    }
+
+    public void testUpdateQueryDetachesEntities() {
+        ArrayList<TestEntity> inserted = insert(3);
+        TestEntity entity = inserted.get(1);
+        dao.queryBuilder().where(Properties.SimpleInteger.eq(getSimpleInteger(1)))
+                .buildUpdate(Properties.SimpleString, "updated").executeUpdateAndDetachEntities();
+
+        assertEquals(getSimpleString(1), entity.getSimpleString());
+        TestEntity reloaded = dao.load(entity.getId());
+        assertNotSame(entity, reloaded);
+        assertEquals("updated", reloaded.getSimpleString());
+        assertSame(inserted.get(0), dao.load(inserted.get(0).getId()));
+    }
+
+    public void testUpdateQueryUpdatingWhereProperty() {
+        ArrayList<TestEntity> inserted = insert(3);
+        dao.queryBuilder().where(Properties.SimpleInteger.gt(getSimpleInteger(0)))
+                .buildUpdate(Properties.SimpleInteger, 0).executeUpdate();
+
+        assertEquals(getSimpleInteger(0), (int) inserted.get(0).getSimpleInteger());
+        assertEquals(0, (int) inserted.get(1).getSimpleInteger());
+        assertEquals(0, (int) inserted.get(2).getSimpleInteger());
+    }
+
+    public void testUpdateQueryRejectsPk() {
+        try {
+            dao.queryBuilder().buildUpdate(Properties.Id, 42l);
+            fail("Should have thrown");
+        } catch (DaoException expected) {
+            // OK
+        }
+    }
+
+}